@@ -0,0 +1,202 @@
+package benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import modelo.AlumnosBD;
+import modelo.AlumnosDAO;
+import modelo.AlumnosHibernate;
+import modelo.Grupo;
+import pool.PoolConexiones;
+
+/**
+ * Utilidades comunes de los benchmarks: crea el modelo pedido sobre H2 en modo
+ * MySQL, vacía las tablas y genera un conjunto de datos reproducible.
+ *
+ * Cada modelo usa su propia base de datos en memoria: 'alumnos24' para
+ * AlumnosBD (db-benchmark.properties) y 'alumnos24_hibernate' para
+ * AlumnosHibernate (hibernate-benchmark.cfg.xml).
+ *
+ * @author Alberto Polo
+ */
+final class BaseDatosEmbebida {
+
+	static final String MODELO_BD = "bd";
+	static final String MODELO_HIBERNATE = "hibernate";
+
+	static final String[] GRUPOS = { "DAM1", "DAM2", "DAW1", "DAW2", "ASIR1" };
+
+	// Debe coincidir con la URL de hibernate-benchmark.cfg.xml
+	private static final String URL_HIBERNATE = "jdbc:h2:mem:alumnos24_hibernate;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+	private static final String CABECERA_TEXTO = "NIA,Nombre,Apellidos,Género,Fecha Nacimiento,Ciclo,Curso,Nombre del Grupo";
+
+	private BaseDatosEmbebida() {
+	}
+
+	/**
+	 * Crea el modelo indicado. En el caso de AlumnosBD crea antes el esquema, que
+	 * en MySQL existe de antemano; Hibernate lo crea con hbm2ddl.
+	 */
+	static AlumnosDAO abrir(String modelo) throws SQLException {
+		switch (modelo) {
+		case MODELO_BD:
+			crearEsquemaBD();
+			return new AlumnosBD();
+		case MODELO_HIBERNATE:
+			return new AlumnosHibernate();
+		default:
+			throw new IllegalArgumentException("Modelo desconocido: " + modelo);
+		}
+	}
+
+	static Connection conexion(String modelo) throws SQLException {
+		return MODELO_BD.equals(modelo) ? PoolConexiones.getConnection()
+				: DriverManager.getConnection(URL_HIBERNATE, "sa", "");
+	}
+
+	private static void crearEsquemaBD() throws SQLException {
+		try (Connection conexion = PoolConexiones.getConnection(); Statement sentencia = conexion.createStatement()) {
+			sentencia.execute("""
+					CREATE TABLE IF NOT EXISTS grupos (
+					    numeroGrupo INT AUTO_INCREMENT PRIMARY KEY,
+					    nombreGrupo VARCHAR(50) NOT NULL UNIQUE
+					)""");
+			sentencia.execute("""
+					CREATE TABLE IF NOT EXISTS alumnos (
+					    nia INT AUTO_INCREMENT PRIMARY KEY,
+					    nombre VARCHAR(50),
+					    apellidos VARCHAR(100),
+					    genero CHAR(1),
+					    fechaNacimiento DATE,
+					    ciclo VARCHAR(20),
+					    curso VARCHAR(20),
+					    numeroGrupo INT,
+					    FOREIGN KEY (numeroGrupo) REFERENCES grupos (numeroGrupo)
+					)""");
+			sentencia.execute("CREATE INDEX IF NOT EXISTS idx_alumnos_apellidos ON alumnos (apellidos, nia)");
+		}
+	}
+
+	/**
+	 * Deja la base de datos con los grupos de {@link #GRUPOS} y 'tamano' alumnos,
+	 * cargados con la importación de texto del propio modelo.
+	 */
+	static void cargar(AlumnosDAO dao, String modelo, int tamano) throws SQLException, IOException {
+		vaciar(dao, modelo, true);
+		for (String nombreGrupo : GRUPOS) {
+			dao.insertarGrupo(new Grupo(nombreGrupo));
+		}
+
+		Path fichero = Path.of("alumnos.txt");
+		generarFicheroTexto(fichero, tamano);
+		try {
+			dao.leerAlumnosDeFicheroTexto();
+		} finally {
+			Files.deleteIfExists(fichero);
+		}
+
+		if (contarAlumnos(modelo) != tamano) {
+			throw new IllegalStateException("No se cargaron los " + tamano + " alumnos del benchmark");
+		}
+	}
+
+	/**
+	 * Borra todos los alumnos y, si se indica, también los grupos.
+	 */
+	static void vaciar(AlumnosDAO dao, String modelo, boolean tambienGrupos) throws SQLException {
+		try (Connection conexion = conexion(modelo); Statement sentencia = conexion.createStatement()) {
+			sentencia.executeUpdate("DELETE FROM alumnos");
+			if (tambienGrupos) {
+				sentencia.executeUpdate("DELETE FROM grupos");
+			}
+		}
+		if (dao instanceof AlumnosBD bd) {
+			bd.invalidarCacheGrupos();
+		} else if (dao instanceof AlumnosHibernate hibernate) {
+			hibernate.invalidarCacheGrupos();
+		}
+	}
+
+	/**
+	 * Borra los alumnos con NIA mayor que el indicado (los insertados por un
+	 * benchmark).
+	 */
+	static void borrarAlumnosPosteriores(String modelo, int nia) throws SQLException {
+		try (Connection conexion = conexion(modelo);
+				PreparedStatement sentencia = conexion.prepareStatement("DELETE FROM alumnos WHERE nia > ?")) {
+			sentencia.setInt(1, nia);
+			sentencia.executeUpdate();
+		}
+	}
+
+	static int contarAlumnos(String modelo) throws SQLException {
+		return consultarEntero(modelo, "SELECT COUNT(*) FROM alumnos");
+	}
+
+	static int niaMinimo(String modelo) throws SQLException {
+		return consultarEntero(modelo, "SELECT COALESCE(MIN(nia), 0) FROM alumnos");
+	}
+
+	static int niaMaximo(String modelo) throws SQLException {
+		return consultarEntero(modelo, "SELECT COALESCE(MAX(nia), 0) FROM alumnos");
+	}
+
+	static List<Grupo> leerGrupos(String modelo) throws SQLException {
+		List<Grupo> grupos = new ArrayList<>();
+		try (Connection conexion = conexion(modelo);
+				Statement sentencia = conexion.createStatement();
+				ResultSet rs = sentencia.executeQuery("SELECT numeroGrupo, nombreGrupo FROM grupos ORDER BY numeroGrupo")) {
+			while (rs.next()) {
+				grupos.add(new Grupo(rs.getInt("numeroGrupo"), rs.getString("nombreGrupo")));
+			}
+		}
+		return grupos;
+	}
+
+	/**
+	 * Escribe un fichero 'alumnos.txt' con 'tamano' alumnos repartidos entre los
+	 * grupos de {@link #GRUPOS}. La semilla es fija para que todas las ejecuciones
+	 * midan los mismos datos.
+	 */
+	static void generarFicheroTexto(Path fichero, int tamano) throws IOException {
+		Random aleatorio = new Random(42);
+		DateTimeFormatter formato = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+		LocalDate fechaBase = LocalDate.of(1995, 1, 1);
+
+		try (BufferedWriter writer = Files.newBufferedWriter(fichero)) {
+			writer.write(CABECERA_TEXTO);
+			writer.newLine();
+			for (int i = 1; i <= tamano; i++) {
+				String grupo = GRUPOS[aleatorio.nextInt(GRUPOS.length)];
+				writer.write(String.format("%d,NOMBRE%d,APELLIDO%d APELLIDO%d,%s,%s,%s,%s,%s", i, i,
+						aleatorio.nextInt(1000), aleatorio.nextInt(1000), aleatorio.nextBoolean() ? "M" : "F",
+						fechaBase.plusDays(aleatorio.nextInt(3650)).format(formato), grupo.substring(0, 3),
+						grupo.substring(grupo.length() - 1), grupo));
+				writer.newLine();
+			}
+		}
+	}
+
+	private static int consultarEntero(String modelo, String sql) throws SQLException {
+		try (Connection conexion = conexion(modelo);
+				Statement sentencia = conexion.createStatement();
+				ResultSet rs = sentencia.executeQuery(sql)) {
+			rs.next();
+			return rs.getInt(1);
+		}
+	}
+}
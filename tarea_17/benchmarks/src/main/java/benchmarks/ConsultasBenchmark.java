@@ -0,0 +1,104 @@
+package benchmarks;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import modelo.Alumno;
+import modelo.Grupo;
+import modelo.PaginaAlumnos;
+
+/**
+ * Operaciones sobre alumnos ya cargados: inserción, búsqueda por NIA, búsqueda
+ * de grupos y listado completo.
+ *
+ * @author Alberto Polo
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Ddb.config=db-benchmark.properties",
+		"-Dhibernate.config=hibernate-benchmark.cfg.xml", "-Dlog4j.configurationFile=log4j2-benchmark.xml" })
+public class ConsultasBenchmark extends EntornoAlumnos {
+
+	private static final int TAMANO_PAGINA = 100;
+
+	private List<Grupo> grupos;
+	private int niaMinimo;
+	private int niaMaximo;
+
+	@Override
+	protected void prepararDatos() throws Exception {
+		grupos = BaseDatosEmbebida.leerGrupos(modelo);
+		niaMinimo = BaseDatosEmbebida.niaMinimo(modelo);
+		niaMaximo = BaseDatosEmbebida.niaMaximo(modelo);
+	}
+
+	// Las inserciones se deshacen tras cada iteración para no cambiar el tamaño
+	@TearDown(Level.Iteration)
+	public void borrarInsertados() throws Exception {
+		BaseDatosEmbebida.borrarAlumnosPosteriores(modelo, niaMaximo);
+	}
+
+	@Benchmark
+	public boolean insertarAlumno() {
+		ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+		Grupo grupo = grupos.get(aleatorio.nextInt(grupos.size()));
+		return dao.insertarAlumno(new Alumno("NUEVO", "APELLIDO NUEVO", 'F', new Date(), "DAM", "1", grupo));
+	}
+
+	@Benchmark
+	public Optional<Alumno> buscarPorNia() {
+		return dao.buscarAlumno(ThreadLocalRandom.current().nextInt(niaMinimo, niaMaximo + 1));
+	}
+
+	// En estado estable lo resuelven las cachés de grupos de cada modelo
+	@Benchmark
+	public Optional<Grupo> buscarGrupo() {
+		return dao.buscarGrupo(grupos.get(ThreadLocalRandom.current().nextInt(grupos.size())).getNombreGrupo());
+	}
+
+	@Benchmark
+	public List<Grupo> listarGrupos() {
+		return dao.listarGrupos();
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public boolean listarTodos() {
+		return dao.mostrarTodosLosAlumnos(true);
+	}
+
+	/**
+	 * Listado completo sin formatear la salida: solo el coste de recorrer las
+	 * páginas.
+	 */
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public int recorrerPaginas() {
+		int alumnos = 0;
+		PaginaAlumnos pagina = dao.obtenerPaginaAlumnos(PaginaAlumnos.INICIO, TAMANO_PAGINA);
+		alumnos += pagina.alumnos().size();
+		while (pagina.hayMas()) {
+			pagina = dao.obtenerPaginaAlumnos(pagina.continuacion(), TAMANO_PAGINA);
+			alumnos += pagina.alumnos().size();
+		}
+		return alumnos;
+	}
+}
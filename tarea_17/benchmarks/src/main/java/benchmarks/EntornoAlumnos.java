@@ -0,0 +1,57 @@
+package benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import modelo.AlumnosDAO;
+
+/**
+ * Estado común de los benchmarks: el modelo a medir y el número de alumnos
+ * con el que se carga la base de datos antes de cada prueba.
+ *
+ * Los modelos escriben por consola; durante la medición la salida estándar se
+ * descarta para no medir el terminal.
+ *
+ * @author Alberto Polo
+ */
+@State(Scope.Benchmark)
+public abstract class EntornoAlumnos {
+
+	@Param({ BaseDatosEmbebida.MODELO_BD, BaseDatosEmbebida.MODELO_HIBERNATE })
+	public String modelo;
+
+	@Param({ "1000", "10000" })
+	public int tamano;
+
+	protected AlumnosDAO dao;
+
+	private PrintStream salidaOriginal;
+
+	@Setup(Level.Trial)
+	public void prepararEntorno() throws Exception {
+		salidaOriginal = System.out;
+		System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+		dao = BaseDatosEmbebida.abrir(modelo);
+		BaseDatosEmbebida.cargar(dao, modelo, tamano);
+		prepararDatos();
+	}
+
+	/**
+	 * Preparación propia de cada benchmark, con los datos ya cargados.
+	 */
+	protected void prepararDatos() throws Exception {
+	}
+
+	@TearDown(Level.Trial)
+	public void cerrarEntorno() {
+		System.setOut(salidaOriginal);
+	}
+}
@@ -0,0 +1,68 @@
+package benchmarks;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import modelo.FormatoJSON;
+
+/**
+ * Exportación de todos los alumnos a 'alumnos.txt' y a JSON, y de todos los
+ * grupos a 'grupos.xml' y a JSON (en el directorio de trabajo).
+ *
+ * @author Alberto Polo
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Ddb.config=db-benchmark.properties",
+		"-Dhibernate.config=hibernate-benchmark.cfg.xml", "-Dlog4j.configurationFile=log4j2-benchmark.xml" })
+public class ExportacionBenchmark extends EntornoAlumnos {
+
+	// AlumnosBD pide confirmación si el fichero ya existe
+	@Setup(Level.Invocation)
+	public void borrarFicheros() {
+		new File("alumnos.txt").delete();
+		new File("grupos.xml").delete();
+	}
+
+	@Benchmark
+	public void guardarTexto() {
+		dao.guardarAlumnosEnFicheroTexto();
+	}
+
+	// La API de datos sobrescribe sin preguntar
+	@Benchmark
+	public long guardarJSON() {
+		return dao.exportarAlumnosJSON(Path.of("alumnos.json"), FormatoJSON.ARRAY);
+	}
+
+	@Benchmark
+	public long guardarNDJSON() {
+		return dao.exportarAlumnosJSON(Path.of("alumnos.ndjson"), FormatoJSON.NDJSON);
+	}
+
+	@Benchmark
+	public boolean guardarXML() {
+		return dao.guardarGruposEnXML();
+	}
+
+	@Benchmark
+	public int guardarGruposJSON() {
+		return dao.exportarGruposJSON(Path.of("grupos.json"), FormatoJSON.ARRAY);
+	}
+}
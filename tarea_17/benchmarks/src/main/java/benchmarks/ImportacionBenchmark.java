@@ -0,0 +1,117 @@
+package benchmarks;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import modelo.FormatoJSON;
+import modelo.OpcionesImportacion;
+
+/**
+ * Importación de 'tamano' alumnos desde texto (secuencial y en paralelo), XML
+ * y JSON (alumnos sueltos en array y NDJSON, y grupos con sus alumnos
+ * anidados). Antes de cada invocación se vacía la tabla de alumnos (los grupos se conservan), de modo
+ * que todas las importaciones parten del mismo estado.
+ *
+ * @author Alberto Polo
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Ddb.config=db-benchmark.properties",
+		"-Dhibernate.config=hibernate-benchmark.cfg.xml", "-Dlog4j.configurationFile=log4j2-benchmark.xml" })
+public class ImportacionBenchmark extends EntornoAlumnos {
+
+	private static final Path FICHERO_TEXTO = Path.of("alumnos.txt");
+	private static final Path FICHERO_XML = Path.of("grupos-benchmark.xml");
+	private static final Path FICHERO_JSON = Path.of("alumnos-benchmark.json");
+	private static final Path FICHERO_NDJSON = Path.of("alumnos-benchmark.ndjson");
+	private static final Path FICHERO_GRUPOS_JSON = Path.of("grupos-benchmark.json");
+
+	// Importación de texto en paralelo: un hilo de análisis y una conexión por
+	// núcleo (el pool del benchmark limita las conexiones)
+	private static final int PARALELISMO = Runtime.getRuntime().availableProcessors();
+	private static final OpcionesImportacion PARALELA = new OpcionesImportacion(PARALELISMO, PARALELISMO,
+			OpcionesImportacion.Orden.LIBRE);
+	private static final OpcionesImportacion PARALELA_EN_ORDEN = new OpcionesImportacion(PARALELISMO, 1,
+			OpcionesImportacion.Orden.FICHERO);
+
+	@Override
+	protected void prepararDatos() throws Exception {
+		BaseDatosEmbebida.generarFicheroTexto(FICHERO_TEXTO, tamano);
+
+		// El XML de entrada es la exportación del propio modelo
+		Files.deleteIfExists(Path.of("grupos.xml"));
+		dao.guardarGruposEnXML();
+		Files.move(Path.of("grupos.xml"), FICHERO_XML, StandardCopyOption.REPLACE_EXISTING);
+
+		dao.exportarAlumnosJSON(FICHERO_JSON, FormatoJSON.ARRAY);
+		dao.exportarAlumnosJSON(FICHERO_NDJSON, FormatoJSON.NDJSON);
+		dao.exportarGruposJSON(FICHERO_GRUPOS_JSON, FormatoJSON.ARRAY);
+	}
+
+	@Setup(Level.Invocation)
+	public void vaciarAlumnos() throws Exception {
+		BaseDatosEmbebida.vaciar(dao, modelo, false);
+	}
+
+	@TearDown(Level.Trial)
+	public void borrarFicheros() throws Exception {
+		Files.deleteIfExists(FICHERO_TEXTO);
+		Files.deleteIfExists(FICHERO_XML);
+		Files.deleteIfExists(FICHERO_JSON);
+		Files.deleteIfExists(FICHERO_NDJSON);
+		Files.deleteIfExists(FICHERO_GRUPOS_JSON);
+	}
+
+	@Benchmark
+	public boolean leerTexto() {
+		return dao.leerAlumnosDeFicheroTexto();
+	}
+
+	@Benchmark
+	public long leerTextoParalelo() {
+		return dao.importarAlumnosTexto(FICHERO_TEXTO, PARALELA).getFilasInsertadas();
+	}
+
+	@Benchmark
+	public long leerTextoParaleloEnOrden() {
+		return dao.importarAlumnosTexto(FICHERO_TEXTO, PARALELA_EN_ORDEN).getFilasInsertadas();
+	}
+
+	@Benchmark
+	public boolean leerXML() {
+		return dao.leerYGuardarGruposXML(FICHERO_XML.toString());
+	}
+
+	@Benchmark
+	public long leerJSON() {
+		return dao.importarAlumnosJSON(FICHERO_JSON).getFilasInsertadas();
+	}
+
+	@Benchmark
+	public long leerNDJSON() {
+		return dao.importarAlumnosJSON(FICHERO_NDJSON).getFilasInsertadas();
+	}
+
+	@Benchmark
+	public long leerGruposJSON() {
+		return dao.importarGruposJSON(FICHERO_GRUPOS_JSON).getFilasInsertadas();
+	}
+}
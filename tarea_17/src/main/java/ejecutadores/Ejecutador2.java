@@ -0,0 +1,17 @@
+package ejecutadores;
+
+import controlador.Controlador;
+import modelo.AlumnosFichero;
+import vista.IVista;
+import vista.VistaConsola;
+
+public class Ejecutador2 {
+
+	public static void main(String[] args) {
+		// Al salir se fuerzan a disco los cambios pendientes y se cierran los ficheros
+		try (AlumnosFichero modelo = new AlumnosFichero()) {
+			IVista vista = new VistaConsola();
+			new Controlador().ejecutar(modelo, vista);
+		}
+	}
+}
@@ -0,0 +1,17 @@
+package ejecutadores;
+
+import controlador.Controlador;
+import modelo.AlumnosFicheroXML;
+import vista.IVista;
+import vista.VistaConsola;
+
+public class Ejecutador3 {
+
+	public static void main(String[] args) {
+		// Al salir se guarda la última instantánea de grupos.xml
+		try (AlumnosFicheroXML modelo = new AlumnosFicheroXML()) {
+			IVista vista = new VistaConsola();
+			new Controlador().ejecutar(modelo, vista);
+		}
+	}
+}
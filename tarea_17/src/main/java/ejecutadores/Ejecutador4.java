@@ -1,21 +1,21 @@
-package ejecutadores;
-
-import controlador.Controlador;
-
-//import modelo.AlumnosBD;
-//import modelo.AlumnosFicheroXML;
-
-import modelo.AlumnosDAO;
-
-import modelo.AlumnosHibernate;
-import vista.IVista;
-import vista.VistaConsola;
-
-public class Ejecutador4 {
-
-	public static void main(String[] args) {
-		AlumnosDAO modelo = new AlumnosHibernate();
-		IVista vista = new VistaConsola();
-		new Controlador().ejecutar(modelo, vista);
-	}
+package ejecutadores;
+
+import controlador.Controlador;
+
+//import modelo.AlumnosBD;
+//import modelo.AlumnosFicheroXML;
+
+import modelo.AlumnosDAO;
+
+import modelo.AlumnosHibernate;
+import vista.IVista;
+import vista.VistaConsola;
+
+public class Ejecutador4 {
+
+	public static void main(String[] args) {
+		AlumnosDAO modelo = new AlumnosHibernate();
+		IVista vista = new VistaConsola();
+		new Controlador().ejecutar(modelo, vista);
+	}
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package ejecutadores;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+import modelo.AlumnosBD;
+import modelo.AlumnosDatos;
+import modelo.AlumnosHibernate;
+import pool.PoolConexiones;
+import servidor.ServidorAlumnos;
+
+/**
+ * Arranca el servidor HTTP/JSON en lugar de la consola. Argumento: 'bd' (por
+ * defecto) o 'hibernate'. Propiedades: 'servidor.puerto' (8080) y
+ * 'servidor.esperaMillis' (5000, espera máxima por una conexión libre).
+ */
+public class Ejecutador5 {
+
+	public static void main(String[] args) throws IOException {
+		boolean hibernate = args.length > 0 && args[0].equalsIgnoreCase("hibernate");
+
+		AlumnosDatos modelo;
+		int conexiones;
+		if (hibernate) {
+			AlumnosHibernate alumnosHibernate = new AlumnosHibernate();
+			modelo = alumnosHibernate;
+			conexiones = alumnosHibernate.getTamanoPool();
+		} else {
+			modelo = new AlumnosBD();
+			conexiones = PoolConexiones.getMetricas().maximo();
+		}
+
+		ServidorAlumnos servidor = new ServidorAlumnos(modelo,
+				new InetSocketAddress("localhost", Integer.getInteger("servidor.puerto", 8080)),
+				Math.max(1, conexiones), Long.getLong("servidor.esperaMillis", 5000));
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			servidor.close();
+			if (!hibernate) {
+				PoolConexiones.cerrarPool();
+			}
+		}));
+		servidor.iniciar();
+
+		System.out.println("✅ Servidor de alumnos (" + (hibernate ? "Hibernate" : "JDBC") + ") en http://localhost:"
+				+ servidor.getPuerto() + "/ con " + Math.max(1, conexiones)
+				+ " conexiones. Ctrl+C para detenerlo.");
+	}
+}
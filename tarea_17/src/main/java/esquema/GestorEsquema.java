@@ -0,0 +1,221 @@
+package esquema;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Migraciones del esquema de alumnos y grupos, que se aplican al arrancar (al
+ * cargar AlumnosBD o AlumnosHibernate). Las versiones ya aplicadas se guardan
+ * en la tabla 'version_esquema', así que cada migración se ejecuta una sola vez
+ * por base de datos; aun así, todos los pasos son idempotentes por si una
+ * migración se cortó a mitad.
+ *
+ * Para cambiar el esquema se añade una migración nueva al final de
+ * {@link #MIGRACIONES}; las existentes no se modifican.
+ *
+ * @author Alberto Polo
+ */
+public final class GestorEsquema {
+
+	private static final Logger loggerGeneral = LogManager.getRootLogger();
+
+	static final String TABLA_VERSIONES = "version_esquema";
+
+	static final List<Migracion> MIGRACIONES = List.of(
+
+			new Migracion(1, "Tablas grupos y alumnos", List.of(Migracion.tabla("grupos", """
+					CREATE TABLE grupos (
+					    numeroGrupo INT AUTO_INCREMENT PRIMARY KEY,
+					    nombreGrupo VARCHAR(50) NOT NULL UNIQUE
+					)"""), Migracion.tabla("alumnos", """
+					CREATE TABLE alumnos (
+					    nia INT AUTO_INCREMENT PRIMARY KEY,
+					    nombre VARCHAR(50),
+					    apellidos VARCHAR(100),
+					    genero CHAR(1),
+					    fechaNacimiento DATE,
+					    ciclo VARCHAR(20),
+					    curso VARCHAR(20),
+					    numeroGrupo INT,
+					    FOREIGN KEY (numeroGrupo) REFERENCES grupos (numeroGrupo)
+					)"""))),
+
+			// Índices de los accesos habituales. Los que terminan en nia sirven a la
+			// paginación por clave (WHERE ... AND nia > ? ORDER BY nia) sin ordenar.
+			new Migracion(2, "Índices de los listados, búsquedas y borrados", List.of(
+					// Búsqueda de grupos por nombre (si no existe ya el UNIQUE)
+					Indice.unico("grupos", "ux_grupos_nombre", "nombreGrupo"),
+					// Alumnos de un grupo: listados y borrados por grupo
+					Indice.de("alumnos", "idx_alumnos_grupo", "numeroGrupo", "nia"),
+					// Borrado por apellidos en tramos de NIA
+					Indice.de("alumnos", "idx_alumnos_apellidos", "apellidos", "nia"),
+					// Listado de NIA y nombre: se resuelve solo con el índice
+					Indice.de("alumnos", "idx_alumnos_nia_nombre", "nia", "nombre"))),
+
+			// Seguimiento de cambios para las exportaciones incrementales: cada fila
+			// guarda la versión del último cambio (0 si es anterior al seguimiento),
+			// las versiones salen de la tabla 'cambios' y los alumnos borrados se
+			// registran en 'alumnos_eliminados'.
+			new Migracion(3, "Seguimiento de cambios de alumnos y grupos", List.of(
+					Migracion.columna("alumnos", "version_cambio",
+							"ALTER TABLE alumnos ADD COLUMN version_cambio BIGINT DEFAULT 0 NOT NULL"),
+					Migracion.columna("grupos", "version_cambio",
+							"ALTER TABLE grupos ADD COLUMN version_cambio BIGINT DEFAULT 0 NOT NULL"),
+					Indice.de("alumnos", "idx_alumnos_cambio", "version_cambio", "nia"),
+					Indice.de("grupos", "idx_grupos_cambio", "version_cambio"),
+					Migracion.tabla("cambios", """
+							CREATE TABLE cambios (
+							    version BIGINT AUTO_INCREMENT PRIMARY KEY,
+							    fecha TIMESTAMP NOT NULL
+							)"""),
+					Migracion.tabla("alumnos_eliminados", """
+							CREATE TABLE alumnos_eliminados (
+							    version_cambio BIGINT NOT NULL,
+							    nia INT NOT NULL,
+							    PRIMARY KEY (version_cambio, nia)
+							)"""),
+					Migracion.tabla("marcas_cambios", """
+							CREATE TABLE marcas_cambios (
+							    nombre VARCHAR(50) PRIMARY KEY,
+							    version BIGINT NOT NULL,
+							    actualizada TIMESTAMP NOT NULL
+							)"""))),
+
+			// Versiones abiertas en 'cambios', compartidas por todos los procesos que
+			// escriben: la marca segura de las exportaciones queda por debajo de la
+			// menor. La tabla siempre conserva una fila, que se bloquea al repartir
+			// versiones para que se confirmen en orden.
+			new Migracion(4, "Versiones de cambio abiertas", List.of(
+					Migracion.columna("cambios", "abierta",
+							"ALTER TABLE cambios ADD COLUMN abierta BOOLEAN DEFAULT FALSE NOT NULL"),
+					Indice.de("cambios", "idx_cambios_abiertas", "abierta", "version"),
+					GestorEsquema::continuarVersionesDeCambio)));
+
+	private GestorEsquema() {
+	}
+
+	/**
+	 * Aplica, en orden, las migraciones que no constan en la tabla de versiones
+	 * (que se crea si no existe).
+	 *
+	 * @return Número de migraciones aplicadas.
+	 */
+	public static int actualizar(Connection conexion) throws SQLException {
+		Migracion.tabla(TABLA_VERSIONES, """
+				CREATE TABLE version_esquema (
+				    version INT PRIMARY KEY,
+				    descripcion VARCHAR(200) NOT NULL,
+				    aplicada TIMESTAMP NOT NULL
+				)""").aplicar(conexion);
+
+		Set<Integer> aplicadas = versionesAplicadas(conexion);
+		int nuevas = 0;
+		for (Migracion migracion : MIGRACIONES) {
+			if (aplicadas.contains(migracion.version())) {
+				continue;
+			}
+
+			int cambios = 0;
+			for (Migracion.Paso paso : migracion.pasos()) {
+				if (paso.aplicar(conexion)) {
+					cambios++;
+				}
+			}
+			registrar(conexion, migracion);
+			nuevas++;
+			loggerGeneral.info("Esquema: migración {} ({}) aplicada, {} de {} pasos con cambios.", migracion.version(),
+					migracion.descripcion(), cambios, migracion.pasos().size());
+		}
+
+		if (nuevas == 0) {
+			loggerGeneral.debug("Esquema al día (versión {}).", versionActual());
+		}
+		return nuevas;
+	}
+
+	/**
+	 * @return La versión de la última migración definida.
+	 */
+	public static int versionActual() {
+		return MIGRACIONES.get(MIGRACIONES.size() - 1).version();
+	}
+
+	/**
+	 * Lleva la tabla 'cambios' al menos hasta la mayor versión que ya tengan las
+	 * filas, las bajas y las marcas (versiones que no salieron de la tabla), y le
+	 * deja una fila si está vacía.
+	 */
+	private static boolean continuarVersionesDeCambio(Connection conexion) throws SQLException {
+		long maxima = 0;
+		long ultimaCambios;
+		try (Statement sentencia = conexion.createStatement()) {
+			for (String consulta : new String[] { "SELECT MAX(version_cambio) FROM alumnos",
+					"SELECT MAX(version_cambio) FROM grupos", "SELECT MAX(version_cambio) FROM alumnos_eliminados",
+					"SELECT MAX(version) FROM marcas_cambios" }) {
+				try (ResultSet rs = sentencia.executeQuery(consulta)) {
+					rs.next();
+					maxima = Math.max(maxima, rs.getLong(1));
+				}
+			}
+			try (ResultSet rs = sentencia.executeQuery("SELECT MAX(version) FROM cambios")) {
+				rs.next();
+				ultimaCambios = rs.getLong(1);
+				if (rs.wasNull()) {
+					ultimaCambios = -1;
+				}
+			}
+		}
+
+		String sql;
+		if (maxima > 0 && maxima > ultimaCambios) {
+			sql = "INSERT INTO cambios (version, fecha, abierta) VALUES (" + maxima + ", CURRENT_TIMESTAMP, FALSE)";
+		} else if (ultimaCambios < 0) {
+			sql = "INSERT INTO cambios (fecha, abierta) VALUES (CURRENT_TIMESTAMP, FALSE)";
+		} else {
+			return false;
+		}
+		try (Statement sentencia = conexion.createStatement()) {
+			sentencia.executeUpdate(sql);
+		}
+		if (!conexion.getAutoCommit()) {
+			conexion.commit();
+		}
+		return true;
+	}
+
+	private static Set<Integer> versionesAplicadas(Connection conexion) throws SQLException {
+		Set<Integer> versiones = new HashSet<>();
+		try (Statement sentencia = conexion.createStatement();
+				ResultSet rs = sentencia.executeQuery("SELECT version FROM " + TABLA_VERSIONES)) {
+			while (rs.next()) {
+				versiones.add(rs.getInt(1));
+			}
+		}
+		return versiones;
+	}
+
+	private static void registrar(Connection conexion, Migracion migracion) throws SQLException {
+		try (PreparedStatement sentencia = conexion.prepareStatement(
+				"INSERT INTO " + TABLA_VERSIONES + " (version, descripcion, aplicada) VALUES (?, ?, CURRENT_TIMESTAMP)")) {
+			sentencia.setInt(1, migracion.version());
+			sentencia.setString(2, migracion.descripcion());
+			sentencia.executeUpdate();
+		} catch (SQLIntegrityConstraintViolationException e) {
+			// Otro proceso la ha aplicado a la vez (los pasos son idempotentes)
+			loggerGeneral.info("Esquema: la migración {} ya la ha registrado otro proceso.", migracion.version());
+		}
+		if (!conexion.getAutoCommit()) {
+			conexion.commit();
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package esquema;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Paso de migración que garantiza un índice sobre unas columnas, en ese orden.
+ *
+ * - Si ya hay un índice (con cualquier nombre) sobre las mismas columnas, no se
+ * hace nada: por ejemplo, el UNIQUE de una columna o el índice que crea
+ * Hibernate desde las anotaciones de la entidad.
+ *
+ * - Si hay un índice con este nombre pero con otras columnas (una versión
+ * anterior), se borra y se vuelve a crear.
+ *
+ * @param tabla    Tabla del índice.
+ * @param nombre   Nombre del índice.
+ * @param unico    Si el índice debe ser UNIQUE.
+ * @param columnas Columnas, en orden.
+ *
+ * @author Alberto Polo
+ */
+public record Indice(String tabla, String nombre, boolean unico, List<String> columnas) implements Migracion.Paso {
+
+	private static final Logger loggerGeneral = LogManager.getRootLogger();
+
+	public Indice {
+		columnas = columnas.stream().map(columna -> columna.toLowerCase(Locale.ROOT)).toList();
+	}
+
+	public static Indice de(String tabla, String nombre, String... columnas) {
+		return new Indice(tabla, nombre, false, List.of(columnas));
+	}
+
+	public static Indice unico(String tabla, String nombre, String... columnas) {
+		return new Indice(tabla, nombre, true, List.of(columnas));
+	}
+
+	@Override
+	public boolean aplicar(Connection conexion) throws SQLException {
+		Map<String, List<String>> columnasPorIndice = new LinkedHashMap<>();
+		Set<String> unicos = new HashSet<>();
+		leerIndices(conexion, columnasPorIndice, unicos);
+
+		List<String> actuales = columnasPorIndice.get(nombre.toLowerCase(Locale.ROOT));
+		if (actuales != null) {
+			if (actuales.equals(columnas) && (!unico || unicos.contains(nombre.toLowerCase(Locale.ROOT)))) {
+				return false;
+			}
+			// Versión anterior del índice con otras columnas
+			ejecutar(conexion, "DROP INDEX " + nombre + " ON " + tabla);
+			columnasPorIndice.remove(nombre.toLowerCase(Locale.ROOT));
+			loggerGeneral.info("Índice {} de {} con columnas {} eliminado para recrearlo con {}.", nombre, tabla,
+					actuales, columnas);
+		}
+
+		for (Map.Entry<String, List<String>> indice : columnasPorIndice.entrySet()) {
+			if (indice.getValue().equals(columnas) && (!unico || unicos.contains(indice.getKey()))) {
+				loggerGeneral.info("Índice {} de {} no creado: ya existe {} sobre {}.", nombre, tabla, indice.getKey(),
+						columnas);
+				return false;
+			}
+		}
+
+		ejecutar(conexion, "CREATE " + (unico ? "UNIQUE " : "") + "INDEX " + nombre + " ON " + tabla + " ("
+				+ String.join(", ", columnas) + ")");
+		loggerGeneral.info("Índice {} creado en {} {}.", nombre, tabla, columnas);
+		return true;
+	}
+
+	/**
+	 * Lee los índices de la tabla desde los metadatos JDBC: columnas en orden
+	 * (en minúsculas) por nombre de índice (en minúsculas) y los que son únicos.
+	 */
+	private void leerIndices(Connection conexion, Map<String, List<String>> columnasPorIndice, Set<String> unicos)
+			throws SQLException {
+		DatabaseMetaData metadatos = conexion.getMetaData();
+		Map<String, Map<Short, String>> posiciones = new LinkedHashMap<>();
+		try (ResultSet rs = metadatos.getIndexInfo(conexion.getCatalog(), null,
+				Migracion.comoEnMetadatos(metadatos, tabla), false, false)) {
+			while (rs.next()) {
+				String indice = rs.getString("INDEX_NAME");
+				String columna = rs.getString("COLUMN_NAME");
+				if (indice == null || columna == null) {
+					continue; // Estadísticas de la tabla
+				}
+				indice = indice.toLowerCase(Locale.ROOT);
+				posiciones.computeIfAbsent(indice, clave -> new TreeMap<>())
+						.put(rs.getShort("ORDINAL_POSITION"), columna.toLowerCase(Locale.ROOT));
+				if (!rs.getBoolean("NON_UNIQUE")) {
+					unicos.add(indice);
+				}
+			}
+		}
+		posiciones.forEach((indice, columnasOrdenadas) -> columnasPorIndice.put(indice,
+				new ArrayList<>(columnasOrdenadas.values())));
+	}
+
+	private static void ejecutar(Connection conexion, String sql) throws SQLException {
+		try (Statement sentencia = conexion.createStatement()) {
+			sentencia.execute(sql);
+		}
+	}
+}
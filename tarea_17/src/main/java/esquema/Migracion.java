@@ -0,0 +1,97 @@
+package esquema;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Una versión del esquema: los pasos que llevan la base de datos de la versión
+ * anterior a esta. Los pasos deben ser idempotentes (comprobar antes de
+ * crear), porque en MySQL cada sentencia DDL confirma por su cuenta: si la
+ * migración se corta a mitad, se vuelve a ejecutar entera en el siguiente
+ * arranque.
+ *
+ * @param version     Número de versión (creciente y sin repetir).
+ * @param descripcion Descripción que se guarda en la tabla de versiones.
+ * @param pasos       Pasos, en el orden en que se aplican.
+ *
+ * @author Alberto Polo
+ */
+public record Migracion(int version, String descripcion, List<Migracion.Paso> pasos) {
+
+	@FunctionalInterface
+	public interface Paso {
+
+		/**
+		 * Aplica el paso si hace falta.
+		 *
+		 * @return true si ha cambiado algo en la base de datos.
+		 */
+		boolean aplicar(Connection conexion) throws SQLException;
+	}
+
+	/**
+	 * Paso que crea la tabla con la sentencia indicada si todavía no existe.
+	 */
+	public static Paso tabla(String nombre, String sqlCrear) {
+		return conexion -> {
+			if (existeTabla(conexion, nombre)) {
+				return false;
+			}
+			try (Statement sentencia = conexion.createStatement()) {
+				sentencia.execute(sqlCrear);
+			}
+			return true;
+		};
+	}
+
+	/**
+	 * Paso que añade la columna a la tabla con la sentencia indicada si todavía no
+	 * existe.
+	 */
+	public static Paso columna(String tabla, String nombre, String sqlAnadir) {
+		return conexion -> {
+			if (existeColumna(conexion, tabla, nombre)) {
+				return false;
+			}
+			try (Statement sentencia = conexion.createStatement()) {
+				sentencia.execute(sqlAnadir);
+			}
+			return true;
+		};
+	}
+
+	static boolean existeTabla(Connection conexion, String nombre) throws SQLException {
+		DatabaseMetaData metadatos = conexion.getMetaData();
+		try (ResultSet rs = metadatos.getTables(conexion.getCatalog(), null, comoEnMetadatos(metadatos, nombre),
+				new String[] { "TABLE" })) {
+			return rs.next();
+		}
+	}
+
+	static boolean existeColumna(Connection conexion, String tabla, String nombre) throws SQLException {
+		DatabaseMetaData metadatos = conexion.getMetaData();
+		try (ResultSet rs = metadatos.getColumns(conexion.getCatalog(), null, comoEnMetadatos(metadatos, tabla),
+				comoEnMetadatos(metadatos, nombre))) {
+			return rs.next();
+		}
+	}
+
+	/**
+	 * Los nombres sin comillas se guardan en mayúsculas o minúsculas según la
+	 * base de datos (H2 y MySQL difieren); los metadatos hay que pedirlos así.
+	 */
+	static String comoEnMetadatos(DatabaseMetaData metadatos, String nombre) throws SQLException {
+		if (metadatos.storesUpperCaseIdentifiers()) {
+			return nombre.toUpperCase(Locale.ROOT);
+		}
+		if (metadatos.storesLowerCaseIdentifiers()) {
+			return nombre.toLowerCase(Locale.ROOT);
+		}
+		return nombre;
+	}
+}
@@ -0,0 +1,21 @@
+package modelo;
+
+/**
+ * Error del origen de datos (base de datos o fichero) en la API de
+ * {@link AlumnosDatos}. Es una excepción no comprobada: quien use la API decide
+ * si la trata o la deja subir.
+ *
+ * @author Alberto Polo
+ */
+public class AccesoDatosException extends RuntimeException {
+
+	private static final long serialVersionUID = 4460118620351487113L;
+
+	public AccesoDatosException(String mensaje) {
+		super(mensaje);
+	}
+
+	public AccesoDatosException(String mensaje, Throwable causa) {
+		super(mensaje, causa);
+	}
+}
@@ -0,0 +1,263 @@
+package modelo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fichero de registros de tamaño fijo proyectado en memoria
+ * (FileChannel.map). Cada registro ocupa un hueco; el hueco i empieza en
+ * (i + 1) * tamanoRegistro, porque el primero guarda la cabecera. Con tamaños
+ * que dividen a 4096, ningún registro cruza una página.
+ *
+ * El primer byte de cada hueco indica si está ocupado. Al abrir el fichero se
+ * recorren los huecos una vez: los libres forman la lista de huecos
+ * reutilizables, así que la lista no se guarda en disco y no puede quedar
+ * inconsistente tras un corte. Los identificadores se reparten con un contador
+ * atómico, sin bloqueos.
+ *
+ * No es seguro para varios hilos salvo {@link #nuevoId()}: quien lo use debe
+ * coordinar las lecturas y escrituras de los registros.
+ *
+ * @author Alberto Polo
+ */
+final class AlmacenRegistros implements Closeable {
+
+	private static final int VERSION = 1;
+
+	// Cabecera: marca, versión, tamaño de registro, huecos usados, siguiente id
+	private static final int POS_MARCA = 0;
+	private static final int POS_VERSION = 4;
+	private static final int POS_TAMANO = 8;
+	private static final int POS_HUECOS = 12;
+	private static final int POS_SIGUIENTE_ID = 16;
+
+	private static final byte LIBRE = 0;
+	private static final byte OCUPADO = 1;
+
+	// Huecos que se añaden al proyectar un fichero vacío
+	private static final int HUECOS_INICIALES = 1024;
+
+	private final Path fichero;
+	private final FileChannel canal;
+	private final int tamanoRegistro;
+
+	private MappedByteBuffer mapa;
+	private int capacidad;
+	private int huecos;
+
+	private final ArrayDeque<Integer> huecosLibres = new ArrayDeque<>();
+	private final AtomicInteger siguienteId;
+
+	/**
+	 * Abre (o crea) el fichero.
+	 *
+	 * @param marca          Identifica el tipo de fichero; se comprueba al abrir.
+	 * @param tamanoRegistro Bytes por registro (potencia de 2 entre 64 y 4096).
+	 * @throws IOException Si el fichero no se puede abrir o no es de este tipo.
+	 */
+	AlmacenRegistros(Path fichero, int marca, int tamanoRegistro) throws IOException {
+		this.fichero = fichero;
+		this.tamanoRegistro = tamanoRegistro;
+		this.canal = FileChannel.open(fichero, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+
+		try {
+			long bytes = canal.size();
+			if (bytes == 0) {
+				proyectar(HUECOS_INICIALES);
+				mapa.putInt(POS_MARCA, marca);
+				mapa.putInt(POS_VERSION, VERSION);
+				mapa.putInt(POS_TAMANO, tamanoRegistro);
+				mapa.putInt(POS_HUECOS, 0);
+				mapa.putInt(POS_SIGUIENTE_ID, 1);
+				mapa.force();
+			} else {
+				proyectar((int) Math.max(HUECOS_INICIALES, bytes / tamanoRegistro - 1));
+				if (mapa.getInt(POS_MARCA) != marca || mapa.getInt(POS_VERSION) != VERSION
+						|| mapa.getInt(POS_TAMANO) != tamanoRegistro) {
+					throw new IOException("El fichero '" + fichero + "' no tiene el formato esperado.");
+				}
+			}
+
+			huecos = Math.min(mapa.getInt(POS_HUECOS), capacidad);
+			siguienteId = new AtomicInteger(Math.max(1, mapa.getInt(POS_SIGUIENTE_ID)));
+
+			for (int hueco = huecos - 1; hueco >= 0; hueco--) {
+				if (!ocupado(hueco)) {
+					huecosLibres.push(hueco);
+				}
+			}
+		} catch (IOException | RuntimeException e) {
+			canal.close();
+			throw e;
+		}
+	}
+
+	// IDENTIFICADORES:
+
+	/**
+	 * Reserva un identificador nuevo. Es atómico y no bloquea, así que se puede
+	 * llamar desde varios hilos a la vez.
+	 */
+	int nuevoId() {
+		return siguienteId.getAndIncrement();
+	}
+
+	/**
+	 * Garantiza que los identificadores nuevos sean mayores que 'id' (para
+	 * ficheros en los que el contador quedó por detrás de los registros).
+	 */
+	void reservarIdsHasta(int id) {
+		siguienteId.accumulateAndGet(id + 1, Math::max);
+	}
+
+	// HUECOS:
+
+	/**
+	 * @return Número de huecos usados alguna vez (ocupados o libres). Los
+	 *         recorridos van de 0 a huecos() - 1.
+	 */
+	int huecos() {
+		return huecos;
+	}
+
+	int huecosOcupados() {
+		return huecos - huecosLibres.size();
+	}
+
+	boolean ocupado(int hueco) {
+		return mapa.get(posicion(hueco)) == OCUPADO;
+	}
+
+	/**
+	 * Reserva un hueco (reutilizando uno libre si lo hay) y lo marca como
+	 * ocupado. El contenido anterior no se borra.
+	 */
+	int reservar() throws IOException {
+		prepararHueco();
+		Integer libre = huecosLibres.poll();
+		int hueco = libre != null ? libre : huecos++;
+		mapa.put(posicion(hueco), OCUPADO);
+		return hueco;
+	}
+
+	/**
+	 * Amplía el fichero si el siguiente {@link #reservar()} lo necesita, para
+	 * que después ya no pueda fallar (por ejemplo, antes de anotar un alta en el
+	 * diario).
+	 */
+	void prepararHueco() throws IOException {
+		if (huecosLibres.isEmpty() && huecos == capacidad) {
+			if (capacidad >= Integer.MAX_VALUE / 2 / tamanoRegistro) {
+				throw new IOException("El fichero '" + fichero + "' ha alcanzado su tamaño máximo.");
+			}
+			proyectar(capacidad * 2);
+		}
+	}
+
+	void liberar(int hueco) {
+		mapa.put(posicion(hueco), LIBRE);
+		huecosLibres.push(hueco);
+	}
+
+	/**
+	 * Vista del registro del hueco indicado: posición 0 al principio del registro
+	 * y límite al final. El byte 0 es el de ocupado; los datos empiezan en el 1.
+	 * Solo se usan accesos absolutos, así que varias vistas pueden leer a la vez.
+	 */
+	ByteBuffer registro(int hueco) {
+		return mapa.slice(posicion(hueco), tamanoRegistro);
+	}
+
+	// CAMPOS DE TEXTO:
+
+	/**
+	 * Bytes que ocupa un campo de texto de hasta 'longitudMaxima' caracteres.
+	 */
+	static int bytesTexto(int longitudMaxima) {
+		return 2 + 2 * longitudMaxima;
+	}
+
+	/**
+	 * Escribe un texto como su longitud (-1 si es null) seguida de sus caracteres
+	 * UTF-16.
+	 *
+	 * @throws IllegalArgumentException Si el texto no cabe en el campo.
+	 */
+	static void escribirTexto(ByteBuffer registro, int posicion, String texto, int longitudMaxima, String campo) {
+		comprobarTexto(texto, longitudMaxima, campo);
+		if (texto == null) {
+			registro.putShort(posicion, (short) -1);
+			return;
+		}
+		registro.putShort(posicion, (short) texto.length());
+		for (int i = 0; i < texto.length(); i++) {
+			registro.putChar(posicion + 2 + 2 * i, texto.charAt(i));
+		}
+	}
+
+	/**
+	 * @throws IllegalArgumentException Si el texto no cabe en el campo.
+	 */
+	static void comprobarTexto(String texto, int longitudMaxima, String campo) {
+		if (texto != null && texto.length() > longitudMaxima) {
+			throw new IllegalArgumentException(
+					"El campo '" + campo + "' admite como máximo " + longitudMaxima + " caracteres: " + texto);
+		}
+	}
+
+	static String leerTexto(ByteBuffer registro, int posicion) {
+		int longitud = registro.getShort(posicion);
+		if (longitud < 0) {
+			return null;
+		}
+		char[] caracteres = new char[longitud];
+		for (int i = 0; i < longitud; i++) {
+			caracteres[i] = registro.getChar(posicion + 2 + 2 * i);
+		}
+		return new String(caracteres);
+	}
+
+	// PERSISTENCIA:
+
+	/**
+	 * Escribe la cabecera y fuerza a disco las páginas modificadas (fsync).
+	 */
+	void confirmar() {
+		mapa.putInt(POS_HUECOS, huecos);
+		mapa.putInt(POS_SIGUIENTE_ID, siguienteId.get());
+		mapa.force();
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			confirmar();
+		} finally {
+			canal.close();
+		}
+	}
+
+	// PROYECCIÓN:
+
+	private int posicion(int hueco) {
+		return (hueco + 1) * tamanoRegistro;
+	}
+
+	/**
+	 * Proyecta el fichero con espacio para 'capacidad' huecos (lo alarga si hace
+	 * falta). La proyección anterior sigue siendo válida hasta que el recolector
+	 * la libere.
+	 */
+	private void proyectar(int nuevaCapacidad) throws IOException {
+		mapa = canal.map(FileChannel.MapMode.READ_WRITE, 0, (long) (nuevaCapacidad + 1) * tamanoRegistro);
+		capacidad = nuevaCapacidad;
+	}
+}
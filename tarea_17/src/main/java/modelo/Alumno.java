@@ -1,135 +1,146 @@
-package modelo;
-
-import java.io.Serializable;
-import java.util.Date;
-
-import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
-import jakarta.persistence.Id;
-import jakarta.persistence.JoinColumn;
-import jakarta.persistence.ManyToOne;
-import jakarta.persistence.Table;
-import jakarta.persistence.Temporal;
-import jakarta.persistence.TemporalType;
-
-@Entity
-@Table(name = "alumnos")
-
-public class Alumno implements Serializable {
-
-	private static final long serialVersionUID = -1773328651409080184L;
-
-	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY) // El nia es autoincremental
-
-	private int nia = 0;
-	private String nombre;
-	private String apellidos;
-	private char genero = 'S';
-
-	@Temporal(TemporalType.DATE)
-	private Date fechaNacimiento;
-
-	private String ciclo;
-	private String curso;
-
-	@ManyToOne
-	@JoinColumn(name = "numeroGrupo", nullable = false)
-	private Grupo grupo;
-
-	// Constructores de la clase Alumno:
-
-	public Alumno() {
-
-	}
-
-	public Alumno(int nia, String nombre, String apellidos, char genero, Date fechaNacimiento, String ciclo,
-			String curso, Grupo grupo) {
-		this.nia = nia;
-		this.nombre = nombre;
-		this.apellidos = apellidos;
-		this.genero = genero;
-		this.fechaNacimiento = fechaNacimiento;
-		this.ciclo = ciclo;
-		this.curso = curso;
-		this.grupo = grupo;
-	}
-
-	public Alumno(String nombre, String apellidos, char genero, Date fechaNacimiento, String ciclo, String curso,
-			Grupo grupo) {
-		this.nombre = nombre;
-		this.apellidos = apellidos;
-		this.genero = genero;
-		this.fechaNacimiento = fechaNacimiento;
-		this.ciclo = ciclo;
-		this.curso = curso;
-		this.grupo = grupo;
-	}
-
-	// Getters & Setters:
-
-	public int getNia() {
-		return nia;
-	}
-
-	public void setNia(int nia) {
-		this.nia = nia;
-	}
-
-	public String getNombre() {
-		return nombre;
-	}
-
-	public void setNombre(String nombre) {
-		this.nombre = nombre;
-	}
-
-	public String getApellidos() {
-		return apellidos;
-	}
-
-	public void setApellidos(String apellidos) {
-		this.apellidos = apellidos;
-	}
-
-	public char getGenero() {
-		return genero;
-	}
-
-	public void setGenero(char genero) {
-		this.genero = genero;
-	}
-
-	public Date getFechaNacimiento() {
-		return fechaNacimiento;
-	}
-
-	public void setFechaNacimiento(Date fechaNacimiento) {
-		this.fechaNacimiento = fechaNacimiento;
-	}
-
-	public String getCiclo() {
-		return ciclo;
-	}
-
-	public void setCiclo(String ciclo) {
-		this.ciclo = ciclo;
-	}
-
-	public String getCurso() {
-		return curso;
-	}
-
-	public void setCurso(String curso) {
-		this.curso = curso;
-	}
-
-	public Grupo getGrupo() {
-		return grupo;
-	}
-
-	public void setGrupo(Grupo grupo) {
-		this.grupo = grupo;
-	}
-}
+package modelo;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+
+@Entity
+// El índice por apellidos (con el NIA detrás) permite borrar por apellidos en
+// tramos ordenados por NIA recorriendo solo las filas de cada tramo
+@Table(name = "alumnos", indexes = @Index(name = "idx_alumnos_apellidos", columnList = "apellidos, nia"))
+
+public class Alumno implements Serializable {
+
+	private static final long serialVersionUID = -1773328651409080184L;
+
+	@Id
+	// El nia se reserva por bloques en la tabla 'generador_ids'. A diferencia de
+	// IDENTITY, permite a Hibernate agrupar los INSERT en lotes JDBC.
+	@GeneratedValue(strategy = GenerationType.TABLE, generator = "generadorNia")
+	@TableGenerator(name = "generadorNia", table = "generador_ids", pkColumnName = "entidad",
+			valueColumnName = "siguienteValor", pkColumnValue = "alumnos", allocationSize = 50)
+
+	private int nia = 0;
+	private String nombre;
+	private String apellidos;
+	private char genero = 'S';
+
+	@Temporal(TemporalType.DATE)
+	private Date fechaNacimiento;
+
+	private String ciclo;
+	private String curso;
+
+	// Perezosa: los listados de NIA y nombre no necesitan el grupo, y las consultas
+	// que sí lo usan lo cargan con JOIN FETCH en la misma sentencia
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "numeroGrupo", nullable = false)
+	private Grupo grupo;
+
+	// Constructores de la clase Alumno:
+
+	public Alumno() {
+
+	}
+
+	public Alumno(int nia, String nombre, String apellidos, char genero, Date fechaNacimiento, String ciclo,
+			String curso, Grupo grupo) {
+		this.nia = nia;
+		this.nombre = nombre;
+		this.apellidos = apellidos;
+		this.genero = genero;
+		this.fechaNacimiento = fechaNacimiento;
+		this.ciclo = ciclo;
+		this.curso = curso;
+		this.grupo = grupo;
+	}
+
+	public Alumno(String nombre, String apellidos, char genero, Date fechaNacimiento, String ciclo, String curso,
+			Grupo grupo) {
+		this.nombre = nombre;
+		this.apellidos = apellidos;
+		this.genero = genero;
+		this.fechaNacimiento = fechaNacimiento;
+		this.ciclo = ciclo;
+		this.curso = curso;
+		this.grupo = grupo;
+	}
+
+	// Getters & Setters:
+
+	public int getNia() {
+		return nia;
+	}
+
+	public void setNia(int nia) {
+		this.nia = nia;
+	}
+
+	public String getNombre() {
+		return nombre;
+	}
+
+	public void setNombre(String nombre) {
+		this.nombre = nombre;
+	}
+
+	public String getApellidos() {
+		return apellidos;
+	}
+
+	public void setApellidos(String apellidos) {
+		this.apellidos = apellidos;
+	}
+
+	public char getGenero() {
+		return genero;
+	}
+
+	public void setGenero(char genero) {
+		this.genero = genero;
+	}
+
+	public Date getFechaNacimiento() {
+		return fechaNacimiento;
+	}
+
+	public void setFechaNacimiento(Date fechaNacimiento) {
+		this.fechaNacimiento = fechaNacimiento;
+	}
+
+	public String getCiclo() {
+		return ciclo;
+	}
+
+	public void setCiclo(String ciclo) {
+		this.ciclo = ciclo;
+	}
+
+	public String getCurso() {
+		return curso;
+	}
+
+	public void setCurso(String curso) {
+		this.curso = curso;
+	}
+
+	public Grupo getGrupo() {
+		return grupo;
+	}
+
+	public void setGrupo(Grupo grupo) {
+		this.grupo = grupo;
+	}
+}
@@ -0,0 +1,806 @@
+package modelo;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Scanner;
+import java.util.stream.Stream;
+
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Parte común de los modelos que guardan los datos en ficheros locales, sin
+ * base de datos. Las subclases implementan el acceso a los datos de
+ * {@link AlumnosDatos}; aquí se construyen sobre él las operaciones
+ * interactivas de la consola y las exportaciones e importaciones de ficheros,
+ * con los mismos formatos que {@link AlumnosBD} y {@link AlumnosHibernate}.
+ *
+ * @author Alberto Polo
+ */
+abstract class AlumnosAlmacenLocal implements AlumnosDAO {
+
+	private static final Scanner sc = new Scanner(System.in);
+
+	// Alumnos entre dos confirmaciones en las importaciones
+	static final int TAMANO_LOTE = 1000;
+
+	// Alumnos por página en los listados y exportaciones
+	private static final int TAMANO_PAGINA = 100;
+
+	/**
+	 * Inserta el alumno en el grupo (que ya existe) sin hacer duradero el cambio.
+	 *
+	 * @return El NIA asignado.
+	 * @throws IllegalArgumentException Si algún campo no cabe en el almacén (las
+	 *                                  importaciones rechazan la línea).
+	 */
+	abstract int insertarSinConfirmar(Alumno alumno, Grupo grupo);
+
+	/**
+	 * Hace duraderos los cambios hechos hasta ahora.
+	 */
+	abstract void confirmar();
+
+	// Los grupos de los índices no salen del modelo: se devuelven copias
+	static Grupo copiar(Grupo grupo) {
+		return new Grupo(grupo.getNumeroGrupo(), grupo.getNombreGrupo());
+	}
+
+	// ALUMNOS:
+
+	/**
+	 * Inserta el alumno en el grupo con el nombre de alumno.getGrupo(). Como en
+	 * las importaciones, la fecha de nacimiento es obligatoria: los ficheros que
+	 * se generan no podrían volver a leerse sin ella.
+	 *
+	 * @return El NIA asignado.
+	 * @throws AccesoDatosException Si algún campo no cabe en el almacén o no se
+	 *                              puede escribir.
+	 */
+	@Override
+	public int crearAlumno(Alumno alumno) {
+		if (alumno.getFechaNacimiento() == null) {
+			throw new IllegalArgumentException("La fecha de nacimiento es obligatoria.");
+		}
+
+		String nombreGrupo = alumno.getGrupo() == null ? null : alumno.getGrupo().getNombreGrupo();
+		Grupo grupo = nombreGrupo == null ? null : buscarGrupo(nombreGrupo).orElse(null);
+		if (grupo == null) {
+			throw new IllegalArgumentException("El grupo '" + nombreGrupo + "' no existe.");
+		}
+
+		int nia;
+		try {
+			nia = insertarSinConfirmar(alumno, grupo);
+		} catch (IllegalArgumentException e) {
+			throw new AccesoDatosException("Error al insertar el alumno: " + e.getMessage(), e);
+		}
+		confirmar();
+		return nia;
+	}
+
+	@Override
+	public boolean insertarAlumno(Alumno alumno) {
+		try {
+			crearAlumno(alumno);
+			System.out.println("✅ Alumno insertado con NIA " + alumno.getNia() + ".");
+			return true;
+		} catch (IllegalArgumentException | AccesoDatosException e) {
+			System.out.println("❌ Error al insertar el alumno: " + e.getMessage());
+			return false;
+		}
+	}
+
+	@Override
+	public Alumno solicitarDatosAlumno() {
+		System.out.println("Introduce el nombre del alumno:");
+		String nombre = sc.nextLine().toUpperCase().trim();
+
+		System.out.println("Introduce los apellidos:");
+		String apellidos = sc.nextLine().toUpperCase().trim();
+
+		System.out.println("Introduce el género (M/F):");
+		String textoGenero = sc.nextLine().toUpperCase().trim();
+		char genero = textoGenero.isEmpty() ? 'S' : textoGenero.charAt(0);
+
+		System.out.println("Introduce la fecha de nacimiento (dd-MM-yyyy):");
+		Date fechaNacimiento;
+		try {
+			fechaNacimiento = new SimpleDateFormat("dd-MM-yyyy").parse(sc.nextLine().trim());
+		} catch (ParseException e) {
+			System.out.println("❌ Formato de fecha incorrecto.");
+			return null;
+		}
+
+		System.out.println("Introduce el ciclo:");
+		String ciclo = sc.nextLine().toUpperCase().trim();
+
+		System.out.println("Introduce el curso:");
+		String curso = sc.nextLine().toUpperCase().trim();
+
+		System.out.println("Introduce el nombre del grupo:");
+		String nombreGrupo = sc.nextLine().toUpperCase().trim();
+
+		Optional<Grupo> grupo = buscarGrupo(nombreGrupo);
+		if (grupo.isEmpty()) {
+			System.out.println("❌ El grupo no existe. Debes crearlo antes de asignarlo a un alumno.");
+			return null;
+		}
+
+		return new Alumno(nombre, apellidos, genero, fechaNacimiento, ciclo, curso, grupo.get());
+	}
+
+	@Override
+	public boolean mostrarTodosLosAlumnos(boolean mostrarTodaLaInformacion) {
+		try {
+			boolean hayAlumnos = false;
+			try (Stream<Alumno> alumnos = alumnos(TAMANO_PAGINA)) {
+				for (Alumno alumno : (Iterable<Alumno>) alumnos::iterator) {
+					if (!hayAlumnos) {
+						System.out.println(mostrarTodaLaInformacion ? "Lista completa de alumnos registrados:"
+								: "Lista de alumnos (NIA y Nombre):");
+						hayAlumnos = true;
+					}
+					if (mostrarTodaLaInformacion) {
+						imprimirAlumno(alumno);
+					} else {
+						System.out.printf("NIA: %d, Nombre: %s%n", alumno.getNia(), alumno.getNombre());
+					}
+				}
+			}
+
+			if (!hayAlumnos) {
+				System.out.println("No hay alumnos registrados.");
+				return false;
+			}
+
+			if (!mostrarTodaLaInformacion) {
+				System.out.println("\nIntroduce el NIA del alumno que deseas visualizar (o 0 para salir):");
+				while (true) {
+					try {
+						int niaSeleccionado = Integer.parseInt(sc.nextLine().trim());
+						if (niaSeleccionado == 0) {
+							System.out.println("Saliendo sin seleccionar un alumno.");
+							return true;
+						}
+						if (mostrarAlumnoPorNIA(niaSeleccionado)) {
+							return true;
+						}
+						System.out.println("El NIA seleccionado no está en la lista. Inténtalo de nuevo.");
+					} catch (NumberFormatException e) {
+						System.out.println("El NIA debe ser un número válido. Inténtalo de nuevo:");
+					}
+				}
+			}
+			return true;
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ Error al recuperar los alumnos: " + e.getMessage());
+			return false;
+		}
+	}
+
+	@Override
+	public boolean mostrarAlumnoPorNIA(int nia) {
+		try {
+			Optional<Alumno> alumno = buscarAlumno(nia);
+			if (alumno.isEmpty()) {
+				System.out.println("❌ No se encontró un alumno con el NIA: " + nia);
+				return false;
+			}
+			imprimirAlumno(alumno.get());
+			return true;
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ Ocurrió un error al recuperar los datos del alumno.");
+			return false;
+		}
+	}
+
+	private void imprimirAlumno(Alumno alumno) {
+		System.out.printf("""
+				-------------------------
+				NIA: %d
+				Nombre: %s
+				Apellidos: %s
+				Género: %s
+				Fecha de nacimiento: %s
+				Ciclo: %s
+				Curso: %s
+				Grupo: %s
+				""", alumno.getNia(), alumno.getNombre(), alumno.getApellidos(), alumno.getGenero(),
+				formatearFecha(alumno.getFechaNacimiento()), alumno.getCiclo(), alumno.getCurso(),
+				(alumno.getGrupo() != null ? alumno.getGrupo().getNombreGrupo() : "Sin grupo"));
+	}
+
+	private static String formatearFecha(Date fecha) {
+		return fecha == null ? "" : new SimpleDateFormat("dd-MM-yyyy").format(fecha);
+	}
+
+	@Override
+	public boolean eliminarAlumnosPorApellidos(String apellidos) {
+		try {
+			int eliminados = eliminarAlumnosPorApellidos(apellidos, false);
+			if (eliminados > 0) {
+				System.out.println("✅ " + eliminados + " alumnos con apellidos '" + apellidos + "' eliminados.");
+				return true;
+			}
+			System.out.println("❌ No hay alumnos con apellidos '" + apellidos + "'.");
+			return false;
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ " + e.getMessage());
+			return false;
+		}
+	}
+
+	@Override
+	public boolean cambiarGrupoAlumno() {
+		if (!mostrarTodosLosGrupos()) {
+			return false;
+		}
+
+		System.out.println("\nIntroduce el NIA del alumno al que deseas cambiar de grupo:");
+		int nia;
+		try {
+			nia = Integer.parseInt(sc.nextLine().trim());
+		} catch (NumberFormatException e) {
+			System.out.println("❌ El NIA debe ser un número válido.");
+			return false;
+		}
+
+		System.out.println("\nIntroduce el nombre del grupo al que deseas cambiar al alumno:");
+		String nuevoGrupo = sc.nextLine().trim().toUpperCase();
+
+		try {
+			if (!moverAlumnoAGrupo(nia, nuevoGrupo)) {
+				System.out.println("❌ El alumno o el grupo especificado no existen.");
+				return false;
+			}
+			System.out.println("✅ El grupo del alumno ha sido cambiado exitosamente.");
+			return true;
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ Error al cambiar el grupo del alumno: " + e.getMessage());
+			return false;
+		}
+	}
+
+	// GRUPOS:
+
+	@Override
+	public boolean insertarGrupo(Grupo grupo) {
+		try {
+			grupo.setNumeroGrupo(crearGrupo(grupo.getNombreGrupo()).getNumeroGrupo());
+			System.out.println("✅ Grupo insertado correctamente.");
+			return true;
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ Error al insertar el grupo: " + e.getMessage());
+			return false;
+		}
+	}
+
+	@Override
+	public boolean mostrarTodosLosGrupos() {
+		try {
+			List<Grupo> grupos = listarGrupos();
+			if (grupos.isEmpty()) {
+				System.out.println("❌ No hay grupos registrados.");
+				return false;
+			}
+
+			System.out.println("📌 Grupos disponibles:");
+			for (Grupo grupo : grupos) {
+				System.out.println("- " + grupo.getNombreGrupo());
+			}
+			return true;
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ Error al mostrar los grupos: " + e.getMessage());
+			return false;
+		}
+	}
+
+	@Override
+	public void mostrarAlumnosPorGrupo() {
+		if (!mostrarTodosLosGrupos()) {
+			return;
+		}
+
+		System.out.println("Introduce el nombre del grupo del que quieres ver los alumnos:");
+		String nombreGrupo = sc.nextLine().trim().toUpperCase();
+
+		try {
+			if (buscarGrupo(nombreGrupo).isEmpty()) {
+				System.out.println("❌ El grupo especificado no existe. Inténtalo de nuevo.");
+				return;
+			}
+
+			boolean hayAlumnos = false;
+			try (Stream<Alumno> alumnos = alumnosDeGrupo(nombreGrupo, TAMANO_PAGINA)) {
+				for (Alumno alumno : (Iterable<Alumno>) alumnos::iterator) {
+					if (!hayAlumnos) {
+						System.out.println("📋 Alumnos del grupo '" + nombreGrupo + "':");
+						hayAlumnos = true;
+					}
+					imprimirAlumno(alumno);
+				}
+			}
+
+			if (!hayAlumnos) {
+				System.out.println("❌ No hay alumnos registrados en este grupo.");
+			}
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ Error al mostrar los alumnos: " + e.getMessage());
+		}
+	}
+
+	@Override
+	public boolean eliminarAlumnosPorGrupo(String nombreGrupo) {
+		try {
+			if (buscarGrupo(nombreGrupo).isEmpty()) {
+				System.out.println("❌ El grupo '" + nombreGrupo + "' no existe.");
+				return false;
+			}
+
+			int eliminados = eliminarAlumnosDeGrupo(nombreGrupo);
+			System.out.println("✅ Se han eliminado " + eliminados + " alumnos del grupo '" + nombreGrupo + "'.");
+			return eliminados > 0;
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ " + e.getMessage());
+			return false;
+		}
+	}
+
+	// FICHERO DE TEXTO:
+
+	@Override
+	public void guardarAlumnosEnFicheroTexto() {
+		String nombreArchivo = Compresion.predeterminada().nombreFichero("alumnos.txt");
+
+		try {
+			long escritos = exportarAlumnosTexto(Path.of(nombreArchivo));
+			System.out.println("✅ " + escritos + " alumnos guardados correctamente en " + nombreArchivo);
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ " + e.getMessage());
+		}
+	}
+
+	@Override
+	public long exportarAlumnosTexto(Path destino) {
+		try (BufferedWriter writer = Compresion.abrirEscritor(destino);
+				Stream<Alumno> alumnos = alumnos(TAMANO_LOTE)) {
+
+			writer.write("NIA,Nombre,Apellidos,Género,Fecha Nacimiento,Ciclo,Curso,Nombre del Grupo");
+			writer.newLine();
+
+			long escritos = 0;
+			for (Alumno alumno : (Iterable<Alumno>) alumnos::iterator) {
+				writer.write(String.format("%d,%s,%s,%s,%s,%s,%s,%s", alumno.getNia(), alumno.getNombre(),
+						alumno.getApellidos(), alumno.getGenero(), formatearFecha(alumno.getFechaNacimiento()),
+						alumno.getCiclo(), alumno.getCurso(),
+						(alumno.getGrupo() != null ? alumno.getGrupo().getNombreGrupo() : "Sin grupo")));
+				writer.newLine();
+				escritos++;
+			}
+			return escritos;
+		} catch (IOException e) {
+			throw new AccesoDatosException("Error al guardar los alumnos en el archivo: " + e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public boolean leerAlumnosDeFicheroTexto() {
+		try {
+			ResultadoImportacion resultado = importarAlumnosTexto(
+					Path.of(Compresion.predeterminada().nombreFichero("alumnos.txt")));
+			System.out.println("📊 Importación finalizada: " + resultado);
+			return resultado.getFilasInsertadas() > 0;
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Importa el fichero de texto de {@link #exportarAlumnosTexto(Path)}. Los
+	 * grupos que no existen se crean, las líneas mal formadas (o con campos
+	 * demasiado largos) se cuentan como rechazadas y se confirma cada TAMANO_LOTE
+	 * alumnos.
+	 */
+	@Override
+	public ResultadoImportacion importarAlumnosTexto(Path origen) {
+		ResultadoImportacion resultado = new ResultadoImportacion();
+		Map<String, Grupo> grupos = new HashMap<>();
+		SimpleDateFormat formatoFecha = new SimpleDateFormat("dd-MM-yyyy");
+		int pendientes = 0;
+
+		try (BufferedReader br = Compresion.abrirLector(origen)) {
+			// Ignorar la primera línea (cabecera)
+			br.readLine();
+
+			String linea;
+			while ((linea = br.readLine()) != null) {
+				String[] datos = linea.split(",");
+				if (datos.length != 8 || datos[3].isBlank()) {
+					resultado.rechazarLinea();
+					continue;
+				}
+
+				Date fecha;
+				try {
+					fecha = formatoFecha.parse(datos[4].trim());
+				} catch (ParseException e) {
+					resultado.rechazarLinea();
+					continue;
+				}
+
+				Alumno alumno = new Alumno(datos[1].trim().toUpperCase(), datos[2].trim().toUpperCase(),
+						datos[3].trim().toUpperCase().charAt(0), fecha, datos[5].trim().toUpperCase(),
+						datos[6].trim().toUpperCase(), null);
+				try {
+					insertarSinConfirmar(alumno, resolverGrupo(grupos, datos[7]));
+				} catch (IllegalArgumentException e) {
+					resultado.rechazarLinea();
+					continue;
+				}
+
+				if (++pendientes >= TAMANO_LOTE) {
+					confirmar();
+					resultado.sumarInsertadas(pendientes);
+					pendientes = 0;
+				}
+			}
+		} catch (IOException e) {
+			throw new AccesoDatosException("Error al leer el archivo (confirmado hasta el error: " + resultado
+					+ "): " + e.getMessage(), e);
+		} finally {
+			confirmar();
+			resultado.sumarInsertadas(pendientes);
+		}
+
+		resultado.finalizar();
+		return resultado;
+	}
+
+	/**
+	 * Devuelve el grupo con ese nombre (en mayúsculas, como los guarda
+	 * crearGrupo), creándolo si no existe. Los grupos resueltos se guardan en
+	 * 'grupos' para no buscarlos en cada alumno.
+	 */
+	private Grupo resolverGrupo(Map<String, Grupo> grupos, String nombreGrupo) {
+		return grupos.computeIfAbsent(nombreGrupo.trim().toUpperCase(),
+				nombre -> buscarGrupo(nombre).orElseGet(() -> crearGrupo(nombre)));
+	}
+
+	// JSON:
+
+	@Override
+	public void guardarAlumnosEnFicheroJSON() {
+		String nombreArchivo = Compresion.predeterminada().nombreFichero("alumnos.json");
+
+		try {
+			long escritos = exportarAlumnosJSON(Path.of(nombreArchivo), FormatoJSON.ARRAY);
+			System.out.println("✅ " + escritos + " alumnos guardados correctamente en " + nombreArchivo);
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ " + e.getMessage());
+		}
+	}
+
+	@Override
+	public long exportarAlumnosJSON(Path destino, FormatoJSON formato) {
+		try (EscritorJSON json = EscritorJSON.abrir(destino, formato);
+				Stream<Alumno> alumnos = alumnos(TAMANO_LOTE)) {
+
+			long escritos = 0;
+			for (Alumno alumno : (Iterable<Alumno>) alumnos::iterator) {
+				json.inicioObjeto();
+				escribirCamposAlumno(json, alumno);
+				json.campo("nombreGrupo", alumno.getGrupo() == null ? null : alumno.getGrupo().getNombreGrupo());
+				json.finObjeto();
+				escritos++;
+			}
+			return escritos;
+		} catch (IOException e) {
+			throw new AccesoDatosException("Error al guardar los alumnos en el archivo: " + e.getMessage(), e);
+		}
+	}
+
+	private static void escribirCamposAlumno(EscritorJSON json, Alumno alumno) throws IOException {
+		json.camposAlumno(alumno.getNia(), alumno.getNombre(), alumno.getApellidos(), alumno.getGenero(),
+				EscritorJSON.fecha(alumno.getFechaNacimiento()), alumno.getCiclo(), alumno.getCurso());
+	}
+
+	@Override
+	public boolean leerAlumnosDeFicheroJSON() {
+		try {
+			ResultadoImportacion resultado = importarAlumnosJSON(
+					Path.of(Compresion.predeterminada().nombreFichero("alumnos.json")));
+			System.out.println("📊 Importación finalizada: " + resultado);
+			return resultado.getFilasInsertadas() > 0;
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ " + e.getMessage());
+			return false;
+		}
+	}
+
+	@Override
+	public ResultadoImportacion importarAlumnosJSON(Path origen) {
+		ResultadoImportacion resultado = new ResultadoImportacion();
+		Map<String, Grupo> grupos = new HashMap<>();
+		int[] pendientes = { 0 };
+
+		try {
+			int ignorados = LectorJSON.leer(origen, (alumno, nombreGrupo) -> {
+				try {
+					insertarSinConfirmar(alumno, resolverGrupo(grupos, nombreGrupo));
+				} catch (IllegalArgumentException e) {
+					resultado.rechazarLinea();
+					return;
+				}
+
+				if (++pendientes[0] >= TAMANO_LOTE) {
+					confirmar();
+					resultado.sumarInsertadas(pendientes[0]);
+					pendientes[0] = 0;
+				}
+			});
+			resultado.rechazarLineas(ignorados);
+		} catch (IOException e) {
+			throw new AccesoDatosException("Error al importar los alumnos desde JSON (confirmado hasta el error: "
+					+ resultado + "): " + e.getMessage(), e);
+		} finally {
+			confirmar();
+			resultado.sumarInsertadas(pendientes[0]);
+		}
+
+		resultado.finalizar();
+		return resultado;
+	}
+
+	@Override
+	public void guardarGruposEnFicheroJSON() {
+		String nombreArchivo = Compresion.predeterminada().nombreFichero("grupos.json");
+
+		try {
+			int grupos = exportarGruposJSON(Path.of(nombreArchivo), FormatoJSON.ARRAY);
+			System.out.println("✅ " + grupos + " grupos guardados correctamente en " + nombreArchivo);
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ " + e.getMessage());
+		}
+	}
+
+	@Override
+	public int exportarGruposJSON(Path destino, FormatoJSON formato) {
+		List<Grupo> grupos = listarGrupos();
+
+		try (EscritorJSON json = EscritorJSON.abrir(destino, formato)) {
+			for (Grupo grupo : grupos) {
+				json.inicioObjeto();
+				json.campo("numeroGrupo", grupo.getNumeroGrupo());
+				json.campo("nombreGrupo", grupo.getNombreGrupo());
+				json.inicioArray("alumnos");
+				try (Stream<Alumno> alumnos = alumnosDeGrupo(grupo.getNombreGrupo(), TAMANO_LOTE)) {
+					for (Alumno alumno : (Iterable<Alumno>) alumnos::iterator) {
+						json.inicioObjeto();
+						escribirCamposAlumno(json, alumno);
+						json.finObjeto();
+					}
+				}
+				json.finArray();
+				json.finObjeto();
+			}
+			return grupos.size();
+		} catch (IOException e) {
+			throw new AccesoDatosException("Error al guardar los grupos en el archivo: " + e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public boolean leerGruposDeFicheroJSON() {
+		String nombreArchivo = Compresion.predeterminada().nombreFichero("grupos.json");
+
+		if (!Files.exists(Path.of(nombreArchivo))) {
+			System.out.println("❌ El archivo JSON no existe: " + nombreArchivo);
+			return false;
+		}
+
+		try {
+			ResultadoImportacion resultado = importarGruposJSON(Path.of(nombreArchivo));
+			System.out.println("✅ Datos cargados correctamente desde el archivo JSON: " + resultado);
+			return true;
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ " + e.getMessage());
+			return false;
+		}
+	}
+
+	@Override
+	public ResultadoImportacion importarGruposJSON(Path origen) {
+		return importarGrupos("JSON", manejador -> LectorJSON.leerGrupos(origen, manejador));
+	}
+
+	// INSTANTÁNEA BINARIA:
+
+	@Override
+	public long exportarInstantanea(Path destino) {
+		List<String> grupos = listarGrupos().stream().map(Grupo::getNombreGrupo).toList();
+
+		try (EscritorInstantanea instantanea = EscritorInstantanea.abrir(destino);
+				Stream<Alumno> alumnos = alumnos(TAMANO_LOTE)) {
+			instantanea.grupos(grupos);
+			for (Alumno alumno : (Iterable<Alumno>) alumnos::iterator) {
+				instantanea.alumno(alumno.getNia(), alumno.getNombre(), alumno.getApellidos(), alumno.getGenero(),
+						EscritorJSON.fecha(alumno.getFechaNacimiento()), alumno.getCiclo(), alumno.getCurso(),
+						alumno.getGrupo() == null ? null : alumno.getGrupo().getNombreGrupo());
+			}
+			return instantanea.getAlumnos();
+		} catch (IOException e) {
+			throw new AccesoDatosException("Error al guardar la instantánea en el archivo: " + e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public ResultadoImportacion importarInstantanea(Path origen) {
+		return importarGrupos("binario", manejador -> LectorInstantanea.leer(origen, manejador));
+	}
+
+	// XML:
+
+	@Override
+	public boolean guardarGruposEnXML() {
+		String nombreArchivo = Compresion.predeterminada().nombreFichero("grupos.xml");
+
+		try {
+			int grupos = exportarGruposXML(Path.of(nombreArchivo));
+			System.out.println("✅ " + grupos + " grupos guardados correctamente en " + nombreArchivo);
+			return grupos > 0;
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Escribe todos los grupos, con sus alumnos, bajo la raíz &lt;grupos&gt; (el
+	 * mismo formato que genera {@link AlumnosBD}).
+	 *
+	 * @return Número de grupos escritos.
+	 */
+	@Override
+	public int exportarGruposXML(Path destino) {
+		try {
+			return EscritorGruposXML.escribirTodos(listarGrupos(),
+					grupo -> alumnosDeGrupo(grupo.getNombreGrupo(), TAMANO_LOTE), destino.toFile());
+		} catch (IOException | XMLStreamException e) {
+			throw new AccesoDatosException("Error al generar el archivo XML: " + e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public boolean guardarGrupoEspecificoEnXML() {
+		if (!mostrarTodosLosGrupos()) {
+			return false;
+		}
+
+		System.out.print("\nIntroduce el nombre del grupo que deseas guardar en fichero XML: ");
+		String nombreGrupo = sc.nextLine().trim().toUpperCase();
+		String nombreArchivo = Compresion.predeterminada().nombreFichero("grupo_" + nombreGrupo + ".xml");
+
+		try {
+			if (!exportarGrupoXML(nombreGrupo, Path.of(nombreArchivo))) {
+				System.out.println("❌ El grupo '" + nombreGrupo + "' no existe.");
+				return false;
+			}
+			System.out.println("✅ El archivo XML del grupo '" + nombreGrupo + "' se ha guardado correctamente en '"
+					+ nombreArchivo + "'.");
+			return true;
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ Error al guardar el grupo en XML: " + e.getMessage());
+			return false;
+		}
+	}
+
+	@Override
+	public boolean exportarGrupoXML(String nombreGrupo, Path destino) {
+		Optional<Grupo> grupo = buscarGrupo(nombreGrupo);
+		if (grupo.isEmpty()) {
+			return false;
+		}
+
+		try (Stream<Alumno> alumnos = alumnosDeGrupo(nombreGrupo, TAMANO_LOTE)) {
+			EscritorGruposXML.escribirGrupo(grupo.get(), alumnos, destino.toFile());
+			return true;
+		} catch (IOException | XMLStreamException e) {
+			throw new AccesoDatosException("Error al guardar el grupo en XML: " + e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public boolean leerYGuardarGruposXML(String rutaArchivo) {
+		if (!new File(rutaArchivo).exists()) {
+			System.out.println("❌ El archivo XML no existe en la ruta especificada.");
+			return false;
+		}
+
+		try {
+			ResultadoImportacion resultado = importarGruposXML(Path.of(rutaArchivo));
+			System.out.println("✅ Archivo XML procesado correctamente: " + resultado);
+			return true;
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ " + e.getMessage());
+			return false;
+		}
+	}
+
+	@Override
+	public ResultadoImportacion importarGruposXML(Path origen) {
+		return importarGrupos("XML", manejador -> LectorGruposXML.leer(origen.toFile(), manejador));
+	}
+
+	/**
+	 * Recorre un fichero de grupos entregando cada grupo y alumno al manejador.
+	 */
+	@FunctionalInterface
+	private interface LecturaGrupos {
+
+		/**
+		 * @return Número de elementos ignorados por datos inválidos.
+		 */
+		int leer(LectorGruposXML.Manejador<RuntimeException> manejador) throws IOException, XMLStreamException;
+	}
+
+	/**
+	 * Guarda los grupos y alumnos que entrega el lector: los grupos que no existen
+	 * se crean y se confirma cada TAMANO_LOTE alumnos.
+	 *
+	 * @param formato Nombre del formato del fichero, para los mensajes.
+	 */
+	private ResultadoImportacion importarGrupos(String formato, LecturaGrupos lectura) {
+		ResultadoImportacion resultado = new ResultadoImportacion();
+		Map<String, Grupo> grupos = new HashMap<>();
+		Grupo[] grupoActual = { null };
+		int[] pendientes = { 0 };
+
+		try {
+			int ignorados = lectura.leer(new LectorGruposXML.Manejador<RuntimeException>() {
+
+				@Override
+				public void grupo(String nombreGrupo) {
+					grupoActual[0] = resolverGrupo(grupos, nombreGrupo);
+				}
+
+				@Override
+				public void alumno(Alumno alumno) {
+					try {
+						insertarSinConfirmar(alumno, grupoActual[0]);
+					} catch (IllegalArgumentException e) {
+						resultado.rechazarLinea();
+						return;
+					}
+
+					if (++pendientes[0] >= TAMANO_LOTE) {
+						confirmar();
+						resultado.sumarInsertadas(pendientes[0]);
+						pendientes[0] = 0;
+					}
+				}
+			});
+			resultado.rechazarLineas(ignorados);
+		} catch (IOException | XMLStreamException e) {
+			throw new AccesoDatosException("Error al procesar el archivo " + formato + " (confirmado hasta el error: "
+					+ resultado + "): " + e.getMessage(), e);
+		} finally {
+			confirmar();
+			resultado.sumarInsertadas(pendientes[0]);
+		}
+
+		resultado.finalizar();
+		return resultado;
+	}
+}
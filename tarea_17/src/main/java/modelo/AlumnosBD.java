@@ -1,1279 +1,2486 @@
-package modelo;
-
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.sql.Statement;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.ArrayList;
-import java.util.Date;
-import java.util.List;
-import java.util.Scanner;
-import java.util.function.Consumer;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
-
-import pool.PoolConexiones;
-
-public class AlumnosBD implements AlumnosDAO {
-
-	private final static Scanner sc = new Scanner(System.in);
-
-	private static final Logger loggerGeneral = LogManager.getRootLogger();
-	private static final Logger loggerExcepciones = LogManager.getLogger("exceptions");
-
-	@Override
-	public boolean insertarAlumno(Alumno alumno) {
-		// Obtener el numeroGrupo del grupo del alumno
-		int numeroGrupo = obtenerNumeroGrupo(alumno.getGrupo().getNombreGrupo());
-
-		if (numeroGrupo == -1) {
-			loggerExcepciones.error("Error: El grupo '{}' no existe en la base de datos.",
-					alumno.getGrupo().getNombreGrupo());
-			return false;
-		}
-
-		String sql = "INSERT INTO alumnos (nombre, apellidos, genero, fechaNacimiento, ciclo, curso, numeroGrupo) "
-				+ "VALUES (?, ?, ?, ?, ?, ?, ?)";
-
-		try (Connection conexion = PoolConexiones.getConnection();
-				PreparedStatement sentencia = conexion.prepareStatement(sql)) {
-
-			sentencia.setString(1, alumno.getNombre());
-			sentencia.setString(2, alumno.getApellidos());
-			sentencia.setString(3, String.valueOf(alumno.getGenero())); // Convertir el char a String
-			sentencia.setDate(4, new java.sql.Date(alumno.getFechaNacimiento().getTime()));
-			sentencia.setString(5, alumno.getCiclo());
-			sentencia.setString(6, alumno.getCurso());
-			sentencia.setInt(7, numeroGrupo); // Usar el numeroGrupo obtenido
-
-			int filasAfectadas = sentencia.executeUpdate();
-
-			if (filasAfectadas > 0) {
-				loggerGeneral.info("Alumno '{}' '{}' insertado correctamente.", alumno.getNombre(),
-						alumno.getApellidos());
-				return true;
-			} else {
-				loggerExcepciones.error("No se pudo insertar el alumno '{}' '{}'.", alumno.getNombre(),
-						alumno.getApellidos());
-				return false;
-			}
-		} catch (SQLException e) {
-			loggerExcepciones.error("Error al insertar el alumno '{}' '{}': {}", alumno.getNombre(),
-					alumno.getApellidos(), e.getMessage(), e);
-			return false;
-		}
-	}
-
-	/**
-	 * Solicita al usuario los datos necesarios para crear un objeto Alumno.
-	 * 
-	 * @return Un objeto Alumno con los datos ingresados por el usuario.
-	 */
-	@Override
-	public Alumno solicitarDatosAlumno() {
-		try {
-			System.out.println("Introduce el nombre del alumno:");
-			String nombre = sc.nextLine().trim().toUpperCase();
-
-			System.out.println("Introduce los apellidos del alumno:");
-			String apellidos = sc.nextLine().trim().toUpperCase();
-
-			// Validar género
-			char respuestaGenero = solicitarGenero();
-
-			// Validar fecha de nacimiento
-			Date fechaNacimiento = solicitarFechaNacimiento();
-
-			System.out.println("Introduce el ciclo del alumno:");
-			String ciclo = sc.nextLine().trim().toUpperCase();
-
-			System.out.println("Introduce el curso del alumno:");
-			String curso = sc.nextLine().trim().toUpperCase();
-
-			// Validar nombre del grupo
-			String nombreGrupo = solicitarNombreGrupo();
-
-			// Crear el objeto Grupo
-			Grupo grupo = new Grupo(nombreGrupo);
-
-			// Crear y devolver el objeto Alumno
-			Alumno alumno = new Alumno(nombre, apellidos, respuestaGenero, fechaNacimiento, ciclo, curso, grupo);
-			loggerGeneral.info("Datos del alumno solicitados correctamente: {}", alumno);
-			return alumno;
-
-		} catch (Exception e) {
-			loggerExcepciones.error("Error inesperado al solicitar datos del alumno: {}", e.getMessage(), e);
-			return null;
-		}
-	}
-
-	private char solicitarGenero() {
-		char genero;
-		do {
-			System.out.println("Introduce el género del alumno (M/F):");
-			String input = sc.nextLine().trim().toUpperCase();
-			if (input.length() == 1 && (input.charAt(0) == 'M' || input.charAt(0) == 'F')) {
-				genero = input.charAt(0);
-				break;
-			} else {
-				loggerGeneral.info("Entrada no válida para género: {}", input);
-				System.out.println("Respuesta no válida. Introduce 'M' o 'F'.");
-			}
-		} while (true);
-		return genero;
-	}
-
-	private Date solicitarFechaNacimiento() {
-		Date fecha = null;
-		SimpleDateFormat formatoFecha = new SimpleDateFormat("dd-MM-yyyy");
-		formatoFecha.setLenient(false); // Validación estricta
-
-		do {
-			System.out.println("Introduce la fecha de nacimiento (dd-MM-aaaa):");
-			String fechaInput = sc.nextLine().trim();
-			try {
-				fecha = formatoFecha.parse(fechaInput);
-			} catch (ParseException e) {
-				loggerExcepciones.error("Formato de fecha inválido ingresado: {}", fechaInput);
-				System.out.println("Formato de fecha inválido. Intenta de nuevo.");
-			}
-		} while (fecha == null);
-
-		return fecha;
-	}
-
-	private String solicitarNombreGrupo() {
-		String nombreGrupo;
-		do {
-			System.out.println("Introduce el nombre del grupo del alumno:");
-			nombreGrupo = sc.nextLine().trim().toUpperCase();
-			if (!validarNombreGrupo(nombreGrupo)) {
-				loggerGeneral.info("Entrada no válida para grupo: {}", nombreGrupo);
-				System.out.println("El nombre del grupo no es válido. Intenta de nuevo.");
-			}
-		} while (!validarNombreGrupo(nombreGrupo));
-		return nombreGrupo;
-	}
-
-	/**
-	 * Recupera el número del grupo a partir de su nombre.
-	 * 
-	 * @param nombreGrupo El nombre del grupo.
-	 * @return El numeroGrupo correspondiente o -1 si no existe.
-	 */
-	private int obtenerNumeroGrupo(String nombreGrupo) {
-		String sql = "SELECT numeroGrupo FROM grupos WHERE nombreGrupo = ?";
-
-		try (Connection conexion = PoolConexiones.getConnection();
-				PreparedStatement sentencia = conexion.prepareStatement(sql)) {
-
-			sentencia.setString(1, nombreGrupo);
-
-			try (ResultSet resultado = sentencia.executeQuery()) {
-				if (resultado.next()) {
-					return resultado.getInt("numeroGrupo");
-				}
-			}
-		} catch (SQLException e) {
-			loggerExcepciones.error("Error al obtener numeroGrupo para el grupo '{}': {}", nombreGrupo, e.getMessage());
-		}
-
-		return -1; // Si no se encuentra el grupo, devolver -1
-	}
-
-	/**
-	 * Valida si un nombre de grupo existe en la base de datos.
-	 * 
-	 * @param nombreGrupo El nombre del grupo a validar.
-	 * @return true si el grupo existe, false en caso contrario.
-	 */
-	public boolean validarNombreGrupo(String nombreGrupo) {
-		String sql = "SELECT 1 FROM grupos WHERE nombreGrupo = ?";
-
-		try (Connection conexion = PoolConexiones.getConnection();
-				PreparedStatement sentencia = conexion.prepareStatement(sql)) {
-
-			sentencia.setString(1, nombreGrupo);
-
-			try (ResultSet resultado = sentencia.executeQuery()) {
-				return resultado.next(); // Retorna true si el grupo existe, false si no
-			}
-		} catch (SQLException e) {
-			loggerExcepciones.error("Error al validar el grupo '{}': {}", nombreGrupo, e.getMessage());
-			return false;
-		}
-	}
-
-	/**
-	 * Muestra todos los alumnos registrados.
-	 * 
-	 * @param mostrarTodaLaInformacion Indica si se debe mostrar toda la información
-	 *                                 (true) o solo NIA y nombre (false).
-	 * @return true si se muestra la lista correctamente, false en caso contrario.
-	 */
-	@Override
-	public boolean mostrarTodosLosAlumnos(boolean mostrarTodaLaInformacion) {
-		String sql = """
-				    SELECT a.nia, a.nombre, a.apellidos, a.genero, a.fechaNacimiento,
-				           a.ciclo, a.curso, g.nombreGrupo
-				    FROM alumnos a
-				    LEFT JOIN grupos g ON a.numeroGrupo = g.numeroGrupo
-				    ORDER BY a.nia
-				""";
-
-		try (Connection conexion = PoolConexiones.getConnection();
-				PreparedStatement sentencia = conexion.prepareStatement(sql);
-				ResultSet resultado = sentencia.executeQuery()) {
-
-			if (!resultado.isBeforeFirst()) {
-				System.out.println("No hay alumnos registrados.");
-				return false;
-			}
-
-			if (mostrarTodaLaInformacion) {
-				System.out.println("Lista completa de alumnos registrados:");
-			} else {
-				System.out.println("Lista de alumnos (NIA y Nombre):");
-			}
-
-			List<Integer> listaNias = new ArrayList<>();
-
-			while (resultado.next()) {
-				int nia = resultado.getInt("nia");
-				String nombre = resultado.getString("nombre");
-
-				if (mostrarTodaLaInformacion) {
-					// Mostrar toda la información
-					String apellidos = resultado.getString("apellidos");
-					String genero = resultado.getString("genero");
-					Date fechaNacimiento = resultado.getDate("fechaNacimiento");
-					String ciclo = resultado.getString("ciclo");
-					String curso = resultado.getString("curso");
-					String nombreGrupo = resultado.getString("nombreGrupo");
-
-					System.out.printf("""
-							NIA: %d
-							Nombre: %s
-							Apellidos: %s
-							Género: %s
-							Fecha de nacimiento: %s
-							Ciclo: %s
-							Curso: %s
-							Grupo: %s
-							-------------------------
-							""", nia, nombre, apellidos, genero, fechaNacimiento, ciclo, curso,
-							nombreGrupo == null ? "Sin grupo" : nombreGrupo);
-				} else {
-					// Mostrar solo NIA y nombre
-					System.out.printf("NIA: %d, Nombre: %s%n", nia, nombre);
-					listaNias.add(nia);
-				}
-			}
-
-			// Si estamos en modo "NIA y nombre", permitir al usuario seleccionar un NIA
-			if (!mostrarTodaLaInformacion) {
-				System.out.println("\nIntroduce el NIA del alumno que deseas visualizar (o 0 para salir):");
-				while (true) {
-					try {
-						int niaSeleccionado = Integer.parseInt(sc.nextLine().trim());
-
-						if (niaSeleccionado == 0) {
-							System.out.println("Saliendo sin seleccionar un alumno.");
-							return true;
-						}
-
-						if (listaNias.contains(niaSeleccionado)) {
-							return mostrarAlumnoPorNIA(niaSeleccionado);
-						} else {
-							System.out.println("El NIA seleccionado no está en la lista. Inténtalo de nuevo.");
-						}
-					} catch (NumberFormatException e) {
-						System.out.println("El NIA debe ser un número válido. Inténtalo de nuevo:");
-					}
-				}
-			}
-
-			return true;
-		} catch (SQLException e) {
-			loggerExcepciones.error("Error al recuperar la lista de alumnos: {}", e.getMessage(), e);
-			System.out.println("Se produjo un error al recuperar los alumnos. Revisa los logs para más detalles.");
-			return false;
-		}
-	}
-
-	/**
-	 * Guarda todos los alumnos en un fichero de texto. La información incluye sus
-	 * datos y el grupo al que pertenecen. Los alumnos se ordenan de forma
-	 * ascendente por su NIA.
-	 */
-	@Override
-	public void guardarAlumnosEnFicheroTexto() {
-		String nombreFichero = "alumnos.txt";
-		File fichero = new File(nombreFichero);
-
-		// Verificar si el archivo existe y pedir confirmación para sobreescribirlo
-		if (fichero.exists()) {
-			System.out.print("El fichero ya existe. ¿Desea sobreescribirlo? (S/N): ");
-			char respuesta = sc.nextLine().toUpperCase().charAt(0);
-			if (respuesta != 'S') {
-				System.out.println("Operación cancelada. El fichero no se sobrescribirá.");
-				loggerGeneral.info("El usuario decidió no sobrescribir el fichero '{}'.", nombreFichero);
-				return;
-			}
-		}
-
-		String sql = """
-				    SELECT a.nia, a.nombre, a.apellidos, a.genero,
-				           a.fechaNacimiento, a.ciclo, a.curso, g.nombreGrupo
-				    FROM alumnos a
-				    LEFT JOIN grupos g ON a.numeroGrupo = g.numeroGrupo
-				    ORDER BY a.nia ASC
-				""";
-
-		// Intentar escribir en el fichero
-		try (BufferedWriter writer = new BufferedWriter(new FileWriter(fichero));
-				Connection conexion = PoolConexiones.getConnection();
-				PreparedStatement sentencia = conexion.prepareStatement(sql);
-				ResultSet resultado = sentencia.executeQuery()) {
-
-			// Escribir encabezados en el fichero
-			writer.write("NIA,Nombre,Apellidos,Género,Fecha Nacimiento,Ciclo,Curso,Nombre del Grupo");
-			writer.newLine();
-
-			if (!resultado.isBeforeFirst()) {
-				System.out.println("No hay alumnos registrados para guardar en el fichero.");
-				loggerGeneral.info("No se encontraron alumnos en la base de datos para guardar en el fichero.");
-				return;
-			}
-
-			// Escribir los datos de los alumnos en el fichero
-			while (resultado.next()) {
-				writer.write(String.format("%d,%s,%s,%s,%s,%s,%s,%s", resultado.getInt("nia"),
-						resultado.getString("nombre"), resultado.getString("apellidos"), resultado.getString("genero"),
-						resultado.getString("fechaNacimiento"), resultado.getString("ciclo"),
-						resultado.getString("curso"),
-						resultado.getString("nombreGrupo") == null ? "Sin grupo" : resultado.getString("nombreGrupo")));
-				writer.newLine();
-			}
-
-			System.out.println("Datos de los alumnos guardados correctamente en el fichero 'alumnos.txt'.");
-			loggerGeneral.info("Los datos de los alumnos se guardaron correctamente en el fichero '{}'.",
-					nombreFichero);
-
-		} catch (SQLException e) {
-			loggerExcepciones.error("Error al ejecutar la consulta SQL: {}", e.getMessage(), e);
-			System.out.println("Se produjo un error al recuperar los datos. Revisa los logs para más detalles.");
-		} catch (IOException e) {
-			loggerExcepciones.error("Error al escribir en el fichero '{}': {}", nombreFichero, e.getMessage(), e);
-			System.out.println("Se produjo un error al escribir en el fichero. Revisa los logs para más detalles.");
-		}
-	}
-
-	/**
-	 * Lee los alumnos desde el fichero de texto 'alumnos.txt' y los inserta en la
-	 * base de datos. El formato del fichero debe ser:
-	 * NIA,Nombre,Apellidos,Género,Fecha Nacimiento,Ciclo,Curso,Nombre del Grupo
-	 *
-	 * @return true si todos los alumnos fueron insertados correctamente, false si
-	 *         ocurrió algún error.
-	 */
-	@Override
-	public boolean leerAlumnosDeFicheroTexto() {
-		String fichero = "alumnos.txt";
-		int lineasInsertadas = 0;
-
-		try (BufferedReader br = new BufferedReader(new FileReader(fichero))) {
-			String linea;
-
-			// Ignorar la primera línea (cabecera)
-			br.readLine();
-
-			while ((linea = br.readLine()) != null) {
-				loggerGeneral.info("Leyendo línea: {}", linea);
-
-				// Separar los campos por coma
-				String[] datos = linea.split(",");
-
-				// Verificar que la línea tenga 8 campos
-				if (datos.length == 8) {
-					try {
-						String nombre = datos[1];
-						String apellidos = datos[2];
-						char genero = datos[3].charAt(0);
-						String fechaNacimiento = datos[4];
-						String ciclo = datos[5];
-						String curso = datos[6];
-						String grupo = datos[7];
-
-						// Convertir la fecha
-						SimpleDateFormat formatoFecha = new SimpleDateFormat("dd-MM-yyyy");
-						Date fechaUtil = formatoFecha.parse(fechaNacimiento);
-						loggerGeneral.info("Fecha convertida: {}", fechaUtil);
-
-						// Obtener el número del grupo
-						int numeroGrupo = obtenerNumeroGrupo(grupo);
-
-						if (numeroGrupo != -1) {
-							Grupo grupoObj = new Grupo(numeroGrupo, grupo);
-							Alumno alumno = new Alumno(nombre, apellidos, genero, fechaUtil, ciclo, curso, grupoObj);
-
-							// Insertar el alumno en la base de datos
-							if (insertarAlumno(alumno)) {
-								lineasInsertadas++;
-								loggerGeneral.info("Alumno insertado: {} {}", nombre, apellidos);
-							} else {
-								loggerGeneral.warn("No se pudo insertar el alumno: {} {}", nombre, apellidos);
-							}
-						} else {
-							loggerGeneral.warn("El grupo '{}' no existe en la base de datos. Alumno ignorado.", grupo);
-						}
-					} catch (ParseException e) {
-						loggerExcepciones.error("Error al convertir la fecha: {}", datos[4], e);
-						System.out.println("Error al convertir la fecha: " + datos[4]);
-					}
-				} else {
-					loggerGeneral.warn("Línea inválida en el fichero (número de campos incorrecto): {}", linea);
-				}
-			}
-
-			if (lineasInsertadas > 0) {
-				System.out.println("Alumnos leídos e insertados correctamente desde el fichero 'alumnos.txt'.");
-				loggerGeneral.info("Alumnos leídos e insertados correctamente.");
-				return true;
-			} else {
-				System.out.println("No se insertaron alumnos.");
-				loggerGeneral.info("No se insertaron alumnos.");
-				return false;
-			}
-		} catch (IOException e) {
-			loggerExcepciones.error("Ocurrió un error al leer el archivo '{}': {}", fichero, e.getMessage(), e);
-			System.out.println("Ocurrió un error al leer el archivo: " + e.getMessage());
-			return false;
-		}
-	}
-
-	/**
-	 * Obtiene el número del grupo a partir del nombre del grupo.
-	 *
-	 * @param nombreGrupo Nombre del grupo.
-	 * @return El número del grupo, o -1 si no se encuentra el grupo.
-	 */
-	private int obtenerNumeroGrupoPorNombre(String nombreGrupo) {
-		String sql = "SELECT numeroGrupo FROM grupos WHERE nombreGrupo = ?";
-
-		try (Connection conexion = PoolConexiones.getConnection();
-				PreparedStatement stmt = conexion.prepareStatement(sql)) {
-
-			stmt.setString(1, nombreGrupo);
-
-			try (ResultSet rs = stmt.executeQuery()) {
-				if (rs.next()) {
-					return rs.getInt("numeroGrupo");
-				}
-			}
-		} catch (SQLException e) {
-			loggerExcepciones.error("Error al obtener el número de grupo '{}': {}", nombreGrupo, e.getMessage());
-		}
-
-		return -1; // Devolver -1 si no se encuentra el grupo o hay error
-	}
-
-	/**
-	 * Ejecuta una operación genérica en la base de datos basada en un NIA.
-	 * 
-	 * @param sql                 La consulta SQL a ejecutar.
-	 * @param configuracionParams Función para configurar los parámetros del
-	 *                            PreparedStatement.
-	 * @return true si la operación afecta filas en la base de datos, false en caso
-	 *         contrario.
-	 */
-	public boolean ejecutarOperacionConNIA(String sql, Consumer<PreparedStatement> configuracionParams) {
-		try (Connection conexion = PoolConexiones.getConnection();
-				PreparedStatement sentencia = conexion.prepareStatement(sql)) {
-
-			// Configurar los parámetros usando la función pasada como argumento
-			configuracionParams.accept(sentencia);
-
-			// Ejecutar la consulta
-			int filasAfectadas = sentencia.executeUpdate();
-
-			if (filasAfectadas > 0) {
-				loggerGeneral.info("Operación ejecutada correctamente. SQL: {}", sql);
-				return true;
-			} else {
-				loggerGeneral.warn("Operación no afectó filas. SQL: {}", sql);
-				return false;
-			}
-		} catch (SQLException e) {
-			loggerExcepciones.error("Error al ejecutar la operación SQL '{}': {}", sql, e.getMessage(), e);
-			System.out.println("Error en la operación: " + e.getMessage());
-			return false;
-		}
-	}
-
-	/**
-	 * Modifica el nombre de un alumno en la base de datos basado en su NIA.
-	 * 
-	 * @param nia         NIA del alumno.
-	 * @param nuevoNombre Nuevo nombre del alumno.
-	 * @return true si la modificación fue exitosa; false en caso contrario.
-	 */
-	@Override
-	public boolean modificarNombreAlumnoPorNIA(int nia, String nuevoNombre) {
-		String sql = "UPDATE alumnos SET nombre = ? WHERE nia = ?";
-
-		return ejecutarOperacionConNIA(sql, sentencia -> {
-			try {
-				sentencia.setString(1, nuevoNombre);
-				sentencia.setInt(2, nia);
-			} catch (SQLException e) {
-				throw new RuntimeException("Error al configurar los parámetros", e);
-			}
-		});
-	}
-
-	/**
-	 * Elimina un alumno de la base de datos a partir de su NIA.
-	 * 
-	 * @param nia el NIA del alumno a eliminar.
-	 * @return true si el alumno fue eliminado correctamente, false en caso
-	 *         contrario.
-	 */
-	@Override
-	public boolean eliminarAlumnoPorNIA(int nia) {
-		String sql = "DELETE FROM alumnos WHERE nia = ?";
-
-		return ejecutarOperacionConNIA(sql, sentencia -> {
-			try {
-				sentencia.setInt(1, nia);
-			} catch (SQLException e) {
-				throw new RuntimeException("Error al configurar los parámetros", e);
-			}
-		});
-	}
-
-	/**
-	 * Muestra toda la información de un alumno basándose en su NIA.
-	 * 
-	 * @param nia El NIA del alumno a mostrar.
-	 * @return true si el alumno fue encontrado y mostrado; false en caso contrario.
-	 */
-	@Override
-	public boolean mostrarAlumnoPorNIA(int nia) {
-		String sql = """
-				    SELECT a.nia, a.nombre, a.apellidos, a.genero, a.fechaNacimiento,
-				           a.ciclo, a.curso, g.nombreGrupo
-				    FROM alumnos a
-				    LEFT JOIN grupos g ON a.numeroGrupo = g.numeroGrupo
-				    WHERE a.nia = ?
-				""";
-
-		try (Connection conexion = PoolConexiones.getConnection();
-				PreparedStatement sentencia = conexion.prepareStatement(sql)) {
-
-			sentencia.setInt(1, nia);
-
-			try (ResultSet resultado = sentencia.executeQuery()) {
-				if (!resultado.isBeforeFirst()) {
-					System.out.println("No se encontró un alumno con el NIA proporcionado.");
-					loggerGeneral.warn("No se encontró un alumno con NIA {}.", nia);
-					return false;
-				}
-
-				// Mostrar datos del alumno
-				while (resultado.next()) {
-					System.out.printf("""
-							NIA: %d
-							Nombre: %s
-							Apellidos: %s
-							Género: %s
-							Fecha de nacimiento: %s
-							Ciclo: %s
-							Curso: %s
-							Grupo: %s
-							-------------------------
-							""", resultado.getInt("nia"), resultado.getString("nombre"),
-							resultado.getString("apellidos"), resultado.getString("genero"),
-							resultado.getDate("fechaNacimiento"), resultado.getString("ciclo"),
-							resultado.getString("curso"), resultado.getString("nombreGrupo") == null ? "Sin grupo"
-									: resultado.getString("nombreGrupo"));
-				}
-
-				loggerGeneral.info("Información del alumno con NIA {} mostrada correctamente.", nia);
-				return true;
-			}
-		} catch (SQLException e) {
-			loggerExcepciones.error("Error al consultar información del alumno con NIA {}: {}", nia, e.getMessage(), e);
-			System.out.println("Se produjo un error al mostrar la información del alumno. Revisa los logs.");
-			return false;
-		}
-	}
-
-	/**
-	 * Inserta un nuevo grupo en la base de datos.
-	 *
-	 * @param grupo El objeto Grupo que se desea insertar.
-	 * @return true si la inserción fue exitosa, false en caso contrario.
-	 */
-	@Override
-	public boolean insertarGrupo(Grupo grupo) {
-		String sql = "INSERT INTO grupos (nombreGrupo) VALUES (?)";
-
-		try (Connection conexion = PoolConexiones.getConnection();
-				PreparedStatement sentencia = conexion.prepareStatement(sql)) {
-
-			// Convertir el nombre del grupo a mayúsculas antes de insertar
-			String nombreGrupo = grupo.getNombreGrupo().toUpperCase();
-			sentencia.setString(1, nombreGrupo);
-
-			int filasAfectadas = sentencia.executeUpdate();
-
-			if (filasAfectadas > 0) {
-				loggerGeneral.info("Grupo '{}' insertado exitosamente", nombreGrupo);
-				return true;
-			} else {
-				loggerGeneral.warn("No se pudo insertar el grupo '{}'", nombreGrupo);
-				return false;
-			}
-		} catch (SQLException e) {
-			loggerExcepciones.error("Error al insertar el grupo '{}': {}", grupo.getNombreGrupo(), e.getMessage(), e);
-			System.out.println("Error al insertar el grupo: " + e.getMessage());
-			return false;
-		}
-	}
-
-	/**
-	 * Elimina a todos los alumnos de un grupo específico.
-	 * 
-	 * @param nombreGrupo el nombre del grupo cuyos alumnos serán eliminados.
-	 * @return true si se eliminaron correctamente, false si ocurrió un error.
-	 */
-	@Override
-	public boolean eliminarAlumnosPorGrupo(String nombreGrupo) {
-		String comprobarAlumnosSql = "SELECT COUNT(*) FROM alumnos WHERE numeroGrupo = (SELECT numeroGrupo FROM grupos WHERE nombreGrupo = ?)";
-		String eliminarAlumnosSql = "DELETE FROM alumnos WHERE numeroGrupo = (SELECT numeroGrupo FROM grupos WHERE nombreGrupo = ?)";
-
-		try (Connection conexion = PoolConexiones.getConnection();
-				PreparedStatement comprobarAlumnosSentencia = conexion.prepareStatement(comprobarAlumnosSql)) {
-
-			comprobarAlumnosSentencia.setString(1, nombreGrupo);
-
-			try (ResultSet resultado = comprobarAlumnosSentencia.executeQuery()) {
-				if (resultado.next() && resultado.getInt(1) == 0) {
-					loggerGeneral.info("No se encontraron alumnos en el grupo '{}'", nombreGrupo);
-					return false;
-				}
-			}
-
-			// Procedemos a eliminar los alumnos si existen
-			try (PreparedStatement sentencia = conexion.prepareStatement(eliminarAlumnosSql)) {
-				sentencia.setString(1, nombreGrupo);
-
-				int filasAfectadas = sentencia.executeUpdate();
-				if (filasAfectadas > 0) {
-					loggerGeneral.info("Alumnos del grupo '{}' eliminados exitosamente", nombreGrupo);
-					return true;
-				} else {
-					loggerGeneral.warn("No se eliminaron alumnos del grupo '{}'", nombreGrupo);
-					return false;
-				}
-			}
-		} catch (SQLException e) {
-			loggerExcepciones.error("Error al eliminar alumnos del grupo '{}': {}", nombreGrupo, e.getMessage(), e);
-			System.out.println("Error al eliminar alumnos del grupo: " + e.getMessage());
-			return false;
-		}
-	}
-
-	/**
-	 * Muestra todos los grupos disponibles en la base de datos.
-	 * 
-	 * @return true si se muestran los grupos correctamente, false si no hay grupos
-	 *         o hay un error.
-	 */
-
-	@Override
-	public boolean mostrarTodosLosGrupos() {
-		String sql = "SELECT nombreGrupo FROM grupos";
-
-		try (Connection conexion = PoolConexiones.getConnection();
-				PreparedStatement sentencia = conexion.prepareStatement(sql);
-				ResultSet resultado = sentencia.executeQuery()) {
-
-			boolean hayGrupos = false;
-			while (resultado.next()) {
-				hayGrupos = true;
-				System.out.println("- " + resultado.getString("nombreGrupo"));
-			}
-
-			if (hayGrupos) {
-				loggerGeneral.info("Grupos mostrados exitosamente desde la base de datos.");
-				return true;
-			} else {
-				loggerGeneral.warn("No se encontraron grupos en la base de datos.");
-				return false;
-			}
-		} catch (SQLException e) {
-			loggerExcepciones.error("Error al mostrar los grupos: {}", e.getMessage(), e);
-			System.out.println("Error al mostrar los grupos: " + e.getMessage());
-			return false;
-		}
-	}
-
-	/**
-	 * Guarda todos los grupos y sus alumnos en un archivo XML llamado 'grupos.xml'.
-	 * Si el archivo ya existe, solicita confirmación al usuario antes de
-	 * sobrescribirlo.
-	 * 
-	 * @return true si el archivo se guarda correctamente, false si ocurre un error.
-	 */
-
-	public boolean guardarGruposEnXML() {
-		String nombreArchivo = "grupos.xml";
-		File archivoXML = new File(nombreArchivo);
-
-		if (archivoXML.exists()) {
-			System.out.print("El archivo " + nombreArchivo + " ya existe. ¿Deseas sobrescribirlo? (S/N): ");
-			String respuesta = sc.nextLine().trim().toUpperCase();
-
-			if (!respuesta.equals("S")) {
-				loggerGeneral.warn("No se ha sobrescrito el archivo XML porque el usuario no lo permitió.");
-				System.out.println("El archivo no se ha sobrescrito.");
-				return false;
-			}
-		}
-
-		DocumentBuilderFactory documentoFactory = DocumentBuilderFactory.newInstance();
-		try {
-			DocumentBuilder documentoBuilder = documentoFactory.newDocumentBuilder();
-			Document documentoXML = documentoBuilder.newDocument();
-			Element raizElement = documentoXML.createElement("grupos");
-			documentoXML.appendChild(raizElement);
-
-			String consultaGrupos = "SELECT numeroGrupo, nombreGrupo FROM grupos";
-			String consultaAlumnos = "SELECT nia, nombre, apellidos, genero, fechaNacimiento, ciclo, curso FROM alumnos WHERE numeroGrupo = ?";
-
-			try (Connection conexion = PoolConexiones.getConnection();
-					PreparedStatement stmtGrupos = conexion.prepareStatement(consultaGrupos);
-					ResultSet rsGrupos = stmtGrupos.executeQuery()) {
-
-				while (rsGrupos.next()) {
-					int numeroGrupo = rsGrupos.getInt("numeroGrupo");
-					String nombreGrupo = rsGrupos.getString("nombreGrupo");
-
-					Element grupoElement = documentoXML.createElement("grupo");
-					grupoElement.setAttribute("numeroGrupo", String.valueOf(numeroGrupo));
-					grupoElement.setAttribute("nombreGrupo", nombreGrupo);
-					raizElement.appendChild(grupoElement);
-
-					try (PreparedStatement stmtAlumnos = conexion.prepareStatement(consultaAlumnos)) {
-						stmtAlumnos.setInt(1, numeroGrupo);
-						try (ResultSet rsAlumnos = stmtAlumnos.executeQuery()) {
-							while (rsAlumnos.next()) {
-								Element alumnoElement = documentoXML.createElement("alumno");
-								alumnoElement.setAttribute("nia", rsAlumnos.getString("nia"));
-								alumnoElement.setAttribute("nombre", rsAlumnos.getString("nombre"));
-								alumnoElement.setAttribute("apellidos", rsAlumnos.getString("apellidos"));
-								alumnoElement.setAttribute("genero", rsAlumnos.getString("genero"));
-								alumnoElement.setAttribute("fechaNacimiento", rsAlumnos.getString("fechaNacimiento"));
-								alumnoElement.setAttribute("ciclo", rsAlumnos.getString("ciclo"));
-								alumnoElement.setAttribute("curso", rsAlumnos.getString("curso"));
-
-								grupoElement.appendChild(alumnoElement);
-							}
-						}
-					}
-				}
-
-				TransformerFactory transformerFactory = TransformerFactory.newInstance();
-				Transformer transformer = transformerFactory.newTransformer();
-				transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-
-				DOMSource source = new DOMSource(documentoXML);
-				StreamResult result = new StreamResult(new File(nombreArchivo));
-				transformer.transform(source, result);
-
-				loggerGeneral.info("El archivo XML se ha guardado correctamente en {}", nombreArchivo);
-				System.out.println("El archivo XML se ha guardado correctamente.");
-				return true;
-			}
-		} catch (ParserConfigurationException | TransformerException e) {
-			loggerExcepciones.error("Error al generar el archivo XML: {}", e.getMessage(), e);
-			System.out.println("Error al generar el archivo XML: " + e.getMessage());
-		} catch (SQLException e) {
-			loggerExcepciones.error("Error al consultar la base de datos: {}", e.getMessage(), e);
-			System.out.println("Error al consultar la base de datos: " + e.getMessage());
-		}
-		return false;
-	}
-
-	/**
-	 * Lee un archivo XML que contiene información sobre grupos y alumnos, y guarda
-	 * los datos en las tablas correspondientes de la base de datos.
-	 *
-	 * @param rutaArchivo Ruta del archivo XML a procesar.
-	 * @return true si los datos fueron procesados e insertados correctamente, false
-	 *         en caso de error.
-	 */
-
-	public boolean leerYGuardarGruposXML(String rutaArchivo) {
-		File archivoXML = new File(rutaArchivo);
-		if (!archivoXML.exists()) {
-			loggerExcepciones.error("El archivo XML no existe: {}", rutaArchivo);
-			System.err.println("El archivo XML no existe: " + rutaArchivo);
-			return false;
-		}
-
-		try {
-			DocumentBuilderFactory fabricaDocumentos = DocumentBuilderFactory.newInstance();
-			DocumentBuilder constructorDocumentos = fabricaDocumentos.newDocumentBuilder();
-			Document documentoXML = constructorDocumentos.parse(archivoXML);
-			documentoXML.getDocumentElement().normalize();
-
-			NodeList listaGrupos = documentoXML.getElementsByTagName("grupo");
-
-			String sqlVerificarGrupo = "SELECT numeroGrupo FROM grupos WHERE nombreGrupo = ?";
-			String sqlInsertarGrupo = "INSERT INTO grupos (nombreGrupo) VALUES (?)";
-			String sqlInsertarAlumno = """
-					INSERT INTO alumnos (nombre, apellidos, genero, fechaNacimiento, ciclo, curso, numeroGrupo)
-					VALUES (?, ?, ?, ?, ?, ?, ?)
-					""";
-
-			try (Connection conexion = PoolConexiones.getConnection();
-					PreparedStatement consultaVerificarGrupo = conexion.prepareStatement(sqlVerificarGrupo);
-					PreparedStatement consultaInsertarGrupo = conexion.prepareStatement(sqlInsertarGrupo,
-							Statement.RETURN_GENERATED_KEYS);
-					PreparedStatement consultaInsertarAlumno = conexion.prepareStatement(sqlInsertarAlumno)) {
-
-				for (int i = 0; i < listaGrupos.getLength(); i++) {
-					Node nodoGrupo = listaGrupos.item(i);
-
-					if (nodoGrupo.getNodeType() == Node.ELEMENT_NODE) {
-						Element elementoGrupo = (Element) nodoGrupo;
-						String nombreGrupo = elementoGrupo.getAttribute("nombreGrupo").trim();
-
-						if (!nombreGrupo.isEmpty()) {
-							int numeroGrupo = -1;
-
-							// Verificar si el grupo ya existe en la base de datos
-							consultaVerificarGrupo.setString(1, nombreGrupo);
-							try (ResultSet resultado = consultaVerificarGrupo.executeQuery()) {
-								if (resultado.next()) {
-									numeroGrupo = resultado.getInt("numeroGrupo"); // Obtener el número del grupo
-																					// existente
-								}
-							}
-
-							// Si el grupo no existe, lo insertamos
-							if (numeroGrupo == -1) {
-								consultaInsertarGrupo.setString(1, nombreGrupo);
-								consultaInsertarGrupo.executeUpdate();
-
-								try (ResultSet clavesGeneradas = consultaInsertarGrupo.getGeneratedKeys()) {
-									if (clavesGeneradas.next()) {
-										numeroGrupo = clavesGeneradas.getInt(1);
-									}
-								}
-							}
-
-							// Insertar alumnos del grupo
-							NodeList listaAlumnos = elementoGrupo.getElementsByTagName("alumno");
-							for (int j = 0; j < listaAlumnos.getLength(); j++) {
-								Node nodoAlumno = listaAlumnos.item(j);
-
-								if (nodoAlumno.getNodeType() == Node.ELEMENT_NODE) {
-									Element elementoAlumno = (Element) nodoAlumno;
-
-									consultaInsertarAlumno.setString(1, elementoAlumno.getAttribute("nombre"));
-									consultaInsertarAlumno.setString(2, elementoAlumno.getAttribute("apellidos"));
-									consultaInsertarAlumno.setString(3, elementoAlumno.getAttribute("genero"));
-									consultaInsertarAlumno.setDate(4,
-											java.sql.Date.valueOf(elementoAlumno.getAttribute("fechaNacimiento")));
-									consultaInsertarAlumno.setString(5, elementoAlumno.getAttribute("ciclo"));
-									consultaInsertarAlumno.setString(6, elementoAlumno.getAttribute("curso"));
-									consultaInsertarAlumno.setInt(7, numeroGrupo);
-
-									consultaInsertarAlumno.executeUpdate();
-
-									loggerGeneral.info("Alumno insertado: {} {}", elementoAlumno.getAttribute("nombre"),
-											elementoAlumno.getAttribute("apellidos"));
-								}
-							}
-						} else {
-							loggerExcepciones.warn("Advertencia: Nombre del grupo vacío en el XML.");
-						}
-					}
-				}
-
-				loggerGeneral.info("Datos cargados correctamente desde el archivo XML.");
-				System.out.println("Datos cargados correctamente desde el archivo XML.");
-				return true;
-			}
-		} catch (ParserConfigurationException | SAXException | IOException e) {
-			loggerExcepciones.error("Error al procesar el archivo XML: {}", e.getMessage(), e);
-			System.err.println("Error al procesar el archivo XML: " + e.getMessage());
-		} catch (SQLException e) {
-			loggerExcepciones.error("Error al insertar datos en la base de datos: {}", e.getMessage(), e);
-			System.err.println("Error al insertar datos en la base de datos: " + e.getMessage());
-		}
-
-		return false;
-	}
-
-	/**
-	 * Muestra todos los alumnos del grupo seleccionado por el usuario.
-	 */
-	@Override
-	public void mostrarAlumnosPorGrupo() {
-		// Mostrar todos los grupos
-		if (!mostrarTodosLosGrupos()) {
-			System.out.println("No hay grupos disponibles para mostrar.");
-			return;
-		}
-
-		System.out.println("Introduce el nombre del grupo del que quieres ver los alumnos:");
-		String nombreGrupo = sc.nextLine().trim().toUpperCase();
-
-		// Obtener el número del grupo
-		int numeroGrupo = obtenerNumeroGrupoPorNombre(nombreGrupo);
-		if (numeroGrupo == -1) {
-			System.out.println("El grupo especificado no existe. Inténtalo de nuevo.");
-			return;
-		}
-
-		String sql = """
-				    SELECT a.nia, a.nombre, a.apellidos, a.genero, a.fechaNacimiento,
-				           a.ciclo, a.curso, g.nombreGrupo
-				    FROM alumnos a
-				    JOIN grupos g ON a.numeroGrupo = g.numeroGrupo
-				    WHERE g.numeroGrupo = ?
-				    ORDER BY a.nia
-				""";
-
-		try (Connection conexion = PoolConexiones.getConnection();
-				PreparedStatement sentencia = conexion.prepareStatement(sql)) {
-
-			sentencia.setInt(1, numeroGrupo);
-
-			try (ResultSet resultado = sentencia.executeQuery()) {
-				if (!resultado.isBeforeFirst()) {
-					System.out.println("No hay alumnos registrados en este grupo.");
-					return;
-				}
-
-				System.out.println("Alumnos del grupo '" + nombreGrupo + "':");
-				while (resultado.next()) {
-					System.out.printf("""
-							NIA: %d
-							Nombre: %s
-							Apellidos: %s
-							Género: %s
-							Fecha de nacimiento: %s
-							Ciclo: %s
-							Curso: %s
-							Grupo: %s
-							-------------------------\n
-							""", resultado.getInt("nia"), resultado.getString("nombre"),
-							resultado.getString("apellidos"), resultado.getString("genero"),
-							resultado.getDate("fechaNacimiento"), resultado.getString("ciclo"),
-							resultado.getString("curso"), resultado.getString("nombreGrupo"));
-				}
-			}
-		} catch (SQLException e) {
-			loggerExcepciones.error("Error al mostrar los alumnos del grupo '{}': {}", nombreGrupo, e.getMessage(), e);
-			System.out.println("Se produjo un error al intentar mostrar los alumnos. Revisa los logs.");
-		}
-	}
-
-	/**
-	 * Muestra solo los NIA y nombres de los alumnos, sin interacción adicional.
-	 * 
-	 * @return true si hay alumnos, false si la lista está vacía.
-	 */
-	public boolean listarNiasYNombresAlumnos() {
-		String sql = "SELECT nia, nombre FROM alumnos ORDER BY nia";
-
-		try (Connection conexion = PoolConexiones.getConnection();
-				PreparedStatement sentencia = conexion.prepareStatement(sql);
-				ResultSet resultado = sentencia.executeQuery()) {
-
-			if (!resultado.isBeforeFirst()) {
-				System.out.println("❌ No hay alumnos registrados.");
-				return false;
-			}
-
-			System.out.println("Lista de alumnos disponibles para cambiar de grupo:");
-			while (resultado.next()) {
-				System.out.printf("NIA: %d, Nombre: %s%n", resultado.getInt("nia"), resultado.getString("nombre"));
-			}
-
-			return true;
-		} catch (SQLException e) {
-			System.out.println("❌ Error al recuperar la lista de alumnos: " + e.getMessage());
-			return false;
-		}
-	}
-
-	/**
-	 * Cambia el grupo de un alumno seleccionado por el usuario.
-	 * 
-	 * @return true si el cambio se realizó correctamente, false en caso de error.
-	 */
-	@Override
-	public boolean cambiarGrupoAlumno() {
-		// Mostrar lista de alumnos sin interacción extra
-		if (!listarNiasYNombresAlumnos()) {
-			System.out.println("❌ No hay alumnos disponibles.");
-			return false;
-		}
-
-		// Solicitar NIA del alumno
-		System.out.println("\nIntroduce el NIA del alumno al que deseas cambiar de grupo:");
-		int niaSeleccionado;
-		try {
-			niaSeleccionado = Integer.parseInt(sc.nextLine().trim());
-		} catch (NumberFormatException e) {
-			System.out.println("❌ El NIA debe ser un número válido.");
-			return false;
-		}
-
-		// Verificar si el NIA existe
-		String sqlExistencia = "SELECT numeroGrupo FROM alumnos WHERE nia = ?";
-		int grupoActual = -1;
-
-		try (Connection conexion = PoolConexiones.getConnection();
-				PreparedStatement consulta = conexion.prepareStatement(sqlExistencia)) {
-
-			consulta.setInt(1, niaSeleccionado);
-			try (ResultSet resultado = consulta.executeQuery()) {
-				if (resultado.next()) {
-					grupoActual = resultado.getInt("numeroGrupo");
-				} else {
-					System.out.println("❌ No se encontró ningún alumno con el NIA proporcionado.");
-					return false;
-				}
-			}
-		} catch (SQLException e) {
-			System.out.println("❌ Error al verificar el grupo actual del alumno: " + e.getMessage());
-			return false;
-		}
-
-		// Mostrar grupos disponibles
-		System.out.println("\nGrupos disponibles:");
-		if (!mostrarTodosLosGrupos()) {
-			System.out.println("❌ No hay grupos disponibles.");
-			return false;
-		}
-
-		// Solicitar el nuevo grupo
-		System.out.println("\nIntroduce el nombre del grupo al que deseas cambiar al alumno:");
-		String nuevoGrupo = sc.nextLine().trim().toUpperCase();
-
-		int numeroGrupo = obtenerNumeroGrupoPorNombre(nuevoGrupo);
-		if (numeroGrupo == -1) {
-			System.out.println("❌ El grupo especificado no existe.");
-			return false;
-		}
-
-		if (grupoActual == numeroGrupo) {
-			System.out.println("⚠️ El alumno ya pertenece al grupo '" + nuevoGrupo + "'.");
-			return false;
-		}
-
-		// Actualizar grupo
-		String sqlUpdate = "UPDATE alumnos SET numeroGrupo = ? WHERE nia = ?";
-		try (Connection conexion = PoolConexiones.getConnection();
-				PreparedStatement sentencia = conexion.prepareStatement(sqlUpdate)) {
-
-			sentencia.setInt(1, numeroGrupo);
-			sentencia.setInt(2, niaSeleccionado);
-
-			int filasAfectadas = sentencia.executeUpdate();
-			if (filasAfectadas > 0) {
-				System.out.println("✅ El grupo del alumno ha sido cambiado exitosamente.");
-				return true;
-			} else {
-				System.out.println("❌ No se pudo cambiar el grupo del alumno.");
-				return false;
-			}
-		} catch (SQLException e) {
-			System.out.println("❌ Error al cambiar el grupo del alumno: " + e.getMessage());
-			return false;
-		}
-	}
-
-	/**
-	 * Guarda un grupo específico con toda su información (incluyendo los alumnos)
-	 * en un archivo XML. Solicita al usuario el nombre del grupo.
-	 * 
-	 * @return true si el archivo se guarda correctamente, false si ocurre un error.
-	 */
-	@Override
-	public boolean guardarGrupoEspecificoEnXML() {
-		// 📌 Mostrar los grupos disponibles antes de la elección
-		if (!mostrarTodosLosGrupos()) {
-			System.out.println("❌ No hay grupos disponibles. No se puede continuar.");
-			return false;
-		}
-
-		// Solicitar el nombre del grupo al usuario
-		System.out.print("\nIntroduce el nombre del grupo que deseas guardar en fichero XML: ");
-		String nombreGrupo = sc.nextLine().trim().toUpperCase();
-
-		// Validar si el grupo existe
-		if (!validarNombreGrupo(nombreGrupo)) {
-			System.out.println("❌ El grupo '" + nombreGrupo + "' no existe en la base de datos.");
-			loggerGeneral.warn("El grupo '{}' no existe en la base de datos.", nombreGrupo);
-			return false;
-		}
-
-		// Obtener el número del grupo
-		int numeroGrupo = obtenerNumeroGrupoPorNombre(nombreGrupo);
-		if (numeroGrupo == -1) {
-			System.out.println("❌ Error al obtener el número del grupo para: " + nombreGrupo);
-			loggerGeneral.error("No se pudo obtener el número del grupo para '{}'.", nombreGrupo);
-			return false;
-		}
-
-		String nombreArchivo = "grupo_" + nombreGrupo + ".xml";
-		File archivoXML = new File(nombreArchivo);
-
-		// Verificar si el archivo ya existe y preguntar si sobrescribir
-		if (archivoXML.exists()) {
-			System.out.print("⚠️ El archivo '" + nombreArchivo + "' ya existe. ¿Deseas sobrescribirlo? (S/N): ");
-			String respuesta = sc.nextLine().trim().toUpperCase();
-			if (!respuesta.equals("S")) {
-				System.out.println("❌ Operación cancelada. El archivo no se ha sobrescrito.");
-				return false;
-			}
-		}
-
-		DocumentBuilderFactory documentoFactory = DocumentBuilderFactory.newInstance();
-		try {
-			DocumentBuilder documentoBuilder = documentoFactory.newDocumentBuilder();
-			Document documentoXML = documentoBuilder.newDocument();
-			Element raizElement = documentoXML.createElement("grupo");
-			documentoXML.appendChild(raizElement);
-
-			String consultaGrupo = "SELECT numeroGrupo, nombreGrupo FROM grupos WHERE numeroGrupo = ?";
-			String consultaAlumnos = """
-					SELECT nia, nombre, apellidos, genero, fechaNacimiento, curso
-					FROM alumnos
-					WHERE numeroGrupo = ?
-					""";
-
-			try (Connection conexion = PoolConexiones.getConnection();
-					PreparedStatement stmtGrupo = conexion.prepareStatement(consultaGrupo);
-					PreparedStatement stmtAlumnos = conexion.prepareStatement(consultaAlumnos)) {
-
-				// Obtener la información del grupo
-				stmtGrupo.setInt(1, numeroGrupo);
-				try (ResultSet rsGrupo = stmtGrupo.executeQuery()) {
-					if (rsGrupo.next()) {
-						raizElement.setAttribute("numeroGrupo", String.valueOf(numeroGrupo));
-						raizElement.setAttribute("nombreGrupo", rsGrupo.getString("nombreGrupo"));
-					} else {
-						System.out.println("❌ No se encontró el grupo con el número " + numeroGrupo + ".");
-						loggerGeneral.warn("El grupo con número {} no existe en la base de datos.", numeroGrupo);
-						return false;
-					}
-				}
-
-				// Obtener la información de los alumnos del grupo
-				stmtAlumnos.setInt(1, numeroGrupo);
-				try (ResultSet rsAlumnos = stmtAlumnos.executeQuery()) {
-					while (rsAlumnos.next()) {
-						Element alumnoElement = documentoXML.createElement("alumno");
-						alumnoElement.setAttribute("nia", rsAlumnos.getString("nia"));
-						alumnoElement.setAttribute("nombre", rsAlumnos.getString("nombre"));
-						alumnoElement.setAttribute("apellidos", rsAlumnos.getString("apellidos"));
-						alumnoElement.setAttribute("genero", rsAlumnos.getString("genero"));
-						alumnoElement.setAttribute("fechaNacimiento", rsAlumnos.getString("fechaNacimiento"));
-						alumnoElement.setAttribute("curso", rsAlumnos.getString("curso"));
-
-						raizElement.appendChild(alumnoElement);
-					}
-				}
-
-				// Guardar el archivo XML
-				TransformerFactory transformerFactory = TransformerFactory.newInstance();
-				Transformer transformer = transformerFactory.newTransformer();
-				transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-
-				DOMSource source = new DOMSource(documentoXML);
-				StreamResult result = new StreamResult(new File(nombreArchivo));
-				transformer.transform(source, result);
-
-				loggerGeneral.info("✅ El archivo XML del grupo {} se ha guardado correctamente en '{}'.", nombreGrupo,
-						nombreArchivo);
-				System.out.println("✅ El archivo XML del grupo '" + nombreGrupo + "' se ha guardado correctamente en '"
-						+ nombreArchivo + "'.");
-				return true;
-
-			} catch (SQLException e) {
-				loggerExcepciones.error("❌ Error al consultar el grupo o los alumnos: {}", e.getMessage(), e);
-				System.out.println("❌ Error al consultar el grupo o los alumnos: " + e.getMessage());
-			}
-		} catch (ParserConfigurationException | TransformerException e) {
-			loggerExcepciones.error("❌ Error al generar el archivo XML: {}", e.getMessage(), e);
-			System.out.println("❌ Error al generar el archivo XML: " + e.getMessage());
-		}
-
-		return false;
-	}
-
-	@Override
-	public boolean eliminarAlumnosPorApellidos(String apellidos) {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	@Override
-	public void guardarAlumnosEnFicheroJSON() {
-		// TODO Auto-generated method stub
-	}
-
-	@Override
-	public boolean leerAlumnosDeFicheroJSON() {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	@Override
-	public void guardarGruposEnFicheroJSON() {
-		// TODO Auto-generated method stub
-
-	}
-
-	@Override
-	public boolean leerGruposDeFicheroJSON() {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-}
+package modelo;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import esquema.GestorEsquema;
+import pool.PoolConexiones;
+
+public class AlumnosBD implements AlumnosDAO {
+
+	private final static Scanner sc = new Scanner(System.in);
+
+	private static final Logger loggerGeneral = LogManager.getRootLogger();
+	private static final Logger loggerExcepciones = LogManager.getLogger("exceptions");
+
+	// Filas por lote (y por commit) en las importaciones masivas
+	private static final int TAMANO_LOTE = PoolConexiones.getPropiedadEntera("db.batchSize", 1000);
+
+	// Alumnos por página en los listados
+	private static final int TAMANO_PAGINA = PoolConexiones.getPropiedadEntera("db.pageSize", 100);
+
+	// Filas por tramo (y por commit) en los borrados masivos
+	private static final int TAMANO_TRAMO_BORRADO = PoolConexiones.getPropiedadEntera("db.deleteBatchSize", 1000);
+
+	// Caché nombreGrupo -> numeroGrupo, compartida por todas las instancias
+	private static final CacheAcotada<String, Integer> cacheGrupos = new CacheAcotada<>(
+			PoolConexiones.getPropiedadEntera("db.cacheGrupos.capacidad", 256),
+			PoolConexiones.getPropiedadEntera("db.cacheGrupos.ttlSegundos", 300), TimeUnit.SECONDS);
+
+	// Caché NIA -> alumno (con su grupo) de las búsquedas por NIA, compartida por
+	// todas las instancias. Las escrituras de este modelo invalidan lo que
+	// cambian; la caducidad acota lo que tarda en verse un cambio hecho fuera
+	private static final CacheAcotada<Integer, Alumno> cacheAlumnos = new CacheAcotada<>(
+			PoolConexiones.getPropiedadEntera("db.cacheAlumnos.capacidad", 1024),
+			PoolConexiones.getPropiedadEntera("db.cacheAlumnos.ttlSegundos", 60), TimeUnit.SECONDS);
+
+	// Migraciones pendientes del esquema (tablas e índices), al cargar la clase.
+	// Si fallan (por ejemplo, sin permisos para crear índices) el modelo sigue
+	// funcionando con el esquema que haya.
+	static {
+		try (Connection conexion = PoolConexiones.getConnection()) {
+			GestorEsquema.actualizar(conexion);
+		} catch (SQLException e) {
+			loggerExcepciones.error("No se pudo actualizar el esquema de la base de datos: {}", e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public boolean insertarAlumno(Alumno alumno) {
+		try {
+			crearAlumno(alumno);
+			return true;
+		} catch (IllegalArgumentException | AccesoDatosException e) {
+			// El error ya queda registrado en el log por crearAlumno
+			return false;
+		}
+	}
+
+	/**
+	 * Inserta un alumno en la base de datos. El grupo se busca por su nombre.
+	 *
+	 * @param alumno Alumno a insertar; al terminar tiene asignado su NIA.
+	 * @return El NIA generado por la base de datos.
+	 */
+	@Override
+	public int crearAlumno(Alumno alumno) {
+		// Obtener el numeroGrupo del grupo del alumno
+		int numeroGrupo = obtenerNumeroGrupo(alumno.getGrupo().getNombreGrupo());
+
+		if (numeroGrupo == -1) {
+			loggerExcepciones.error("Error: El grupo '{}' no existe en la base de datos.",
+					alumno.getGrupo().getNombreGrupo());
+			throw new IllegalArgumentException(
+					"El grupo '" + alumno.getGrupo().getNombreGrupo() + "' no existe en la base de datos.");
+		}
+
+		String sql = "INSERT INTO alumnos (nombre, apellidos, genero, fechaNacimiento, ciclo, curso, numeroGrupo, "
+				+ "version_cambio) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+		try (SeguimientoCambios.Cambio cambio = SeguimientoCambios.abrir();
+				Connection conexion = PoolConexiones.getConnection();
+				PreparedStatement sentencia = conexion.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+			sentencia.setString(1, alumno.getNombre());
+			sentencia.setString(2, alumno.getApellidos());
+			sentencia.setString(3, String.valueOf(alumno.getGenero())); // Convertir el char a String
+			sentencia.setDate(4, new java.sql.Date(alumno.getFechaNacimiento().getTime()));
+			sentencia.setString(5, alumno.getCiclo());
+			sentencia.setString(6, alumno.getCurso());
+			sentencia.setInt(7, numeroGrupo); // Usar el numeroGrupo obtenido
+			sentencia.setLong(8, cambio.version());
+			sentencia.executeUpdate();
+
+			try (ResultSet clavesGeneradas = sentencia.getGeneratedKeys()) {
+				if (!clavesGeneradas.next()) {
+					throw new SQLException("La base de datos no devolvió el NIA del alumno insertado.");
+				}
+				alumno.setNia(clavesGeneradas.getInt(1));
+			}
+
+			loggerGeneral.info("Alumno '{}' '{}' insertado correctamente con NIA {}.", alumno.getNombre(),
+					alumno.getApellidos(), alumno.getNia());
+			return alumno.getNia();
+		} catch (SQLException e) {
+			loggerExcepciones.error("Error al insertar el alumno '{}' '{}': {}", alumno.getNombre(),
+					alumno.getApellidos(), e.getMessage(), e);
+			throw new AccesoDatosException("Error al insertar el alumno: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Solicita al usuario los datos necesarios para crear un objeto Alumno.
+	 * 
+	 * @return Un objeto Alumno con los datos ingresados por el usuario.
+	 */
+	@Override
+	public Alumno solicitarDatosAlumno() {
+		try {
+			System.out.println("Introduce el nombre del alumno:");
+			String nombre = sc.nextLine().trim().toUpperCase();
+
+			System.out.println("Introduce los apellidos del alumno:");
+			String apellidos = sc.nextLine().trim().toUpperCase();
+
+			// Validar género
+			char respuestaGenero = solicitarGenero();
+
+			// Validar fecha de nacimiento
+			Date fechaNacimiento = solicitarFechaNacimiento();
+
+			System.out.println("Introduce el ciclo del alumno:");
+			String ciclo = sc.nextLine().trim().toUpperCase();
+
+			System.out.println("Introduce el curso del alumno:");
+			String curso = sc.nextLine().trim().toUpperCase();
+
+			// Validar nombre del grupo
+			String nombreGrupo = solicitarNombreGrupo();
+
+			// Crear el objeto Grupo
+			Grupo grupo = new Grupo(nombreGrupo);
+
+			// Crear y devolver el objeto Alumno
+			Alumno alumno = new Alumno(nombre, apellidos, respuestaGenero, fechaNacimiento, ciclo, curso, grupo);
+			loggerGeneral.info("Datos del alumno solicitados correctamente: {}", alumno);
+			return alumno;
+
+		} catch (Exception e) {
+			loggerExcepciones.error("Error inesperado al solicitar datos del alumno: {}", e.getMessage(), e);
+			return null;
+		}
+	}
+
+	private char solicitarGenero() {
+		char genero;
+		do {
+			System.out.println("Introduce el género del alumno (M/F):");
+			String input = sc.nextLine().trim().toUpperCase();
+			if (input.length() == 1 && (input.charAt(0) == 'M' || input.charAt(0) == 'F')) {
+				genero = input.charAt(0);
+				break;
+			} else {
+				loggerGeneral.info("Entrada no válida para género: {}", input);
+				System.out.println("Respuesta no válida. Introduce 'M' o 'F'.");
+			}
+		} while (true);
+		return genero;
+	}
+
+	private Date solicitarFechaNacimiento() {
+		Date fecha = null;
+		SimpleDateFormat formatoFecha = new SimpleDateFormat("dd-MM-yyyy");
+		formatoFecha.setLenient(false); // Validación estricta
+
+		do {
+			System.out.println("Introduce la fecha de nacimiento (dd-MM-aaaa):");
+			String fechaInput = sc.nextLine().trim();
+			try {
+				fecha = formatoFecha.parse(fechaInput);
+			} catch (ParseException e) {
+				loggerExcepciones.error("Formato de fecha inválido ingresado: {}", fechaInput);
+				System.out.println("Formato de fecha inválido. Intenta de nuevo.");
+			}
+		} while (fecha == null);
+
+		return fecha;
+	}
+
+	private String solicitarNombreGrupo() {
+		String nombreGrupo;
+		do {
+			System.out.println("Introduce el nombre del grupo del alumno:");
+			nombreGrupo = sc.nextLine().trim().toUpperCase();
+			if (!validarNombreGrupo(nombreGrupo)) {
+				loggerGeneral.info("Entrada no válida para grupo: {}", nombreGrupo);
+				System.out.println("El nombre del grupo no es válido. Intenta de nuevo.");
+			}
+		} while (!validarNombreGrupo(nombreGrupo));
+		return nombreGrupo;
+	}
+
+	/**
+	 * Recupera el número del grupo a partir de su nombre. El resultado se sirve
+	 * desde la caché de grupos; solo se consulta la base de datos si el nombre no
+	 * está en caché o su entrada ha caducado.
+	 * 
+	 * @param nombreGrupo El nombre del grupo.
+	 * @return El numeroGrupo correspondiente o -1 si no existe.
+	 */
+	private int obtenerNumeroGrupo(String nombreGrupo) {
+		Integer numeroGrupo = cacheGrupos.obtener(nombreGrupo, this::consultarNumeroGrupo);
+		return numeroGrupo == null ? -1 : numeroGrupo;
+	}
+
+	/**
+	 * Consulta en la base de datos el número del grupo a partir de su nombre.
+	 * 
+	 * @param nombreGrupo El nombre del grupo.
+	 * @return El numeroGrupo correspondiente o null si no existe.
+	 * @throws AccesoDatosException Si falla la consulta: no se confunde con un
+	 *                              grupo inexistente.
+	 */
+	private Integer consultarNumeroGrupo(String nombreGrupo) {
+		String sql = "SELECT numeroGrupo FROM grupos WHERE nombreGrupo = ?";
+
+		try (Connection conexion = PoolConexiones.getConnection();
+				PreparedStatement sentencia = conexion.prepareStatement(sql)) {
+
+			sentencia.setString(1, nombreGrupo);
+
+			try (ResultSet resultado = sentencia.executeQuery()) {
+				if (resultado.next()) {
+					return resultado.getInt("numeroGrupo");
+				}
+			}
+		} catch (SQLException e) {
+			loggerExcepciones.error("Error al obtener numeroGrupo para el grupo '{}': {}", nombreGrupo, e.getMessage(),
+					e);
+			throw new AccesoDatosException("Error al consultar el grupo '" + nombreGrupo + "': " + e.getMessage(), e);
+		}
+
+		return null; // Si no se encuentra el grupo, devolver null
+	}
+
+	/**
+	 * Valida si un nombre de grupo existe en la base de datos (a través de la
+	 * caché de grupos).
+	 * 
+	 * @param nombreGrupo El nombre del grupo a validar.
+	 * @return true si el grupo existe, false en caso contrario.
+	 */
+	public boolean validarNombreGrupo(String nombreGrupo) {
+		return obtenerNumeroGrupo(nombreGrupo) != -1;
+	}
+
+	/**
+	 * Vacía la caché de grupos. Útil si los grupos se han modificado fuera de esta
+	 * aplicación.
+	 */
+	public void invalidarCacheGrupos() {
+		cacheGrupos.invalidarTodo();
+		loggerGeneral.info("Caché de grupos invalidada.");
+	}
+
+	/**
+	 * @return Aciertos, fallos y tamaño actuales de la caché de grupos.
+	 */
+	public CacheAcotada.Estadisticas getEstadisticasCacheGrupos() {
+		return cacheGrupos.estadisticas();
+	}
+
+	/**
+	 * Vacía la caché de alumnos por NIA. Útil si los alumnos se han modificado
+	 * fuera de esta aplicación.
+	 */
+	public void invalidarCacheAlumnos() {
+		cacheAlumnos.invalidarTodo();
+		loggerGeneral.info("Caché de alumnos invalidada.");
+	}
+
+	/**
+	 * @return Aciertos, fallos (y su ratio), expulsiones y tamaño actuales de la
+	 *         caché de alumnos por NIA.
+	 */
+	public CacheAcotada.Estadisticas getEstadisticasCacheAlumnos() {
+		return cacheAlumnos.estadisticas();
+	}
+
+	/**
+	 * Muestra todos los alumnos registrados. Los alumnos se recorren por páginas,
+	 * así que nunca se cargan todos en memoria.
+	 * 
+	 * @param mostrarTodaLaInformacion Indica si se debe mostrar toda la información
+	 *                                 (true) o solo NIA y nombre (false).
+	 * @return true si se muestra la lista correctamente, false en caso contrario.
+	 */
+	@Override
+	public boolean mostrarTodosLosAlumnos(boolean mostrarTodaLaInformacion) {
+		PaginaAlumnos pagina;
+		try {
+			pagina = obtenerPaginaAlumnos(PaginaAlumnos.INICIO, TAMANO_PAGINA);
+		} catch (AccesoDatosException e) {
+			System.out.println("Se produjo un error al recuperar los alumnos. Revisa los logs para más detalles.");
+			return false;
+		}
+
+		if (pagina.alumnos().isEmpty()) {
+			System.out.println("No hay alumnos registrados.");
+			return false;
+		}
+
+		if (mostrarTodaLaInformacion) {
+			System.out.println("Lista completa de alumnos registrados:");
+		} else {
+			System.out.println("Lista de alumnos (NIA y Nombre):");
+		}
+
+		while (true) {
+			for (Alumno alumno : pagina.alumnos()) {
+				if (mostrarTodaLaInformacion) {
+					// Mostrar toda la información
+					imprimirAlumno(alumno);
+				} else {
+					// Mostrar solo NIA y nombre
+					System.out.printf("NIA: %d, Nombre: %s%n", alumno.getNia(), alumno.getNombre());
+				}
+			}
+			if (!pagina.hayMas()) {
+				break;
+			}
+			try {
+				pagina = obtenerPaginaAlumnos(pagina.continuacion(), TAMANO_PAGINA);
+			} catch (AccesoDatosException e) {
+				System.out.println("Se produjo un error al recuperar los alumnos. Revisa los logs para más detalles.");
+				return false;
+			}
+		}
+
+		// Si estamos en modo "NIA y nombre", permitir al usuario seleccionar un NIA
+		if (!mostrarTodaLaInformacion) {
+			System.out.println("\nIntroduce el NIA del alumno que deseas visualizar (o 0 para salir):");
+			while (true) {
+				try {
+					int niaSeleccionado = Integer.parseInt(sc.nextLine().trim());
+
+					if (niaSeleccionado == 0) {
+						System.out.println("Saliendo sin seleccionar un alumno.");
+						return true;
+					}
+
+					// La consulta por clave primaria sustituye a buscar el NIA en la lista
+					if (mostrarAlumnoPorNIA(niaSeleccionado)) {
+						return true;
+					} else {
+						System.out.println("El NIA seleccionado no está en la lista. Inténtalo de nuevo.");
+					}
+				} catch (NumberFormatException e) {
+					System.out.println("El NIA debe ser un número válido. Inténtalo de nuevo:");
+				}
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Devuelve una página de alumnos ordenada por NIA usando paginación por clave
+	 * ('WHERE nia > ?'), de modo que el coste de cada página no depende de su
+	 * posición ni del tamaño de la tabla.
+	 *
+	 * @param despuesDeNia Último NIA de la página anterior (PaginaAlumnos.INICIO
+	 *                     para la primera).
+	 * @param tamanoPagina Número máximo de alumnos de la página.
+	 * @return La página solicitada.
+	 */
+	@Override
+	public PaginaAlumnos obtenerPaginaAlumnos(int despuesDeNia, int tamanoPagina) {
+		String sql = """
+				    SELECT a.nia, a.nombre, a.apellidos, a.genero, a.fechaNacimiento,
+				           a.ciclo, a.curso, a.numeroGrupo, g.nombreGrupo
+				    FROM alumnos a
+				    LEFT JOIN grupos g ON a.numeroGrupo = g.numeroGrupo
+				    WHERE a.nia > ?
+				    ORDER BY a.nia
+				    LIMIT ?
+				""";
+
+		try (Connection conexion = PoolConexiones.getConnection();
+				PreparedStatement sentencia = conexion.prepareStatement(sql)) {
+
+			sentencia.setInt(1, despuesDeNia);
+			sentencia.setInt(2, tamanoPagina + 1);
+			return leerPagina(sentencia, tamanoPagina);
+		} catch (SQLException e) {
+			loggerExcepciones.error("Error al recuperar la página de alumnos tras el NIA {}: {}", despuesDeNia,
+					e.getMessage(), e);
+			throw new AccesoDatosException("Error al recuperar los alumnos: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Devuelve una página de los alumnos de un grupo, ordenada por NIA.
+	 *
+	 * @param nombreGrupo  Nombre del grupo.
+	 * @param despuesDeNia Último NIA de la página anterior (PaginaAlumnos.INICIO
+	 *                     para la primera).
+	 * @param tamanoPagina Número máximo de alumnos de la página.
+	 * @return La página solicitada, o null si el grupo no existe.
+	 */
+	@Override
+	public PaginaAlumnos obtenerPaginaAlumnosPorGrupo(String nombreGrupo, int despuesDeNia, int tamanoPagina) {
+		int numeroGrupo = obtenerNumeroGrupoPorNombre(nombreGrupo);
+		if (numeroGrupo == -1) {
+			return null;
+		}
+
+		String sql = """
+				    SELECT a.nia, a.nombre, a.apellidos, a.genero, a.fechaNacimiento,
+				           a.ciclo, a.curso, a.numeroGrupo, g.nombreGrupo
+				    FROM alumnos a
+				    JOIN grupos g ON a.numeroGrupo = g.numeroGrupo
+				    WHERE a.numeroGrupo = ? AND a.nia > ?
+				    ORDER BY a.nia
+				    LIMIT ?
+				""";
+
+		try (Connection conexion = PoolConexiones.getConnection();
+				PreparedStatement sentencia = conexion.prepareStatement(sql)) {
+
+			sentencia.setInt(1, numeroGrupo);
+			sentencia.setInt(2, despuesDeNia);
+			sentencia.setInt(3, tamanoPagina + 1);
+			return leerPagina(sentencia, tamanoPagina);
+		} catch (SQLException e) {
+			loggerExcepciones.error("Error al recuperar la página de alumnos del grupo '{}': {}", nombreGrupo,
+					e.getMessage(), e);
+			throw new AccesoDatosException("Error al recuperar los alumnos del grupo: " + e.getMessage(), e);
+		}
+	}
+
+	private PaginaAlumnos leerPagina(PreparedStatement sentencia, int tamanoPagina) throws SQLException {
+		List<Alumno> filas = new ArrayList<>(tamanoPagina + 1);
+		try (ResultSet resultado = sentencia.executeQuery()) {
+			while (resultado.next()) {
+				filas.add(leerAlumno(resultado));
+			}
+		}
+		return PaginaAlumnos.desdeConsulta(filas, tamanoPagina);
+	}
+
+	/**
+	 * Construye un Alumno a partir de la fila actual de una consulta que incluye
+	 * las columnas de alumnos y 'nombreGrupo'.
+	 */
+	private Alumno leerAlumno(ResultSet resultado) throws SQLException {
+		String genero = resultado.getString("genero");
+		String nombreGrupo = resultado.getString("nombreGrupo");
+
+		return new Alumno(resultado.getInt("nia"), resultado.getString("nombre"), resultado.getString("apellidos"),
+				genero == null || genero.isEmpty() ? 'S' : genero.charAt(0), resultado.getDate("fechaNacimiento"),
+				resultado.getString("ciclo"), resultado.getString("curso"),
+				nombreGrupo == null ? null : new Grupo(resultado.getInt("numeroGrupo"), nombreGrupo));
+	}
+
+	/**
+	 * Copia de un alumno de la caché (con su grupo y su fecha), para que quien lo
+	 * recibe pueda modificarlo.
+	 */
+	private static Alumno copiar(Alumno alumno) {
+		Grupo grupo = alumno.getGrupo();
+		Date fecha = alumno.getFechaNacimiento() == null ? null : (Date) alumno.getFechaNacimiento().clone();
+		return new Alumno(alumno.getNia(), alumno.getNombre(), alumno.getApellidos(), alumno.getGenero(), fecha,
+				alumno.getCiclo(), alumno.getCurso(),
+				grupo == null ? null : new Grupo(grupo.getNumeroGrupo(), grupo.getNombreGrupo()));
+	}
+
+	private void imprimirAlumno(Alumno alumno) {
+		System.out.printf("""
+				NIA: %d
+				Nombre: %s
+				Apellidos: %s
+				Género: %s
+				Fecha de nacimiento: %s
+				Ciclo: %s
+				Curso: %s
+				Grupo: %s
+				-------------------------
+				""", alumno.getNia(), alumno.getNombre(), alumno.getApellidos(), alumno.getGenero(),
+				alumno.getFechaNacimiento(), alumno.getCiclo(), alumno.getCurso(),
+				alumno.getGrupo() == null ? "Sin grupo" : alumno.getGrupo().getNombreGrupo());
+	}
+
+	/**
+	 * Guarda todos los alumnos en un fichero de texto. La información incluye sus
+	 * datos y el grupo al que pertenecen. Los alumnos se ordenan de forma
+	 * ascendente por su NIA.
+	 */
+	@Override
+	public void guardarAlumnosEnFicheroTexto() {
+		String nombreFichero = Compresion.predeterminada().nombreFichero("alumnos.txt");
+		File fichero = new File(nombreFichero);
+
+		// Verificar si el archivo existe y pedir confirmación para sobreescribirlo
+		if (fichero.exists()) {
+			System.out.print("El fichero ya existe. ¿Desea sobreescribirlo? (S/N): ");
+			char respuesta = sc.nextLine().toUpperCase().charAt(0);
+			if (respuesta != 'S') {
+				System.out.println("Operación cancelada. El fichero no se sobrescribirá.");
+				loggerGeneral.info("El usuario decidió no sobrescribir el fichero '{}'.", nombreFichero);
+				return;
+			}
+		}
+
+		try {
+			if (exportarAlumnosTexto(fichero.toPath()) == 0) {
+				System.out.println("No hay alumnos registrados para guardar en el fichero.");
+			} else {
+				System.out.println("Datos de los alumnos guardados correctamente en el fichero 'alumnos.txt'.");
+			}
+		} catch (AccesoDatosException e) {
+			System.out.println("Se produjo un error al guardar los alumnos. Revisa los logs para más detalles.");
+		}
+	}
+
+	/**
+	 * Escribe todos los alumnos, ordenados por NIA, en un fichero de texto con el
+	 * formato: NIA,Nombre,Apellidos,Género,Fecha Nacimiento,Ciclo,Curso,Nombre del
+	 * Grupo. Las filas se leen en streaming.
+	 *
+	 * @param destino Fichero que se crea o sobrescribe.
+	 * @return Número de alumnos escritos.
+	 */
+	@Override
+	public long exportarAlumnosTexto(Path destino) {
+		String sql = """
+				    SELECT a.nia, a.nombre, a.apellidos, a.genero,
+				           a.fechaNacimiento, a.ciclo, a.curso, g.nombreGrupo
+				    FROM alumnos a
+				    LEFT JOIN grupos g ON a.numeroGrupo = g.numeroGrupo
+				    ORDER BY a.nia ASC
+				""";
+
+		try (BufferedWriter writer = Compresion.abrirEscritor(destino);
+				Connection conexion = PoolConexiones.getConnection();
+				PreparedStatement sentencia = PoolConexiones.prepararConsultaEnStreaming(conexion, sql);
+				ResultSet resultado = sentencia.executeQuery()) {
+
+			// Escribir encabezados en el fichero
+			writer.write("NIA,Nombre,Apellidos,Género,Fecha Nacimiento,Ciclo,Curso,Nombre del Grupo");
+			writer.newLine();
+
+			// Escribir los datos de los alumnos en el fichero
+			long alumnos = 0;
+			while (resultado.next()) {
+				writer.write(String.format("%d,%s,%s,%s,%s,%s,%s,%s", resultado.getInt("nia"),
+						resultado.getString("nombre"), resultado.getString("apellidos"), resultado.getString("genero"),
+						resultado.getString("fechaNacimiento"), resultado.getString("ciclo"),
+						resultado.getString("curso"),
+						resultado.getString("nombreGrupo") == null ? "Sin grupo" : resultado.getString("nombreGrupo")));
+				writer.newLine();
+				alumnos++;
+			}
+
+			loggerGeneral.info("Se guardaron {} alumnos en el fichero '{}'.", alumnos, destino);
+			return alumnos;
+
+		} catch (SQLException e) {
+			loggerExcepciones.error("Error al ejecutar la consulta SQL: {}", e.getMessage(), e);
+			throw new AccesoDatosException("Error al recuperar los alumnos: " + e.getMessage(), e);
+		} catch (IOException e) {
+			loggerExcepciones.error("Error al escribir en el fichero '{}': {}", destino, e.getMessage(), e);
+			throw new AccesoDatosException("Error al escribir en el fichero '" + destino + "': " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Exportación incremental: escribe solo los grupos y alumnos creados,
+	 * modificados o eliminados desde la exportación anterior con la misma marca,
+	 * así que su coste depende de los cambios y no del tamaño de las tablas. La
+	 * primera exportación de una marca lo incluye todo.
+	 *
+	 * Formato: el de {@link #exportarAlumnosTexto(Path)} con una primera columna
+	 * 'Cambio': 'G' para un grupo nuevo (solo con el nombre del grupo), 'A' para
+	 * un alumno nuevo o modificado (con todos sus datos) y 'B' para un alumno
+	 * eliminado (solo con el NIA). Primero van los grupos, después los alumnos y
+	 * al final las bajas, cada uno en orden de versión de cambio.
+	 *
+	 * La marca se actualiza en la base de datos cuando el fichero está escrito
+	 * entero: si la exportación falla, la siguiente vuelve a incluir los mismos
+	 * cambios. Las bajas ya exportadas con todas las marcas se purgan.
+	 *
+	 * @param destino Fichero que se crea o sobrescribe.
+	 * @param marca   Nombre de la marca (por ejemplo, el destino de la
+	 *                sincronización), de hasta 50 caracteres.
+	 * @return Número de cambios escritos.
+	 */
+	public long exportarCambiosTexto(Path destino, String marca) {
+		if (marca == null || marca.isBlank() || marca.length() > 50) {
+			throw new IllegalArgumentException("Marca de exportación no válida: " + marca);
+		}
+
+		String sqlGrupos = """
+				    SELECT nombreGrupo FROM grupos
+				    WHERE version_cambio > ? AND version_cambio <= ?
+				    ORDER BY version_cambio, numeroGrupo
+				""";
+		String sqlAlumnos = """
+				    SELECT a.nia, a.nombre, a.apellidos, a.genero,
+				           a.fechaNacimiento, a.ciclo, a.curso, g.nombreGrupo
+				    FROM alumnos a
+				    LEFT JOIN grupos g ON a.numeroGrupo = g.numeroGrupo
+				    WHERE a.version_cambio > ? AND a.version_cambio <= ?
+				    ORDER BY a.version_cambio, a.nia
+				""";
+		String sqlEliminados = """
+				    SELECT nia FROM alumnos_eliminados
+				    WHERE version_cambio > ? AND version_cambio <= ?
+				    ORDER BY version_cambio, nia
+				""";
+
+		try (Connection conexion = PoolConexiones.getConnection()) {
+			// Sin marca anterior se exporta todo, también lo anterior al seguimiento
+			// (versión 0)
+			long desde = leerMarcaCambios(conexion, marca).orElse(-1L);
+			long hasta = SeguimientoCambios.marcaSegura(conexion);
+
+			long cambios = 0;
+			try (BufferedWriter writer = Compresion.abrirEscritor(destino)) {
+				writer.write("Cambio,NIA,Nombre,Apellidos,Género,Fecha Nacimiento,Ciclo,Curso,Nombre del Grupo");
+				writer.newLine();
+
+				try (PreparedStatement sentencia = consultaCambios(conexion, sqlGrupos, desde, hasta);
+						ResultSet resultado = sentencia.executeQuery()) {
+					while (resultado.next()) {
+						writer.write("G,,,,,,,," + resultado.getString("nombreGrupo"));
+						writer.newLine();
+						cambios++;
+					}
+				}
+
+				try (PreparedStatement sentencia = consultaCambios(conexion, sqlAlumnos, desde, hasta);
+						ResultSet resultado = sentencia.executeQuery()) {
+					while (resultado.next()) {
+						writer.write(String.format("A,%d,%s,%s,%s,%s,%s,%s,%s", resultado.getInt("nia"),
+								resultado.getString("nombre"), resultado.getString("apellidos"),
+								resultado.getString("genero"), resultado.getString("fechaNacimiento"),
+								resultado.getString("ciclo"), resultado.getString("curso"),
+								resultado.getString("nombreGrupo") == null ? "Sin grupo"
+										: resultado.getString("nombreGrupo")));
+						writer.newLine();
+						cambios++;
+					}
+				}
+
+				try (PreparedStatement sentencia = consultaCambios(conexion, sqlEliminados, desde, hasta);
+						ResultSet resultado = sentencia.executeQuery()) {
+					while (resultado.next()) {
+						writer.write("B," + resultado.getInt("nia") + ",,,,,,,");
+						writer.newLine();
+						cambios++;
+					}
+				}
+			}
+
+			guardarMarcaCambios(conexion, marca, hasta);
+			loggerGeneral.info("Exportación incremental '{}' en '{}': {} cambios (versiones {} a {}).", marca, destino,
+					cambios, desde + 1, hasta);
+			return cambios;
+		} catch (SQLException e) {
+			loggerExcepciones.error("Error en la exportación incremental '{}': {}", marca, e.getMessage(), e);
+			throw new AccesoDatosException("Error en la exportación incremental: " + e.getMessage(), e);
+		} catch (IOException e) {
+			loggerExcepciones.error("Error al escribir en el fichero '{}': {}", destino, e.getMessage(), e);
+			throw new AccesoDatosException("Error al escribir en el fichero '" + destino + "': " + e.getMessage(), e);
+		}
+	}
+
+	private static PreparedStatement consultaCambios(Connection conexion, String sql, long desde, long hasta)
+			throws SQLException {
+		PreparedStatement sentencia = PoolConexiones.prepararConsultaEnStreaming(conexion, sql);
+		sentencia.setLong(1, desde);
+		sentencia.setLong(2, hasta);
+		return sentencia;
+	}
+
+	/**
+	 * @return La versión hasta la que se exportó con la marca, o vacío si nunca
+	 *         se ha exportado con ella.
+	 */
+	private static Optional<Long> leerMarcaCambios(Connection conexion, String marca) throws SQLException {
+		try (PreparedStatement sentencia = conexion
+				.prepareStatement("SELECT version FROM marcas_cambios WHERE nombre = ?")) {
+			sentencia.setString(1, marca);
+			try (ResultSet rs = sentencia.executeQuery()) {
+				return rs.next() ? Optional.of(rs.getLong(1)) : Optional.empty();
+			}
+		}
+	}
+
+	/**
+	 * Guarda la versión de la marca y purga las bajas que ya han exportado todas
+	 * las marcas y los registros de cambios anteriores (se conserva el último,
+	 * del que sale la marca segura).
+	 */
+	private static void guardarMarcaCambios(Connection conexion, String marca, long version) throws SQLException {
+		boolean autoCommitOriginal = conexion.getAutoCommit();
+		conexion.setAutoCommit(false);
+		try (PreparedStatement actualizar = conexion.prepareStatement(
+				"UPDATE marcas_cambios SET version = ?, actualizada = CURRENT_TIMESTAMP WHERE nombre = ?");
+				PreparedStatement insertar = conexion.prepareStatement(
+						"INSERT INTO marcas_cambios (nombre, version, actualizada) VALUES (?, ?, CURRENT_TIMESTAMP)");
+				PreparedStatement purgarEliminados = conexion.prepareStatement(
+						"DELETE FROM alumnos_eliminados WHERE version_cambio <= (SELECT MIN(version) FROM marcas_cambios)");
+				PreparedStatement purgarCambios = conexion.prepareStatement("DELETE FROM cambios WHERE version < ?")) {
+
+			actualizar.setLong(1, version);
+			actualizar.setString(2, marca);
+			if (actualizar.executeUpdate() == 0) {
+				insertar.setString(1, marca);
+				insertar.setLong(2, version);
+				insertar.executeUpdate();
+			}
+			int purgadas = purgarEliminados.executeUpdate();
+			purgarCambios.setLong(1, version);
+			purgarCambios.executeUpdate();
+			conexion.commit();
+
+			if (purgadas > 0) {
+				loggerGeneral.debug("{} bajas ya exportadas con todas las marcas purgadas.", purgadas);
+			}
+		} catch (SQLException e) {
+			conexion.rollback();
+			throw e;
+		} finally {
+			conexion.setAutoCommit(autoCommitOriginal);
+		}
+	}
+
+	/**
+	 * Lee los alumnos desde el fichero de texto 'alumnos.txt' y los inserta en la
+	 * base de datos. El formato del fichero debe ser:
+	 * NIA,Nombre,Apellidos,Género,Fecha Nacimiento,Ciclo,Curso,Nombre del Grupo
+	 *
+	 * @return true si todos los alumnos fueron insertados correctamente, false si
+	 *         ocurrió algún error.
+	 */
+	@Override
+	public boolean leerAlumnosDeFicheroTexto() {
+		return leerAlumnosDeFicheroTexto(Compresion.predeterminada().nombreFichero("alumnos.txt"), TAMANO_LOTE);
+	}
+
+	/**
+	 * Importación masiva de alumnos desde un fichero de texto. Usa una única
+	 * conexión del pool, inserta con addBatch/executeBatch y hace commit cada
+	 * 'tamanoLote' filas. Cada nombre de grupo se resuelve una sola vez.
+	 *
+	 * @param fichero    Ruta del fichero de texto.
+	 * @param tamanoLote Número de filas por lote (y por commit).
+	 * @return true si se insertó al menos un alumno, false en caso contrario.
+	 */
+	public boolean leerAlumnosDeFicheroTexto(String fichero, int tamanoLote) {
+		try {
+			ResultadoImportacion resultado = importarAlumnosTexto(Path.of(fichero), tamanoLote);
+			System.out.println("Importación finalizada: " + resultado);
+
+			if (resultado.getFilasInsertadas() > 0) {
+				System.out.println("Alumnos leídos e insertados correctamente desde el fichero '" + fichero + "'.");
+				return true;
+			} else {
+				System.out.println("No se insertaron alumnos.");
+				return false;
+			}
+		} catch (AccesoDatosException e) {
+			System.out.println(e.getMessage());
+			return false;
+		}
+	}
+
+	@Override
+	public ResultadoImportacion importarAlumnosTexto(Path origen) {
+		return importarAlumnosTexto(origen, TAMANO_LOTE);
+	}
+
+	/**
+	 * Importa los alumnos de un fichero de texto por lotes (ver
+	 * {@link #leerAlumnosDeFicheroTexto(String, int)}). Las líneas con datos
+	 * inválidos o de grupos inexistentes se cuentan como rechazadas.
+	 *
+	 * @param origen     Fichero de texto.
+	 * @param tamanoLote Número de filas por lote (y por commit).
+	 * @return El resumen de la importación.
+	 */
+	public ResultadoImportacion importarAlumnosTexto(Path origen, int tamanoLote) {
+		String fichero = origen.toString();
+		ResultadoImportacion resultado = new ResultadoImportacion();
+		Map<String, Integer> gruposResueltos = new HashMap<>();
+
+		String sqlGrupo = "SELECT numeroGrupo FROM grupos WHERE nombreGrupo = ?";
+		String sqlInsertar = "INSERT INTO alumnos (nombre, apellidos, genero, fechaNacimiento, ciclo, curso, numeroGrupo, "
+				+ "version_cambio) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+		try (BufferedReader br = Compresion.abrirLector(origen);
+				SeguimientoCambios.Cambio cambio = SeguimientoCambios.abrir();
+				Connection conexion = PoolConexiones.getConnection();
+				PreparedStatement consultaGrupo = conexion.prepareStatement(sqlGrupo);
+				PreparedStatement sentencia = conexion.prepareStatement(sqlInsertar)) {
+
+			boolean autoCommitOriginal = conexion.getAutoCommit();
+			conexion.setAutoCommit(false);
+
+			try {
+				SimpleDateFormat formatoFecha = new SimpleDateFormat("dd-MM-yyyy");
+				int filasPendientes = 0;
+				int numeroLinea = 1;
+				String linea;
+
+				// Ignorar la primera línea (cabecera)
+				br.readLine();
+
+				while ((linea = br.readLine()) != null) {
+					numeroLinea++;
+
+					// Separar los campos por coma
+					String[] datos = linea.split(",");
+
+					// Verificar que la línea tenga 8 campos
+					if (datos.length != 8 || datos[3].isEmpty()) {
+						loggerGeneral.warn("Línea {} inválida en el fichero (número de campos incorrecto): {}",
+								numeroLinea, linea);
+						resultado.rechazarLinea();
+						continue;
+					}
+
+					Date fechaUtil;
+					try {
+						fechaUtil = formatoFecha.parse(datos[4]);
+					} catch (ParseException e) {
+						loggerExcepciones.error("Línea {}: error al convertir la fecha: {}", numeroLinea, datos[4]);
+						resultado.rechazarLinea();
+						continue;
+					}
+
+					// Obtener el número del grupo (una consulta por grupo distinto)
+					String grupo = datos[7];
+					Integer numeroGrupo = gruposResueltos.get(grupo);
+					if (numeroGrupo == null) {
+						numeroGrupo = resolverNumeroGrupo(consultaGrupo, grupo);
+						gruposResueltos.put(grupo, numeroGrupo);
+					}
+
+					if (numeroGrupo == -1) {
+						loggerGeneral.warn("Línea {}: el grupo '{}' no existe en la base de datos. Alumno ignorado.",
+								numeroLinea, grupo);
+						resultado.rechazarLinea();
+						continue;
+					}
+
+					sentencia.setString(1, datos[1]);
+					sentencia.setString(2, datos[2]);
+					sentencia.setString(3, String.valueOf(datos[3].charAt(0)));
+					sentencia.setDate(4, new java.sql.Date(fechaUtil.getTime()));
+					sentencia.setString(5, datos[5]);
+					sentencia.setString(6, datos[6]);
+					sentencia.setInt(7, numeroGrupo);
+					sentencia.setLong(8, cambio.version());
+					sentencia.addBatch();
+
+					if (++filasPendientes >= tamanoLote) {
+						ejecutarLote(conexion, sentencia, filasPendientes, resultado);
+						filasPendientes = 0;
+					}
+				}
+
+				if (filasPendientes > 0) {
+					ejecutarLote(conexion, sentencia, filasPendientes, resultado);
+				}
+			} finally {
+				conexion.setAutoCommit(autoCommitOriginal);
+			}
+
+			resultado.finalizar();
+			loggerGeneral.info("Importación de '{}' finalizada: {}", fichero, resultado);
+			return resultado;
+		} catch (IOException e) {
+			loggerExcepciones.error("Ocurrió un error al leer el archivo '{}': {}", fichero, e.getMessage(), e);
+			throw new AccesoDatosException("Ocurrió un error al leer el archivo: " + e.getMessage(), e);
+		} catch (SQLException e) {
+			loggerExcepciones.error("Error en la base de datos al importar '{}': {}", fichero, e.getMessage(), e);
+			throw new AccesoDatosException("Error en la base de datos al importar los alumnos: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Importa el fichero de texto en paralelo: varios hilos analizan tramos del
+	 * fichero y varias conexiones del pool insertan los lotes a la vez (como
+	 * mucho tantas como admite el pool). Mismas reglas que la importación
+	 * secuencial: las líneas inválidas o de grupos inexistentes se rechazan y un
+	 * lote que falla se descarta entero.
+	 */
+	@Override
+	public ResultadoImportacion importarAlumnosTexto(Path origen, OpcionesImportacion opciones) {
+		// Un fichero comprimido no se puede dividir en tramos: se importa en secuencia
+		if (opciones.esSecuencial() || Compresion.de(origen) != Compresion.NINGUNA) {
+			return importarAlumnosTexto(origen, TAMANO_LOTE);
+		}
+
+		int maximoPool = PoolConexiones.getMetricas().maximo();
+		if (opciones.conexiones() > maximoPool) {
+			loggerGeneral.warn("Se piden {} conexiones para importar y el pool admite {}: se usarán {}.",
+					opciones.conexiones(), maximoPool, maximoPool);
+			opciones = new OpcionesImportacion(opciones.hilosAnalisis(), maximoPool, opciones.orden());
+		}
+
+		String fichero = origen.toString();
+		try (SeguimientoCambios.Cambio cambio = SeguimientoCambios.abrir()) {
+			Map<String, Integer> grupos = cargarNumerosGrupo();
+			ResultadoImportacion resultado = ImportadorTextoParalelo.importar(origen, opciones, TAMANO_LOTE,
+					() -> new DestinoJDBC(grupos, cambio.version()));
+			loggerGeneral.info("Importación de '{}' finalizada ({} hilos, {} conexiones, orden {}): {}", fichero,
+					opciones.hilosAnalisis(), opciones.conexionesEfectivas(), opciones.orden(), resultado);
+			return resultado;
+		} catch (IOException e) {
+			loggerExcepciones.error("Ocurrió un error al leer el archivo '{}': {}", fichero, e.getMessage(), e);
+			throw new AccesoDatosException("Ocurrió un error al leer el archivo: " + e.getMessage(), e);
+		} catch (Exception e) {
+			loggerExcepciones.error("Error en la base de datos al importar '{}': {}", fichero, e.getMessage(), e);
+			throw new AccesoDatosException("Error en la base de datos al importar los alumnos: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * @return Los números de todos los grupos, por nombre.
+	 */
+	private Map<String, Integer> cargarNumerosGrupo() throws SQLException {
+		Map<String, Integer> grupos = new HashMap<>();
+		try (Connection conexion = PoolConexiones.getConnection();
+				Statement sentencia = conexion.createStatement();
+				ResultSet rs = sentencia.executeQuery("SELECT numeroGrupo, nombreGrupo FROM grupos")) {
+			while (rs.next()) {
+				grupos.put(rs.getString("nombreGrupo"), rs.getInt("numeroGrupo"));
+			}
+		}
+		return grupos;
+	}
+
+	/**
+	 * Inserta los lotes de la importación paralela por una conexión propia del
+	 * pool. Todas las conexiones usan la versión de cambio de la importación.
+	 */
+	private final class DestinoJDBC implements ImportadorTextoParalelo.Destino {
+
+		private final Map<String, Integer> grupos;
+		private final long versionCambio;
+		private final Connection conexion;
+		private final PreparedStatement sentencia;
+
+		DestinoJDBC(Map<String, Integer> grupos, long versionCambio) throws SQLException {
+			this.grupos = grupos;
+			this.versionCambio = versionCambio;
+			this.conexion = PoolConexiones.getConnection();
+			try {
+				conexion.setAutoCommit(false);
+				this.sentencia = conexion.prepareStatement(
+						"INSERT INTO alumnos (nombre, apellidos, genero, fechaNacimiento, ciclo, curso, numeroGrupo, "
+								+ "version_cambio) VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+			} catch (SQLException e) {
+				conexion.close();
+				throw e;
+			}
+		}
+
+		@Override
+		public int insertar(List<ImportadorTextoParalelo.Fila> lote) throws SQLException {
+			int rechazadas = 0;
+			int pendientes = 0;
+			for (ImportadorTextoParalelo.Fila fila : lote) {
+				Integer numeroGrupo = grupos.get(fila.nombreGrupo());
+				if (numeroGrupo == null) {
+					loggerGeneral.warn("El grupo '{}' no existe en la base de datos. Alumno ignorado.",
+							fila.nombreGrupo());
+					rechazadas++;
+					continue;
+				}
+
+				Alumno alumno = fila.alumno();
+				sentencia.setString(1, alumno.getNombre());
+				sentencia.setString(2, alumno.getApellidos());
+				sentencia.setString(3, String.valueOf(alumno.getGenero()));
+				sentencia.setDate(4, new java.sql.Date(alumno.getFechaNacimiento().getTime()));
+				sentencia.setString(5, alumno.getCiclo());
+				sentencia.setString(6, alumno.getCurso());
+				sentencia.setInt(7, numeroGrupo);
+				sentencia.setLong(8, versionCambio);
+				sentencia.addBatch();
+				pendientes++;
+			}
+
+			if (pendientes > 0) {
+				try {
+					sentencia.executeBatch();
+					conexion.commit();
+				} catch (BatchUpdateException e) {
+					conexion.rollback();
+					sentencia.clearBatch();
+					loggerExcepciones.error("Error al insertar un lote de {} alumnos. Lote descartado: {}", pendientes,
+							e.getMessage(), e);
+					return lote.size();
+				}
+			}
+			return rechazadas;
+		}
+
+		@Override
+		public void close() throws SQLException {
+			try (conexion; sentencia) {
+				conexion.setAutoCommit(true);
+			}
+		}
+	}
+
+	/**
+	 * Busca el numeroGrupo de un grupo reutilizando una sentencia ya preparada.
+	 *
+	 * @return El numeroGrupo o -1 si el grupo no existe.
+	 */
+	private int resolverNumeroGrupo(PreparedStatement consultaGrupo, String nombreGrupo) throws SQLException {
+		consultaGrupo.setString(1, nombreGrupo);
+		try (ResultSet rs = consultaGrupo.executeQuery()) {
+			return rs.next() ? rs.getInt("numeroGrupo") : -1;
+		}
+	}
+
+	/**
+	 * Busca el numeroGrupo de un grupo y, si no existe, lo inserta. El grupo nuevo
+	 * se confirma en el acto: si luego falla un lote de alumnos, el rollback no
+	 * debe deshacer un grupo cuyo número ya se está usando.
+	 */
+	private int resolverOCrearGrupo(Connection conexion, PreparedStatement consultaGrupo,
+			PreparedStatement insertarGrupo, String nombreGrupo, long versionCambio) throws SQLException {
+		int numeroGrupo = resolverNumeroGrupo(consultaGrupo, nombreGrupo);
+		if (numeroGrupo != -1) {
+			return numeroGrupo;
+		}
+
+		insertarGrupo.setString(1, nombreGrupo);
+		insertarGrupo.setLong(2, versionCambio);
+		insertarGrupo.executeUpdate();
+		try (ResultSet clavesGeneradas = insertarGrupo.getGeneratedKeys()) {
+			if (!clavesGeneradas.next()) {
+				throw new SQLException("La base de datos no devolvió el número del grupo insertado.");
+			}
+			numeroGrupo = clavesGeneradas.getInt(1);
+		}
+		conexion.commit();
+		loggerGeneral.info("Grupo '{}' creado durante la importación.", nombreGrupo);
+		return numeroGrupo;
+	}
+
+	/**
+	 * Ejecuta el lote pendiente y hace commit. Si el lote falla se deshace y sus
+	 * filas se cuentan como rechazadas, de modo que la importación continúa con el
+	 * siguiente lote.
+	 */
+	private void ejecutarLote(Connection conexion, PreparedStatement sentencia, int filasPendientes,
+			ResultadoImportacion resultado) throws SQLException {
+		try {
+			sentencia.executeBatch();
+			conexion.commit();
+			resultado.sumarInsertadas(filasPendientes);
+		} catch (BatchUpdateException e) {
+			conexion.rollback();
+			sentencia.clearBatch();
+			resultado.rechazarLineas(filasPendientes);
+			loggerExcepciones.error("Error al insertar un lote de {} alumnos. Lote descartado: {}", filasPendientes,
+					e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Obtiene el número del grupo a partir del nombre del grupo.
+	 *
+	 * @param nombreGrupo Nombre del grupo.
+	 * @return El número del grupo, o -1 si no se encuentra el grupo.
+	 */
+	private int obtenerNumeroGrupoPorNombre(String nombreGrupo) {
+		return obtenerNumeroGrupo(nombreGrupo);
+	}
+
+	/**
+	 * Ejecuta una operación genérica en la base de datos basada en un NIA.
+	 * 
+	 * @param sql                 La consulta SQL a ejecutar.
+	 * @param configuracionParams Función para configurar los parámetros del
+	 *                            PreparedStatement.
+	 * @return true si la operación afecta filas en la base de datos, false en caso
+	 *         contrario.
+	 * @throws AccesoDatosException Si falla la base de datos.
+	 */
+	public boolean ejecutarOperacionConNIA(String sql, Consumer<PreparedStatement> configuracionParams) {
+		try (Connection conexion = PoolConexiones.getConnection();
+				PreparedStatement sentencia = conexion.prepareStatement(sql)) {
+
+			// Configurar los parámetros usando la función pasada como argumento
+			configuracionParams.accept(sentencia);
+
+			// Ejecutar la consulta
+			int filasAfectadas = sentencia.executeUpdate();
+
+			if (filasAfectadas > 0) {
+				loggerGeneral.info("Operación ejecutada correctamente. SQL: {}", sql);
+				return true;
+			} else {
+				loggerGeneral.warn("Operación no afectó filas. SQL: {}", sql);
+				return false;
+			}
+		} catch (SQLException e) {
+			loggerExcepciones.error("Error al ejecutar la operación SQL '{}': {}", sql, e.getMessage(), e);
+			throw new AccesoDatosException("Error al ejecutar la operación: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Modifica el nombre de un alumno en la base de datos basado en su NIA.
+	 * 
+	 * @param nia         NIA del alumno.
+	 * @param nuevoNombre Nuevo nombre del alumno.
+	 * @return true si la modificación fue exitosa; false en caso contrario.
+	 */
+	@Override
+	public boolean modificarNombreAlumnoPorNIA(int nia, String nuevoNombre) {
+		String sql = "UPDATE alumnos SET nombre = ?, version_cambio = ? WHERE nia = ?";
+
+		try (SeguimientoCambios.Cambio cambio = SeguimientoCambios.abrir()) {
+			return ejecutarOperacionConNIA(sql, sentencia -> {
+				try {
+					sentencia.setString(1, nuevoNombre);
+					sentencia.setLong(2, cambio.version());
+					sentencia.setInt(3, nia);
+				} catch (SQLException e) {
+					throw new RuntimeException("Error al configurar los parámetros", e);
+				}
+			});
+		} catch (SQLException e) {
+			loggerExcepciones.error("Error al modificar el nombre del alumno con NIA {}: {}", nia, e.getMessage(), e);
+			throw new AccesoDatosException("Error al modificar el nombre del alumno: " + e.getMessage(), e);
+		} finally {
+			cacheAlumnos.invalidar(nia);
+		}
+	}
+
+	/**
+	 * Elimina un alumno de la base de datos a partir de su NIA.
+	 * 
+	 * @param nia el NIA del alumno a eliminar.
+	 * @return true si el alumno fue eliminado correctamente, false en caso
+	 *         contrario.
+	 */
+	@Override
+	public boolean eliminarAlumnoPorNIA(int nia) {
+		try (SeguimientoCambios.Cambio cambio = SeguimientoCambios.abrir();
+				Connection conexion = PoolConexiones.getConnection()) {
+
+			if (eliminarAlumnos(conexion, cambio.version(), "nia = ?",
+					(sentencia, primero) -> sentencia.setInt(primero, nia)) > 0) {
+				loggerGeneral.info("Alumno con NIA {} eliminado correctamente.", nia);
+				return true;
+			}
+			loggerGeneral.warn("No existe un alumno con NIA {} que eliminar.", nia);
+			return false;
+		} catch (SQLException e) {
+			loggerExcepciones.error("Error al eliminar el alumno con NIA {}: {}", nia, e.getMessage(), e);
+			throw new AccesoDatosException("Error al eliminar el alumno: " + e.getMessage(), e);
+		} finally {
+			cacheAlumnos.invalidar(nia);
+		}
+	}
+
+	/**
+	 * Asigna los parámetros de la condición de un borrado, desde la posición
+	 * 'primero' de la sentencia.
+	 */
+	@FunctionalInterface
+	private interface ParametrosCondicion {
+
+		void asignar(PreparedStatement sentencia, int primero) throws SQLException;
+	}
+
+	/**
+	 * Registra en 'alumnos_eliminados' los alumnos que cumplen la condición (con
+	 * la versión del cambio) y los borra. Solo se borran los registrados, aunque
+	 * otra transacción inserte a la vez alumnos que cumplan la condición. Si la
+	 * conexión está en autocommit se hace en una transacción propia; si no, en la
+	 * transacción en curso.
+	 *
+	 * @return Número de alumnos borrados.
+	 */
+	private int eliminarAlumnos(Connection conexion, long versionCambio, String condicion,
+			ParametrosCondicion parametros) throws SQLException {
+		boolean autoCommitOriginal = conexion.getAutoCommit();
+		conexion.setAutoCommit(false);
+		try (PreparedStatement registrar = conexion.prepareStatement(
+				"INSERT INTO alumnos_eliminados (version_cambio, nia) SELECT ?, nia FROM alumnos WHERE " + condicion);
+				PreparedStatement eliminar = conexion.prepareStatement("DELETE FROM alumnos WHERE nia IN "
+						+ "(SELECT nia FROM alumnos_eliminados WHERE version_cambio = ?) AND " + condicion)) {
+
+			registrar.setLong(1, versionCambio);
+			parametros.asignar(registrar, 2);
+			if (registrar.executeUpdate() == 0) {
+				if (autoCommitOriginal) {
+					conexion.commit();
+				}
+				return 0;
+			}
+
+			eliminar.setLong(1, versionCambio);
+			parametros.asignar(eliminar, 2);
+			int eliminados = eliminar.executeUpdate();
+			if (autoCommitOriginal) {
+				conexion.commit();
+			}
+			return eliminados;
+		} catch (SQLException e) {
+			if (autoCommitOriginal) {
+				conexion.rollback();
+			}
+			throw e;
+		} finally {
+			conexion.setAutoCommit(autoCommitOriginal);
+		}
+	}
+
+	/**
+	 * Muestra toda la información de un alumno basándose en su NIA.
+	 * 
+	 * @param nia El NIA del alumno a mostrar.
+	 * @return true si el alumno fue encontrado y mostrado; false en caso contrario.
+	 */
+	@Override
+	public boolean mostrarAlumnoPorNIA(int nia) {
+		try {
+			Optional<Alumno> alumno = buscarAlumno(nia);
+			if (alumno.isEmpty()) {
+				System.out.println("No se encontró un alumno con el NIA proporcionado.");
+				loggerGeneral.warn("No se encontró un alumno con NIA {}.", nia);
+				return false;
+			}
+
+			imprimirAlumno(alumno.get());
+			loggerGeneral.info("Información del alumno con NIA {} mostrada correctamente.", nia);
+			return true;
+		} catch (AccesoDatosException e) {
+			System.out.println("Se produjo un error al mostrar la información del alumno. Revisa los logs.");
+			return false;
+		}
+	}
+
+	/**
+	 * Busca un alumno por su NIA (clave primaria), con su grupo. Pasa por la caché
+	 * de alumnos: solo se consulta la base de datos si no está (o ha caducado).
+	 * Devuelve una copia, que se puede modificar sin afectar a la caché.
+	 *
+	 * @param nia El NIA del alumno.
+	 * @return El alumno, o vacío si no existe.
+	 */
+	@Override
+	public Optional<Alumno> buscarAlumno(int nia) {
+		return Optional.ofNullable(cacheAlumnos.obtener(nia, this::consultarAlumno)).map(AlumnosBD::copiar);
+	}
+
+	/**
+	 * @return El alumno con ese NIA desde la base de datos, o null si no existe.
+	 */
+	private Alumno consultarAlumno(int nia) {
+		String sql = """
+				    SELECT a.nia, a.nombre, a.apellidos, a.genero, a.fechaNacimiento,
+				           a.ciclo, a.curso, a.numeroGrupo, g.nombreGrupo
+				    FROM alumnos a
+				    LEFT JOIN grupos g ON a.numeroGrupo = g.numeroGrupo
+				    WHERE a.nia = ?
+				""";
+
+		try (Connection conexion = PoolConexiones.getConnection();
+				PreparedStatement sentencia = conexion.prepareStatement(sql)) {
+
+			sentencia.setInt(1, nia);
+
+			try (ResultSet resultado = sentencia.executeQuery()) {
+				return resultado.next() ? leerAlumno(resultado) : null;
+			}
+		} catch (SQLException e) {
+			loggerExcepciones.error("Error al consultar información del alumno con NIA {}: {}", nia, e.getMessage(), e);
+			throw new AccesoDatosException("Error al consultar el alumno con NIA " + nia + ": " + e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public long contarAlumnos() {
+		try (Connection conexion = PoolConexiones.getConnection();
+				PreparedStatement sentencia = conexion.prepareStatement("SELECT COUNT(*) FROM alumnos");
+				ResultSet resultado = sentencia.executeQuery()) {
+
+			resultado.next();
+			return resultado.getLong(1);
+		} catch (SQLException e) {
+			loggerExcepciones.error("Error al contar los alumnos: {}", e.getMessage(), e);
+			throw new AccesoDatosException("Error al contar los alumnos: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Cambia el grupo de un alumno.
+	 *
+	 * @param nia         NIA del alumno.
+	 * @param nombreGrupo Nombre del nuevo grupo.
+	 * @return true si se cambió el grupo, false si el alumno o el grupo no existen.
+	 */
+	@Override
+	public boolean moverAlumnoAGrupo(int nia, String nombreGrupo) {
+		int numeroGrupo = obtenerNumeroGrupo(nombreGrupo);
+		if (numeroGrupo == -1) {
+			loggerGeneral.warn("El grupo '{}' no existe en la base de datos.", nombreGrupo);
+			return false;
+		}
+
+		String sql = "UPDATE alumnos SET numeroGrupo = ?, version_cambio = ? WHERE nia = ?";
+
+		try (SeguimientoCambios.Cambio cambio = SeguimientoCambios.abrir();
+				Connection conexion = PoolConexiones.getConnection();
+				PreparedStatement sentencia = conexion.prepareStatement(sql)) {
+
+			sentencia.setInt(1, numeroGrupo);
+			sentencia.setLong(2, cambio.version());
+			sentencia.setInt(3, nia);
+
+			if (sentencia.executeUpdate() > 0) {
+				loggerGeneral.info("Alumno con NIA {} cambiado al grupo '{}'.", nia, nombreGrupo);
+				return true;
+			}
+			return false;
+		} catch (SQLException e) {
+			loggerExcepciones.error("Error al cambiar el grupo del alumno con NIA {}: {}", nia, e.getMessage(), e);
+			throw new AccesoDatosException("Error al cambiar el grupo del alumno: " + e.getMessage(), e);
+		} finally {
+			cacheAlumnos.invalidar(nia);
+		}
+	}
+
+	/**
+	 * Inserta un nuevo grupo en la base de datos.
+	 *
+	 * @param grupo El objeto Grupo que se desea insertar.
+	 * @return true si la inserción fue exitosa, false en caso contrario.
+	 */
+	@Override
+	public boolean insertarGrupo(Grupo grupo) {
+		try {
+			crearGrupo(grupo.getNombreGrupo());
+			return true;
+		} catch (AccesoDatosException e) {
+			System.out.println("Error al insertar el grupo: " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Inserta un nuevo grupo (con el nombre en mayúsculas) y lo guarda en la
+	 * caché de grupos.
+	 *
+	 * @param nombreGrupo Nombre del grupo.
+	 * @return El grupo con el numeroGrupo generado por la base de datos.
+	 */
+	@Override
+	public Grupo crearGrupo(String nombreGrupo) {
+		String sql = "INSERT INTO grupos (nombreGrupo, version_cambio) VALUES (?, ?)";
+
+		// Convertir el nombre del grupo a mayúsculas antes de insertar
+		String nombre = nombreGrupo.toUpperCase();
+
+		try (SeguimientoCambios.Cambio cambio = SeguimientoCambios.abrir();
+				Connection conexion = PoolConexiones.getConnection();
+				PreparedStatement sentencia = conexion.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+			sentencia.setString(1, nombre);
+			sentencia.setLong(2, cambio.version());
+			sentencia.executeUpdate();
+
+			try (ResultSet clavesGeneradas = sentencia.getGeneratedKeys()) {
+				if (!clavesGeneradas.next()) {
+					throw new SQLException("La base de datos no devolvió el número del grupo insertado.");
+				}
+				Grupo grupo = new Grupo(clavesGeneradas.getInt(1), nombre);
+				cacheGrupos.guardar(nombre, grupo.getNumeroGrupo());
+				loggerGeneral.info("Grupo '{}' insertado exitosamente", nombre);
+				return grupo;
+			}
+		} catch (SQLException e) {
+			loggerExcepciones.error("Error al insertar el grupo '{}': {}", nombreGrupo, e.getMessage(), e);
+			throw new AccesoDatosException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Busca un grupo por su nombre (a través de la caché de grupos).
+	 */
+	@Override
+	public Optional<Grupo> buscarGrupo(String nombreGrupo) {
+		int numeroGrupo = obtenerNumeroGrupo(nombreGrupo);
+		return numeroGrupo == -1 ? Optional.empty() : Optional.of(new Grupo(numeroGrupo, nombreGrupo));
+	}
+
+	/**
+	 * Elimina a todos los alumnos de un grupo específico.
+	 * 
+	 * @param nombreGrupo el nombre del grupo cuyos alumnos serán eliminados.
+	 * @return true si se eliminaron correctamente, false si ocurrió un error.
+	 */
+	@Override
+	public boolean eliminarAlumnosPorGrupo(String nombreGrupo) {
+		try {
+			return eliminarAlumnosDeGrupo(nombreGrupo) > 0;
+		} catch (AccesoDatosException e) {
+			System.out.println("Error al eliminar alumnos del grupo: " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Elimina a todos los alumnos de un grupo.
+	 *
+	 * @param nombreGrupo Nombre del grupo.
+	 * @return Número de alumnos eliminados (0 si el grupo no existe o está vacío).
+	 */
+	@Override
+	public int eliminarAlumnosDeGrupo(String nombreGrupo) {
+		int numeroGrupo = obtenerNumeroGrupo(nombreGrupo);
+		if (numeroGrupo == -1) {
+			loggerGeneral.info("El grupo '{}' no existe en la base de datos.", nombreGrupo);
+			return 0;
+		}
+
+		try (SeguimientoCambios.Cambio cambio = SeguimientoCambios.abrir();
+				Connection conexion = PoolConexiones.getConnection()) {
+
+			int filasAfectadas = eliminarAlumnos(conexion, cambio.version(), "numeroGrupo = ?",
+					(sentencia, primero) -> sentencia.setInt(primero, numeroGrupo));
+			if (filasAfectadas > 0) {
+				loggerGeneral.info("{} alumnos del grupo '{}' eliminados exitosamente", filasAfectadas, nombreGrupo);
+			} else {
+				loggerGeneral.info("No se encontraron alumnos en el grupo '{}'", nombreGrupo);
+			}
+			return filasAfectadas;
+		} catch (SQLException e) {
+			loggerExcepciones.error("Error al eliminar alumnos del grupo '{}': {}", nombreGrupo, e.getMessage(), e);
+			throw new AccesoDatosException(e.getMessage(), e);
+		} finally {
+			// No se sabe qué NIA había en el grupo sin consultarlos
+			cacheAlumnos.invalidarTodo();
+		}
+	}
+
+	/**
+	 * Muestra todos los grupos disponibles en la base de datos.
+	 * 
+	 * @return true si se muestran los grupos correctamente, false si no hay grupos
+	 *         o hay un error.
+	 */
+
+	@Override
+	public boolean mostrarTodosLosGrupos() {
+		try {
+			List<Grupo> grupos = listarGrupos();
+			if (grupos.isEmpty()) {
+				loggerGeneral.warn("No se encontraron grupos en la base de datos.");
+				return false;
+			}
+
+			for (Grupo grupo : grupos) {
+				System.out.println("- " + grupo.getNombreGrupo());
+			}
+			loggerGeneral.info("Grupos mostrados exitosamente desde la base de datos.");
+			return true;
+		} catch (AccesoDatosException e) {
+			System.out.println("Error al mostrar los grupos: " + e.getMessage());
+			return false;
+		}
+	}
+
+	@Override
+	public List<Grupo> listarGrupos() {
+		String sql = "SELECT numeroGrupo, nombreGrupo FROM grupos ORDER BY nombreGrupo";
+
+		try (Connection conexion = PoolConexiones.getConnection();
+				PreparedStatement sentencia = conexion.prepareStatement(sql);
+				ResultSet resultado = sentencia.executeQuery()) {
+
+			List<Grupo> grupos = new ArrayList<>();
+			while (resultado.next()) {
+				grupos.add(new Grupo(resultado.getInt("numeroGrupo"), resultado.getString("nombreGrupo")));
+			}
+			return grupos;
+		} catch (SQLException e) {
+			loggerExcepciones.error("Error al recuperar los grupos: {}", e.getMessage(), e);
+			throw new AccesoDatosException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Guarda todos los grupos y sus alumnos en un archivo XML llamado 'grupos.xml'.
+	 * Si el archivo ya existe, solicita confirmación al usuario antes de
+	 * sobrescribirlo. El XML se genera en streaming con una única consulta.
+	 * 
+	 * @return true si el archivo se guarda correctamente, false si ocurre un error.
+	 */
+
+	public boolean guardarGruposEnXML() {
+		String nombreArchivo = Compresion.predeterminada().nombreFichero("grupos.xml");
+		File archivoXML = new File(nombreArchivo);
+
+		if (archivoXML.exists()) {
+			System.out.print("El archivo " + nombreArchivo + " ya existe. ¿Deseas sobrescribirlo? (S/N): ");
+			String respuesta = sc.nextLine().trim().toUpperCase();
+
+			if (!respuesta.equals("S")) {
+				loggerGeneral.warn("No se ha sobrescrito el archivo XML porque el usuario no lo permitió.");
+				System.out.println("El archivo no se ha sobrescrito.");
+				return false;
+			}
+		}
+
+		try {
+			exportarGruposXML(archivoXML.toPath());
+			System.out.println("El archivo XML se ha guardado correctamente.");
+			return true;
+		} catch (AccesoDatosException e) {
+			System.out.println(e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Escribe todos los grupos y sus alumnos en un fichero XML, en streaming con
+	 * una única consulta.
+	 *
+	 * @param destino Fichero que se crea o sobrescribe.
+	 * @return Número de grupos escritos.
+	 */
+	@Override
+	public int exportarGruposXML(Path destino) {
+		try (Connection conexion = PoolConexiones.getConnection()) {
+			int grupos = EscritorGruposXML.escribirTodos(conexion, destino.toFile());
+
+			loggerGeneral.info("El archivo XML se ha guardado correctamente en {} ({} grupos)", destino, grupos);
+			return grupos;
+		} catch (XMLStreamException | IOException e) {
+			loggerExcepciones.error("Error al generar el archivo XML: {}", e.getMessage(), e);
+			throw new AccesoDatosException("Error al generar el archivo XML: " + e.getMessage(), e);
+		} catch (SQLException e) {
+			loggerExcepciones.error("Error al consultar la base de datos: {}", e.getMessage(), e);
+			throw new AccesoDatosException("Error al consultar la base de datos: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Lee un archivo XML que contiene información sobre grupos y alumnos, y guarda
+	 * los datos en las tablas correspondientes de la base de datos. El fichero se
+	 * procesa en streaming (StAX), así que el consumo de memoria no depende de su
+	 * tamaño, y los alumnos se insertan por lotes con commit cada 'db.batchSize'
+	 * filas.
+	 *
+	 * @param rutaArchivo Ruta del archivo XML a procesar.
+	 * @return true si los datos fueron procesados e insertados correctamente, false
+	 *         en caso de error.
+	 */
+
+	public boolean leerYGuardarGruposXML(String rutaArchivo) {
+		if (!new File(rutaArchivo).exists()) {
+			loggerExcepciones.error("El archivo XML no existe: {}", rutaArchivo);
+			System.err.println("El archivo XML no existe: " + rutaArchivo);
+			return false;
+		}
+
+		try {
+			ResultadoImportacion resultado = importarGruposXML(Path.of(rutaArchivo));
+			System.out.println("Datos cargados correctamente desde el archivo XML: " + resultado);
+			return true;
+		} catch (AccesoDatosException e) {
+			System.err.println(e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Importa un fichero XML de grupos (ver {@link #leerYGuardarGruposXML}). Los
+	 * grupos que no existen se crean.
+	 *
+	 * @param origen Fichero XML.
+	 * @return El resumen de la importación.
+	 */
+	@Override
+	public ResultadoImportacion importarGruposXML(Path origen) {
+		return importarGrupos(origen, "XML", manejador -> LectorGruposXML.leer(origen.toFile(), manejador));
+	}
+
+	/**
+	 * Recorre un fichero de grupos entregando cada grupo y alumno al manejador.
+	 * Permite compartir la inserción por lotes entre los lectores de XML y JSON.
+	 */
+	@FunctionalInterface
+	private interface LecturaGrupos {
+
+		/**
+		 * @return Número de elementos ignorados por datos inválidos.
+		 */
+		int leer(LectorGruposXML.Manejador<SQLException> manejador)
+				throws SQLException, IOException, XMLStreamException;
+	}
+
+	/**
+	 * Inserta los grupos y alumnos que entrega el lector: cada grupo se resuelve
+	 * una sola vez (y se crea si no existe) y los alumnos se insertan por lotes
+	 * con commit cada TAMANO_LOTE filas.
+	 *
+	 * @param formato Nombre del formato del fichero, para los mensajes.
+	 */
+	private ResultadoImportacion importarGrupos(Path origen, String formato, LecturaGrupos lectura) {
+		String sqlVerificarGrupo = "SELECT numeroGrupo FROM grupos WHERE nombreGrupo = ?";
+		String sqlInsertarGrupo = "INSERT INTO grupos (nombreGrupo, version_cambio) VALUES (?, ?)";
+		String sqlInsertarAlumno = """
+				INSERT INTO alumnos (nombre, apellidos, genero, fechaNacimiento, ciclo, curso, numeroGrupo,
+				                     version_cambio)
+				VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+				""";
+
+		ResultadoImportacion resultado = new ResultadoImportacion();
+
+		try (SeguimientoCambios.Cambio cambio = SeguimientoCambios.abrir();
+				Connection conexion = PoolConexiones.getConnection();
+				PreparedStatement consultaVerificarGrupo = conexion.prepareStatement(sqlVerificarGrupo);
+				PreparedStatement consultaInsertarGrupo = conexion.prepareStatement(sqlInsertarGrupo,
+						Statement.RETURN_GENERATED_KEYS);
+				PreparedStatement consultaInsertarAlumno = conexion.prepareStatement(sqlInsertarAlumno)) {
+
+			boolean autoCommitOriginal = conexion.getAutoCommit();
+			conexion.setAutoCommit(false);
+
+			try {
+				Map<String, Integer> gruposResueltos = new HashMap<>();
+				int[] grupoActual = { -1 };
+				int[] filasPendientes = { 0 };
+
+				int ignorados = lectura.leer(new LectorGruposXML.Manejador<SQLException>() {
+
+					@Override
+					public void grupo(String nombreGrupo) throws SQLException {
+						Integer numeroGrupo = gruposResueltos.get(nombreGrupo);
+						if (numeroGrupo == null) {
+							numeroGrupo = resolverOCrearGrupo(conexion, consultaVerificarGrupo, consultaInsertarGrupo,
+									nombreGrupo, cambio.version());
+							gruposResueltos.put(nombreGrupo, numeroGrupo);
+						}
+						grupoActual[0] = numeroGrupo;
+					}
+
+					@Override
+					public void alumno(Alumno alumno) throws SQLException {
+						consultaInsertarAlumno.setString(1, alumno.getNombre());
+						consultaInsertarAlumno.setString(2, alumno.getApellidos());
+						consultaInsertarAlumno.setString(3, String.valueOf(alumno.getGenero()));
+						consultaInsertarAlumno.setDate(4, new java.sql.Date(alumno.getFechaNacimiento().getTime()));
+						consultaInsertarAlumno.setString(5, alumno.getCiclo());
+						consultaInsertarAlumno.setString(6, alumno.getCurso());
+						consultaInsertarAlumno.setInt(7, grupoActual[0]);
+						consultaInsertarAlumno.setLong(8, cambio.version());
+						consultaInsertarAlumno.addBatch();
+
+						if (++filasPendientes[0] >= TAMANO_LOTE) {
+							ejecutarLote(conexion, consultaInsertarAlumno, filasPendientes[0], resultado);
+							filasPendientes[0] = 0;
+						}
+					}
+				});
+
+				if (filasPendientes[0] > 0) {
+					ejecutarLote(conexion, consultaInsertarAlumno, filasPendientes[0], resultado);
+				}
+
+				resultado.rechazarLineas(ignorados);
+			} catch (SQLException | IOException | XMLStreamException e) {
+				conexion.rollback();
+				throw e;
+			} finally {
+				conexion.setAutoCommit(autoCommitOriginal);
+				// La importación puede haber creado grupos
+				cacheGrupos.invalidarTodo();
+			}
+
+			resultado.finalizar();
+			loggerGeneral.info("Datos cargados correctamente desde el archivo {} '{}': {}", formato, origen, resultado);
+			return resultado;
+		} catch (XMLStreamException | IOException e) {
+			loggerExcepciones.error("Error al procesar el archivo {}: {}", formato, e.getMessage(), e);
+			throw new AccesoDatosException("Error al procesar el archivo " + formato + ": " + e.getMessage(), e);
+		} catch (SQLException e) {
+			loggerExcepciones.error("Error al insertar datos en la base de datos: {}", e.getMessage(), e);
+			throw new AccesoDatosException("Error al insertar datos en la base de datos: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Muestra todos los alumnos del grupo seleccionado por el usuario.
+	 */
+	@Override
+	public void mostrarAlumnosPorGrupo() {
+		// Mostrar todos los grupos
+		if (!mostrarTodosLosGrupos()) {
+			System.out.println("No hay grupos disponibles para mostrar.");
+			return;
+		}
+
+		System.out.println("Introduce el nombre del grupo del que quieres ver los alumnos:");
+		String nombreGrupo = sc.nextLine().trim().toUpperCase();
+
+		// Obtener el número del grupo
+		int numeroGrupo = obtenerNumeroGrupoPorNombre(nombreGrupo);
+		if (numeroGrupo == -1) {
+			System.out.println("El grupo especificado no existe. Inténtalo de nuevo.");
+			return;
+		}
+
+		String sql = """
+				    SELECT a.nia, a.nombre, a.apellidos, a.genero, a.fechaNacimiento,
+				           a.ciclo, a.curso, g.nombreGrupo
+				    FROM alumnos a
+				    JOIN grupos g ON a.numeroGrupo = g.numeroGrupo
+				    WHERE g.numeroGrupo = ?
+				    ORDER BY a.nia
+				""";
+
+		try (Connection conexion = PoolConexiones.getConnection();
+				PreparedStatement sentencia = conexion.prepareStatement(sql)) {
+
+			sentencia.setInt(1, numeroGrupo);
+
+			try (ResultSet resultado = sentencia.executeQuery()) {
+				if (!resultado.isBeforeFirst()) {
+					System.out.println("No hay alumnos registrados en este grupo.");
+					return;
+				}
+
+				System.out.println("Alumnos del grupo '" + nombreGrupo + "':");
+				while (resultado.next()) {
+					System.out.printf("""
+							NIA: %d
+							Nombre: %s
+							Apellidos: %s
+							Género: %s
+							Fecha de nacimiento: %s
+							Ciclo: %s
+							Curso: %s
+							Grupo: %s
+							-------------------------\n
+							""", resultado.getInt("nia"), resultado.getString("nombre"),
+							resultado.getString("apellidos"), resultado.getString("genero"),
+							resultado.getDate("fechaNacimiento"), resultado.getString("ciclo"),
+							resultado.getString("curso"), resultado.getString("nombreGrupo"));
+				}
+			}
+		} catch (SQLException e) {
+			loggerExcepciones.error("Error al mostrar los alumnos del grupo '{}': {}", nombreGrupo, e.getMessage(), e);
+			System.out.println("Se produjo un error al intentar mostrar los alumnos. Revisa los logs.");
+		}
+	}
+
+	/**
+	 * Muestra solo los NIA y nombres de los alumnos, sin interacción adicional.
+	 * 
+	 * @return true si hay alumnos, false si la lista está vacía.
+	 */
+	public boolean listarNiasYNombresAlumnos() {
+		String sql = "SELECT nia, nombre FROM alumnos ORDER BY nia";
+
+		try (Connection conexion = PoolConexiones.getConnection();
+				PreparedStatement sentencia = conexion.prepareStatement(sql);
+				ResultSet resultado = sentencia.executeQuery()) {
+
+			if (!resultado.isBeforeFirst()) {
+				System.out.println("❌ No hay alumnos registrados.");
+				return false;
+			}
+
+			System.out.println("Lista de alumnos disponibles para cambiar de grupo:");
+			while (resultado.next()) {
+				System.out.printf("NIA: %d, Nombre: %s%n", resultado.getInt("nia"), resultado.getString("nombre"));
+			}
+
+			return true;
+		} catch (SQLException e) {
+			System.out.println("❌ Error al recuperar la lista de alumnos: " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Cambia el grupo de un alumno seleccionado por el usuario.
+	 * 
+	 * @return true si el cambio se realizó correctamente, false en caso de error.
+	 */
+	@Override
+	public boolean cambiarGrupoAlumno() {
+		// Mostrar lista de alumnos sin interacción extra
+		if (!listarNiasYNombresAlumnos()) {
+			System.out.println("❌ No hay alumnos disponibles.");
+			return false;
+		}
+
+		// Solicitar NIA del alumno
+		System.out.println("\nIntroduce el NIA del alumno al que deseas cambiar de grupo:");
+		int niaSeleccionado;
+		try {
+			niaSeleccionado = Integer.parseInt(sc.nextLine().trim());
+		} catch (NumberFormatException e) {
+			System.out.println("❌ El NIA debe ser un número válido.");
+			return false;
+		}
+
+		// Verificar si el NIA existe
+		Optional<Alumno> alumno;
+		try {
+			alumno = buscarAlumno(niaSeleccionado);
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ Error al verificar el grupo actual del alumno: " + e.getMessage());
+			return false;
+		}
+		if (alumno.isEmpty()) {
+			System.out.println("❌ No se encontró ningún alumno con el NIA proporcionado.");
+			return false;
+		}
+
+		// Mostrar grupos disponibles
+		System.out.println("\nGrupos disponibles:");
+		if (!mostrarTodosLosGrupos()) {
+			System.out.println("❌ No hay grupos disponibles.");
+			return false;
+		}
+
+		// Solicitar el nuevo grupo
+		System.out.println("\nIntroduce el nombre del grupo al que deseas cambiar al alumno:");
+		String nuevoGrupo = sc.nextLine().trim().toUpperCase();
+
+		if (!validarNombreGrupo(nuevoGrupo)) {
+			System.out.println("❌ El grupo especificado no existe.");
+			return false;
+		}
+
+		Grupo grupoActual = alumno.get().getGrupo();
+		if (grupoActual != null && grupoActual.getNombreGrupo().equals(nuevoGrupo)) {
+			System.out.println("⚠️ El alumno ya pertenece al grupo '" + nuevoGrupo + "'.");
+			return false;
+		}
+
+		// Actualizar grupo
+		try {
+			if (moverAlumnoAGrupo(niaSeleccionado, nuevoGrupo)) {
+				System.out.println("✅ El grupo del alumno ha sido cambiado exitosamente.");
+				return true;
+			} else {
+				System.out.println("❌ No se pudo cambiar el grupo del alumno.");
+				return false;
+			}
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ Error al cambiar el grupo del alumno: " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Guarda un grupo específico con toda su información (incluyendo los alumnos)
+	 * en un archivo XML. Solicita al usuario el nombre del grupo.
+	 * 
+	 * @return true si el archivo se guarda correctamente, false si ocurre un error.
+	 */
+	@Override
+	public boolean guardarGrupoEspecificoEnXML() {
+		// 📌 Mostrar los grupos disponibles antes de la elección
+		if (!mostrarTodosLosGrupos()) {
+			System.out.println("❌ No hay grupos disponibles. No se puede continuar.");
+			return false;
+		}
+
+		// Solicitar el nombre del grupo al usuario
+		System.out.print("\nIntroduce el nombre del grupo que deseas guardar en fichero XML: ");
+		String nombreGrupo = sc.nextLine().trim().toUpperCase();
+
+		// Validar si el grupo existe
+		if (!validarNombreGrupo(nombreGrupo)) {
+			System.out.println("❌ El grupo '" + nombreGrupo + "' no existe en la base de datos.");
+			loggerGeneral.warn("El grupo '{}' no existe en la base de datos.", nombreGrupo);
+			return false;
+		}
+
+		String nombreArchivo = Compresion.predeterminada().nombreFichero("grupo_" + nombreGrupo + ".xml");
+		File archivoXML = new File(nombreArchivo);
+
+		// Verificar si el archivo ya existe y preguntar si sobrescribir
+		if (archivoXML.exists()) {
+			System.out.print("⚠️ El archivo '" + nombreArchivo + "' ya existe. ¿Deseas sobrescribirlo? (S/N): ");
+			String respuesta = sc.nextLine().trim().toUpperCase();
+			if (!respuesta.equals("S")) {
+				System.out.println("❌ Operación cancelada. El archivo no se ha sobrescrito.");
+				return false;
+			}
+		}
+
+		try {
+			if (!exportarGrupoXML(nombreGrupo, archivoXML.toPath())) {
+				System.out.println("❌ No se encontró el grupo '" + nombreGrupo + "'.");
+				return false;
+			}
+
+			System.out.println("✅ El archivo XML del grupo '" + nombreGrupo + "' se ha guardado correctamente en '"
+					+ nombreArchivo + "'.");
+			return true;
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Escribe un grupo y sus alumnos en un fichero XML cuya raíz es el propio
+	 * &lt;grupo&gt;.
+	 *
+	 * @param nombreGrupo Nombre del grupo.
+	 * @param destino     Fichero que se crea o sobrescribe.
+	 * @return true si se escribió el grupo, false si no existe.
+	 */
+	@Override
+	public boolean exportarGrupoXML(String nombreGrupo, Path destino) {
+		int numeroGrupo = obtenerNumeroGrupo(nombreGrupo);
+		if (numeroGrupo == -1) {
+			loggerGeneral.warn("El grupo '{}' no existe en la base de datos.", nombreGrupo);
+			return false;
+		}
+
+		try (Connection conexion = PoolConexiones.getConnection()) {
+			if (EscritorGruposXML.escribirGrupo(conexion, numeroGrupo, destino.toFile()) == 0) {
+				Files.deleteIfExists(destino);
+				loggerGeneral.warn("El grupo con número {} no existe en la base de datos.", numeroGrupo);
+				return false;
+			}
+
+			loggerGeneral.info("✅ El archivo XML del grupo {} se ha guardado correctamente en '{}'.", nombreGrupo,
+					destino);
+			return true;
+
+		} catch (SQLException e) {
+			loggerExcepciones.error("❌ Error al consultar el grupo o los alumnos: {}", e.getMessage(), e);
+			throw new AccesoDatosException("Error al consultar el grupo o los alumnos: " + e.getMessage(), e);
+		} catch (XMLStreamException | IOException e) {
+			loggerExcepciones.error("❌ Error al generar el archivo XML: {}", e.getMessage(), e);
+			throw new AccesoDatosException("Error al generar el archivo XML: " + e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public boolean eliminarAlumnosPorApellidos(String apellidos) {
+		try {
+			int eliminados = eliminarAlumnosPorApellidos(apellidos, false);
+			if (eliminados > 0) {
+				System.out.println(eliminados + " alumnos con apellidos '" + apellidos + "' eliminados.");
+				return true;
+			}
+			System.out.println("No hay alumnos con apellidos '" + apellidos + "'.");
+			return false;
+		} catch (AccesoDatosException e) {
+			System.out.println("Error al eliminar los alumnos: " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Borra por tramos de TAMANO_TRAMO_BORRADO alumnos en orden de NIA: se busca
+	 * el último NIA del tramo y se borra el rango (apellidos, nia] con un commit
+	 * por tramo. Con el índice (apellidos, nia) ambas sentencias recorren solo el
+	 * rango del tramo, así que cada transacción bloquea y registra en el undo log
+	 * como mucho TAMANO_TRAMO_BORRADO filas.
+	 */
+	@Override
+	public int eliminarAlumnosPorApellidos(String apellidos, boolean simulacion) {
+		String sqlContar = "SELECT COUNT(*) FROM alumnos WHERE apellidos = ?";
+		String sqlTramo = "SELECT nia FROM alumnos WHERE apellidos = ? AND nia > ? ORDER BY nia LIMIT ?";
+
+		// La simulación no cambia nada: no necesita versión de cambio
+		try (SeguimientoCambios.Cambio cambio = simulacion ? null : SeguimientoCambios.abrir();
+				Connection conexion = PoolConexiones.getConnection()) {
+			if (simulacion) {
+				try (PreparedStatement sentencia = conexion.prepareStatement(sqlContar)) {
+					sentencia.setString(1, apellidos);
+					try (ResultSet rs = sentencia.executeQuery()) {
+						rs.next();
+						int afectados = rs.getInt(1);
+						loggerGeneral.info("Simulación: se eliminarían {} alumnos con apellidos '{}'.", afectados,
+								apellidos);
+						return afectados;
+					}
+				}
+			}
+
+			boolean autoCommitOriginal = conexion.getAutoCommit();
+			conexion.setAutoCommit(false);
+			try (PreparedStatement tramo = conexion.prepareStatement(sqlTramo)) {
+				int eliminados = 0;
+				int tramos = 0;
+				int desdeNia = 0;
+				while (true) {
+					// Último NIA del tramo
+					int hastaNia = desdeNia;
+					int filas = 0;
+					tramo.setString(1, apellidos);
+					tramo.setInt(2, desdeNia);
+					tramo.setInt(3, TAMANO_TRAMO_BORRADO);
+					try (ResultSet rs = tramo.executeQuery()) {
+						while (rs.next()) {
+							hastaNia = rs.getInt(1);
+							filas++;
+						}
+					}
+					if (filas == 0) {
+						conexion.commit();
+						break;
+					}
+
+					int desde = desdeNia;
+					int hasta = hastaNia;
+					eliminados += eliminarAlumnos(conexion, cambio.version(), "apellidos = ? AND nia > ? AND nia <= ?",
+							(sentencia, primero) -> {
+								sentencia.setString(primero, apellidos);
+								sentencia.setInt(primero + 1, desde);
+								sentencia.setInt(primero + 2, hasta);
+							});
+					conexion.commit();
+					tramos++;
+					loggerGeneral.debug("Tramo {}: alumnos con apellidos '{}' eliminados hasta el NIA {}.", tramos,
+							apellidos, hastaNia);
+
+					if (filas < TAMANO_TRAMO_BORRADO) {
+						break;
+					}
+					desdeNia = hastaNia;
+				}
+
+				loggerGeneral.info("{} alumnos con apellidos '{}' eliminados en {} tramos.", eliminados, apellidos,
+						tramos);
+				return eliminados;
+			} catch (SQLException e) {
+				conexion.rollback();
+				throw e;
+			} finally {
+				conexion.setAutoCommit(autoCommitOriginal);
+				// Tras confirmar los tramos: una carga de la caché iniciada antes no se guarda
+				cacheAlumnos.invalidarTodo();
+			}
+		} catch (SQLException e) {
+			loggerExcepciones.error("Error al eliminar los alumnos con apellidos '{}': {}", apellidos, e.getMessage(),
+					e);
+			throw new AccesoDatosException("Error al eliminar los alumnos por apellidos: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Guarda todos los alumnos en el fichero 'alumnos.json' (un array JSON). Si el
+	 * fichero ya existe, pide confirmación para sobrescribirlo.
+	 */
+	@Override
+	public void guardarAlumnosEnFicheroJSON() {
+		String nombreFichero = Compresion.predeterminada().nombreFichero("alumnos.json");
+		File fichero = new File(nombreFichero);
+
+		if (fichero.exists()) {
+			System.out.print("El fichero ya existe. ¿Desea sobreescribirlo? (S/N): ");
+			String respuesta = sc.nextLine().trim().toUpperCase();
+			if (!respuesta.equals("S")) {
+				System.out.println("Operación cancelada. El fichero no se sobrescribirá.");
+				loggerGeneral.info("El usuario decidió no sobrescribir el fichero '{}'.", nombreFichero);
+				return;
+			}
+		}
+
+		try {
+			long alumnos = exportarAlumnosJSON(fichero.toPath(), FormatoJSON.ARRAY);
+			System.out.println("Se guardaron " + alumnos + " alumnos en el fichero '" + nombreFichero + "'.");
+		} catch (AccesoDatosException e) {
+			System.out.println("Se produjo un error al guardar los alumnos. Revisa los logs para más detalles.");
+		}
+	}
+
+	/**
+	 * Exporta los alumnos a JSON recorriendo un ResultSet de solo avance en
+	 * streaming: cada fila se codifica y se escribe en cuanto se lee.
+	 *
+	 * @param destino Fichero que se crea o sobrescribe.
+	 * @param formato Array JSON o un objeto por línea (NDJSON).
+	 * @return Número de alumnos escritos.
+	 */
+	@Override
+	public long exportarAlumnosJSON(Path destino, FormatoJSON formato) {
+		String sql = """
+				    SELECT a.nia, a.nombre, a.apellidos, a.genero,
+				           a.fechaNacimiento, a.ciclo, a.curso, g.nombreGrupo
+				    FROM alumnos a
+				    LEFT JOIN grupos g ON a.numeroGrupo = g.numeroGrupo
+				    ORDER BY a.nia ASC
+				""";
+
+		try (EscritorJSON json = EscritorJSON.abrir(destino, formato);
+				Connection conexion = PoolConexiones.getConnection();
+				PreparedStatement sentencia = PoolConexiones.prepararConsultaEnStreaming(conexion, sql);
+				ResultSet resultado = sentencia.executeQuery()) {
+
+			long alumnos = 0;
+			while (resultado.next()) {
+				String genero = resultado.getString(4);
+				json.inicioObjeto();
+				json.camposAlumno(resultado.getInt(1), resultado.getString(2), resultado.getString(3),
+						genero == null || genero.isEmpty() ? 0 : genero.charAt(0),
+						resultado.getObject(5, LocalDate.class), resultado.getString(6), resultado.getString(7));
+				json.campo("nombreGrupo", resultado.getString(8));
+				json.finObjeto();
+				alumnos++;
+			}
+
+			loggerGeneral.info("Se guardaron {} alumnos en el fichero JSON '{}'.", alumnos, destino);
+			return alumnos;
+
+		} catch (SQLException e) {
+			loggerExcepciones.error("Error al ejecutar la consulta SQL: {}", e.getMessage(), e);
+			throw new AccesoDatosException("Error al recuperar los alumnos: " + e.getMessage(), e);
+		} catch (IOException e) {
+			loggerExcepciones.error("Error al escribir en el fichero '{}': {}", destino, e.getMessage(), e);
+			throw new AccesoDatosException("Error al escribir en el fichero '" + destino + "': " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Importa los alumnos del fichero 'alumnos.json' (array JSON o NDJSON) y
+	 * muestra el resumen de la importación.
+	 *
+	 * @return true si se insertó al menos un alumno, false en caso contrario.
+	 */
+	@Override
+	public boolean leerAlumnosDeFicheroJSON() {
+		String nombreFichero = Compresion.predeterminada().nombreFichero("alumnos.json");
+
+		try {
+			ResultadoImportacion resultado = importarAlumnosJSON(Path.of(nombreFichero));
+			System.out.println("Importación finalizada: " + resultado);
+
+			if (resultado.getFilasInsertadas() > 0) {
+				System.out.println("Alumnos leídos e insertados correctamente desde el fichero '" + nombreFichero + "'.");
+				return true;
+			} else {
+				System.out.println("No se insertaron alumnos.");
+				return false;
+			}
+		} catch (AccesoDatosException e) {
+			System.out.println(e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Importa un fichero JSON o NDJSON en streaming: el lector entrega cada alumno
+	 * en cuanto lo analiza y se añade al lote JDBC, que se ejecuta y confirma cada
+	 * TAMANO_LOTE filas. Cada nombre de grupo se resuelve una sola vez (y se crea
+	 * si no existe).
+	 *
+	 * @param origen Fichero JSON o NDJSON.
+	 * @return El resumen de la importación.
+	 */
+	@Override
+	public ResultadoImportacion importarAlumnosJSON(Path origen) {
+		String sqlGrupo = "SELECT numeroGrupo FROM grupos WHERE nombreGrupo = ?";
+		String sqlInsertarGrupo = "INSERT INTO grupos (nombreGrupo, version_cambio) VALUES (?, ?)";
+		String sqlInsertar = "INSERT INTO alumnos (nombre, apellidos, genero, fechaNacimiento, ciclo, curso, numeroGrupo, "
+				+ "version_cambio) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+		ResultadoImportacion resultado = new ResultadoImportacion();
+
+		try (SeguimientoCambios.Cambio cambio = SeguimientoCambios.abrir();
+				Connection conexion = PoolConexiones.getConnection();
+				PreparedStatement consultaGrupo = conexion.prepareStatement(sqlGrupo);
+				PreparedStatement insertarGrupo = conexion.prepareStatement(sqlInsertarGrupo,
+						Statement.RETURN_GENERATED_KEYS);
+				PreparedStatement sentencia = conexion.prepareStatement(sqlInsertar)) {
+
+			boolean autoCommitOriginal = conexion.getAutoCommit();
+			conexion.setAutoCommit(false);
+
+			try {
+				Map<String, Integer> gruposResueltos = new HashMap<>();
+				int[] filasPendientes = { 0 };
+
+				int ignorados = LectorJSON.leer(origen, (alumno, nombreGrupo) -> {
+					Integer numeroGrupo = gruposResueltos.get(nombreGrupo);
+					if (numeroGrupo == null) {
+						numeroGrupo = resolverOCrearGrupo(conexion, consultaGrupo, insertarGrupo, nombreGrupo,
+								cambio.version());
+						gruposResueltos.put(nombreGrupo, numeroGrupo);
+					}
+
+					sentencia.setString(1, alumno.getNombre());
+					sentencia.setString(2, alumno.getApellidos());
+					sentencia.setString(3, String.valueOf(alumno.getGenero()));
+					sentencia.setDate(4, (java.sql.Date) alumno.getFechaNacimiento());
+					sentencia.setString(5, alumno.getCiclo());
+					sentencia.setString(6, alumno.getCurso());
+					sentencia.setInt(7, numeroGrupo);
+					sentencia.setLong(8, cambio.version());
+					sentencia.addBatch();
+
+					if (++filasPendientes[0] >= TAMANO_LOTE) {
+						ejecutarLote(conexion, sentencia, filasPendientes[0], resultado);
+						filasPendientes[0] = 0;
+					}
+				});
+
+				if (filasPendientes[0] > 0) {
+					ejecutarLote(conexion, sentencia, filasPendientes[0], resultado);
+				}
+
+				resultado.rechazarLineas(ignorados);
+			} catch (SQLException | IOException e) {
+				conexion.rollback();
+				throw e;
+			} finally {
+				conexion.setAutoCommit(autoCommitOriginal);
+				// La importación puede haber creado grupos
+				cacheGrupos.invalidarTodo();
+			}
+
+			resultado.finalizar();
+			loggerGeneral.info("Importación de '{}' finalizada: {}", origen, resultado);
+			return resultado;
+		} catch (IOException e) {
+			loggerExcepciones.error("Error al leer el fichero JSON '{}': {}", origen, e.getMessage(), e);
+			throw new AccesoDatosException("Error al leer el fichero JSON (confirmado hasta el error: " + resultado
+					+ "): " + e.getMessage(), e);
+		} catch (SQLException e) {
+			loggerExcepciones.error("Error en la base de datos al importar '{}': {}", origen, e.getMessage(), e);
+			throw new AccesoDatosException("Error en la base de datos al importar los alumnos: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Guarda todos los grupos, con sus alumnos, en el fichero 'grupos.json' (un
+	 * array JSON). Si el fichero ya existe, pide confirmación para sobrescribirlo.
+	 */
+	@Override
+	public void guardarGruposEnFicheroJSON() {
+		String nombreFichero = Compresion.predeterminada().nombreFichero("grupos.json");
+		File fichero = new File(nombreFichero);
+
+		if (fichero.exists()) {
+			System.out.print("El fichero ya existe. ¿Desea sobreescribirlo? (S/N): ");
+			String respuesta = sc.nextLine().trim().toUpperCase();
+			if (!respuesta.equals("S")) {
+				System.out.println("Operación cancelada. El fichero no se sobrescribirá.");
+				loggerGeneral.info("El usuario decidió no sobrescribir el fichero '{}'.", nombreFichero);
+				return;
+			}
+		}
+
+		try {
+			int grupos = exportarGruposJSON(fichero.toPath(), FormatoJSON.ARRAY);
+			System.out.println("Se guardaron " + grupos + " grupos en el fichero '" + nombreFichero + "'.");
+		} catch (AccesoDatosException e) {
+			System.out.println("Se produjo un error al guardar los grupos. Revisa los logs para más detalles.");
+		}
+	}
+
+	/**
+	 * Exporta los grupos con una única consulta 'grupos LEFT JOIN alumnos'
+	 * ordenada por grupo, leída en streaming: cada vez que cambia el numeroGrupo
+	 * se cierra el objeto del grupo anterior y se abre uno nuevo, de modo que
+	 * ningún grupo se guarda en memoria.
+	 *
+	 * @param destino Fichero que se crea o sobrescribe.
+	 * @param formato Array JSON o un grupo por línea (NDJSON).
+	 * @return Número de grupos escritos.
+	 */
+	@Override
+	public int exportarGruposJSON(Path destino, FormatoJSON formato) {
+		String sql = """
+				    SELECT g.numeroGrupo, g.nombreGrupo, a.nia, a.nombre, a.apellidos, a.genero,
+				           a.fechaNacimiento, a.ciclo, a.curso
+				    FROM grupos g
+				    LEFT JOIN alumnos a ON a.numeroGrupo = g.numeroGrupo
+				    ORDER BY g.nombreGrupo, g.numeroGrupo, a.nia
+				""";
+
+		try (EscritorJSON json = EscritorJSON.abrir(destino, formato);
+				Connection conexion = PoolConexiones.getConnection();
+				PreparedStatement sentencia = PoolConexiones.prepararConsultaEnStreaming(conexion, sql);
+				ResultSet resultado = sentencia.executeQuery()) {
+
+			int grupos = 0;
+			int grupoActual = 0;
+
+			while (resultado.next()) {
+				int numeroGrupo = resultado.getInt(1);
+				if (grupos == 0 || numeroGrupo != grupoActual) {
+					if (grupos > 0) {
+						json.finArray();
+						json.finObjeto();
+					}
+					json.inicioObjeto();
+					json.campo("numeroGrupo", numeroGrupo);
+					json.campo("nombreGrupo", resultado.getString(2));
+					json.inicioArray("alumnos");
+					grupoActual = numeroGrupo;
+					grupos++;
+				}
+
+				int nia = resultado.getInt(3);
+				if (resultado.wasNull()) {
+					// Grupo sin alumnos: el LEFT JOIN devuelve una fila con los campos a null
+					continue;
+				}
+
+				String genero = resultado.getString(6);
+				json.inicioObjeto();
+				json.camposAlumno(nia, resultado.getString(4), resultado.getString(5),
+						genero == null || genero.isEmpty() ? 0 : genero.charAt(0),
+						resultado.getObject(7, LocalDate.class), resultado.getString(8), resultado.getString(9));
+				json.finObjeto();
+			}
+
+			if (grupos > 0) {
+				json.finArray();
+				json.finObjeto();
+			}
+
+			loggerGeneral.info("Se guardaron {} grupos en el fichero JSON '{}'.", grupos, destino);
+			return grupos;
+
+		} catch (SQLException e) {
+			loggerExcepciones.error("Error al ejecutar la consulta SQL: {}", e.getMessage(), e);
+			throw new AccesoDatosException("Error al recuperar los grupos: " + e.getMessage(), e);
+		} catch (IOException e) {
+			loggerExcepciones.error("Error al escribir en el fichero '{}': {}", destino, e.getMessage(), e);
+			throw new AccesoDatosException("Error al escribir en el fichero '" + destino + "': " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Importa los grupos y alumnos del fichero 'grupos.json' (array JSON o NDJSON)
+	 * y muestra el resumen de la importación.
+	 *
+	 * @return true si el fichero se procesó correctamente, false en caso de error.
+	 */
+	@Override
+	public boolean leerGruposDeFicheroJSON() {
+		String nombreFichero = Compresion.predeterminada().nombreFichero("grupos.json");
+
+		if (!new File(nombreFichero).exists()) {
+			loggerExcepciones.error("El archivo JSON no existe: {}", nombreFichero);
+			System.err.println("El archivo JSON no existe: " + nombreFichero);
+			return false;
+		}
+
+		try {
+			ResultadoImportacion resultado = importarGruposJSON(Path.of(nombreFichero));
+			System.out.println("Datos cargados correctamente desde el archivo JSON: " + resultado);
+			return true;
+		} catch (AccesoDatosException e) {
+			System.err.println(e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Importa un fichero JSON de grupos en streaming (ver
+	 * {@link #exportarGruposJSON}). Los grupos que no existen se crean.
+	 *
+	 * @param origen Fichero JSON o NDJSON.
+	 * @return El resumen de la importación.
+	 */
+	@Override
+	public ResultadoImportacion importarGruposJSON(Path origen) {
+		return importarGrupos(origen, "JSON", manejador -> LectorJSON.leerGrupos(origen, manejador));
+	}
+
+	/**
+	 * Exporta la instantánea binaria con dos consultas: los nombres de todos los
+	 * grupos y, en streaming, los alumnos con el nombre de su grupo.
+	 *
+	 * @param destino Fichero que se crea o sobrescribe.
+	 * @return Número de alumnos escritos.
+	 */
+	@Override
+	public long exportarInstantanea(Path destino) {
+		String sqlGrupos = "SELECT nombreGrupo FROM grupos ORDER BY nombreGrupo";
+		String sqlAlumnos = """
+				    SELECT a.nia, a.nombre, a.apellidos, a.genero,
+				           a.fechaNacimiento, a.ciclo, a.curso, g.nombreGrupo
+				    FROM alumnos a
+				    LEFT JOIN grupos g ON a.numeroGrupo = g.numeroGrupo
+				    ORDER BY a.nia ASC
+				""";
+
+		try (Connection conexion = PoolConexiones.getConnection();
+				EscritorInstantanea instantanea = EscritorInstantanea.abrir(destino)) {
+
+			List<String> grupos = new ArrayList<>();
+			try (Statement sentencia = conexion.createStatement();
+					ResultSet resultado = sentencia.executeQuery(sqlGrupos)) {
+				while (resultado.next()) {
+					grupos.add(resultado.getString(1));
+				}
+			}
+			instantanea.grupos(grupos);
+
+			try (PreparedStatement sentencia = PoolConexiones.prepararConsultaEnStreaming(conexion, sqlAlumnos);
+					ResultSet resultado = sentencia.executeQuery()) {
+				while (resultado.next()) {
+					String genero = resultado.getString(4);
+					instantanea.alumno(resultado.getInt(1), resultado.getString(2), resultado.getString(3),
+							genero == null || genero.isEmpty() ? 0 : genero.charAt(0),
+							resultado.getObject(5, LocalDate.class), resultado.getString(6), resultado.getString(7),
+							resultado.getString(8));
+				}
+			}
+
+			loggerGeneral.info("Se guardaron {} grupos y {} alumnos en la instantánea '{}'.", grupos.size(),
+					instantanea.getAlumnos(), destino);
+			return instantanea.getAlumnos();
+
+		} catch (SQLException e) {
+			loggerExcepciones.error("Error al ejecutar la consulta SQL: {}", e.getMessage(), e);
+			throw new AccesoDatosException("Error al recuperar los alumnos: " + e.getMessage(), e);
+		} catch (IOException e) {
+			loggerExcepciones.error("Error al escribir en el fichero '{}': {}", destino, e.getMessage(), e);
+			throw new AccesoDatosException("Error al escribir en el fichero '" + destino + "': " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Importa una instantánea binaria con la misma inserción por lotes que los
+	 * ficheros de grupos XML y JSON.
+	 *
+	 * @param origen Fichero de {@link #exportarInstantanea}.
+	 * @return El resumen de la importación.
+	 */
+	@Override
+	public ResultadoImportacion importarInstantanea(Path origen) {
+		return importarGrupos(origen, "binario", manejador -> LectorInstantanea.leer(origen, manejador));
+	}
+
+}
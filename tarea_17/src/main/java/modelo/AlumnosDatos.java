@@ -0,0 +1,184 @@
+package modelo;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Acceso a los datos de alumnos y grupos sin interacción con la consola: todas
+ * las entradas llegan como parámetros y los resultados se devuelven como
+ * objetos, flujos o contadores. Nada de esta API escribe en System.out ni lee
+ * de System.in, así que puede usarse desde varios hilos, en benchmarks o en
+ * procesos por lotes.
+ *
+ * Los errores del origen de datos se lanzan como {@link AccesoDatosException};
+ * que algo no exista no es un error (Optional vacío, 0 o false).
+ *
+ * @author Alberto Polo
+ */
+public interface AlumnosDatos {
+
+	// ALUMNOS:
+
+	/**
+	 * Inserta el alumno en el grupo indicado por su nombre.
+	 *
+	 * @return El NIA asignado.
+	 * @throws IllegalArgumentException si el grupo del alumno no existe.
+	 */
+	int crearAlumno(Alumno alumno);
+
+	Optional<Alumno> buscarAlumno(int nia);
+
+	// Paginación por clave (NIA): empezar con PaginaAlumnos.INICIO y seguir con
+	// pagina.continuacion() mientras pagina.hayMas().
+
+	PaginaAlumnos obtenerPaginaAlumnos(int despuesDeNia, int tamanoPagina);
+
+	// Devuelve null si el grupo no existe.
+	PaginaAlumnos obtenerPaginaAlumnosPorGrupo(String nombreGrupo, int despuesDeNia, int tamanoPagina);
+
+	/**
+	 * Todos los alumnos en orden de NIA. Las páginas se piden a medida que se
+	 * consume el flujo, así que nunca hay más de 'tamanoPagina' alumnos en memoria.
+	 */
+	default Stream<Alumno> alumnos(int tamanoPagina) {
+		return PaginaAlumnos.recorrer(despuesDeNia -> obtenerPaginaAlumnos(despuesDeNia, tamanoPagina));
+	}
+
+	/**
+	 * Los alumnos del grupo en orden de NIA (vacío si el grupo no existe).
+	 */
+	default Stream<Alumno> alumnosDeGrupo(String nombreGrupo, int tamanoPagina) {
+		return PaginaAlumnos
+				.recorrer(despuesDeNia -> obtenerPaginaAlumnosPorGrupo(nombreGrupo, despuesDeNia, tamanoPagina));
+	}
+
+	long contarAlumnos();
+
+	boolean modificarNombreAlumnoPorNIA(int nia, String nuevoNombre);
+
+	boolean eliminarAlumnoPorNIA(int nia);
+
+	// Devuelve false si el alumno o el grupo no existen.
+	boolean moverAlumnoAGrupo(int nia, String nombreGrupo);
+
+	/**
+	 * Elimina los alumnos con esos apellidos (completos; en la base de datos se
+	 * comparan según la intercalación de la columna, en los ficheros sin
+	 * distinguir mayúsculas). Se borra por tramos consecutivos de NIA, cada uno
+	 * confirmado por separado, así que nunca se bloquean a la vez todas las filas
+	 * afectadas. Si falla a mitad, los tramos ya confirmados quedan eliminados.
+	 *
+	 * @param simulacion Si es true no se elimina nada: solo se cuentan los
+	 *                   alumnos que se eliminarían.
+	 * @return Número de alumnos eliminados (o que se eliminarían).
+	 */
+	int eliminarAlumnosPorApellidos(String apellidos, boolean simulacion);
+
+	// GRUPOS:
+
+	/**
+	 * Inserta un grupo (el nombre se guarda en mayúsculas).
+	 *
+	 * @return El grupo con su numeroGrupo asignado.
+	 */
+	Grupo crearGrupo(String nombreGrupo);
+
+	Optional<Grupo> buscarGrupo(String nombreGrupo);
+
+	// Ordenados por nombre.
+	List<Grupo> listarGrupos();
+
+	// Devuelve el número de alumnos eliminados (0 si el grupo no existe).
+	int eliminarAlumnosDeGrupo(String nombreGrupo);
+
+	// FICHEROS (se sobrescriben sin preguntar):
+
+	// Devuelve el número de alumnos escritos.
+	long exportarAlumnosTexto(Path destino);
+
+	ResultadoImportacion importarAlumnosTexto(Path origen);
+
+	/**
+	 * Importa el fichero de texto analizándolo e insertándolo en paralelo según
+	 * las opciones. Las implementaciones que no lo admiten importan de forma
+	 * secuencial.
+	 */
+	default ResultadoImportacion importarAlumnosTexto(Path origen, OpcionesImportacion opciones) {
+		return importarAlumnosTexto(origen);
+	}
+
+	/**
+	 * Escribe todos los alumnos en orden de NIA, en streaming (memoria constante).
+	 * Cada alumno es un objeto con nia, nombre, apellidos, genero, fechaNacimiento
+	 * (yyyy-MM-dd), ciclo, curso y nombreGrupo.
+	 *
+	 * @return Número de alumnos escritos.
+	 */
+	long exportarAlumnosJSON(Path destino, FormatoJSON formato);
+
+	/**
+	 * Importa en streaming un fichero JSON (array) o NDJSON con el formato de
+	 * {@link #exportarAlumnosJSON}. Los alumnos se insertan por lotes y los grupos
+	 * que no existen se crean. El NIA del fichero se ignora (lo genera la base de
+	 * datos) y los objetos sin nombre, sin grupo o con una fecha incorrecta se
+	 * cuentan como rechazados.
+	 *
+	 * @throws AccesoDatosException Si el fichero no se puede leer o no es JSON
+	 *                              válido. Los lotes confirmados hasta entonces se
+	 *                              conservan.
+	 */
+	ResultadoImportacion importarAlumnosJSON(Path origen);
+
+	// Devuelve el número de grupos escritos.
+	int exportarGruposXML(Path destino);
+
+	// Devuelve false si el grupo no existe.
+	boolean exportarGrupoXML(String nombreGrupo, Path destino);
+
+	ResultadoImportacion importarGruposXML(Path origen);
+
+	/**
+	 * Escribe todos los grupos en orden de nombre, cada uno como un objeto
+	 * {numeroGrupo, nombreGrupo, alumnos: [...]} con sus alumnos (en orden de NIA)
+	 * anidados, en una sola pasada en streaming. Los grupos sin alumnos llevan el
+	 * array vacío.
+	 *
+	 * @return Número de grupos escritos.
+	 */
+	int exportarGruposJSON(Path destino, FormatoJSON formato);
+
+	/**
+	 * Importa en streaming un fichero con el formato de
+	 * {@link #exportarGruposJSON}: los grupos que no existen se crean y sus
+	 * alumnos se insertan por lotes.
+	 *
+	 * @throws AccesoDatosException Si el fichero no se puede leer o no es JSON
+	 *                              válido. Los lotes confirmados hasta entonces se
+	 *                              conservan.
+	 */
+	ResultadoImportacion importarGruposJSON(Path origen);
+
+	/**
+	 * Escribe una instantánea binaria de todos los grupos (también los vacíos) y
+	 * todos los alumnos en orden de NIA, en streaming. Es el formato más compacto
+	 * y rápido de leer: nombres de grupo, ciclos y cursos en un diccionario, NIA y
+	 * fechas como enteros de longitud variable y un CRC por bloque.
+	 *
+	 * @return Número de alumnos escritos.
+	 */
+	long exportarInstantanea(Path destino);
+
+	/**
+	 * Importa una instantánea de {@link #exportarInstantanea}: crea los grupos que
+	 * no existen e inserta los alumnos por lotes. Como en el resto de
+	 * importaciones, el NIA del fichero se ignora.
+	 *
+	 * @throws AccesoDatosException Si el fichero no se puede leer, no es una
+	 *                              instantánea o tiene un bloque dañado. Los
+	 *                              lotes confirmados hasta entonces se conservan.
+	 */
+	ResultadoImportacion importarInstantanea(Path origen);
+}
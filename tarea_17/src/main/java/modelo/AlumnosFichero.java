@@ -1,132 +1,647 @@
-package modelo;
-
-public class AlumnosFichero implements AlumnosDAO {
-
-	@Override
-	public boolean insertarAlumno(Alumno alumno) {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	@Override
-	public Alumno solicitarDatosAlumno() {
-		// TODO Auto-generated method stub
-		return null;
-	}
-
-	@Override
-	public boolean mostrarTodosLosAlumnos(boolean mostrarTodaLaInformacion) {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	@Override
-	public boolean modificarNombreAlumnoPorNIA(int nia, String nuevoNombre) {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	@Override
-	public boolean eliminarAlumnoPorNIA(int nia) {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	@Override
-	public boolean mostrarAlumnoPorNIA(int nia) {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	@Override
-	public boolean eliminarAlumnosPorApellidos(String apellidos) {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	@Override
-	public void guardarAlumnosEnFicheroTexto() {
-		// TODO Auto-generated method stub
-		
-	}
-
-	@Override
-	public boolean leerAlumnosDeFicheroTexto() {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	@Override
-	public void guardarAlumnosEnFicheroJSON() {
-		// TODO Auto-generated method stub
-		
-	}
-
-	@Override
-	public boolean leerAlumnosDeFicheroJSON() {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	@Override
-	public boolean insertarGrupo(Grupo grupo) {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	@Override
-	public boolean eliminarAlumnosPorGrupo(String grupo) {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	@Override
-	public void guardarGruposEnFicheroJSON() {
-		// TODO Auto-generated method stub
-		
-	}
-
-	@Override
-	public boolean leerGruposDeFicheroJSON() {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	@Override
-	public boolean guardarGruposEnXML() {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	@Override
-	public boolean leerYGuardarGruposXML(String rutaArchivo) {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	@Override
-	public void mostrarAlumnosPorGrupo() {
-		// TODO Auto-generated method stub
-		
-	}
-
-	@Override
-	public boolean cambiarGrupoAlumno() {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	@Override
-	public boolean guardarGrupoEspecificoEnXML() {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	@Override
-	public boolean mostrarTodosLosGrupos() {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	
-}
+package modelo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Modelo sin base de datos: alumnos y grupos en dos ficheros de registros de
+ * tamaño fijo proyectados en memoria ({@link AlmacenRegistros}), 'alumnos.dat'
+ * y 'grupos.dat'.
+ *
+ * Al abrir se recorren los registros una vez para construir los índices en
+ * memoria: NIA -> hueco (un array indexado por NIA, así que buscar un alumno es
+ * O(1)) y los grupos por número y por nombre. Los NIA se reparten con un
+ * contador atómico fuera del cerrojo.
+ *
+ * Cada cambio se anota primero en un diario ({@link Diario}, ficheros
+ * 'diario.N') y después se aplica a los registros; lo que puede hacer fallar
+ * el cambio (un texto que no cabe, ampliar el fichero) se comprueba antes de
+ * anotarlo. Una operación de escritura termina con un fsync del diario, que
+ * comparten las operaciones que terminan a la vez (las importaciones lo hacen
+ * cada TAMANO_LOTE alumnos); las páginas proyectadas solo se fuerzan a disco
+ * al compactar, cuando el segmento actual del diario pasa de
+ * 'alumnos.diario.bytes' (16 MB por defecto), y al cerrar. Al abrir, los
+ * cambios del diario posteriores a la última compactación se vuelven a
+ * aplicar: así se recupera lo confirmado antes de un corte. La cabecera (huecos
+ * usados y siguiente id) solo se escribe al compactar, y el sistema puede haber
+ * llevado a disco cualquier página modificada después: tras aplicar el diario
+ * se liberan los huecos ocupados que ya no son de ningún NIA.
+ *
+ * Las lecturas pueden ir en paralelo; las escrituras son exclusivas.
+ *
+ * @author Alberto Polo
+ */
+public class AlumnosFichero extends AlumnosAlmacenLocal implements AutoCloseable {
+
+	private static final int MARCA_ALUMNOS = 0x414C554D; // "ALUM"
+	private static final int MARCA_GRUPOS = 0x47525550; // "GRUP"
+
+	// Registro de alumno (512 bytes): el byte 0 es el de ocupado
+	private static final int TAMANO_ALUMNO = 512;
+	private static final int POS_GENERO = 2;
+	private static final int POS_NIA = 4;
+	private static final int POS_GRUPO = 8;
+	private static final int POS_FECHA = 12; // Día desde 1970-01-01
+	private static final int POS_NOMBRE = 16;
+	private static final int POS_APELLIDOS = POS_NOMBRE + AlmacenRegistros.bytesTexto(50);
+	private static final int POS_CICLO = POS_APELLIDOS + AlmacenRegistros.bytesTexto(100);
+	private static final int POS_CURSO = POS_CICLO + AlmacenRegistros.bytesTexto(20);
+
+	// Registro de grupo (128 bytes)
+	private static final int TAMANO_GRUPO = 128;
+	private static final int POS_NUMERO_GRUPO = 4;
+	private static final int POS_NOMBRE_GRUPO = 8;
+
+	private static final int SIN_FECHA = Integer.MIN_VALUE;
+	private static final int SIN_HUECO = -1;
+
+	// NIA revisados por tramo en los borrados por apellidos
+	private static final int NIAS_POR_TRAMO = 8192;
+
+	// Bytes del segmento del diario a partir de los que se compacta
+	private static final long BYTES_POR_COMPACTACION = Long.getLong("alumnos.diario.bytes", 16L << 20);
+
+	private final AlmacenRegistros registrosAlumnos;
+	private final AlmacenRegistros registrosGrupos;
+	private final Diario diario;
+
+	// huecoPorNia[nia] es el hueco del alumno, o SIN_HUECO
+	private int[] huecoPorNia = new int[1024];
+
+	private final Map<Integer, Grupo> gruposPorNumero = new HashMap<>();
+	private final TreeMap<String, Grupo> gruposPorNombre = new TreeMap<>();
+
+	private final StampedLock cerrojo = new StampedLock();
+
+	/**
+	 * Abre los ficheros del directorio indicado por la propiedad del sistema
+	 * 'alumnos.directorio' ("datos" por defecto).
+	 */
+	public AlumnosFichero() {
+		this(Path.of(System.getProperty("alumnos.directorio", "datos")));
+	}
+
+	/**
+	 * Abre (o crea) los ficheros de datos del directorio, reconstruye los índices
+	 * y aplica los cambios que queden en el diario.
+	 */
+	public AlumnosFichero(Path directorio) {
+		AlmacenRegistros grupos = null;
+		AlmacenRegistros alumnos = null;
+		try {
+			Files.createDirectories(directorio);
+			grupos = new AlmacenRegistros(directorio.resolve("grupos.dat"), MARCA_GRUPOS, TAMANO_GRUPO);
+			registrosGrupos = grupos;
+			alumnos = new AlmacenRegistros(directorio.resolve("alumnos.dat"), MARCA_ALUMNOS, TAMANO_ALUMNO);
+			registrosAlumnos = alumnos;
+
+			Arrays.fill(huecoPorNia, SIN_HUECO);
+			cargarIndices();
+			diario = Diario.abrir(directorio.resolve("diario"), new Recuperacion());
+		} catch (IOException e) {
+			cerrarSinErrores(alumnos);
+			cerrarSinErrores(grupos);
+			throw new AccesoDatosException("Error al abrir los ficheros de datos: " + e.getMessage(), e);
+		}
+
+		if (diario.reproducidos() > 0) {
+			liberarHuerfanos();
+			compactar();
+		}
+	}
+
+	private void cargarIndices() {
+		int maximo = 0;
+		for (int hueco = 0; hueco < registrosGrupos.huecos(); hueco++) {
+			if (registrosGrupos.ocupado(hueco)) {
+				Grupo grupo = leerGrupo(registrosGrupos.registro(hueco));
+				gruposPorNumero.put(grupo.getNumeroGrupo(), grupo);
+				gruposPorNombre.put(grupo.getNombreGrupo(), grupo);
+				maximo = Math.max(maximo, grupo.getNumeroGrupo());
+			}
+		}
+		registrosGrupos.reservarIdsHasta(maximo);
+
+		maximo = 0;
+		for (int hueco = 0; hueco < registrosAlumnos.huecos(); hueco++) {
+			if (registrosAlumnos.ocupado(hueco)) {
+				int nia = registrosAlumnos.registro(hueco).getInt(POS_NIA);
+				indexar(nia, hueco);
+				maximo = Math.max(maximo, nia);
+			}
+		}
+		registrosAlumnos.reservarIdsHasta(maximo);
+	}
+
+	// ALUMNOS:
+
+	/**
+	 * El NIA se reserva sin bloquear; solo la escritura del registro es
+	 * exclusiva.
+	 */
+	@Override
+	int insertarSinConfirmar(Alumno alumno, Grupo grupo) {
+		int nia = registrosAlumnos.nuevoId();
+
+		long sello = cerrojo.writeLock();
+		try {
+			comprobarAlumno(alumno);
+			registrosAlumnos.prepararHueco();
+			diario.anotarAlta(nia, grupo.getNumeroGrupo(), alumno);
+			aplicarAlta(nia, grupo.getNumeroGrupo(), alumno);
+		} catch (IOException e) {
+			throw new AccesoDatosException("Error al insertar el alumno: " + e.getMessage(), e);
+		} finally {
+			cerrojo.unlockWrite(sello);
+		}
+
+		alumno.setNia(nia);
+		alumno.setGrupo(grupo);
+		return nia;
+	}
+
+	/**
+	 * Fuerza a disco el diario (sin el cerrojo: se puede seguir leyendo y
+	 * escribiendo mientras dura el fsync) y compacta si el segmento actual ha
+	 * crecido bastante.
+	 */
+	@Override
+	void confirmar() {
+		diario.sincronizar();
+		if (diario.tamanoSegmento() >= BYTES_POR_COMPACTACION) {
+			compactar();
+		}
+	}
+
+	/**
+	 * Pasa los cambios del diario a los ficheros de datos. Con el cerrojo de
+	 * lectura (las consultas siguen y ninguna escritura queda a medias) empieza
+	 * un segmento nuevo del diario y fuerza a disco las páginas modificadas;
+	 * después borra los segmentos anteriores.
+	 */
+	private synchronized void compactar() {
+		int cerrado;
+		long sello = cerrojo.readLock();
+		try {
+			cerrado = diario.rotar();
+			registrosGrupos.confirmar();
+			registrosAlumnos.confirmar();
+		} finally {
+			cerrojo.unlockRead(sello);
+		}
+		diario.descartarHasta(cerrado);
+	}
+
+	@Override
+	public Optional<Alumno> buscarAlumno(int nia) {
+		long sello = cerrojo.readLock();
+		try {
+			int hueco = huecoDe(nia);
+			return hueco == SIN_HUECO ? Optional.empty() : Optional.of(leerAlumno(registrosAlumnos.registro(hueco)));
+		} finally {
+			cerrojo.unlockRead(sello);
+		}
+	}
+
+	/**
+	 * Recorre el índice en orden de NIA a partir de 'despuesDeNia + 1'.
+	 */
+	@Override
+	public PaginaAlumnos obtenerPaginaAlumnos(int despuesDeNia, int tamanoPagina) {
+		long sello = cerrojo.readLock();
+		try {
+			return leerPagina(despuesDeNia, tamanoPagina, 0);
+		} finally {
+			cerrojo.unlockRead(sello);
+		}
+	}
+
+	@Override
+	public PaginaAlumnos obtenerPaginaAlumnosPorGrupo(String nombreGrupo, int despuesDeNia, int tamanoPagina) {
+		long sello = cerrojo.readLock();
+		try {
+			Grupo grupo = nombreGrupo == null ? null : gruposPorNombre.get(nombreGrupo);
+			return grupo == null ? null : leerPagina(despuesDeNia, tamanoPagina, grupo.getNumeroGrupo());
+		} finally {
+			cerrojo.unlockRead(sello);
+		}
+	}
+
+	/**
+	 * @param numeroGrupo Grupo de los alumnos, o 0 para todos.
+	 */
+	private PaginaAlumnos leerPagina(int despuesDeNia, int tamanoPagina, int numeroGrupo) {
+		List<Alumno> filas = new ArrayList<>(Math.min(tamanoPagina + 1, 1024));
+		for (int nia = Math.max(despuesDeNia + 1, 1); nia < huecoPorNia.length && filas.size() <= tamanoPagina; nia++) {
+			int hueco = huecoPorNia[nia];
+			if (hueco != SIN_HUECO) {
+				ByteBuffer registro = registrosAlumnos.registro(hueco);
+				if (numeroGrupo == 0 || registro.getInt(POS_GRUPO) == numeroGrupo) {
+					filas.add(leerAlumno(registro));
+				}
+			}
+		}
+		return PaginaAlumnos.desdeConsulta(filas, tamanoPagina);
+	}
+
+	@Override
+	public long contarAlumnos() {
+		long sello = cerrojo.readLock();
+		try {
+			return registrosAlumnos.huecosOcupados();
+		} finally {
+			cerrojo.unlockRead(sello);
+		}
+	}
+
+	@Override
+	public boolean modificarNombreAlumnoPorNIA(int nia, String nuevoNombre) {
+		long sello = cerrojo.writeLock();
+		try {
+			int hueco = huecoDe(nia);
+			if (hueco == SIN_HUECO) {
+				return false;
+			}
+			AlmacenRegistros.comprobarTexto(nuevoNombre, 50, "nombre");
+			diario.anotarNombre(nia, nuevoNombre);
+			AlmacenRegistros.escribirTexto(registrosAlumnos.registro(hueco), POS_NOMBRE, nuevoNombre, 50, "nombre");
+		} catch (IllegalArgumentException e) {
+			throw new AccesoDatosException("Error al modificar el nombre del alumno: " + e.getMessage(), e);
+		} finally {
+			cerrojo.unlockWrite(sello);
+		}
+
+		confirmar();
+		return true;
+	}
+
+	@Override
+	public boolean eliminarAlumnoPorNIA(int nia) {
+		long sello = cerrojo.writeLock();
+		try {
+			int hueco = huecoDe(nia);
+			if (hueco == SIN_HUECO) {
+				return false;
+			}
+			diario.anotarBaja(nia);
+			aplicarBaja(nia);
+		} finally {
+			cerrojo.unlockWrite(sello);
+		}
+
+		confirmar();
+		return true;
+	}
+
+	/**
+	 * Recorre el índice por NIA en tramos de NIAS_POR_TRAMO NIA. Cada tramo se
+	 * revisa con el cerrojo de escritura (de lectura si es una simulación) y se
+	 * confirma antes de pasar al siguiente, así que las demás operaciones nunca
+	 * esperan más que un tramo.
+	 */
+	@Override
+	public int eliminarAlumnosPorApellidos(String apellidos, boolean simulacion) {
+		String buscados = apellidos == null ? "" : apellidos.trim();
+		int afectados = 0;
+		int nia = 1;
+		boolean terminado = false;
+
+		while (!terminado) {
+			int enTramo = 0;
+			long sello = simulacion ? cerrojo.readLock() : cerrojo.writeLock();
+			try {
+				int fin = Math.min(huecoPorNia.length, nia + NIAS_POR_TRAMO);
+				for (; nia < fin; nia++) {
+					int hueco = huecoPorNia[nia];
+					if (hueco != SIN_HUECO && AlmacenRegistros.leerTexto(registrosAlumnos.registro(hueco), POS_APELLIDOS)
+							.trim().equalsIgnoreCase(buscados)) {
+						if (!simulacion) {
+							diario.anotarBaja(nia);
+							aplicarBaja(nia);
+						}
+						enTramo++;
+					}
+				}
+				terminado = nia >= huecoPorNia.length;
+			} finally {
+				cerrojo.unlock(sello);
+			}
+
+			afectados += enTramo;
+			if (!simulacion && enTramo > 0) {
+				confirmar();
+			}
+		}
+		return afectados;
+	}
+
+	@Override
+	public boolean moverAlumnoAGrupo(int nia, String nombreGrupo) {
+		long sello = cerrojo.writeLock();
+		try {
+			int hueco = huecoDe(nia);
+			Grupo grupo = nombreGrupo == null ? null : gruposPorNombre.get(nombreGrupo);
+			if (hueco == SIN_HUECO || grupo == null) {
+				return false;
+			}
+			diario.anotarMovimiento(nia, grupo.getNumeroGrupo());
+			registrosAlumnos.registro(hueco).putInt(POS_GRUPO, grupo.getNumeroGrupo());
+		} finally {
+			cerrojo.unlockWrite(sello);
+		}
+
+		confirmar();
+		return true;
+	}
+
+	// GRUPOS:
+
+	@Override
+	public Grupo crearGrupo(String nombreGrupo) {
+		String nombre = nombreGrupo.trim().toUpperCase();
+		Grupo grupo;
+
+		long sello = cerrojo.writeLock();
+		try {
+			if (gruposPorNombre.containsKey(nombre)) {
+				throw new AccesoDatosException("El grupo '" + nombre + "' ya existe.");
+			}
+
+			AlmacenRegistros.comprobarTexto(nombre, 50, "nombreGrupo");
+			registrosGrupos.prepararHueco();
+			int numeroGrupo = registrosGrupos.nuevoId();
+			diario.anotarGrupo(numeroGrupo, nombre);
+			grupo = aplicarGrupo(numeroGrupo, nombre);
+		} catch (IOException | IllegalArgumentException e) {
+			throw new AccesoDatosException("Error al insertar el grupo: " + e.getMessage(), e);
+		} finally {
+			cerrojo.unlockWrite(sello);
+		}
+
+		confirmar();
+		return copiar(grupo);
+	}
+
+	@Override
+	public Optional<Grupo> buscarGrupo(String nombreGrupo) {
+		if (nombreGrupo == null) {
+			return Optional.empty();
+		}
+
+		long sello = cerrojo.readLock();
+		try {
+			return Optional.ofNullable(gruposPorNombre.get(nombreGrupo)).map(AlumnosAlmacenLocal::copiar);
+		} finally {
+			cerrojo.unlockRead(sello);
+		}
+	}
+
+	@Override
+	public List<Grupo> listarGrupos() {
+		long sello = cerrojo.readLock();
+		try {
+			return gruposPorNombre.values().stream().map(AlumnosAlmacenLocal::copiar).toList();
+		} finally {
+			cerrojo.unlockRead(sello);
+		}
+	}
+
+	/**
+	 * Recorre todos los huecos en orden (lectura secuencial de las páginas
+	 * proyectadas) liberando los de los alumnos del grupo.
+	 */
+	@Override
+	public int eliminarAlumnosDeGrupo(String nombreGrupo) {
+		int eliminados = 0;
+
+		long sello = cerrojo.writeLock();
+		try {
+			Grupo grupo = nombreGrupo == null ? null : gruposPorNombre.get(nombreGrupo);
+			if (grupo == null) {
+				return 0;
+			}
+
+			for (int hueco = 0; hueco < registrosAlumnos.huecos(); hueco++) {
+				if (registrosAlumnos.ocupado(hueco)) {
+					ByteBuffer registro = registrosAlumnos.registro(hueco);
+					if (registro.getInt(POS_GRUPO) == grupo.getNumeroGrupo()) {
+						int nia = registro.getInt(POS_NIA);
+						diario.anotarBaja(nia);
+						huecoPorNia[nia] = SIN_HUECO;
+						registrosAlumnos.liberar(hueco);
+						eliminados++;
+					}
+				}
+			}
+		} finally {
+			cerrojo.unlockWrite(sello);
+		}
+
+		confirmar();
+		return eliminados;
+	}
+
+	/**
+	 * Fuerza a disco los cambios pendientes y cierra los ficheros. Con los
+	 * ficheros de datos al día, el diario ya no hace falta y se borra.
+	 */
+	@Override
+	public void close() {
+		long sello = cerrojo.writeLock();
+		try {
+			try (diario) {
+				registrosAlumnos.close();
+				registrosGrupos.close();
+			} catch (IOException e) {
+				throw new AccesoDatosException("Error al cerrar los ficheros de datos: " + e.getMessage(), e);
+			}
+			diario.descartar();
+		} finally {
+			cerrojo.unlockWrite(sello);
+		}
+	}
+
+	// CAMBIOS: cada uno fija el estado final del alumno o grupo, así que aplicar
+	// de nuevo desde el diario uno que ya estaba en los ficheros no cambia nada
+
+	/**
+	 * Escribe el alumno en su hueco, o en uno nuevo si el NIA no existe.
+	 */
+	private void aplicarAlta(int nia, int numeroGrupo, Alumno alumno) throws IOException {
+		int hueco = huecoDe(nia);
+		boolean nuevo = hueco == SIN_HUECO;
+		if (nuevo) {
+			hueco = registrosAlumnos.reservar();
+		}
+		try {
+			escribirAlumno(registrosAlumnos.registro(hueco), nia, alumno, numeroGrupo);
+		} catch (IllegalArgumentException e) {
+			if (nuevo) {
+				registrosAlumnos.liberar(hueco);
+			}
+			throw e;
+		}
+		indexar(nia, hueco);
+	}
+
+	/**
+	 * @throws IllegalArgumentException Si algún texto no cabe en su campo.
+	 */
+	private static void comprobarAlumno(Alumno alumno) {
+		AlmacenRegistros.comprobarTexto(alumno.getNombre(), 50, "nombre");
+		AlmacenRegistros.comprobarTexto(alumno.getApellidos(), 100, "apellidos");
+		AlmacenRegistros.comprobarTexto(alumno.getCiclo(), 20, "ciclo");
+		AlmacenRegistros.comprobarTexto(alumno.getCurso(), 20, "curso");
+	}
+
+	private void aplicarBaja(int nia) {
+		int hueco = huecoDe(nia);
+		if (hueco != SIN_HUECO) {
+			registrosAlumnos.liberar(hueco);
+			huecoPorNia[nia] = SIN_HUECO;
+		}
+	}
+
+	private Grupo aplicarGrupo(int numeroGrupo, String nombreGrupo) throws IOException {
+		Grupo grupo = gruposPorNumero.get(numeroGrupo);
+		if (grupo != null) {
+			return grupo;
+		}
+
+		int hueco = registrosGrupos.reservar();
+		ByteBuffer registro = registrosGrupos.registro(hueco);
+		try {
+			AlmacenRegistros.escribirTexto(registro, POS_NOMBRE_GRUPO, nombreGrupo, 50, "nombreGrupo");
+		} catch (IllegalArgumentException e) {
+			registrosGrupos.liberar(hueco);
+			throw e;
+		}
+		registro.putInt(POS_NUMERO_GRUPO, numeroGrupo);
+
+		grupo = new Grupo(numeroGrupo, nombreGrupo);
+		gruposPorNumero.put(numeroGrupo, grupo);
+		gruposPorNombre.put(nombreGrupo, grupo);
+		return grupo;
+	}
+
+	/**
+	 * Libera los huecos ocupados cuyo NIA está indexado en otro hueco o ya no
+	 * existe: copias que el sistema llevó a disco antes del corte y que el
+	 * diario ha vuelto a escribir en otro sitio.
+	 */
+	private void liberarHuerfanos() {
+		for (int hueco = 0; hueco < registrosAlumnos.huecos(); hueco++) {
+			if (registrosAlumnos.ocupado(hueco) && huecoDe(registrosAlumnos.registro(hueco).getInt(POS_NIA)) != hueco) {
+				registrosAlumnos.liberar(hueco);
+			}
+		}
+	}
+
+	/**
+	 * Aplica los cambios del diario al abrir, antes de que nadie más use el
+	 * modelo.
+	 */
+	private final class Recuperacion implements Diario.Reproductor {
+
+		@Override
+		public void alta(int nia, int numeroGrupo, Alumno alumno) throws IOException {
+			aplicarAlta(nia, numeroGrupo, alumno);
+			registrosAlumnos.reservarIdsHasta(nia);
+		}
+
+		@Override
+		public void nombre(int nia, String nombre) {
+			int hueco = huecoDe(nia);
+			if (hueco != SIN_HUECO) {
+				AlmacenRegistros.escribirTexto(registrosAlumnos.registro(hueco), POS_NOMBRE, nombre, 50, "nombre");
+			}
+		}
+
+		@Override
+		public void baja(int nia) {
+			aplicarBaja(nia);
+		}
+
+		@Override
+		public void movimiento(int nia, int numeroGrupo) {
+			int hueco = huecoDe(nia);
+			if (hueco != SIN_HUECO) {
+				registrosAlumnos.registro(hueco).putInt(POS_GRUPO, numeroGrupo);
+			}
+		}
+
+		@Override
+		public void grupo(int numeroGrupo, String nombreGrupo) throws IOException {
+			aplicarGrupo(numeroGrupo, nombreGrupo);
+			registrosGrupos.reservarIdsHasta(numeroGrupo);
+		}
+	}
+
+	// REGISTROS:
+
+	private int huecoDe(int nia) {
+		return nia > 0 && nia < huecoPorNia.length ? huecoPorNia[nia] : SIN_HUECO;
+	}
+
+	private void indexar(int nia, int hueco) {
+		if (nia >= huecoPorNia.length) {
+			int longitudAnterior = huecoPorNia.length;
+			huecoPorNia = Arrays.copyOf(huecoPorNia, Math.max(nia + 1, longitudAnterior * 2));
+			Arrays.fill(huecoPorNia, longitudAnterior, huecoPorNia.length, SIN_HUECO);
+		}
+		huecoPorNia[nia] = hueco;
+	}
+
+	/**
+	 * Escribe los campos de texto primero: si alguno no cabe se lanza la
+	 * excepción antes de tocar el resto del registro.
+	 */
+	private static void escribirAlumno(ByteBuffer registro, int nia, Alumno alumno, int numeroGrupo) {
+		AlmacenRegistros.escribirTexto(registro, POS_NOMBRE, alumno.getNombre(), 50, "nombre");
+		AlmacenRegistros.escribirTexto(registro, POS_APELLIDOS, alumno.getApellidos(), 100, "apellidos");
+		AlmacenRegistros.escribirTexto(registro, POS_CICLO, alumno.getCiclo(), 20, "ciclo");
+		AlmacenRegistros.escribirTexto(registro, POS_CURSO, alumno.getCurso(), 20, "curso");
+
+		LocalDate fecha = EscritorJSON.fecha(alumno.getFechaNacimiento());
+		registro.putChar(POS_GENERO, alumno.getGenero());
+		registro.putInt(POS_NIA, nia);
+		registro.putInt(POS_GRUPO, numeroGrupo);
+		registro.putInt(POS_FECHA, fecha == null ? SIN_FECHA : (int) fecha.toEpochDay());
+	}
+
+	private Alumno leerAlumno(ByteBuffer registro) {
+		int fecha = registro.getInt(POS_FECHA);
+		Grupo grupo = gruposPorNumero.get(registro.getInt(POS_GRUPO));
+
+		return new Alumno(registro.getInt(POS_NIA), AlmacenRegistros.leerTexto(registro, POS_NOMBRE),
+				AlmacenRegistros.leerTexto(registro, POS_APELLIDOS), registro.getChar(POS_GENERO),
+				fecha == SIN_FECHA ? null : java.sql.Date.valueOf(LocalDate.ofEpochDay(fecha)),
+				AlmacenRegistros.leerTexto(registro, POS_CICLO), AlmacenRegistros.leerTexto(registro, POS_CURSO),
+				grupo == null ? null : copiar(grupo));
+	}
+
+	private static Grupo leerGrupo(ByteBuffer registro) {
+		return new Grupo(registro.getInt(POS_NUMERO_GRUPO), AlmacenRegistros.leerTexto(registro, POS_NOMBRE_GRUPO));
+	}
+
+	private static void cerrarSinErrores(AutoCloseable recurso) {
+		if (recurso != null) {
+			try {
+				recurso.close();
+			} catch (Exception e) {
+				// Ya se está informando del error original
+			}
+		}
+	}
+}
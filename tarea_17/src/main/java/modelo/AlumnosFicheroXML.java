@@ -1,132 +1,753 @@
-package modelo;
-
-public class AlumnosFicheroXML implements AlumnosDAO{
-
-	@Override
-	public boolean insertarAlumno(Alumno alumno) {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	@Override
-	public Alumno solicitarDatosAlumno() {
-		// TODO Auto-generated method stub
-		return null;
-	}
-
-	@Override
-	public boolean mostrarTodosLosAlumnos(boolean mostrarTodaLaInformacion) {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	@Override
-	public boolean modificarNombreAlumnoPorNIA(int nia, String nuevoNombre) {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	@Override
-	public boolean eliminarAlumnoPorNIA(int nia) {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	@Override
-	public boolean mostrarAlumnoPorNIA(int nia) {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	@Override
-	public boolean eliminarAlumnosPorApellidos(String apellidos) {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	@Override
-	public void guardarAlumnosEnFicheroTexto() {
-		// TODO Auto-generated method stub
-		
-	}
-
-	@Override
-	public boolean leerAlumnosDeFicheroTexto() {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	@Override
-	public void guardarAlumnosEnFicheroJSON() {
-		// TODO Auto-generated method stub
-		
-	}
-
-	@Override
-	public boolean leerAlumnosDeFicheroJSON() {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	@Override
-	public boolean insertarGrupo(Grupo grupo) {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	@Override
-	public boolean eliminarAlumnosPorGrupo(String grupo) {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	@Override
-	public void guardarGruposEnFicheroJSON() {
-		// TODO Auto-generated method stub
-		
-	}
-
-	@Override
-	public boolean leerGruposDeFicheroJSON() {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	@Override
-	public boolean guardarGruposEnXML() {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	@Override
-	public boolean leerYGuardarGruposXML(String rutaArchivo) {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	@Override
-	public void mostrarAlumnosPorGrupo() {
-		// TODO Auto-generated method stub
-		
-	}
-
-	@Override
-	public boolean cambiarGrupoAlumno() {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	@Override
-	public boolean guardarGrupoEspecificoEnXML() {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	@Override
-	public boolean mostrarTodosLosGrupos() {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	
-}
+package modelo;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Modelo sin base de datos cuyo formato duradero es 'grupos.xml' (el mismo que
+ * genera la exportación a XML). Al arrancar, el fichero se lee una sola vez en
+ * índices concurrentes en memoria (por NIA, por grupo y por apellidos) y todas
+ * las consultas se sirven desde ellos.
+ *
+ * Las escrituras modifican los índices y se anotan en un diario
+ * ({@link Diario}, ficheros 'grupos.xml.diario.N'); cada operación termina con
+ * un fsync del diario, compartido con las que terminan a la vez. Un hilo en
+ * segundo plano guarda una instantánea cuando se acumulan 'alumnos.xml.cambios'
+ * cambios, o cada 'alumnos.xml.segundos' segundos si hay alguno pendiente:
+ * copia el estado y empieza un segmento nuevo del diario (la única pausa para
+ * las escrituras), lo escribe en un fichero temporal y lo renombra sobre el
+ * original, así que el XML nunca queda a medias; después borra los segmentos
+ * que ya están en el XML. Al arrancar se vuelven a aplicar los cambios del
+ * diario posteriores a la última instantánea, así que no se pierde nada
+ * confirmado aunque el proceso termine sin llamar a {@link #close()}.
+ *
+ * @author Alberto Polo
+ */
+public final class AlumnosFicheroXML extends AlumnosAlmacenLocal implements AutoCloseable {
+
+	private static final Logger loggerGeneral = LogManager.getRootLogger();
+	private static final Logger loggerExcepciones = LogManager.getLogger("exceptions");
+
+	private final Path fichero;
+	private final int cambiosPorInstantanea;
+
+	// Los Alumno de los índices no se modifican nunca: cada cambio guarda una copia
+	private final ConcurrentHashMap<Integer, Alumno> alumnosPorNia = new ConcurrentHashMap<>();
+	private final ConcurrentSkipListSet<Integer> nias = new ConcurrentSkipListSet<>();
+	private final ConcurrentHashMap<Integer, ConcurrentSkipListSet<Integer>> niasPorGrupo = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String, Set<Integer>> niasPorApellidos = new ConcurrentHashMap<>();
+
+	private final ConcurrentSkipListMap<String, Grupo> gruposPorNombre = new ConcurrentSkipListMap<>();
+
+	private final AtomicInteger siguienteNia = new AtomicInteger(1);
+	private final AtomicInteger siguienteGrupo = new AtomicInteger(1);
+
+	// Las escrituras comparten el cerrojo de lectura; la instantánea toma el de
+	// escritura solo mientras copia el estado, no mientras escribe el fichero
+	private final ReentrantReadWriteLock cerrojo = new ReentrantReadWriteLock();
+
+	// Los cambios de un mismo NIA se anotan en el diario y se aplican en el mismo
+	// orden: cada uno toma el cerrojo de su NIA (fuera de las operaciones de los
+	// mapas, que no deben escribir en el diario)
+	private final Object[] cerrojosNia = Stream.generate(Object::new).limit(64).toArray();
+
+	private final AtomicLong cambiosPendientes = new AtomicLong();
+	private final AtomicBoolean instantaneaSolicitada = new AtomicBoolean();
+	private final ScheduledExecutorService instantaneas;
+	private final Diario diario;
+
+	/**
+	 * Carga el fichero indicado por la propiedad del sistema 'alumnos.xml'
+	 * ("grupos.xml" por defecto).
+	 */
+	public AlumnosFicheroXML() {
+		this(Path.of(System.getProperty("alumnos.xml", "grupos.xml")),
+				Integer.getInteger("alumnos.xml.cambios", 100_000), Integer.getInteger("alumnos.xml.segundos", 60));
+	}
+
+	/**
+	 * Carga el fichero (si existe), aplica los cambios que queden en el diario y
+	 * arranca el hilo de instantáneas.
+	 *
+	 * @param cambiosPorInstantanea Cambios que provocan una instantánea inmediata.
+	 * @param segundos              Intervalo de las instantáneas periódicas.
+	 */
+	public AlumnosFicheroXML(Path fichero, int cambiosPorInstantanea, int segundos) {
+		this.fichero = fichero.toAbsolutePath();
+		this.cambiosPorInstantanea = cambiosPorInstantanea;
+
+		if (Files.exists(this.fichero)) {
+			cargar();
+		}
+		try {
+			borrarTemporales();
+			diario = Diario.abrir(this.fichero.resolveSibling(this.fichero.getFileName() + ".diario"),
+					new Recuperacion());
+		} catch (IOException e) {
+			throw new AccesoDatosException("Error al recuperar el diario de " + fichero + ": " + e.getMessage(), e);
+		}
+		if (diario.reproducidos() > 0) {
+			cambiosPendientes.addAndGet(diario.reproducidos());
+			try {
+				escribirInstantanea();
+			} catch (RuntimeException e) {
+				try {
+					diario.close();
+				} catch (IOException suprimida) {
+					e.addSuppressed(suprimida);
+				}
+				throw e;
+			}
+		}
+
+		instantaneas = Executors.newSingleThreadScheduledExecutor(tarea -> {
+			Thread hilo = new Thread(tarea, "instantaneas-" + this.fichero.getFileName());
+			hilo.setDaemon(true);
+			return hilo;
+		});
+		instantaneas.scheduleWithFixedDelay(this::instantaneaEnSegundoPlano, segundos, segundos, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Lee el XML en streaming conservando los numeroGrupo y NIA del fichero. Los
+	 * que faltan o están repetidos se asignan de nuevo al terminar (y el fichero
+	 * se reescribe en la siguiente instantánea).
+	 */
+	private void cargar() {
+		List<Grupo> grupos = new ArrayList<>();
+		List<Alumno> alumnos = new ArrayList<>();
+		List<Integer> niasLeidos = new ArrayList<>();
+
+		int ignorados;
+		try {
+			ignorados = LectorGruposXML.leer(fichero.toFile(), new LectorGruposXML.Manejador<RuntimeException>() {
+
+				private Grupo grupoActual;
+
+				@Override
+				public void grupo(String nombreGrupo) {
+					grupo(nombreGrupo, 0);
+				}
+
+				@Override
+				public void grupo(String nombreGrupo, int numeroGrupo) {
+					grupoActual = new Grupo(numeroGrupo, nombreGrupo);
+					grupos.add(grupoActual);
+				}
+
+				@Override
+				public void alumno(Alumno alumno) {
+					alumno(alumno, 0);
+				}
+
+				@Override
+				public void alumno(Alumno alumno, int nia) {
+					alumno.setGrupo(grupoActual);
+					alumnos.add(alumno);
+					niasLeidos.add(nia);
+				}
+			});
+		} catch (IOException | XMLStreamException e) {
+			throw new AccesoDatosException("Error al cargar el fichero " + fichero + ": " + e.getMessage(), e);
+		}
+
+		// Grupos: el primero con cada nombre se queda; los repetidos se fusionan
+		siguienteGrupo.set(grupos.stream().mapToInt(Grupo::getNumeroGrupo).max().orElse(0) + 1);
+		Map<Grupo, Grupo> definitivo = new HashMap<>();
+		Set<Integer> numerosUsados = new HashSet<>();
+		for (Grupo grupo : grupos) {
+			Grupo existente = gruposPorNombre.get(grupo.getNombreGrupo());
+			if (existente == null) {
+				if (grupo.getNumeroGrupo() == 0 || !numerosUsados.add(grupo.getNumeroGrupo())) {
+					grupo.setNumeroGrupo(siguienteGrupo.getAndIncrement());
+					cambiosPendientes.incrementAndGet();
+				}
+				existente = grupo;
+				gruposPorNombre.put(grupo.getNombreGrupo(), grupo);
+				niasPorGrupo.put(grupo.getNumeroGrupo(), new ConcurrentSkipListSet<>());
+			}
+			definitivo.put(grupo, existente);
+		}
+
+		siguienteNia.set(niasLeidos.stream().mapToInt(Integer::intValue).max().orElse(0) + 1);
+		for (int i = 0; i < alumnos.size(); i++) {
+			Alumno alumno = alumnos.get(i);
+			int nia = niasLeidos.get(i);
+			if (nia == 0 || alumnosPorNia.containsKey(nia)) {
+				nia = siguienteNia.getAndIncrement();
+				cambiosPendientes.incrementAndGet();
+			}
+			alumno.setNia(nia);
+			alumno.setGrupo(definitivo.get(alumno.getGrupo()));
+			alumnosPorNia.put(nia, alumno);
+			indexar(alumno);
+		}
+
+		if (ignorados > 0) {
+			loggerExcepciones.warn("Se han ignorado {} alumnos con datos inválidos al cargar {}", ignorados, fichero);
+		}
+		loggerGeneral.info("Cargados {} grupos y {} alumnos desde {}", gruposPorNombre.size(), alumnosPorNia.size(),
+				fichero);
+	}
+
+	// ALUMNOS:
+
+	@Override
+	int insertarSinConfirmar(Alumno alumno, Grupo grupo) {
+		int nia = siguienteNia.getAndIncrement();
+		Alumno guardado = copiar(alumno, nia, gruposPorNombre.get(grupo.getNombreGrupo()));
+
+		cerrojo.readLock().lock();
+		try {
+			diario.anotarAlta(nia, guardado.getGrupo().getNumeroGrupo(), guardado);
+			alumnosPorNia.put(nia, guardado);
+			indexar(guardado);
+		} finally {
+			cerrojo.readLock().unlock();
+		}
+		registrarCambios(1);
+
+		alumno.setNia(nia);
+		alumno.setGrupo(grupo);
+		return nia;
+	}
+
+	/**
+	 * Fuerza a disco el diario; el XML se reescribe en la siguiente instantánea.
+	 */
+	@Override
+	void confirmar() {
+		diario.sincronizar();
+	}
+
+	@Override
+	public Optional<Alumno> buscarAlumno(int nia) {
+		return Optional.ofNullable(alumnosPorNia.get(nia)).map(AlumnosFicheroXML::copiar);
+	}
+
+	/**
+	 * Alumnos con esos apellidos (sin distinguir mayúsculas), en orden de NIA,
+	 * desde el índice por apellidos.
+	 */
+	public List<Alumno> buscarAlumnosPorApellidos(String apellidos) {
+		Set<Integer> encontrados = niasPorApellidos.getOrDefault(claveApellidos(apellidos), Set.of());
+		List<Alumno> alumnos = new ArrayList<>(encontrados.size());
+		for (Integer nia : encontrados) {
+			Alumno alumno = alumnosPorNia.get(nia);
+			if (alumno != null) {
+				alumnos.add(copiar(alumno));
+			}
+		}
+		alumnos.sort(Comparator.comparingInt(Alumno::getNia));
+		return alumnos;
+	}
+
+	@Override
+	public PaginaAlumnos obtenerPaginaAlumnos(int despuesDeNia, int tamanoPagina) {
+		return leerPagina(nias, despuesDeNia, tamanoPagina, 0);
+	}
+
+	@Override
+	public PaginaAlumnos obtenerPaginaAlumnosPorGrupo(String nombreGrupo, int despuesDeNia, int tamanoPagina) {
+		Grupo grupo = nombreGrupo == null ? null : gruposPorNombre.get(nombreGrupo);
+		if (grupo == null) {
+			return null;
+		}
+		return leerPagina(niasPorGrupo.get(grupo.getNumeroGrupo()), despuesDeNia, tamanoPagina,
+				grupo.getNumeroGrupo());
+	}
+
+	/**
+	 * @param numeroGrupo Grupo que deben tener los alumnos (0 para cualquiera):
+	 *                    descarta los que cambian de grupo durante el recorrido.
+	 */
+	private PaginaAlumnos leerPagina(ConcurrentSkipListSet<Integer> indice, int despuesDeNia, int tamanoPagina,
+			int numeroGrupo) {
+		List<Alumno> filas = new ArrayList<>(Math.min(tamanoPagina + 1, 1024));
+		for (Integer nia : indice.tailSet(despuesDeNia, false)) {
+			Alumno alumno = alumnosPorNia.get(nia);
+			if (alumno != null && (numeroGrupo == 0 || alumno.getGrupo().getNumeroGrupo() == numeroGrupo)) {
+				filas.add(copiar(alumno));
+				if (filas.size() > tamanoPagina) {
+					break;
+				}
+			}
+		}
+		return PaginaAlumnos.desdeConsulta(filas, tamanoPagina);
+	}
+
+	@Override
+	public long contarAlumnos() {
+		return alumnosPorNia.mappingCount();
+	}
+
+	@Override
+	public boolean modificarNombreAlumnoPorNIA(int nia, String nuevoNombre) {
+		boolean modificado = false;
+		cerrojo.readLock().lock();
+		try {
+			synchronized (cerrojoNia(nia)) {
+				Alumno alumno = alumnosPorNia.get(nia);
+				if (alumno != null) {
+					diario.anotarNombre(nia, nuevoNombre);
+					Alumno copia = copiar(alumno, nia, alumno.getGrupo());
+					copia.setNombre(nuevoNombre);
+					alumnosPorNia.put(nia, copia);
+					modificado = true;
+				}
+			}
+		} finally {
+			cerrojo.readLock().unlock();
+		}
+		return registrarSi(modificado);
+	}
+
+	@Override
+	public boolean eliminarAlumnoPorNIA(int nia) {
+		boolean eliminado = false;
+		cerrojo.readLock().lock();
+		try {
+			synchronized (cerrojoNia(nia)) {
+				Alumno alumno = alumnosPorNia.get(nia);
+				if (alumno != null) {
+					darDeBaja(nia, alumno);
+					eliminado = true;
+				}
+			}
+		} finally {
+			cerrojo.readLock().unlock();
+		}
+		return registrarSi(eliminado);
+	}
+
+	/**
+	 * Anota la baja y quita al alumno de los índices. Con el cerrojo de su NIA.
+	 */
+	private void darDeBaja(int nia, Alumno alumno) {
+		diario.anotarBaja(nia);
+		alumnosPorNia.remove(nia);
+		desindexar(alumno);
+	}
+
+	private Object cerrojoNia(int nia) {
+		return cerrojosNia[Math.floorMod(nia, cerrojosNia.length)];
+	}
+
+	/**
+	 * Parte del índice por apellidos y borra en tramos de TAMANO_LOTE alumnos en
+	 * orden de NIA, registrando los cambios de cada tramo: entre tramos puede
+	 * entrar la instantánea periódica.
+	 */
+	@Override
+	public int eliminarAlumnosPorApellidos(String apellidos, boolean simulacion) {
+		String clave = claveApellidos(apellidos);
+		// Copia ordenada: el conjunto del índice cambia mientras se borra
+		List<Integer> nias = new ArrayList<>(niasPorApellidos.getOrDefault(clave, Set.of()));
+		if (simulacion) {
+			return nias.size();
+		}
+		nias.sort(null);
+
+		int eliminados = 0;
+		for (int desde = 0; desde < nias.size(); desde += TAMANO_LOTE) {
+			int enTramo = 0;
+			cerrojo.readLock().lock();
+			try {
+				for (Integer nia : nias.subList(desde, Math.min(desde + TAMANO_LOTE, nias.size()))) {
+					synchronized (cerrojoNia(nia)) {
+						// Solo si sigue teniendo esos apellidos (otro hilo puede haberlo cambiado)
+						Alumno alumno = alumnosPorNia.get(nia);
+						if (alumno != null && claveApellidos(alumno.getApellidos()).equals(clave)) {
+							darDeBaja(nia, alumno);
+							enTramo++;
+						}
+					}
+				}
+			} finally {
+				cerrojo.readLock().unlock();
+			}
+			registrarCambios(enTramo);
+			confirmar();
+			eliminados += enTramo;
+		}
+		return eliminados;
+	}
+
+	@Override
+	public boolean moverAlumnoAGrupo(int nia, String nombreGrupo) {
+		Grupo grupo = nombreGrupo == null ? null : gruposPorNombre.get(nombreGrupo);
+		if (grupo == null) {
+			return false;
+		}
+
+		boolean movido = false;
+		cerrojo.readLock().lock();
+		try {
+			// Atómico para este NIA: ni se pierde ni se duplica en el índice por grupo
+			synchronized (cerrojoNia(nia)) {
+				Alumno alumno = alumnosPorNia.get(nia);
+				if (alumno != null) {
+					diario.anotarMovimiento(nia, grupo.getNumeroGrupo());
+					alumnosPorNia.put(nia, copiar(alumno, nia, grupo));
+					niasPorGrupo.get(alumno.getGrupo().getNumeroGrupo()).remove(nia);
+					niasPorGrupo.get(grupo.getNumeroGrupo()).add(nia);
+					movido = true;
+				}
+			}
+		} finally {
+			cerrojo.readLock().unlock();
+		}
+		return registrarSi(movido);
+	}
+
+	// GRUPOS:
+
+	@Override
+	public Grupo crearGrupo(String nombreGrupo) {
+		String nombre = nombreGrupo.trim().toUpperCase();
+
+		Grupo grupo;
+		cerrojo.readLock().lock();
+		try {
+			// El grupo se anota antes de publicarlo: ningún alumno suyo puede llegar
+			// al diario antes que él
+			synchronized (gruposPorNombre) {
+				if (gruposPorNombre.containsKey(nombre)) {
+					throw new AccesoDatosException("El grupo '" + nombre + "' ya existe.");
+				}
+				grupo = new Grupo(siguienteGrupo.getAndIncrement(), nombre);
+				diario.anotarGrupo(grupo.getNumeroGrupo(), nombre);
+				niasPorGrupo.put(grupo.getNumeroGrupo(), new ConcurrentSkipListSet<>());
+				gruposPorNombre.put(nombre, grupo);
+			}
+			registrarCambios(1);
+		} finally {
+			cerrojo.readLock().unlock();
+		}
+
+		confirmar();
+		return copiar(grupo);
+	}
+
+	@Override
+	public Optional<Grupo> buscarGrupo(String nombreGrupo) {
+		if (nombreGrupo == null) {
+			return Optional.empty();
+		}
+		return Optional.ofNullable(gruposPorNombre.get(nombreGrupo)).map(AlumnosAlmacenLocal::copiar);
+	}
+
+	@Override
+	public List<Grupo> listarGrupos() {
+		return gruposPorNombre.values().stream().map(AlumnosAlmacenLocal::copiar).toList();
+	}
+
+	@Override
+	public int eliminarAlumnosDeGrupo(String nombreGrupo) {
+		Grupo grupo = nombreGrupo == null ? null : gruposPorNombre.get(nombreGrupo);
+		if (grupo == null) {
+			return 0;
+		}
+
+		int eliminados = 0;
+		cerrojo.readLock().lock();
+		try {
+			for (Integer nia : niasPorGrupo.get(grupo.getNumeroGrupo())) {
+				synchronized (cerrojoNia(nia)) {
+					// Solo si sigue en el grupo (otro hilo puede haberlo movido)
+					Alumno alumno = alumnosPorNia.get(nia);
+					if (alumno != null && alumno.getGrupo().getNumeroGrupo() == grupo.getNumeroGrupo()) {
+						darDeBaja(nia, alumno);
+						eliminados++;
+					}
+				}
+			}
+		} finally {
+			cerrojo.readLock().unlock();
+		}
+
+		registrarCambios(eliminados);
+		confirmar();
+		return eliminados;
+	}
+
+	// INSTANTÁNEAS:
+
+	/**
+	 * Reescribe el XML con el estado actual: copia los índices con las escrituras
+	 * detenidas (y empieza un segmento nuevo del diario), escribe la copia en un
+	 * fichero temporal del mismo directorio (con fsync) y lo renombra
+	 * atómicamente sobre el original. Los segmentos anteriores del diario solo se
+	 * borran cuando el XML nuevo es duradero.
+	 */
+	public synchronized void guardarInstantanea() {
+		escribirInstantanea();
+	}
+
+	private void escribirInstantanea() {
+		List<Grupo> grupos;
+		Map<Integer, List<Alumno>> alumnosPorGrupo = new HashMap<>();
+		long incluidos;
+		int segmentoCerrado;
+
+		cerrojo.writeLock().lock();
+		try {
+			segmentoCerrado = diario.rotar();
+			incluidos = cambiosPendientes.getAndSet(0);
+			grupos = new ArrayList<>(gruposPorNombre.values());
+			for (Integer nia : nias) {
+				Alumno alumno = alumnosPorNia.get(nia);
+				if (alumno == null) {
+					continue;
+				}
+				alumnosPorGrupo.computeIfAbsent(alumno.getGrupo().getNumeroGrupo(), numero -> new ArrayList<>())
+						.add(alumno);
+			}
+		} finally {
+			cerrojo.writeLock().unlock();
+		}
+
+		Path temporal = null;
+		try {
+			temporal = Files.createTempFile(fichero.getParent(), fichero.getFileName().toString(), ".tmp");
+			EscritorGruposXML.escribirTodos(grupos,
+					grupo -> alumnosPorGrupo.getOrDefault(grupo.getNumeroGrupo(), List.of()).stream(),
+					temporal.toFile());
+			try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.WRITE)) {
+				canal.force(true);
+			}
+			Files.move(temporal, fichero, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			Diario.sincronizarDirectorio(fichero.getParent());
+			loggerGeneral.debug("Instantánea de {} guardada ({} cambios)", fichero, incluidos);
+		} catch (IOException | XMLStreamException e) {
+			// Los cambios siguen pendientes para la próxima instantánea
+			cambiosPendientes.addAndGet(incluidos);
+			borrarSinErrores(temporal);
+			throw new AccesoDatosException("Error al guardar la instantánea de " + fichero + ": " + e.getMessage(), e);
+		}
+		diario.descartarHasta(segmentoCerrado);
+	}
+
+	/**
+	 * Detiene el hilo de instantáneas y guarda los cambios pendientes. Con el XML
+	 * al día, el diario ya no hace falta y se borra.
+	 */
+	@Override
+	public void close() {
+		instantaneas.shutdown();
+		try {
+			instantaneas.awaitTermination(1, TimeUnit.MINUTES);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		try (diario) {
+			if (cambiosPendientes.get() > 0) {
+				guardarInstantanea();
+			}
+		} catch (IOException e) {
+			throw new AccesoDatosException("Error al cerrar el diario de " + fichero + ": " + e.getMessage(), e);
+		}
+		diario.descartar();
+	}
+
+	/**
+	 * Registra y confirma el cambio de una operación individual, si lo hubo.
+	 */
+	private boolean registrarSi(boolean cambiado) {
+		if (cambiado) {
+			registrarCambios(1);
+			confirmar();
+		}
+		return cambiado;
+	}
+
+	/**
+	 * Suma cambios pendientes y, al llegar al umbral, pide una instantánea al hilo
+	 * de fondo (solo una a la vez), sin esperarla.
+	 */
+	private void registrarCambios(int cambios) {
+		if (cambiosPendientes.addAndGet(cambios) >= cambiosPorInstantanea
+				&& instantaneaSolicitada.compareAndSet(false, true)) {
+			try {
+				instantaneas.execute(this::instantaneaEnSegundoPlano);
+			} catch (RejectedExecutionException e) {
+				// Cerrando: close() guarda lo pendiente
+				instantaneaSolicitada.set(false);
+			}
+		}
+	}
+
+	private void instantaneaEnSegundoPlano() {
+		instantaneaSolicitada.set(false);
+		if (cambiosPendientes.get() == 0) {
+			return;
+		}
+		try {
+			guardarInstantanea();
+		} catch (AccesoDatosException e) {
+			// Un error no debe detener las instantáneas periódicas
+			loggerExcepciones.error(e.getMessage(), e);
+		}
+	}
+
+	// RECUPERACIÓN:
+
+	/**
+	 * Aplica los cambios del diario al arrancar, antes de que nadie más use el
+	 * modelo. Cada cambio fija el estado final, así que aplicar uno que ya estaba
+	 * en el XML no cambia nada.
+	 */
+	private final class Recuperacion implements Diario.Reproductor {
+
+		@Override
+		public void alta(int nia, int numeroGrupo, Alumno alumno) {
+			Grupo grupo = grupoPorNumero(numeroGrupo);
+			Alumno anterior = alumnosPorNia.get(nia);
+			if (anterior != null) {
+				desindexar(anterior);
+			}
+			alumno.setNia(nia);
+			alumno.setGrupo(grupo);
+			alumnosPorNia.put(nia, alumno);
+			indexar(alumno);
+			siguienteNia.accumulateAndGet(nia + 1, Math::max);
+		}
+
+		@Override
+		public void nombre(int nia, String nombre) {
+			alumnosPorNia.computeIfPresent(nia, (clave, alumno) -> {
+				Alumno copia = copiar(alumno, nia, alumno.getGrupo());
+				copia.setNombre(nombre);
+				return copia;
+			});
+		}
+
+		@Override
+		public void baja(int nia) {
+			Alumno eliminado = alumnosPorNia.remove(nia);
+			if (eliminado != null) {
+				desindexar(eliminado);
+			}
+		}
+
+		@Override
+		public void movimiento(int nia, int numeroGrupo) {
+			Grupo grupo = grupoPorNumero(numeroGrupo);
+			alumnosPorNia.computeIfPresent(nia, (clave, alumno) -> {
+				niasPorGrupo.get(alumno.getGrupo().getNumeroGrupo()).remove(nia);
+				niasPorGrupo.get(numeroGrupo).add(nia);
+				return copiar(alumno, nia, grupo);
+			});
+		}
+
+		@Override
+		public void grupo(int numeroGrupo, String nombreGrupo) {
+			if (!gruposPorNombre.containsKey(nombreGrupo)) {
+				gruposPorNombre.put(nombreGrupo, new Grupo(numeroGrupo, nombreGrupo));
+				niasPorGrupo.put(numeroGrupo, new ConcurrentSkipListSet<>());
+				siguienteGrupo.accumulateAndGet(numeroGrupo + 1, Math::max);
+			}
+		}
+
+		private Grupo grupoPorNumero(int numeroGrupo) {
+			for (Grupo grupo : gruposPorNombre.values()) {
+				if (grupo.getNumeroGrupo() == numeroGrupo) {
+					return grupo;
+				}
+			}
+			throw new AccesoDatosException("El diario de " + fichero + " hace referencia al grupo " + numeroGrupo
+					+ ", que no existe.");
+		}
+	}
+
+	// ÍNDICES:
+
+	private void indexar(Alumno alumno) {
+		int nia = alumno.getNia();
+		nias.add(nia);
+		niasPorGrupo.get(alumno.getGrupo().getNumeroGrupo()).add(nia);
+		niasPorApellidos.compute(claveApellidos(alumno.getApellidos()), (clave, conjunto) -> {
+			Set<Integer> niasApellidos = conjunto == null ? ConcurrentHashMap.newKeySet() : conjunto;
+			niasApellidos.add(nia);
+			return niasApellidos;
+		});
+	}
+
+	private void desindexar(Alumno alumno) {
+		int nia = alumno.getNia();
+		nias.remove(nia);
+		niasPorGrupo.get(alumno.getGrupo().getNumeroGrupo()).remove(nia);
+		niasPorApellidos.computeIfPresent(claveApellidos(alumno.getApellidos()), (clave, conjunto) -> {
+			conjunto.remove(nia);
+			return conjunto.isEmpty() ? null : conjunto;
+		});
+	}
+
+	private static String claveApellidos(String apellidos) {
+		return apellidos == null ? "" : apellidos.trim().toUpperCase();
+	}
+
+	private static Alumno copiar(Alumno alumno) {
+		return copiar(alumno, alumno.getNia(), copiar(alumno.getGrupo()));
+	}
+
+	private static Alumno copiar(Alumno alumno, int nia, Grupo grupo) {
+		Date fecha = alumno.getFechaNacimiento() == null ? null : (Date) alumno.getFechaNacimiento().clone();
+		return new Alumno(nia, alumno.getNombre(), alumno.getApellidos(), alumno.getGenero(), fecha, alumno.getCiclo(),
+				alumno.getCurso(), grupo);
+	}
+
+	/**
+	 * Borra los temporales de instantáneas que se cortaron a medias.
+	 */
+	private void borrarTemporales() throws IOException {
+		String prefijo = fichero.getFileName().toString();
+		try (Stream<Path> ficheros = Files.list(fichero.getParent())) {
+			ficheros.filter(temporal -> {
+				String nombre = temporal.getFileName().toString();
+				return nombre.startsWith(prefijo) && nombre.endsWith(".tmp")
+						&& nombre.substring(prefijo.length(), nombre.length() - 4).matches("[0-9]+");
+			}).forEach(AlumnosFicheroXML::borrarSinErrores);
+		}
+	}
+
+	private static void borrarSinErrores(Path temporal) {
+		if (temporal != null) {
+			try {
+				Files.deleteIfExists(temporal);
+			} catch (IOException e) {
+				// Ya se está informando del error original
+			}
+		}
+	}
+}
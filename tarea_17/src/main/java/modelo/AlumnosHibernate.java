@@ -1,889 +1,1817 @@
-package modelo;
-
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.ArrayList;
-import java.util.Date;
-import java.util.List;
-import java.util.Scanner;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-
-import org.hibernate.Session;
-import org.hibernate.SessionFactory;
-import org.hibernate.Transaction;
-import org.hibernate.cfg.Configuration;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-
-/**
- * Utilizará Hibernate para acceder a los datos.
- * 
- * @author Alberto Polo
- */
-public class AlumnosHibernate implements AlumnosDAO {
-
-	private final static Scanner sc = new Scanner(System.in);
-
-	private static SessionFactory sessionFactory;
-
-	static {
-		try {
-			// Cargar la configuración de Hibernate
-			// Sin especificar el nombre, Hibernate buscará automáticamente
-			// hibernate.cfg.xml en src/main/resources/.
-			sessionFactory = new Configuration().configure().buildSessionFactory();
-			System.out.println("✅ Hibernate inicializado correctamente.");
-		} catch (Throwable ex) {
-			throw new ExceptionInInitializerError("❌ Error al inicializar Hibernate: " + ex);
-		}
-	}
-
-	/**
-	 * Obtiene una sesión de Hibernate.
-	 *
-	 * @return una nueva sesión
-	 */
-	private Session getSession() {
-		return sessionFactory.openSession();
-	}
-
-	// 1. Insertar nuevo alumno. //////////////////////////////////
-
-	@Override
-	public boolean insertarAlumno(Alumno alumno) {
-		Transaction tx = null;
-		Session session = null; // 🔹 Inicializamos `session` en null para asegurarnos de cerrarla en `finally`
-		try {
-			session = getSession();
-			tx = session.beginTransaction();
-			session.persist(alumno);
-			tx.commit();
-			System.out.println("✅ Alumno insertado en Hibernate.");
-			return true;
-		} catch (Exception e) {
-			if (tx != null)
-				tx.rollback();
-			e.printStackTrace();
-			return false;
-		} finally {
-			if (session != null)
-				session.close(); // 🔹 Cerramos la sesión solo si fue abierta correctamente
-		}
-	}
-
-	@Override
-	public Alumno solicitarDatosAlumno() {
-		System.out.println("Introduce el nombre del alumno:");
-		String nombre = sc.nextLine().toUpperCase().trim();
-
-		System.out.println("Introduce los apellidos:");
-		String apellidos = sc.nextLine().toUpperCase().trim();
-
-		System.out.println("Introduce el género (M/F):");
-		char genero = sc.nextLine().toUpperCase().charAt(0);
-
-		System.out.println("Introduce la fecha de nacimiento (dd-MM-yyyy):");
-		Date fechaNacimiento;
-		try {
-			SimpleDateFormat formato = new SimpleDateFormat("dd-MM-yyyy");
-			fechaNacimiento = formato.parse(sc.nextLine());
-		} catch (Exception e) {
-			System.out.println("❌ Formato de fecha incorrecto.");
-			return null;
-		}
-
-		System.out.println("Introduce el ciclo:");
-		String ciclo = sc.nextLine().toUpperCase().trim();
-
-		System.out.println("Introduce el curso:");
-		String curso = sc.nextLine().toUpperCase().trim();
-
-		System.out.println("Introduce el nombre del grupo:");
-		String nombreGrupo = sc.nextLine().toUpperCase().trim();
-
-		// 🔹 Obtener el grupo desde la BD
-		Grupo grupo;
-		try (Session session = getSession()) {
-			grupo = session.createQuery("FROM Grupo WHERE nombreGrupo = :nombre", Grupo.class)
-					.setParameter("nombre", nombreGrupo).uniqueResult();
-		}
-
-		if (grupo == null) {
-			System.out.println("❌ El grupo no existe en la BD. Debes crearlo antes de asignarlo a un alumno.");
-			return null;
-		}
-
-		return new Alumno(nombre, apellidos, genero, fechaNacimiento, ciclo, curso, grupo);
-	}
-
-	// 2. Insertar nuevo grupo. //////////////////////////////////
-
-	@Override
-	public boolean insertarGrupo(Grupo grupo) {
-		Transaction tx = null;
-		try (Session session = getSession()) {
-			tx = session.beginTransaction();
-			session.persist(grupo); // Guardar el grupo en la base de datos
-			tx.commit();
-			System.out.println("✅ Grupo insertado correctamente en Hibernate.");
-			return true;
-		} catch (Exception e) {
-			if (tx != null)
-				tx.rollback();
-			System.out.println("❌ Error al insertar el grupo: " + e.getMessage());
-			e.printStackTrace();
-			return false;
-		}
-	}
-
-	// 3. y 12. Mostrar todos los alumnos. //////////////////////////////////
-
-	@Override
-	public boolean mostrarTodosLosAlumnos(boolean mostrarTodaLaInformacion) {
-		try (Session session = getSession()) {
-			List<Alumno> alumnos = session.createQuery("FROM Alumno", Alumno.class).getResultList();
-
-			if (alumnos.isEmpty()) {
-				System.out.println("No hay alumnos registrados.");
-				return false;
-			}
-
-			List<Integer> listaNias = new ArrayList<>();
-
-			if (mostrarTodaLaInformacion) {
-				System.out.println("Lista completa de alumnos registrados:");
-			} else {
-				System.out.println("Lista de alumnos (NIA y Nombre):");
-			}
-
-			for (Alumno alumno : alumnos) {
-				if (mostrarTodaLaInformacion) {
-					System.out.printf("""
-							-------------------------
-							NIA: %d
-							Nombre: %s
-							Apellidos: %s
-							Género: %s
-							Fecha de nacimiento: %s
-							Ciclo: %s
-							Curso: %s
-							Grupo: %s
-							""", alumno.getNia(), alumno.getNombre(), alumno.getApellidos(), alumno.getGenero(),
-							new SimpleDateFormat("dd-MM-yyyy").format(alumno.getFechaNacimiento()), alumno.getCiclo(),
-							alumno.getCurso(),
-							(alumno.getGrupo() != null ? alumno.getGrupo().getNombreGrupo() : "Sin grupo"));
-				} else {
-					System.out.printf("NIA: %d, Nombre: %s%n", alumno.getNia(), alumno.getNombre());
-					listaNias.add(alumno.getNia());
-				}
-			}
-
-			// Si estamos en modo "NIA y nombre", permitir al usuario seleccionar un NIA
-			if (!mostrarTodaLaInformacion) {
-				System.out.println("\nIntroduce el NIA del alumno que deseas visualizar (o 0 para salir):");
-				while (true) {
-					try {
-						int niaSeleccionado = Integer.parseInt(sc.nextLine().trim());
-
-						if (niaSeleccionado == 0) {
-							System.out.println("Saliendo sin seleccionar un alumno.");
-							return true;
-						}
-
-						if (listaNias.contains(niaSeleccionado)) {
-							return mostrarAlumnoPorNIA(niaSeleccionado);
-						} else {
-							System.out.println("El NIA seleccionado no está en la lista. Inténtalo de nuevo.");
-						}
-					} catch (NumberFormatException e) {
-						System.out.println("El NIA debe ser un número válido. Inténtalo de nuevo:");
-					}
-				}
-			}
-
-			return true;
-		} catch (Exception e) {
-			e.printStackTrace();
-			System.out.println("Se produjo un error al recuperar los alumnos. Revisa los logs para más detalles.");
-			return false;
-		}
-	}
-
-	// 4. Guardar todos los alumnos en un fichero de texto. /////////////////////
-
-	@Override
-	public void guardarAlumnosEnFicheroTexto() {
-		String nombreArchivo = "alumnos.txt";
-
-		try (Session session = getSession();
-				BufferedWriter writer = new BufferedWriter(new FileWriter(nombreArchivo))) {
-
-			// Obtener todos los alumnos
-			List<Alumno> alumnos = session.createQuery("FROM Alumno", Alumno.class).getResultList();
-
-			if (alumnos.isEmpty()) {
-				System.out.println("No hay alumnos para guardar en el archivo.");
-				return;
-			}
-
-			// Escribir la cabecera del archivo
-			writer.write("NIA,Nombre,Apellidos,Género,Fecha Nacimiento,Ciclo,Curso,Nombre del Grupo");
-			writer.newLine();
-
-			// Escribir cada alumno en el archivo
-			SimpleDateFormat formatoFecha = new SimpleDateFormat("dd-MM-yyyy");
-			for (Alumno alumno : alumnos) {
-				String linea = String.format("%d,%s,%s,%s,%s,%s,%s,%s", alumno.getNia(), alumno.getNombre(),
-						alumno.getApellidos(), alumno.getGenero(), formatoFecha.format(alumno.getFechaNacimiento()),
-						alumno.getCiclo(), alumno.getCurso(),
-						(alumno.getGrupo() != null ? alumno.getGrupo().getNombreGrupo() : "Sin grupo"));
-
-				writer.write(linea);
-				writer.newLine();
-			}
-
-			System.out.println("✅ Alumnos guardados correctamente en " + nombreArchivo);
-
-		} catch (IOException e) {
-			System.out.println("❌ Error al guardar los alumnos en el archivo: " + e.getMessage());
-		} catch (Exception e) {
-			System.out.println("❌ Error inesperado: " + e.getMessage());
-		}
-	}
-
-	// 5. Leer alumnos de un fichero de texto y guardarlos en la BD Hibernate.
-
-	@Override
-	public boolean leerAlumnosDeFicheroTexto() {
-		String fichero = "alumnos.txt";
-		int lineasInsertadas = 0;
-
-		try (BufferedReader br = new BufferedReader(new FileReader(fichero)); Session session = getSession()) {
-
-			Transaction tx = session.beginTransaction();
-			String linea;
-
-			// Ignorar la primera línea (cabecera)
-			br.readLine();
-
-			while ((linea = br.readLine()) != null) {
-				System.out.println("📖 Leyendo línea: " + linea);
-
-				// Separar los campos por coma
-				String[] datos = linea.split(",");
-
-				// Verificar que la línea tenga 8 campos
-				if (datos.length == 8) {
-					try {
-						String nombre = datos[1].trim().toUpperCase();
-						String apellidos = datos[2].trim().toUpperCase();
-						char genero = datos[3].trim().toUpperCase().charAt(0);
-						String fechaNacimiento = datos[4].trim();
-						String ciclo = datos[5].trim().toUpperCase();
-						String curso = datos[6].trim().toUpperCase();
-						String nombreGrupo = datos[7].trim().toUpperCase();
-
-						// Convertir la fecha
-						SimpleDateFormat formatoFecha = new SimpleDateFormat("dd-MM-yyyy");
-						Date fechaUtil = formatoFecha.parse(fechaNacimiento);
-
-						// Buscar si el grupo ya existe
-						Grupo grupo = session
-								.createQuery("FROM Grupo g WHERE g.nombreGrupo = :nombreGrupo", Grupo.class)
-								.setParameter("nombreGrupo", nombreGrupo).uniqueResult();
-
-						// Si el grupo no existe, crearlo
-						if (grupo == null) {
-							grupo = new Grupo(nombreGrupo);
-							session.persist(grupo);
-						}
-
-						// Crear e insertar el alumno
-						Alumno alumno = new Alumno(nombre, apellidos, genero, fechaUtil, ciclo, curso, grupo);
-						session.persist(alumno);
-						lineasInsertadas++;
-						System.out.println("✅ Alumno insertado: " + nombre + " " + apellidos);
-					} catch (ParseException e) {
-						System.out.println("❌ Error al convertir la fecha: " + datos[4]);
-					}
-				} else {
-					System.out.println("⚠ Línea inválida en el fichero (número de campos incorrecto): " + linea);
-				}
-			}
-
-			tx.commit();
-
-			if (lineasInsertadas > 0) {
-				System.out.println("✅ Alumnos insertados correctamente desde el fichero.");
-				return true;
-			} else {
-				System.out.println("❌ No se insertaron alumnos.");
-				return false;
-			}
-		} catch (IOException e) {
-			System.out.println("❌ Error al leer el archivo: " + e.getMessage());
-			return false;
-		} catch (Exception e) {
-			System.out.println("❌ Error en la base de datos al insertar alumnos: " + e.getMessage());
-			return false;
-		}
-	}
-
-	// 6. Modificar el nombre de un alumno por su NIA. //////////////////////
-
-	@Override
-	public boolean modificarNombreAlumnoPorNIA(int nia, String nuevoNombre) {
-		Transaction tx = null;
-		try (Session session = getSession()) {
-			tx = session.beginTransaction();
-			Alumno alumno = session.get(Alumno.class, nia);
-			if (alumno != null) {
-				alumno.setNombre(nuevoNombre);
-				session.merge(alumno);
-				tx.commit();
-				System.out.println("✅ Nombre actualizado en Hibernate.");
-				return true;
-			}
-			return false;
-		} catch (Exception e) {
-			if (tx != null)
-				tx.rollback();
-			e.printStackTrace();
-			return false;
-		}
-	}
-
-	// 7. Eliminar un alumno a partir de su NIA. ///////////////////////
-
-	@Override
-	public boolean eliminarAlumnoPorNIA(int nia) {
-		Transaction tx = null;
-		try (Session session = getSession()) {
-			tx = session.beginTransaction();
-			Alumno alumno = session.get(Alumno.class, nia);
-			if (alumno != null) {
-				session.remove(alumno);
-				tx.commit();
-				System.out.println("✅ Alumno eliminado en Hibernate.");
-				return true;
-			}
-			return false;
-		} catch (Exception e) {
-			if (tx != null)
-				tx.rollback();
-			e.printStackTrace();
-			return false;
-		}
-	}
-
-	// 8. Eliminar los alumnos del grupo indicado.
-
-	@Override
-	public boolean eliminarAlumnosPorGrupo(String nombreGrupo) {
-		Transaction tx = null;
-		try (Session session = getSession()) {
-			tx = session.beginTransaction();
-
-			// Obtener el grupo por su nombre
-			Grupo grupo = session.createQuery("FROM Grupo WHERE nombreGrupo = :nombreGrupo", Grupo.class)
-					.setParameter("nombreGrupo", nombreGrupo).uniqueResult();
-
-			if (grupo == null) {
-				System.out.println("❌ El grupo '" + nombreGrupo + "' no existe.");
-				return false;
-			}
-
-			// Eliminar los alumnos del grupo
-			int eliminados = session.createMutationQuery("DELETE FROM Alumno WHERE grupo = :grupo")
-					.setParameter("grupo", grupo).executeUpdate();
-
-			tx.commit();
-			System.out.println("✅ Se han eliminado " + eliminados + " alumnos del grupo '" + nombreGrupo + "'.");
-			return eliminados > 0;
-		} catch (Exception e) {
-			if (tx != null)
-				tx.rollback();
-			e.printStackTrace();
-			return false;
-		}
-	}
-
-	@Override
-	public boolean mostrarTodosLosGrupos() {
-		try (Session session = getSession()) {
-			List<String> nombresGrupos = session.createQuery("SELECT g.nombreGrupo FROM Grupo g", String.class)
-					.getResultList();
-
-			if (nombresGrupos.isEmpty()) {
-				System.out.println("❌ No se encontraron grupos en la base de datos.");
-				return false;
-			}
-
-			System.out.println("📌 Grupos disponibles:");
-			for (String nombre : nombresGrupos) {
-				System.out.println("- " + nombre);
-			}
-
-			return true;
-		} catch (Exception e) {
-			e.printStackTrace();
-			System.out.println("❌ Error al mostrar los grupos: " + e.getMessage());
-			return false;
-		}
-	}
-
-	// 9. Guardar grupos y alumnos en un archivo XML.
-
-	@Override
-	public boolean guardarGruposEnXML() {
-		String nombreArchivo = "grupos.xml";
-
-		try (Session session = getSession()) {
-			// Obtener todos los grupos con sus alumnos (Lazy Loading -> Fetch JOIN)
-			List<Grupo> grupos = session.createQuery("SELECT g FROM Grupo g LEFT JOIN FETCH g.alumnos", Grupo.class)
-					.getResultList();
-
-			if (grupos.isEmpty()) {
-				System.out.println("⚠ No hay grupos registrados para guardar.");
-				return false;
-			}
-
-			// Crear documento XML
-			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-			DocumentBuilder builder = factory.newDocumentBuilder();
-			Document doc = builder.newDocument();
-
-			// Nodo raíz <grupos>
-			Element rootElement = doc.createElement("grupos");
-			doc.appendChild(rootElement);
-
-			for (Grupo grupo : grupos) {
-				Element grupoElement = doc.createElement("grupo");
-				grupoElement.setAttribute("numeroGrupo", String.valueOf(grupo.getNumeroGrupo()));
-				grupoElement.setAttribute("nombreGrupo", grupo.getNombreGrupo());
-				rootElement.appendChild(grupoElement);
-
-				for (Alumno alumno : grupo.getAlumnos()) {
-					Element alumnoElement = doc.createElement("alumno");
-					alumnoElement.setAttribute("nia", String.valueOf(alumno.getNia()));
-					alumnoElement.setAttribute("nombre", alumno.getNombre());
-					alumnoElement.setAttribute("apellidos", alumno.getApellidos());
-					alumnoElement.setAttribute("genero", String.valueOf(alumno.getGenero()));
-					alumnoElement.setAttribute("fechaNacimiento", alumno.getFechaNacimiento().toString());
-					alumnoElement.setAttribute("ciclo", alumno.getCiclo());
-					alumnoElement.setAttribute("curso", alumno.getCurso());
-
-					grupoElement.appendChild(alumnoElement);
-				}
-			}
-
-			// Guardar el documento XML
-			TransformerFactory transformerFactory = TransformerFactory.newInstance();
-			Transformer transformer = transformerFactory.newTransformer();
-			transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-
-			DOMSource source = new DOMSource(doc);
-			StreamResult result = new StreamResult(new File(nombreArchivo));
-			transformer.transform(source, result);
-
-			System.out.println("✅ Archivo XML guardado correctamente en " + nombreArchivo);
-			return true;
-		} catch (Exception e) {
-			System.out.println("❌ Error al generar el archivo XML: " + e.getMessage());
-			return false;
-		}
-	}
-
-	// 10. Leer un archivo XML de grupos y guardar los datos en la BD.
-
-	@Override
-	public boolean leerYGuardarGruposXML(String rutaArchivo) {
-		try {
-			File archivoXML = new File("grupos.xml"); // Usamos la ruta fija
-			if (!archivoXML.exists()) {
-				System.out.println("❌ El archivo XML no existe en la ruta especificada.");
-				return false;
-			}
-
-			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-			DocumentBuilder builder = factory.newDocumentBuilder();
-			Document documento = builder.parse(archivoXML);
-			documento.getDocumentElement().normalize();
-
-			NodeList listaGrupos = documento.getElementsByTagName("grupo");
-
-			try (Session session = getSession()) {
-				Transaction tx = session.beginTransaction();
-
-				for (int i = 0; i < listaGrupos.getLength(); i++) {
-					Node nodoGrupo = listaGrupos.item(i);
-					if (nodoGrupo.getNodeType() == Node.ELEMENT_NODE) {
-						Element elementoGrupo = (Element) nodoGrupo;
-
-						String nombreGrupo = elementoGrupo.getAttribute("nombreGrupo");
-
-						// Verificar si el grupo ya existe antes de insertarlo
-						Grupo grupoExistente = session
-								.createQuery("FROM Grupo WHERE nombreGrupo = :nombreGrupo", Grupo.class)
-								.setParameter("nombreGrupo", nombreGrupo).uniqueResult();
-
-						Grupo grupo;
-						if (grupoExistente != null) {
-							grupo = grupoExistente;
-						} else {
-							grupo = new Grupo(nombreGrupo);
-							session.persist(grupo);
-							session.flush(); // Forzar escritura para obtener el ID
-						}
-
-						NodeList listaAlumnos = elementoGrupo.getElementsByTagName("alumno");
-						for (int j = 0; j < listaAlumnos.getLength(); j++) {
-							Node nodoAlumno = listaAlumnos.item(j);
-							if (nodoAlumno.getNodeType() == Node.ELEMENT_NODE) {
-								Element elementoAlumno = (Element) nodoAlumno;
-
-								String nombre = elementoAlumno.getAttribute("nombre");
-								String apellidos = elementoAlumno.getAttribute("apellidos");
-								char genero = elementoAlumno.getAttribute("genero").charAt(0);
-
-								SimpleDateFormat formato = new SimpleDateFormat("yyyy-MM-dd"); // Ajusta el formato
-																								// según el XML
-								java.util.Date fechaUtil = formato
-										.parse(elementoAlumno.getAttribute("fechaNacimiento"));
-								java.sql.Date fechaNacimiento = new java.sql.Date(fechaUtil.getTime());
-
-								// Date fechaNacimiento =
-								// Date.valueOf(elementoAlumno.getAttribute("fechaNacimiento"));
-								String ciclo = elementoAlumno.getAttribute("ciclo");
-								String curso = elementoAlumno.getAttribute("curso");
-
-								Alumno alumno = new Alumno(nombre, apellidos, genero, fechaNacimiento, ciclo, curso,
-										grupo);
-								session.persist(alumno);
-							}
-						}
-					}
-				}
-
-				tx.commit();
-				System.out.println("✅ Archivo XML procesado correctamente. Datos guardados en la BD.");
-				return true;
-			}
-
-		} catch (Exception e) {
-			e.printStackTrace();
-			System.out.println("❌ Error al procesar el archivo XML: " + e.getMessage());
-			return false;
-		}
-	}
-
-	// 11. Mostrar todos los alumnos del grupo elegido.
-
-	@Override
-	public void mostrarAlumnosPorGrupo() {
-		// Mostrar todos los grupos antes de pedir el nombre
-		if (!mostrarTodosLosGrupos()) {
-			System.out.println("No hay grupos disponibles para mostrar.");
-			return;
-		}
-
-		System.out.println("Introduce el nombre del grupo del que quieres ver los alumnos:");
-		String nombreGrupo = sc.nextLine().trim().toUpperCase();
-
-		try (Session session = getSession()) {
-			// Obtener el grupo
-			Grupo grupo = session.createQuery("FROM Grupo WHERE nombreGrupo = :nombreGrupo", Grupo.class)
-					.setParameter("nombreGrupo", nombreGrupo).uniqueResult();
-
-			if (grupo == null) {
-				System.out.println("❌ El grupo especificado no existe. Inténtalo de nuevo.");
-				return;
-			}
-
-			// Obtener alumnos del grupo
-			List<Alumno> alumnos = session.createQuery("FROM Alumno WHERE grupo = :grupo", Alumno.class)
-					.setParameter("grupo", grupo).getResultList();
-
-			if (alumnos.isEmpty()) {
-				System.out.println("❌ No hay alumnos registrados en este grupo.");
-				return;
-			}
-
-			// Mostrar alumnos en formato estructurado
-			System.out.println("📋 Alumnos del grupo '" + nombreGrupo + "':");
-			for (Alumno alumno : alumnos) {
-				System.out.printf("""
-						NIA: %d
-						Nombre: %s
-						Apellidos: %s
-						Género: %s
-						Fecha de nacimiento: %s
-						Ciclo: %s
-						Curso: %s
-						Grupo: %s
-						-------------------------\n
-						""", alumno.getNia(), alumno.getNombre(), alumno.getApellidos(), alumno.getGenero(),
-						alumno.getFechaNacimiento(), alumno.getCiclo(), alumno.getCurso(), grupo.getNombreGrupo());
-			}
-		} catch (Exception e) {
-			e.printStackTrace();
-			System.out.println("❌ Se produjo un error al intentar mostrar los alumnos. Revisa los logs.");
-		}
-	}
-
-	// 12. y 3. Mostrar todos los alumnos. //////////////////////////////////
-
-	@Override
-	public boolean mostrarAlumnoPorNIA(int nia) {
-		try (Session session = getSession()) {
-			Alumno alumno = session.get(Alumno.class, nia);
-
-			if (alumno == null) {
-				System.out.println("❌ No se encontró un alumno con el NIA: " + nia);
-				return false;
-			}
-
-			// Mostrar la información detallada del alumno
-			System.out.printf("""
-					-------------------------
-					NIA: %d
-					Nombre: %s
-					Apellidos: %s
-					Género: %s
-					Fecha de nacimiento: %s
-					Ciclo: %s
-					Curso: %s
-					Grupo: %s
-					""", alumno.getNia(), alumno.getNombre(), alumno.getApellidos(), alumno.getGenero(),
-					new SimpleDateFormat("dd-MM-yyyy").format(alumno.getFechaNacimiento()), alumno.getCiclo(),
-					alumno.getCurso(), (alumno.getGrupo() != null ? alumno.getGrupo().getNombreGrupo() : "Sin grupo"));
-
-			return true;
-		} catch (Exception e) {
-			e.printStackTrace();
-			System.out.println("❌ Ocurrió un error al recuperar los datos del alumno.");
-			return false;
-		}
-	}
-
-	// 13. Cambiar de grupo al alumno que elija el usuario.
-
-	/**
-	 * Muestra solo NIA y nombre de los alumnos sin interacción extra.
-	 * 
-	 * @return true si hay alumnos, false si no hay registros.
-	 */
-	public boolean listarNiasYNombresAlumnos() {
-		try (Session session = getSession()) {
-			List<Alumno> alumnos = session.createQuery("FROM Alumno", Alumno.class).list();
-
-			if (alumnos.isEmpty()) {
-				System.out.println("❌ No hay alumnos registrados.");
-				return false;
-			}
-
-			System.out.println("Lista de alumnos disponibles para cambiar de grupo:");
-			for (Alumno alumno : alumnos) {
-				System.out.printf("NIA: %d, Nombre: %s%n", alumno.getNia(), alumno.getNombre());
-			}
-
-			return true;
-		} catch (Exception e) {
-			System.out.println("❌ Error al recuperar la lista de alumnos: " + e.getMessage());
-			return false;
-		}
-	}
-
-	@Override
-	public boolean cambiarGrupoAlumno() {
-		if (!listarNiasYNombresAlumnos()) {
-			System.out.println("❌ No hay alumnos disponibles.");
-			return false;
-		}
-
-		System.out.println("\nIntroduce el NIA del alumno al que deseas cambiar de grupo:");
-		int niaSeleccionado;
-		try {
-			niaSeleccionado = Integer.parseInt(sc.nextLine().trim());
-		} catch (NumberFormatException e) {
-			System.out.println("❌ El NIA debe ser un número válido.");
-			return false;
-		}
-
-		try (Session session = getSession()) {
-			Transaction tx = session.beginTransaction();
-
-			Alumno alumno = session.get(Alumno.class, niaSeleccionado);
-			if (alumno == null) {
-				System.out.println("❌ No se encontró ningún alumno con el NIA proporcionado.");
-				return false;
-			}
-
-			// Mostrar grupos disponibles
-			List<Grupo> grupos = session.createQuery("FROM Grupo", Grupo.class).list();
-			if (grupos.isEmpty()) {
-				System.out.println("❌ No hay grupos disponibles.");
-				return false;
-			}
-
-			System.out.println("\nGrupos disponibles:");
-			for (Grupo grupo : grupos) {
-				System.out.println("- " + grupo.getNombreGrupo());
-			}
-
-			System.out.println("\nIntroduce el nombre del grupo al que deseas cambiar al alumno:");
-			String nuevoGrupo = sc.nextLine().trim().toUpperCase();
-
-			Grupo grupo = session.createQuery("FROM Grupo WHERE nombreGrupo = :nombreGrupo", Grupo.class)
-					.setParameter("nombreGrupo", nuevoGrupo).uniqueResult();
-
-			if (grupo == null) {
-				System.out.println("❌ El grupo especificado no existe.");
-				return false;
-			}
-
-			if (alumno.getGrupo() != null && alumno.getGrupo().getNombreGrupo().equals(nuevoGrupo)) {
-				System.out.println("⚠️ El alumno ya pertenece al grupo '" + nuevoGrupo + "'.");
-				return false;
-			}
-
-			alumno.setGrupo(grupo);
-			session.merge(alumno);
-
-			tx.commit();
-			System.out.println("✅ El grupo del alumno ha sido cambiado exitosamente.");
-			return true;
-		} catch (Exception e) {
-			System.out.println("❌ Error al cambiar el grupo del alumno: " + e.getMessage());
-			return false;
-		}
-	}
-
-	@Override
-	public boolean guardarGrupoEspecificoEnXML() {
-	    try (Session session = getSession()) {
-	        // Mostrar grupos disponibles
-	        if (!mostrarTodosLosGrupos()) {
-	            System.out.println("❌ No hay grupos disponibles para seleccionar.");
-	            return false;
-	        }
-
-	        // Solicitar el nombre del grupo al usuario
-	        System.out.print("\nIntroduce el nombre del grupo que deseas guardar en fichero XML: ");
-	        String nombreGrupo = sc.nextLine().trim().toUpperCase();
-
-	        // Obtener el grupo con sus alumnos usando JOIN FETCH
-	        Grupo grupo = session.createQuery(
-	                "SELECT g FROM Grupo g LEFT JOIN FETCH g.alumnos WHERE g.nombreGrupo = :nombreGrupo", Grupo.class)
-	                .setParameter("nombreGrupo", nombreGrupo)
-	                .uniqueResult();
-
-	        if (grupo == null) {
-	            System.out.println("❌ El grupo '" + nombreGrupo + "' no existe.");
-	            return false;
-	        }
-
-	        // Nombre del archivo XML
-	        String nombreArchivo = "grupo_" + nombreGrupo + ".xml";
-	        File archivoXML = new File(nombreArchivo);
-
-	        // Verificar si el archivo ya existe
-	        if (archivoXML.exists()) {
-	            System.out.print("⚠️ El archivo '" + nombreArchivo + "' ya existe. ¿Deseas sobrescribirlo? (S/N): ");
-	            String respuesta = sc.nextLine().trim().toUpperCase();
-	            if (!respuesta.equals("S")) {
-	                System.out.println("🚫 Operación cancelada por el usuario.");
-	                return false;
-	            }
-	        }
-
-	        // Crear el documento XML
-	        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-	        DocumentBuilder builder = factory.newDocumentBuilder();
-	        Document doc = builder.newDocument();
-
-	        // Crear el elemento raíz <grupo>
-	        Element grupoElement = doc.createElement("grupo");
-	        grupoElement.setAttribute("numeroGrupo", String.valueOf(grupo.getNumeroGrupo()));
-	        grupoElement.setAttribute("nombreGrupo", grupo.getNombreGrupo());
-	        doc.appendChild(grupoElement);
-
-	        // Agregar alumnos al XML
-	        for (Alumno alumno : grupo.getAlumnos()) {
-	            Element alumnoElement = doc.createElement("alumno");
-	            alumnoElement.setAttribute("nia", String.valueOf(alumno.getNia()));
-	            alumnoElement.setAttribute("nombre", alumno.getNombre());
-	            alumnoElement.setAttribute("apellidos", alumno.getApellidos());
-	            alumnoElement.setAttribute("genero", String.valueOf(alumno.getGenero()));
-	            alumnoElement.setAttribute("fechaNacimiento", new SimpleDateFormat("dd-MM-yyyy").format(alumno.getFechaNacimiento()));
-	            alumnoElement.setAttribute("ciclo", alumno.getCiclo());
-	            alumnoElement.setAttribute("curso", alumno.getCurso());
-
-	            grupoElement.appendChild(alumnoElement);
-	        }
-
-	        // Guardar el archivo XML
-	        TransformerFactory transformerFactory = TransformerFactory.newInstance();
-	        Transformer transformer = transformerFactory.newTransformer();
-	        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-
-	        DOMSource source = new DOMSource(doc);
-	        StreamResult result = new StreamResult(new File(nombreArchivo));
-	        transformer.transform(source, result);
-
-	        System.out.println("✅ El archivo XML del grupo '" + nombreGrupo + "' se ha guardado correctamente en '" + nombreArchivo + "'.");
-	        return true;
-
-	    } catch (Exception e) {
-	        System.out.println("❌ Error al guardar el grupo en XML: " + e.getMessage());
-	        e.printStackTrace();
-	        return false;
-	    }
-	}
-
-	@Override
-	public boolean eliminarAlumnosPorApellidos(String apellidos) {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	@Override
-	public void guardarAlumnosEnFicheroJSON() {
-		// TODO Auto-generated method stub
-
-	}
-
-	@Override
-	public boolean leerAlumnosDeFicheroJSON() {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	@Override
-	public void guardarGruposEnFicheroJSON() {
-		// TODO Auto-generated method stub
-
-	}
-
-	@Override
-	public boolean leerGruposDeFicheroJSON() {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-}
+package modelo;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import esquema.GestorEsquema;
+
+/**
+ * Utilizará Hibernate para acceder a los datos.
+ * 
+ * @author Alberto Polo
+ */
+public class AlumnosHibernate implements AlumnosDAO {
+
+	private final static Scanner sc = new Scanner(System.in);
+
+	private static SessionFactory sessionFactory;
+
+	// Alumnos por lote en las importaciones masivas (flush, clear y commit) y
+	// filas por recorrido en las exportaciones: propiedad 'db.batchSize' de la
+	// configuración de Hibernate, la misma clave que usa AlumnosBD
+	private static final int TAMANO_LOTE;
+
+	// Alumnos por tramo (y por transacción) en los borrados masivos
+	private static final int TAMANO_TRAMO_BORRADO = 1000;
+
+	// Alumnos por página en los listados
+	private static final int TAMANO_PAGINA = 100;
+
+	// Región de ehcache.xml para los resultados del listado de grupos
+	private static final String REGION_CONSULTAS_GRUPOS = "consultas-grupos";
+
+	/**
+	 * Uso de una región de la caché de segundo nivel desde el arranque.
+	 */
+	public record EstadisticasCache(String region, long aciertos, long fallos, long guardados) {
+
+		public double ratioAciertos() {
+			long total = aciertos + fallos;
+			return total == 0 ? 0.0 : (double) aciertos / total;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s: %d aciertos, %d fallos (%.1f%% aciertos), %d guardados", region, aciertos,
+					fallos, ratioAciertos() * 100, guardados);
+		}
+	}
+
+	static {
+		try {
+			// Cargar la configuración de Hibernate
+			// Por defecto, Hibernate buscará hibernate.cfg.xml en src/main/resources/.
+			// Se puede indicar otro recurso con -Dhibernate.config (p. ej. en los
+			// benchmarks, que usan una base de datos embebida).
+			// Las sentencias de cada hilo se cuentan para comprobar los listados (N+1)
+			Configuration configuracion = new Configuration()
+					.configure(System.getProperty("hibernate.config", "hibernate.cfg.xml"));
+			TAMANO_LOTE = propiedadEntera(configuracion, "db.batchSize", 1000);
+			sessionFactory = configuracion.setStatementInspector(new ContadorSentencias()).buildSessionFactory();
+			sincronizarGeneradorNia();
+			actualizarEsquema();
+			System.out.println("✅ Hibernate inicializado correctamente.");
+		} catch (Throwable ex) {
+			throw new ExceptionInInitializerError("❌ Error al inicializar Hibernate: " + ex);
+		}
+	}
+
+	/**
+	 * Devuelve una propiedad numérica de la configuración de Hibernate, o el valor
+	 * por defecto si no existe o no es un número válido.
+	 */
+	private static int propiedadEntera(Configuration configuracion, String clave, int valorPorDefecto) {
+		String valor = configuracion.getProperty(clave);
+		if (valor == null) {
+			return valorPorDefecto;
+		}
+		try {
+			return Integer.parseInt(valor.trim());
+		} catch (NumberFormatException e) {
+			return valorPorDefecto;
+		}
+	}
+
+	/**
+	 * Aplica las migraciones pendientes del esquema: hbm2ddl crea las tablas y las
+	 * columnas, pero no los índices de los accesos habituales. Si fallan (por
+	 * ejemplo, sin permisos para crear índices) el modelo sigue funcionando.
+	 */
+	private static void actualizarEsquema() {
+		try (Session session = sessionFactory.openSession()) {
+			session.doWork(conexion -> GestorEsquema.actualizar(conexion));
+		} catch (Exception e) {
+			System.out.println("❌ No se pudo actualizar el esquema de la base de datos: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Garantiza que el siguiente nia reservado en 'generador_ids' sea mayor que
+	 * cualquier nia existente. Necesario en bases de datos cuyos alumnos se
+	 * crearon con la antigua clave autoincremental.
+	 */
+	private static void sincronizarGeneradorNia() {
+		try (Session session = sessionFactory.openSession()) {
+			Transaction tx = session.beginTransaction();
+
+			long minimo = session.createNativeQuery("SELECT COALESCE(MAX(nia), 0) + 1 FROM alumnos", Long.class)
+					.getSingleResult();
+			List<Long> actual = session
+					.createNativeQuery("SELECT siguienteValor FROM generador_ids WHERE entidad = 'alumnos'", Long.class)
+					.getResultList();
+
+			if (actual.isEmpty()) {
+				session.createNativeMutationQuery(
+						"INSERT INTO generador_ids (entidad, siguienteValor) VALUES ('alumnos', :minimo)")
+						.setParameter("minimo", minimo).executeUpdate();
+			} else if (actual.get(0) < minimo) {
+				session.createNativeMutationQuery(
+						"UPDATE generador_ids SET siguienteValor = :minimo WHERE entidad = 'alumnos'")
+						.setParameter("minimo", minimo).executeUpdate();
+			}
+
+			tx.commit();
+		}
+	}
+
+	/**
+	 * @return Aciertos y fallos de las regiones de caché de los grupos: entidades,
+	 *         id natural (nombreGrupo) y listado de grupos.
+	 */
+	public List<EstadisticasCache> getEstadisticasCacheGrupos() {
+		Statistics estadisticas = sessionFactory.getStatistics();
+		return Stream.of(Grupo.REGION_CACHE, Grupo.REGION_CACHE_NOMBRE, REGION_CONSULTAS_GRUPOS).map(region -> {
+			CacheRegionStatistics uso = estadisticas.getDomainDataRegionStatistics(region);
+			if (uso == null) {
+				uso = estadisticas.getQueryRegionStatistics(region);
+			}
+			return uso == null ? new EstadisticasCache(region, 0, 0, 0)
+					: new EstadisticasCache(region, uso.getHitCount(), uso.getMissCount(), uso.getPutCount());
+		}).toList();
+	}
+
+	/**
+	 * Vacía la caché de grupos. Necesario si los grupos se han modificado fuera de
+	 * Hibernate (por ejemplo, con JDBC).
+	 */
+	public void invalidarCacheGrupos() {
+		sessionFactory.getCache().evictEntityData(Grupo.class);
+		sessionFactory.getCache().evictNaturalIdData(Grupo.class);
+		sessionFactory.getCache().evictQueryRegion(REGION_CONSULTAS_GRUPOS);
+	}
+
+	/**
+	 * @return Conexiones del pool de Hibernate (hibernate.connection.pool_size), o
+	 *         0 si la configuración no lo indica.
+	 */
+	public int getTamanoPool() {
+		Object tamanoPool = sessionFactory.getProperties().get("hibernate.connection.pool_size");
+		return tamanoPool == null ? 0 : Integer.parseInt(tamanoPool.toString().trim());
+	}
+
+	/**
+	 * Obtiene una sesión de Hibernate.
+	 *
+	 * @return una nueva sesión
+	 */
+	private Session getSession() {
+		return sessionFactory.openSession();
+	}
+
+	// 1. Insertar nuevo alumno. //////////////////////////////////
+
+	@Override
+	public boolean insertarAlumno(Alumno alumno) {
+		Transaction tx = null;
+		Session session = null; // 🔹 Inicializamos `session` en null para asegurarnos de cerrarla en `finally`
+		try {
+			session = getSession();
+			tx = session.beginTransaction();
+			session.persist(alumno);
+			tx.commit();
+			System.out.println("✅ Alumno insertado en Hibernate.");
+			return true;
+		} catch (Exception e) {
+			if (tx != null)
+				tx.rollback();
+			e.printStackTrace();
+			return false;
+		} finally {
+			if (session != null)
+				session.close(); // 🔹 Cerramos la sesión solo si fue abierta correctamente
+		}
+	}
+
+	/**
+	 * Inserta el alumno en el grupo con el nombre de alumno.getGrupo().
+	 *
+	 * @return El NIA asignado.
+	 */
+	@Override
+	public int crearAlumno(Alumno alumno) {
+		String nombreGrupo = alumno.getGrupo() == null ? null : alumno.getGrupo().getNombreGrupo();
+		Transaction tx = null;
+		try (Session session = getSession()) {
+			Grupo grupo = buscarGrupo(session, nombreGrupo);
+			if (grupo == null) {
+				throw new IllegalArgumentException("El grupo '" + nombreGrupo + "' no existe.");
+			}
+
+			tx = session.beginTransaction();
+			alumno.setGrupo(grupo);
+			session.persist(alumno);
+			tx.commit();
+			return alumno.getNia();
+		} catch (IllegalArgumentException e) {
+			throw e;
+		} catch (Exception e) {
+			if (tx != null && tx.isActive())
+				tx.rollback();
+			throw new AccesoDatosException("Error al insertar el alumno: " + e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public Alumno solicitarDatosAlumno() {
+		System.out.println("Introduce el nombre del alumno:");
+		String nombre = sc.nextLine().toUpperCase().trim();
+
+		System.out.println("Introduce los apellidos:");
+		String apellidos = sc.nextLine().toUpperCase().trim();
+
+		System.out.println("Introduce el género (M/F):");
+		char genero = sc.nextLine().toUpperCase().charAt(0);
+
+		System.out.println("Introduce la fecha de nacimiento (dd-MM-yyyy):");
+		Date fechaNacimiento;
+		try {
+			SimpleDateFormat formato = new SimpleDateFormat("dd-MM-yyyy");
+			fechaNacimiento = formato.parse(sc.nextLine());
+		} catch (Exception e) {
+			System.out.println("❌ Formato de fecha incorrecto.");
+			return null;
+		}
+
+		System.out.println("Introduce el ciclo:");
+		String ciclo = sc.nextLine().toUpperCase().trim();
+
+		System.out.println("Introduce el curso:");
+		String curso = sc.nextLine().toUpperCase().trim();
+
+		System.out.println("Introduce el nombre del grupo:");
+		String nombreGrupo = sc.nextLine().toUpperCase().trim();
+
+		// 🔹 Obtener el grupo desde la BD
+		Grupo grupo;
+		try (Session session = getSession()) {
+			grupo = buscarGrupo(session, nombreGrupo);
+		}
+
+		if (grupo == null) {
+			System.out.println("❌ El grupo no existe en la BD. Debes crearlo antes de asignarlo a un alumno.");
+			return null;
+		}
+
+		return new Alumno(nombre, apellidos, genero, fechaNacimiento, ciclo, curso, grupo);
+	}
+
+	// 2. Insertar nuevo grupo. //////////////////////////////////
+
+	@Override
+	public boolean insertarGrupo(Grupo grupo) {
+		Transaction tx = null;
+		try (Session session = getSession()) {
+			tx = session.beginTransaction();
+			session.persist(grupo); // Guardar el grupo en la base de datos
+			tx.commit();
+			System.out.println("✅ Grupo insertado correctamente en Hibernate.");
+			return true;
+		} catch (Exception e) {
+			if (tx != null)
+				tx.rollback();
+			System.out.println("❌ Error al insertar el grupo: " + e.getMessage());
+			e.printStackTrace();
+			return false;
+		}
+	}
+
+	// 3. y 12. Mostrar todos los alumnos. //////////////////////////////////
+
+	@Override
+	public boolean mostrarTodosLosAlumnos(boolean mostrarTodaLaInformacion) {
+		try {
+			// Se recorre por páginas: nunca hay más de TAMANO_PAGINA alumnos en memoria
+			if (mostrarTodaLaInformacion) {
+				PaginaAlumnos pagina = obtenerPaginaAlumnos(PaginaAlumnos.INICIO, TAMANO_PAGINA);
+
+				if (pagina.alumnos().isEmpty()) {
+					System.out.println("No hay alumnos registrados.");
+					return false;
+				}
+
+				System.out.println("Lista completa de alumnos registrados:");
+				while (true) {
+					pagina.alumnos().forEach(this::imprimirAlumno);
+					if (!pagina.hayMas()) {
+						break;
+					}
+					pagina = obtenerPaginaAlumnos(pagina.continuacion(), TAMANO_PAGINA);
+				}
+			} else {
+				// Solo NIA y nombre: proyección sin entidades ni grupos
+				List<ResumenAlumno> resumenes = obtenerPaginaResumenes(PaginaAlumnos.INICIO, TAMANO_PAGINA);
+
+				if (resumenes.isEmpty()) {
+					System.out.println("No hay alumnos registrados.");
+					return false;
+				}
+
+				System.out.println("Lista de alumnos (NIA y Nombre):");
+				while (true) {
+					boolean hayMas = resumenes.size() > TAMANO_PAGINA;
+					if (hayMas) {
+						resumenes = resumenes.subList(0, TAMANO_PAGINA);
+					}
+					for (ResumenAlumno resumen : resumenes) {
+						System.out.printf("NIA: %d, Nombre: %s%n", resumen.nia(), resumen.nombre());
+					}
+					if (!hayMas) {
+						break;
+					}
+					resumenes = obtenerPaginaResumenes(resumenes.get(TAMANO_PAGINA - 1).nia(), TAMANO_PAGINA);
+				}
+			}
+
+			// Si estamos en modo "NIA y nombre", permitir al usuario seleccionar un NIA
+			if (!mostrarTodaLaInformacion) {
+				System.out.println("\nIntroduce el NIA del alumno que deseas visualizar (o 0 para salir):");
+				while (true) {
+					try {
+						int niaSeleccionado = Integer.parseInt(sc.nextLine().trim());
+
+						if (niaSeleccionado == 0) {
+							System.out.println("Saliendo sin seleccionar un alumno.");
+							return true;
+						}
+
+						// Búsqueda por clave primaria en lugar de recorrer la lista de NIAs
+						if (mostrarAlumnoPorNIA(niaSeleccionado)) {
+							return true;
+						} else {
+							System.out.println("El NIA seleccionado no está en la lista. Inténtalo de nuevo.");
+						}
+					} catch (NumberFormatException e) {
+						System.out.println("El NIA debe ser un número válido. Inténtalo de nuevo:");
+					}
+				}
+			}
+
+			return true;
+		} catch (Exception e) {
+			e.printStackTrace();
+			System.out.println("Se produjo un error al recuperar los alumnos. Revisa los logs para más detalles.");
+			return false;
+		}
+	}
+
+	/**
+	 * Página de alumnos ordenada por NIA con paginación por clave ('nia > :nia'),
+	 * cargando el grupo en la misma consulta.
+	 */
+	@Override
+	public PaginaAlumnos obtenerPaginaAlumnos(int despuesDeNia, int tamanoPagina) {
+		try (Session session = getSession()) {
+			var medida = ContadorSentencias.medir("Página de alumnos", 1);
+			List<Alumno> filas = session
+					.createQuery("FROM Alumno a LEFT JOIN FETCH a.grupo WHERE a.nia > :nia ORDER BY a.nia", Alumno.class)
+					.setParameter("nia", despuesDeNia).setMaxResults(tamanoPagina + 1).getResultList();
+			return PaginaAlumnos.desdeConsulta(medida.comprobar(filas), tamanoPagina);
+		} catch (Exception e) {
+			throw new AccesoDatosException("Error al recuperar los alumnos: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Página de los alumnos de un grupo ordenada por NIA, o null si el grupo no
+	 * existe. El grupo se busca por su id natural (normalmente en la caché) y los
+	 * alumnos se cargan con él en la misma consulta.
+	 */
+	@Override
+	public PaginaAlumnos obtenerPaginaAlumnosPorGrupo(String nombreGrupo, int despuesDeNia, int tamanoPagina) {
+		try (Session session = getSession()) {
+			var medida = ContadorSentencias.medir("Página de alumnos del grupo", 2);
+			Grupo grupo = buscarGrupo(session, nombreGrupo);
+			if (grupo == null) {
+				return null;
+			}
+
+			List<Alumno> filas = session
+					.createQuery("FROM Alumno a JOIN FETCH a.grupo WHERE a.grupo = :grupo AND a.nia > :nia ORDER BY a.nia",
+							Alumno.class)
+					.setParameter("grupo", grupo).setParameter("nia", despuesDeNia).setMaxResults(tamanoPagina + 1)
+					.getResultList();
+			return PaginaAlumnos.desdeConsulta(medida.comprobar(filas), tamanoPagina);
+		} catch (Exception e) {
+			throw new AccesoDatosException("Error al recuperar los alumnos del grupo: " + e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public Optional<Alumno> buscarAlumno(int nia) {
+		try (Session session = getSession()) {
+			var medida = ContadorSentencias.medir("Alumno por NIA", 1);
+			return medida.comprobar(session
+					.createQuery("FROM Alumno a LEFT JOIN FETCH a.grupo WHERE a.nia = :nia", Alumno.class)
+					.setParameter("nia", nia).uniqueResultOptional());
+		} catch (Exception e) {
+			throw new AccesoDatosException("Error al consultar el alumno con NIA " + nia + ": " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Página de NIA y nombre ordenada por NIA, con una fila más de las pedidas si
+	 * hay páginas siguientes (como en {@link PaginaAlumnos}).
+	 */
+	private List<ResumenAlumno> obtenerPaginaResumenes(int despuesDeNia, int tamanoPagina) {
+		try (Session session = getSession()) {
+			var medida = ContadorSentencias.medir("Página de NIA y nombre", 1);
+			return medida.comprobar(session
+					.createQuery("SELECT new modelo.ResumenAlumno(a.nia, a.nombre) FROM Alumno a WHERE a.nia > :nia "
+							+ "ORDER BY a.nia", ResumenAlumno.class)
+					.setParameter("nia", despuesDeNia).setMaxResults(tamanoPagina + 1).getResultList());
+		} catch (Exception e) {
+			throw new AccesoDatosException("Error al recuperar los alumnos: " + e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public long contarAlumnos() {
+		try (Session session = getSession()) {
+			return session.createQuery("SELECT COUNT(a) FROM Alumno a", Long.class).getSingleResult();
+		} catch (Exception e) {
+			throw new AccesoDatosException("Error al contar los alumnos: " + e.getMessage(), e);
+		}
+	}
+
+	private void imprimirAlumno(Alumno alumno) {
+		System.out.printf("""
+				-------------------------
+				NIA: %d
+				Nombre: %s
+				Apellidos: %s
+				Género: %s
+				Fecha de nacimiento: %s
+				Ciclo: %s
+				Curso: %s
+				Grupo: %s
+				""", alumno.getNia(), alumno.getNombre(), alumno.getApellidos(), alumno.getGenero(),
+				new SimpleDateFormat("dd-MM-yyyy").format(alumno.getFechaNacimiento()), alumno.getCiclo(),
+				alumno.getCurso(), (alumno.getGrupo() != null ? alumno.getGrupo().getNombreGrupo() : "Sin grupo"));
+	}
+
+	// 4. Guardar todos los alumnos en un fichero de texto. /////////////////////
+
+	@Override
+	public void guardarAlumnosEnFicheroTexto() {
+		String nombreArchivo = Compresion.predeterminada().nombreFichero("alumnos.txt");
+
+		try {
+			long escritos = exportarAlumnosTexto(Path.of(nombreArchivo));
+			if (escritos == 0) {
+				System.out.println("No hay alumnos para guardar en el archivo.");
+				return;
+			}
+			System.out.println("✅ Alumnos guardados correctamente en " + nombreArchivo);
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Escribe todos los alumnos en orden de NIA. Se recorren con una
+	 * StatelessSession, sin acumularlos en el contexto de persistencia, y con el
+	 * grupo cargado en la misma consulta.
+	 *
+	 * @return Número de alumnos escritos.
+	 */
+	@Override
+	public long exportarAlumnosTexto(Path destino) {
+		var medida = ContadorSentencias.medir("Exportación de alumnos a texto", 1);
+		try (StatelessSession session = sessionFactory.openStatelessSession();
+				BufferedWriter writer = Compresion.abrirEscritor(destino);
+				Stream<Alumno> alumnos = session
+						.createQuery("FROM Alumno a LEFT JOIN FETCH a.grupo ORDER BY a.nia", Alumno.class)
+						.setFetchSize(TAMANO_LOTE).getResultStream()) {
+
+			// Escribir la cabecera del archivo
+			writer.write("NIA,Nombre,Apellidos,Género,Fecha Nacimiento,Ciclo,Curso,Nombre del Grupo");
+			writer.newLine();
+
+			// Escribir cada alumno en el archivo
+			SimpleDateFormat formatoFecha = new SimpleDateFormat("dd-MM-yyyy");
+			long escritos = 0;
+			for (Alumno alumno : (Iterable<Alumno>) alumnos::iterator) {
+				String linea = String.format("%d,%s,%s,%s,%s,%s,%s,%s", alumno.getNia(), alumno.getNombre(),
+						alumno.getApellidos(), alumno.getGenero(), formatoFecha.format(alumno.getFechaNacimiento()),
+						alumno.getCiclo(), alumno.getCurso(),
+						(alumno.getGrupo() != null ? alumno.getGrupo().getNombreGrupo() : "Sin grupo"));
+
+				writer.write(linea);
+				writer.newLine();
+				escritos++;
+			}
+			return medida.comprobar(escritos);
+		} catch (IOException e) {
+			throw new AccesoDatosException("Error al guardar los alumnos en el archivo: " + e.getMessage(), e);
+		} catch (Exception e) {
+			throw new AccesoDatosException("Error al recuperar los alumnos: " + e.getMessage(), e);
+		}
+	}
+
+	// 5. Leer alumnos de un fichero de texto y guardarlos en la BD Hibernate.
+
+	@Override
+	public boolean leerAlumnosDeFicheroTexto() {
+		return leerAlumnosDeFicheroTexto(Compresion.predeterminada().nombreFichero("alumnos.txt"), TAMANO_LOTE);
+	}
+
+	/**
+	 * Carga masiva con una StatelessSession: sin contexto de persistencia (memoria
+	 * constante), INSERT agrupados en lotes JDBC (hibernate.jdbc.batch_size) y
+	 * commit cada 'tamanoLote' alumnos. Los grupos se cargan una sola vez y los que
+	 * no existen se crean.
+	 *
+	 * @param fichero    Ruta del fichero de texto.
+	 * @param tamanoLote Número de alumnos por commit.
+	 * @return true si se insertó al menos un alumno, false en caso contrario.
+	 */
+	public boolean leerAlumnosDeFicheroTexto(String fichero, int tamanoLote) {
+		try {
+			ResultadoImportacion resultado = importarAlumnosTexto(Path.of(fichero), tamanoLote);
+			System.out.println("📊 Importación finalizada: " + resultado);
+
+			if (resultado.getFilasInsertadas() > 0) {
+				System.out.println("✅ Alumnos insertados correctamente desde el fichero.");
+				return true;
+			} else {
+				System.out.println("❌ No se insertaron alumnos.");
+				return false;
+			}
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ " + e.getMessage());
+			return false;
+		}
+	}
+
+	@Override
+	public ResultadoImportacion importarAlumnosTexto(Path origen) {
+		return importarAlumnosTexto(origen, TAMANO_LOTE);
+	}
+
+	/**
+	 * Importa el fichero de texto (ver {@link #leerAlumnosDeFicheroTexto(String, int)}).
+	 * Las líneas mal formadas se cuentan como rechazadas.
+	 *
+	 * @return El resumen de la importación.
+	 */
+	public ResultadoImportacion importarAlumnosTexto(Path origen, int tamanoLote) {
+		ResultadoImportacion resultado = new ResultadoImportacion();
+		Transaction tx = null;
+		boolean gruposCreados = false;
+
+		try (BufferedReader br = Compresion.abrirLector(origen);
+				StatelessSession session = sessionFactory.openStatelessSession()) {
+
+			Map<String, Grupo> grupos = new HashMap<>();
+			for (Grupo grupo : session.createQuery("FROM Grupo", Grupo.class).list()) {
+				grupos.put(grupo.getNombreGrupo(), grupo);
+			}
+
+			tx = session.beginTransaction();
+			SimpleDateFormat formatoFecha = new SimpleDateFormat("dd-MM-yyyy");
+			int pendientes = 0;
+			String linea;
+
+			// Ignorar la primera línea (cabecera)
+			br.readLine();
+
+			while ((linea = br.readLine()) != null) {
+				// Separar los campos por coma
+				String[] datos = linea.split(",");
+
+				// Verificar que la línea tenga 8 campos
+				if (datos.length != 8 || datos[3].isBlank()) {
+					resultado.rechazarLinea();
+					continue;
+				}
+
+				Date fechaUtil;
+				try {
+					fechaUtil = formatoFecha.parse(datos[4].trim());
+				} catch (ParseException e) {
+					resultado.rechazarLinea();
+					continue;
+				}
+
+				// Si el grupo no existe, crearlo
+				String nombreGrupo = datos[7].trim().toUpperCase();
+				Grupo grupo = grupos.get(nombreGrupo);
+				if (grupo == null) {
+					grupo = new Grupo(nombreGrupo);
+					session.insert(grupo);
+					grupos.put(nombreGrupo, grupo);
+					gruposCreados = true;
+				}
+
+				Alumno alumno = new Alumno(datos[1].trim().toUpperCase(), datos[2].trim().toUpperCase(),
+						datos[3].trim().toUpperCase().charAt(0), fechaUtil, datos[5].trim().toUpperCase(),
+						datos[6].trim().toUpperCase(), grupo);
+				session.insert(alumno);
+
+				if (++pendientes >= tamanoLote) {
+					tx.commit();
+					resultado.sumarInsertadas(pendientes);
+					pendientes = 0;
+					tx = session.beginTransaction();
+				}
+			}
+
+			tx.commit();
+			resultado.sumarInsertadas(pendientes);
+			resultado.finalizar();
+			return resultado;
+		} catch (IOException e) {
+			throw new AccesoDatosException("Error al leer el archivo: " + e.getMessage(), e);
+		} catch (Exception e) {
+			if (tx != null && tx.isActive())
+				tx.rollback();
+			throw new AccesoDatosException("Error en la base de datos al insertar alumnos (confirmado hasta el error: "
+					+ resultado + "): " + e.getMessage(), e);
+		} finally {
+			// La StatelessSession no invalida la caché de consultas: el listado de
+			// grupos cacheado no incluiría los grupos nuevos
+			if (gruposCreados) {
+				sessionFactory.getCache().evictQueryRegion(REGION_CONSULTAS_GRUPOS);
+			}
+		}
+	}
+
+	/**
+	 * Importa el fichero de texto en paralelo: varios hilos analizan tramos del
+	 * fichero y cada conexión inserta lotes con su propia StatelessSession. Los
+	 * grupos se cargan una vez y los que faltan se crean (una sola vez aunque
+	 * aparezcan en varios tramos a la vez).
+	 */
+	@Override
+	public ResultadoImportacion importarAlumnosTexto(Path origen, OpcionesImportacion opciones) {
+		// Un fichero comprimido no se puede dividir en tramos: se importa en secuencia
+		if (opciones.esSecuencial() || Compresion.de(origen) != Compresion.NINGUNA) {
+			return importarAlumnosTexto(origen, TAMANO_LOTE);
+		}
+
+		// Cada hilo de inserción ocupa una conexión del pool y crear un grupo ocupa
+		// otra más mientras tanto
+		int tamanoPool = getTamanoPool();
+		if (tamanoPool > 0) {
+			int maximo = Math.max(1, tamanoPool - 1);
+			if (opciones.conexiones() > maximo) {
+				System.out.println("⚠️ El pool admite " + maximo + " conexiones para importar: se usarán " + maximo
+						+ " en lugar de " + opciones.conexiones() + ".");
+				opciones = new OpcionesImportacion(opciones.hilosAnalisis(), maximo, opciones.orden());
+			}
+		}
+
+		Map<String, Grupo> grupos = new ConcurrentHashMap<>();
+		AtomicBoolean gruposCreados = new AtomicBoolean();
+		try {
+			try (StatelessSession session = sessionFactory.openStatelessSession()) {
+				for (Grupo grupo : session.createQuery("FROM Grupo", Grupo.class).list()) {
+					grupos.put(grupo.getNombreGrupo(), grupo);
+				}
+			}
+
+			return ImportadorTextoParalelo.importar(origen, opciones, TAMANO_LOTE,
+					() -> new DestinoHibernate(grupos, gruposCreados));
+		} catch (IOException e) {
+			throw new AccesoDatosException("Error al leer el archivo: " + e.getMessage(), e);
+		} catch (Exception e) {
+			throw new AccesoDatosException("Error en la base de datos al insertar alumnos: " + e.getMessage(), e);
+		} finally {
+			if (gruposCreados.get()) {
+				sessionFactory.getCache().evictQueryRegion(REGION_CONSULTAS_GRUPOS);
+			}
+		}
+	}
+
+	/**
+	 * Inserta los lotes de la importación paralela por una StatelessSession
+	 * propia, una transacción por lote.
+	 */
+	private static final class DestinoHibernate implements ImportadorTextoParalelo.Destino {
+
+		private final Map<String, Grupo> grupos;
+		private final AtomicBoolean gruposCreados;
+		private final StatelessSession session = sessionFactory.openStatelessSession();
+
+		DestinoHibernate(Map<String, Grupo> grupos, AtomicBoolean gruposCreados) {
+			this.grupos = grupos;
+			this.gruposCreados = gruposCreados;
+		}
+
+		@Override
+		public int insertar(List<ImportadorTextoParalelo.Fila> lote) {
+			Transaction tx = session.beginTransaction();
+			try {
+				for (ImportadorTextoParalelo.Fila fila : lote) {
+					Alumno alumno = fila.alumno();
+					alumno.setNombre(alumno.getNombre().toUpperCase());
+					alumno.setApellidos(alumno.getApellidos().toUpperCase());
+					alumno.setGenero(Character.toUpperCase(alumno.getGenero()));
+					alumno.setCiclo(alumno.getCiclo().toUpperCase());
+					alumno.setCurso(alumno.getCurso().toUpperCase());
+					alumno.setGrupo(grupo(fila.nombreGrupo().toUpperCase()));
+					session.insert(alumno);
+				}
+				tx.commit();
+				return 0;
+			} catch (RuntimeException e) {
+				if (tx.isActive())
+					tx.rollback();
+				throw e;
+			}
+		}
+
+		/**
+		 * Grupo de la fila: el del mapa compartido o, si falta, uno creado fuera del
+		 * mapa, para no retener a los hilos que buscan otros grupos mientras se
+		 * inserta.
+		 */
+		private Grupo grupo(String nombreGrupo) {
+			Grupo grupo = grupos.get(nombreGrupo);
+			if (grupo != null) {
+				return grupo;
+			}
+			Grupo creado = crearGrupo(nombreGrupo);
+			Grupo anterior = grupos.putIfAbsent(nombreGrupo, creado);
+			return anterior != null ? anterior : creado;
+		}
+
+		/**
+		 * Crea el grupo en su propia sesión y lo confirma en el acto, para que los
+		 * demás hilos puedan usarlo aunque falle el lote de este. Si otro hilo lo
+		 * crea a la vez, la restricción única rechaza este y se usa el suyo.
+		 */
+		private Grupo crearGrupo(String nombreGrupo) {
+			try (StatelessSession sesionGrupo = sessionFactory.openStatelessSession()) {
+				Transaction tx = sesionGrupo.beginTransaction();
+				try {
+					Grupo grupo = new Grupo(nombreGrupo);
+					sesionGrupo.insert(grupo);
+					tx.commit();
+					gruposCreados.set(true);
+					return grupo;
+				} catch (ConstraintViolationException e) {
+					if (tx.isActive())
+						tx.rollback();
+					return sesionGrupo
+							.createQuery("FROM Grupo g WHERE g.nombreGrupo = :nombreGrupo", Grupo.class)
+							.setParameter("nombreGrupo", nombreGrupo).getSingleResult();
+				}
+			}
+		}
+
+		@Override
+		public void close() {
+			session.close();
+		}
+	}
+
+	// 6. Modificar el nombre de un alumno por su NIA. //////////////////////
+
+	@Override
+	public boolean modificarNombreAlumnoPorNIA(int nia, String nuevoNombre) {
+		Transaction tx = null;
+		try (Session session = getSession()) {
+			tx = session.beginTransaction();
+			Alumno alumno = session.get(Alumno.class, nia);
+			if (alumno != null) {
+				alumno.setNombre(nuevoNombre);
+				session.merge(alumno);
+				tx.commit();
+				return true;
+			}
+			return false;
+		} catch (Exception e) {
+			if (tx != null && tx.isActive())
+				tx.rollback();
+			throw new AccesoDatosException("Error al modificar el nombre del alumno: " + e.getMessage(), e);
+		}
+	}
+
+	// 7. Eliminar un alumno a partir de su NIA. ///////////////////////
+
+	@Override
+	public boolean eliminarAlumnoPorNIA(int nia) {
+		Transaction tx = null;
+		try (Session session = getSession()) {
+			tx = session.beginTransaction();
+			Alumno alumno = session.get(Alumno.class, nia);
+			if (alumno != null) {
+				session.remove(alumno);
+				tx.commit();
+				return true;
+			}
+			return false;
+		} catch (Exception e) {
+			if (tx != null && tx.isActive())
+				tx.rollback();
+			throw new AccesoDatosException("Error al eliminar el alumno: " + e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public boolean moverAlumnoAGrupo(int nia, String nombreGrupo) {
+		Transaction tx = null;
+		try (Session session = getSession()) {
+			tx = session.beginTransaction();
+			Alumno alumno = session.get(Alumno.class, nia);
+			Grupo grupo = buscarGrupo(session, nombreGrupo);
+			if (alumno == null || grupo == null) {
+				tx.rollback();
+				return false;
+			}
+
+			alumno.setGrupo(grupo);
+			tx.commit();
+			return true;
+		} catch (Exception e) {
+			if (tx != null && tx.isActive())
+				tx.rollback();
+			throw new AccesoDatosException("Error al cambiar el grupo del alumno: " + e.getMessage(), e);
+		}
+	}
+
+	// 8. Eliminar los alumnos del grupo indicado.
+
+	@Override
+	public boolean eliminarAlumnosPorGrupo(String nombreGrupo) {
+		try {
+			if (buscarGrupo(nombreGrupo).isEmpty()) {
+				System.out.println("❌ El grupo '" + nombreGrupo + "' no existe.");
+				return false;
+			}
+
+			int eliminados = eliminarAlumnosDeGrupo(nombreGrupo);
+			System.out.println("✅ Se han eliminado " + eliminados + " alumnos del grupo '" + nombreGrupo + "'.");
+			return eliminados > 0;
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ " + e.getMessage());
+			return false;
+		}
+	}
+
+	@Override
+	public int eliminarAlumnosDeGrupo(String nombreGrupo) {
+		Transaction tx = null;
+		try (Session session = getSession()) {
+			tx = session.beginTransaction();
+
+			// Eliminar los alumnos del grupo en una sola sentencia
+			int eliminados = session
+					.createMutationQuery("DELETE FROM Alumno a WHERE a.grupo.numeroGrupo IN "
+							+ "(SELECT g.numeroGrupo FROM Grupo g WHERE g.nombreGrupo = :nombreGrupo)")
+					.setParameter("nombreGrupo", nombreGrupo).executeUpdate();
+
+			tx.commit();
+			return eliminados;
+		} catch (Exception e) {
+			if (tx != null && tx.isActive())
+				tx.rollback();
+			throw new AccesoDatosException("Error al eliminar los alumnos del grupo: " + e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public boolean mostrarTodosLosGrupos() {
+		try {
+			List<Grupo> grupos = listarGrupos();
+
+			if (grupos.isEmpty()) {
+				System.out.println("❌ No se encontraron grupos en la base de datos.");
+				return false;
+			}
+
+			System.out.println("📌 Grupos disponibles:");
+			for (Grupo grupo : grupos) {
+				System.out.println("- " + grupo.getNombreGrupo());
+			}
+
+			return true;
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ Error al mostrar los grupos: " + e.getMessage());
+			return false;
+		}
+	}
+
+	@Override
+	public Grupo crearGrupo(String nombreGrupo) {
+		Grupo grupo = new Grupo(nombreGrupo.trim().toUpperCase());
+		Transaction tx = null;
+		try (Session session = getSession()) {
+			tx = session.beginTransaction();
+			session.persist(grupo);
+			tx.commit();
+			return grupo;
+		} catch (Exception e) {
+			if (tx != null && tx.isActive())
+				tx.rollback();
+			throw new AccesoDatosException("Error al insertar el grupo: " + e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public Optional<Grupo> buscarGrupo(String nombreGrupo) {
+		try (Session session = getSession()) {
+			return Optional.ofNullable(buscarGrupo(session, nombreGrupo));
+		} catch (Exception e) {
+			throw new AccesoDatosException("Error al consultar el grupo: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Busca el grupo por su id natural (nombreGrupo). Con la caché de segundo
+	 * nivel caliente, tanto el nombre -> numeroGrupo como el propio grupo se
+	 * resuelven sin consultar la base de datos.
+	 *
+	 * @return El grupo, o null si no existe.
+	 */
+	private Grupo buscarGrupo(Session session, String nombreGrupo) {
+		if (nombreGrupo == null) {
+			return null;
+		}
+		return session.bySimpleNaturalId(Grupo.class).load(nombreGrupo);
+	}
+
+	@Override
+	public List<Grupo> listarGrupos() {
+		try (Session session = getSession()) {
+			// Consulta cacheada: se invalida sola cuando Hibernate modifica la tabla grupos
+			return session.createQuery("FROM Grupo g ORDER BY g.nombreGrupo", Grupo.class).setCacheable(true)
+					.setCacheRegion(REGION_CONSULTAS_GRUPOS).getResultList();
+		} catch (Exception e) {
+			throw new AccesoDatosException("Error al recuperar los grupos: " + e.getMessage(), e);
+		}
+	}
+
+	// 9. Guardar grupos y alumnos en un archivo XML.
+
+	@Override
+	public boolean guardarGruposEnXML() {
+		String nombreArchivo = Compresion.predeterminada().nombreFichero("grupos.xml");
+
+		try {
+			if (exportarGruposXML(Path.of(nombreArchivo)) == 0) {
+				System.out.println("⚠ No hay grupos registrados para guardar.");
+				return false;
+			}
+
+			System.out.println("✅ Archivo XML guardado correctamente en " + nombreArchivo);
+			return true;
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Escribe todos los grupos, con sus alumnos, bajo la raíz &lt;grupos&gt;. Si no
+	 * hay grupos no se crea el fichero.
+	 *
+	 * @return Número de grupos escritos.
+	 */
+	@Override
+	public int exportarGruposXML(Path destino) {
+		try (Session session = getSession()) {
+			// Obtener todos los grupos con sus alumnos (Lazy Loading -> Fetch JOIN)
+			List<Grupo> grupos = session
+					.createQuery("SELECT DISTINCT g FROM Grupo g LEFT JOIN FETCH g.alumnos ORDER BY g.nombreGrupo",
+							Grupo.class)
+					.getResultList();
+
+			if (grupos.isEmpty()) {
+				return 0;
+			}
+
+			// Crear documento XML
+			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+			DocumentBuilder builder = factory.newDocumentBuilder();
+			Document doc = builder.newDocument();
+
+			// Nodo raíz <grupos>
+			Element rootElement = doc.createElement("grupos");
+			doc.appendChild(rootElement);
+
+			for (Grupo grupo : grupos) {
+				Element grupoElement = doc.createElement("grupo");
+				grupoElement.setAttribute("numeroGrupo", String.valueOf(grupo.getNumeroGrupo()));
+				grupoElement.setAttribute("nombreGrupo", grupo.getNombreGrupo());
+				rootElement.appendChild(grupoElement);
+
+				for (Alumno alumno : grupo.getAlumnos()) {
+					Element alumnoElement = doc.createElement("alumno");
+					alumnoElement.setAttribute("nia", String.valueOf(alumno.getNia()));
+					alumnoElement.setAttribute("nombre", alumno.getNombre());
+					alumnoElement.setAttribute("apellidos", alumno.getApellidos());
+					alumnoElement.setAttribute("genero", String.valueOf(alumno.getGenero()));
+					alumnoElement.setAttribute("fechaNacimiento", alumno.getFechaNacimiento().toString());
+					alumnoElement.setAttribute("ciclo", alumno.getCiclo());
+					alumnoElement.setAttribute("curso", alumno.getCurso());
+
+					grupoElement.appendChild(alumnoElement);
+				}
+			}
+
+			// Guardar el documento XML
+			TransformerFactory transformerFactory = TransformerFactory.newInstance();
+			Transformer transformer = transformerFactory.newTransformer();
+			transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+
+			DOMSource source = new DOMSource(doc);
+			try (OutputStream salida = Compresion.abrirSalida(destino)) {
+				transformer.transform(source, new StreamResult(salida));
+			}
+
+			return grupos.size();
+		} catch (Exception e) {
+			throw new AccesoDatosException("Error al generar el archivo XML: " + e.getMessage(), e);
+		}
+	}
+
+	// 10. Leer un archivo XML de grupos y guardar los datos en la BD.
+
+	/**
+	 * Importa el XML en streaming (StAX): cada alumno se persiste según se lee y
+	 * cada TAMANO_LOTE alumnos se hace flush, clear y commit, de modo que ni el
+	 * documento ni el contexto de persistencia crecen con el tamaño del fichero.
+	 */
+	@Override
+	public boolean leerYGuardarGruposXML(String rutaArchivo) {
+		if (!new File(rutaArchivo).exists()) {
+			System.out.println("❌ El archivo XML no existe en la ruta especificada.");
+			return false;
+		}
+
+		try {
+			ResultadoImportacion resultado = importarGruposXML(Path.of(rutaArchivo));
+			System.out.println("✅ Archivo XML procesado correctamente. Datos guardados en la BD: " + resultado);
+			return true;
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ " + e.getMessage());
+			return false;
+		}
+	}
+
+	@Override
+	public ResultadoImportacion importarGruposXML(Path origen) {
+		return importarGrupos(origen, "XML", manejador -> LectorGruposXML.leer(origen.toFile(), manejador));
+	}
+
+	/**
+	 * Recorre un fichero de grupos entregando cada grupo y alumno al manejador.
+	 * Permite compartir la persistencia por lotes entre los lectores de XML y
+	 * JSON.
+	 */
+	@FunctionalInterface
+	private interface LecturaGrupos {
+
+		/**
+		 * @return Número de elementos ignorados por datos inválidos.
+		 */
+		int leer(LectorGruposXML.Manejador<RuntimeException> manejador) throws Exception;
+	}
+
+	/**
+	 * Persiste los grupos y alumnos que entrega el lector: cada grupo se resuelve
+	 * una sola vez (y se crea si no existe) y cada TAMANO_LOTE alumnos se hace
+	 * flush, clear y commit.
+	 *
+	 * @param formato Nombre del formato del fichero, para los mensajes.
+	 */
+	private ResultadoImportacion importarGrupos(Path origen, String formato, LecturaGrupos lectura) {
+		ResultadoImportacion resultado = new ResultadoImportacion();
+
+		try (Session session = getSession()) {
+			Transaction[] tx = { session.beginTransaction() };
+			Map<String, Integer> gruposResueltos = new HashMap<>();
+			int[] grupoActual = { -1 };
+			int[] pendientes = { 0 };
+
+			try {
+				int ignorados = lectura.leer(new LectorGruposXML.Manejador<RuntimeException>() {
+
+					@Override
+					public void grupo(String nombreGrupo) {
+						Integer numeroGrupo = gruposResueltos.get(nombreGrupo);
+						if (numeroGrupo == null) {
+							// Verificar si el grupo ya existe antes de insertarlo
+							Grupo grupo = buscarGrupo(session, nombreGrupo);
+
+							if (grupo == null) {
+								grupo = new Grupo(nombreGrupo);
+								session.persist(grupo);
+								session.flush(); // Forzar escritura para obtener el ID
+							}
+							numeroGrupo = grupo.getNumeroGrupo();
+							gruposResueltos.put(nombreGrupo, numeroGrupo);
+						}
+						grupoActual[0] = numeroGrupo;
+					}
+
+					@Override
+					public void alumno(Alumno alumno) {
+						// Referencia sin consulta: el grupo puede haber salido del contexto tras clear()
+						alumno.setGrupo(session.getReference(Grupo.class, grupoActual[0]));
+						session.persist(alumno);
+
+						if (++pendientes[0] >= TAMANO_LOTE) {
+							session.flush();
+							session.clear();
+							tx[0].commit();
+							resultado.sumarInsertadas(pendientes[0]);
+							pendientes[0] = 0;
+							tx[0] = session.beginTransaction();
+						}
+					}
+				});
+
+				tx[0].commit();
+				resultado.sumarInsertadas(pendientes[0]);
+				resultado.rechazarLineas(ignorados);
+			} catch (Exception e) {
+				if (tx[0].isActive())
+					tx[0].rollback();
+				throw e;
+			}
+
+			resultado.finalizar();
+			return resultado;
+		} catch (Exception e) {
+			throw new AccesoDatosException("Error al procesar el archivo " + formato + ": " + e.getMessage(), e);
+		}
+	}
+
+	// 11. Mostrar todos los alumnos del grupo elegido.
+
+	@Override
+	public void mostrarAlumnosPorGrupo() {
+		// Mostrar todos los grupos antes de pedir el nombre
+		if (!mostrarTodosLosGrupos()) {
+			System.out.println("No hay grupos disponibles para mostrar.");
+			return;
+		}
+
+		System.out.println("Introduce el nombre del grupo del que quieres ver los alumnos:");
+		String nombreGrupo = sc.nextLine().trim().toUpperCase();
+
+		try (Session session = getSession()) {
+			// Obtener el grupo
+			Grupo grupo = buscarGrupo(session, nombreGrupo);
+
+			if (grupo == null) {
+				System.out.println("❌ El grupo especificado no existe. Inténtalo de nuevo.");
+				return;
+			}
+
+			// Obtener alumnos del grupo
+			List<Alumno> alumnos = session.createQuery("FROM Alumno WHERE grupo = :grupo", Alumno.class)
+					.setParameter("grupo", grupo).getResultList();
+
+			if (alumnos.isEmpty()) {
+				System.out.println("❌ No hay alumnos registrados en este grupo.");
+				return;
+			}
+
+			// Mostrar alumnos en formato estructurado
+			System.out.println("📋 Alumnos del grupo '" + nombreGrupo + "':");
+			for (Alumno alumno : alumnos) {
+				System.out.printf("""
+						NIA: %d
+						Nombre: %s
+						Apellidos: %s
+						Género: %s
+						Fecha de nacimiento: %s
+						Ciclo: %s
+						Curso: %s
+						Grupo: %s
+						-------------------------\n
+						""", alumno.getNia(), alumno.getNombre(), alumno.getApellidos(), alumno.getGenero(),
+						alumno.getFechaNacimiento(), alumno.getCiclo(), alumno.getCurso(), grupo.getNombreGrupo());
+			}
+		} catch (Exception e) {
+			e.printStackTrace();
+			System.out.println("❌ Se produjo un error al intentar mostrar los alumnos. Revisa los logs.");
+		}
+	}
+
+	// 12. y 3. Mostrar todos los alumnos. //////////////////////////////////
+
+	@Override
+	public boolean mostrarAlumnoPorNIA(int nia) {
+		try {
+			Optional<Alumno> alumno = buscarAlumno(nia);
+
+			if (alumno.isEmpty()) {
+				System.out.println("❌ No se encontró un alumno con el NIA: " + nia);
+				return false;
+			}
+
+			// Mostrar la información detallada del alumno
+			imprimirAlumno(alumno.get());
+			return true;
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ Ocurrió un error al recuperar los datos del alumno.");
+			return false;
+		}
+	}
+
+	// 13. Cambiar de grupo al alumno que elija el usuario.
+
+	/**
+	 * Muestra solo NIA y nombre de los alumnos sin interacción extra.
+	 * 
+	 * @return true si hay alumnos, false si no hay registros.
+	 */
+	public boolean listarNiasYNombresAlumnos() {
+		try (Session session = getSession()) {
+			var medida = ContadorSentencias.medir("Listado de NIA y nombre", 1);
+			List<ResumenAlumno> alumnos = medida.comprobar(session
+					.createQuery("SELECT new modelo.ResumenAlumno(a.nia, a.nombre) FROM Alumno a ORDER BY a.nia",
+							ResumenAlumno.class)
+					.list());
+
+			if (alumnos.isEmpty()) {
+				System.out.println("❌ No hay alumnos registrados.");
+				return false;
+			}
+
+			System.out.println("Lista de alumnos disponibles para cambiar de grupo:");
+			for (ResumenAlumno alumno : alumnos) {
+				System.out.printf("NIA: %d, Nombre: %s%n", alumno.nia(), alumno.nombre());
+			}
+
+			return true;
+		} catch (Exception e) {
+			System.out.println("❌ Error al recuperar la lista de alumnos: " + e.getMessage());
+			return false;
+		}
+	}
+
+	@Override
+	public boolean cambiarGrupoAlumno() {
+		if (!listarNiasYNombresAlumnos()) {
+			System.out.println("❌ No hay alumnos disponibles.");
+			return false;
+		}
+
+		System.out.println("\nIntroduce el NIA del alumno al que deseas cambiar de grupo:");
+		int niaSeleccionado;
+		try {
+			niaSeleccionado = Integer.parseInt(sc.nextLine().trim());
+		} catch (NumberFormatException e) {
+			System.out.println("❌ El NIA debe ser un número válido.");
+			return false;
+		}
+
+		try {
+			Optional<Alumno> alumno = buscarAlumno(niaSeleccionado);
+			if (alumno.isEmpty()) {
+				System.out.println("❌ No se encontró ningún alumno con el NIA proporcionado.");
+				return false;
+			}
+
+			// Mostrar grupos disponibles
+			List<Grupo> grupos = listarGrupos();
+			if (grupos.isEmpty()) {
+				System.out.println("❌ No hay grupos disponibles.");
+				return false;
+			}
+
+			System.out.println("\nGrupos disponibles:");
+			for (Grupo grupo : grupos) {
+				System.out.println("- " + grupo.getNombreGrupo());
+			}
+
+			System.out.println("\nIntroduce el nombre del grupo al que deseas cambiar al alumno:");
+			String nuevoGrupo = sc.nextLine().trim().toUpperCase();
+
+			Grupo grupoActual = alumno.get().getGrupo();
+			if (grupoActual != null && grupoActual.getNombreGrupo().equals(nuevoGrupo)) {
+				System.out.println("⚠️ El alumno ya pertenece al grupo '" + nuevoGrupo + "'.");
+				return false;
+			}
+
+			if (!moverAlumnoAGrupo(niaSeleccionado, nuevoGrupo)) {
+				System.out.println("❌ El grupo especificado no existe.");
+				return false;
+			}
+
+			System.out.println("✅ El grupo del alumno ha sido cambiado exitosamente.");
+			return true;
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ Error al cambiar el grupo del alumno: " + e.getMessage());
+			return false;
+		}
+	}
+
+	@Override
+	public boolean guardarGrupoEspecificoEnXML() {
+	    try {
+	        // Mostrar grupos disponibles
+	        if (!mostrarTodosLosGrupos()) {
+	            System.out.println("❌ No hay grupos disponibles para seleccionar.");
+	            return false;
+	        }
+
+	        // Solicitar el nombre del grupo al usuario
+	        System.out.print("\nIntroduce el nombre del grupo que deseas guardar en fichero XML: ");
+	        String nombreGrupo = sc.nextLine().trim().toUpperCase();
+
+	        if (buscarGrupo(nombreGrupo).isEmpty()) {
+	            System.out.println("❌ El grupo '" + nombreGrupo + "' no existe.");
+	            return false;
+	        }
+
+	        // Nombre del archivo XML
+	        String nombreArchivo = Compresion.predeterminada().nombreFichero("grupo_" + nombreGrupo + ".xml");
+	        File archivoXML = new File(nombreArchivo);
+
+	        // Verificar si el archivo ya existe
+	        if (archivoXML.exists()) {
+	            System.out.print("⚠️ El archivo '" + nombreArchivo + "' ya existe. ¿Deseas sobrescribirlo? (S/N): ");
+	            String respuesta = sc.nextLine().trim().toUpperCase();
+	            if (!respuesta.equals("S")) {
+	                System.out.println("🚫 Operación cancelada por el usuario.");
+	                return false;
+	            }
+	        }
+
+	        if (!exportarGrupoXML(nombreGrupo, archivoXML.toPath())) {
+	            System.out.println("❌ El grupo '" + nombreGrupo + "' no existe.");
+	            return false;
+	        }
+
+	        System.out.println("✅ El archivo XML del grupo '" + nombreGrupo + "' se ha guardado correctamente en '" + nombreArchivo + "'.");
+	        return true;
+
+	    } catch (AccesoDatosException e) {
+	        System.out.println("❌ Error al guardar el grupo en XML: " + e.getMessage());
+	        return false;
+	    }
+	}
+
+	/**
+	 * Escribe un grupo y sus alumnos en un fichero XML cuya raíz es el propio
+	 * &lt;grupo&gt;.
+	 *
+	 * @return true si se escribió el grupo, false si no existe.
+	 */
+	@Override
+	public boolean exportarGrupoXML(String nombreGrupo, Path destino) {
+		try (Session session = getSession()) {
+			// Obtener el grupo con sus alumnos usando JOIN FETCH
+			Grupo grupo = session.createQuery(
+					"SELECT g FROM Grupo g LEFT JOIN FETCH g.alumnos WHERE g.nombreGrupo = :nombreGrupo", Grupo.class)
+					.setParameter("nombreGrupo", nombreGrupo).uniqueResult();
+
+			if (grupo == null) {
+				return false;
+			}
+
+			// Crear el documento XML
+			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+			DocumentBuilder builder = factory.newDocumentBuilder();
+			Document doc = builder.newDocument();
+
+			// Crear el elemento raíz <grupo>
+			Element grupoElement = doc.createElement("grupo");
+			grupoElement.setAttribute("numeroGrupo", String.valueOf(grupo.getNumeroGrupo()));
+			grupoElement.setAttribute("nombreGrupo", grupo.getNombreGrupo());
+			doc.appendChild(grupoElement);
+
+			// Agregar alumnos al XML
+			SimpleDateFormat formatoFecha = new SimpleDateFormat("dd-MM-yyyy");
+			for (Alumno alumno : grupo.getAlumnos()) {
+				Element alumnoElement = doc.createElement("alumno");
+				alumnoElement.setAttribute("nia", String.valueOf(alumno.getNia()));
+				alumnoElement.setAttribute("nombre", alumno.getNombre());
+				alumnoElement.setAttribute("apellidos", alumno.getApellidos());
+				alumnoElement.setAttribute("genero", String.valueOf(alumno.getGenero()));
+				alumnoElement.setAttribute("fechaNacimiento", formatoFecha.format(alumno.getFechaNacimiento()));
+				alumnoElement.setAttribute("ciclo", alumno.getCiclo());
+				alumnoElement.setAttribute("curso", alumno.getCurso());
+
+				grupoElement.appendChild(alumnoElement);
+			}
+
+			// Guardar el archivo XML
+			TransformerFactory transformerFactory = TransformerFactory.newInstance();
+			Transformer transformer = transformerFactory.newTransformer();
+			transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+
+			DOMSource source = new DOMSource(doc);
+			try (OutputStream salida = Compresion.abrirSalida(destino)) {
+				transformer.transform(source, new StreamResult(salida));
+			}
+
+			return true;
+		} catch (Exception e) {
+			throw new AccesoDatosException("Error al guardar el grupo en XML: " + e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public boolean eliminarAlumnosPorApellidos(String apellidos) {
+		try {
+			int eliminados = eliminarAlumnosPorApellidos(apellidos, false);
+			if (eliminados > 0) {
+				System.out.println("✅ " + eliminados + " alumnos con apellidos '" + apellidos + "' eliminados.");
+				return true;
+			}
+			System.out.println("❌ No hay alumnos con apellidos '" + apellidos + "'.");
+			return false;
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Borrado por tramos de TAMANO_TRAMO_BORRADO alumnos en orden de NIA, con
+	 * DELETE HQL sobre el rango (apellidos, nia] de cada tramo y una transacción
+	 * por tramo (ver el índice de {@link Alumno}).
+	 */
+	@Override
+	public int eliminarAlumnosPorApellidos(String apellidos, boolean simulacion) {
+		Transaction tx = null;
+		try (StatelessSession session = sessionFactory.openStatelessSession()) {
+			if (simulacion) {
+				return session.createQuery("SELECT COUNT(a) FROM Alumno a WHERE a.apellidos = :apellidos", Long.class)
+						.setParameter("apellidos", apellidos).getSingleResult().intValue();
+			}
+
+			int eliminados = 0;
+			int desdeNia = 0;
+			while (true) {
+				tx = session.beginTransaction();
+				List<Integer> tramo = session
+						.createQuery("SELECT a.nia FROM Alumno a WHERE a.apellidos = :apellidos AND a.nia > :desde"
+								+ " ORDER BY a.nia", Integer.class)
+						.setParameter("apellidos", apellidos).setParameter("desde", desdeNia)
+						.setMaxResults(TAMANO_TRAMO_BORRADO).list();
+				if (tramo.isEmpty()) {
+					tx.commit();
+					return eliminados;
+				}
+
+				int hastaNia = tramo.get(tramo.size() - 1);
+				eliminados += session
+						.createMutationQuery("DELETE FROM Alumno a WHERE a.apellidos = :apellidos"
+								+ " AND a.nia > :desde AND a.nia <= :hasta")
+						.setParameter("apellidos", apellidos).setParameter("desde", desdeNia)
+						.setParameter("hasta", hastaNia).executeUpdate();
+				tx.commit();
+
+				if (tramo.size() < TAMANO_TRAMO_BORRADO) {
+					return eliminados;
+				}
+				desdeNia = hastaNia;
+			}
+		} catch (Exception e) {
+			if (tx != null && tx.isActive())
+				tx.rollback();
+			throw new AccesoDatosException("Error al eliminar los alumnos por apellidos: " + e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public void guardarAlumnosEnFicheroJSON() {
+		String nombreArchivo = Compresion.predeterminada().nombreFichero("alumnos.json");
+
+		try {
+			long escritos = exportarAlumnosJSON(Path.of(nombreArchivo), FormatoJSON.ARRAY);
+			System.out.println("✅ " + escritos + " alumnos guardados correctamente en " + nombreArchivo);
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Exporta los alumnos a JSON con un scroll de solo avance sobre una
+	 * StatelessSession. Se leen solo las columnas que se exportan (sin crear
+	 * entidades ni pasar por la caché de grupos) y cada fila se escribe en cuanto
+	 * se lee.
+	 *
+	 * @return Número de alumnos escritos.
+	 */
+	@Override
+	public long exportarAlumnosJSON(Path destino, FormatoJSON formato) {
+		String hql = """
+				SELECT a.nia, a.nombre, a.apellidos, a.genero, a.fechaNacimiento, a.ciclo, a.curso, g.nombreGrupo
+				FROM Alumno a LEFT JOIN a.grupo g
+				ORDER BY a.nia
+				""";
+
+		try (StatelessSession session = sessionFactory.openStatelessSession();
+				EscritorJSON json = EscritorJSON.abrir(destino, formato);
+				ScrollableResults<Object[]> filas = session.createQuery(hql, Object[].class).setFetchSize(TAMANO_LOTE)
+						.scroll(ScrollMode.FORWARD_ONLY)) {
+
+			long escritos = 0;
+			while (filas.next()) {
+				Object[] fila = filas.get();
+				json.inicioObjeto();
+				json.camposAlumno((Integer) fila[0], (String) fila[1], (String) fila[2],
+						fila[3] == null ? 0 : (Character) fila[3], EscritorJSON.fecha((Date) fila[4]), (String) fila[5],
+						(String) fila[6]);
+				json.campo("nombreGrupo", (String) fila[7]);
+				json.finObjeto();
+				escritos++;
+			}
+			return escritos;
+		} catch (IOException e) {
+			throw new AccesoDatosException("Error al guardar los alumnos en el archivo: " + e.getMessage(), e);
+		} catch (Exception e) {
+			throw new AccesoDatosException("Error al recuperar los alumnos: " + e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public boolean leerAlumnosDeFicheroJSON() {
+		String nombreArchivo = Compresion.predeterminada().nombreFichero("alumnos.json");
+
+		try {
+			ResultadoImportacion resultado = importarAlumnosJSON(Path.of(nombreArchivo));
+			System.out.println("📊 Importación finalizada: " + resultado);
+
+			if (resultado.getFilasInsertadas() > 0) {
+				System.out.println("✅ Alumnos insertados correctamente desde " + nombreArchivo);
+				return true;
+			} else {
+				System.out.println("❌ No se insertaron alumnos.");
+				return false;
+			}
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Importa un fichero JSON o NDJSON en streaming con una StatelessSession: cada
+	 * alumno se inserta en cuanto el lector lo analiza (INSERT agrupados en lotes
+	 * JDBC) y se hace commit cada TAMANO_LOTE alumnos. Los grupos se cargan una
+	 * sola vez y los que no existen se crean.
+	 *
+	 * @return El resumen de la importación.
+	 */
+	@Override
+	public ResultadoImportacion importarAlumnosJSON(Path origen) {
+		ResultadoImportacion resultado = new ResultadoImportacion();
+		boolean[] gruposCreados = { false };
+
+		try (StatelessSession session = sessionFactory.openStatelessSession()) {
+			Map<String, Grupo> grupos = new HashMap<>();
+			for (Grupo grupo : session.createQuery("FROM Grupo", Grupo.class).list()) {
+				grupos.put(grupo.getNombreGrupo(), grupo);
+			}
+
+			Transaction[] tx = { session.beginTransaction() };
+			int[] pendientes = { 0 };
+
+			try {
+				int ignorados = LectorJSON.leer(origen, (alumno, nombreGrupo) -> {
+					// Si el grupo no existe, crearlo
+					Grupo grupo = grupos.get(nombreGrupo);
+					if (grupo == null) {
+						grupo = new Grupo(nombreGrupo);
+						session.insert(grupo);
+						grupos.put(nombreGrupo, grupo);
+						gruposCreados[0] = true;
+					}
+
+					alumno.setGrupo(grupo);
+					session.insert(alumno);
+
+					if (++pendientes[0] >= TAMANO_LOTE) {
+						tx[0].commit();
+						resultado.sumarInsertadas(pendientes[0]);
+						pendientes[0] = 0;
+						tx[0] = session.beginTransaction();
+					}
+				});
+
+				tx[0].commit();
+				resultado.sumarInsertadas(pendientes[0]);
+				resultado.rechazarLineas(ignorados);
+			} catch (Exception e) {
+				if (tx[0].isActive())
+					tx[0].rollback();
+				throw e;
+			}
+
+			resultado.finalizar();
+			return resultado;
+		} catch (Exception e) {
+			throw new AccesoDatosException("Error al importar los alumnos desde JSON (confirmado hasta el error: "
+					+ resultado + "): " + e.getMessage(), e);
+		} finally {
+			// La StatelessSession no invalida la caché de consultas
+			if (gruposCreados[0]) {
+				sessionFactory.getCache().evictQueryRegion(REGION_CONSULTAS_GRUPOS);
+			}
+		}
+	}
+
+	@Override
+	public void guardarGruposEnFicheroJSON() {
+		String nombreArchivo = Compresion.predeterminada().nombreFichero("grupos.json");
+
+		try {
+			int grupos = exportarGruposJSON(Path.of(nombreArchivo), FormatoJSON.ARRAY);
+			System.out.println("✅ " + grupos + " grupos guardados correctamente en " + nombreArchivo);
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Exporta los grupos con sus alumnos en una sola pasada: un scroll de solo
+	 * avance sobre 'Grupo LEFT JOIN alumnos' ordenado por grupo, en una
+	 * StatelessSession y leyendo solo las columnas que se exportan. El objeto de
+	 * cada grupo se cierra cuando cambia el numeroGrupo, sin cargar la colección
+	 * de alumnos.
+	 *
+	 * @return Número de grupos escritos.
+	 */
+	@Override
+	public int exportarGruposJSON(Path destino, FormatoJSON formato) {
+		String hql = """
+				SELECT g.numeroGrupo, g.nombreGrupo, a.nia, a.nombre, a.apellidos, a.genero, a.fechaNacimiento,
+				       a.ciclo, a.curso
+				FROM Grupo g LEFT JOIN g.alumnos a
+				ORDER BY g.nombreGrupo, g.numeroGrupo, a.nia
+				""";
+
+		try (StatelessSession session = sessionFactory.openStatelessSession();
+				EscritorJSON json = EscritorJSON.abrir(destino, formato);
+				ScrollableResults<Object[]> filas = session.createQuery(hql, Object[].class).setFetchSize(TAMANO_LOTE)
+						.scroll(ScrollMode.FORWARD_ONLY)) {
+
+			int grupos = 0;
+			int grupoActual = 0;
+
+			while (filas.next()) {
+				Object[] fila = filas.get();
+				int numeroGrupo = (Integer) fila[0];
+				if (grupos == 0 || numeroGrupo != grupoActual) {
+					if (grupos > 0) {
+						json.finArray();
+						json.finObjeto();
+					}
+					json.inicioObjeto();
+					json.campo("numeroGrupo", numeroGrupo);
+					json.campo("nombreGrupo", (String) fila[1]);
+					json.inicioArray("alumnos");
+					grupoActual = numeroGrupo;
+					grupos++;
+				}
+
+				// Grupo sin alumnos: el LEFT JOIN devuelve una fila con el alumno a null
+				if (fila[2] != null) {
+					json.inicioObjeto();
+					json.camposAlumno((Integer) fila[2], (String) fila[3], (String) fila[4],
+							fila[5] == null ? 0 : (Character) fila[5], EscritorJSON.fecha((Date) fila[6]),
+							(String) fila[7], (String) fila[8]);
+					json.finObjeto();
+				}
+			}
+
+			if (grupos > 0) {
+				json.finArray();
+				json.finObjeto();
+			}
+			return grupos;
+		} catch (IOException e) {
+			throw new AccesoDatosException("Error al guardar los grupos en el archivo: " + e.getMessage(), e);
+		} catch (Exception e) {
+			throw new AccesoDatosException("Error al recuperar los grupos: " + e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public boolean leerGruposDeFicheroJSON() {
+		String nombreArchivo = Compresion.predeterminada().nombreFichero("grupos.json");
+
+		if (!Files.exists(Path.of(nombreArchivo))) {
+			System.out.println("❌ El archivo JSON no existe: " + nombreArchivo);
+			return false;
+		}
+
+		try {
+			ResultadoImportacion resultado = importarGruposJSON(Path.of(nombreArchivo));
+			System.out.println("✅ Datos cargados correctamente desde el archivo JSON: " + resultado);
+			return true;
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Importa un fichero JSON de grupos en streaming (ver
+	 * {@link #exportarGruposJSON}). Los grupos que no existen se crean.
+	 *
+	 * @return El resumen de la importación.
+	 */
+	@Override
+	public ResultadoImportacion importarGruposJSON(Path origen) {
+		return importarGrupos(origen, "JSON", manejador -> LectorJSON.leerGrupos(origen, manejador));
+	}
+
+	/**
+	 * Exporta la instantánea binaria con una StatelessSession: los nombres de los
+	 * grupos y un scroll de solo avance sobre las columnas de los alumnos, sin
+	 * crear entidades (como la exportación JSON).
+	 *
+	 * @return Número de alumnos escritos.
+	 */
+	@Override
+	public long exportarInstantanea(Path destino) {
+		String hql = """
+				SELECT a.nia, a.nombre, a.apellidos, a.genero, a.fechaNacimiento, a.ciclo, a.curso, g.nombreGrupo
+				FROM Alumno a LEFT JOIN a.grupo g
+				ORDER BY a.nia
+				""";
+
+		try (StatelessSession session = sessionFactory.openStatelessSession();
+				EscritorInstantanea instantanea = EscritorInstantanea.abrir(destino)) {
+
+			instantanea.grupos(session
+					.createQuery("SELECT g.nombreGrupo FROM Grupo g ORDER BY g.nombreGrupo", String.class).list());
+
+			try (ScrollableResults<Object[]> filas = session.createQuery(hql, Object[].class)
+					.setFetchSize(TAMANO_LOTE).scroll(ScrollMode.FORWARD_ONLY)) {
+				while (filas.next()) {
+					Object[] fila = filas.get();
+					instantanea.alumno((Integer) fila[0], (String) fila[1], (String) fila[2],
+							fila[3] == null ? 0 : (Character) fila[3], EscritorJSON.fecha((Date) fila[4]),
+							(String) fila[5], (String) fila[6], (String) fila[7]);
+				}
+			}
+			return instantanea.getAlumnos();
+		} catch (IOException e) {
+			throw new AccesoDatosException("Error al guardar la instantánea en el archivo: " + e.getMessage(), e);
+		} catch (Exception e) {
+			throw new AccesoDatosException("Error al recuperar los alumnos: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Importa una instantánea binaria con la misma inserción por lotes que los
+	 * ficheros de grupos XML y JSON.
+	 *
+	 * @return El resumen de la importación.
+	 */
+	@Override
+	public ResultadoImportacion importarInstantanea(Path origen) {
+		return importarGrupos(origen, "binario", manejador -> LectorInstantanea.leer(origen, manejador));
+	}
+
+}
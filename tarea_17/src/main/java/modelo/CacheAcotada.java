@@ -0,0 +1,149 @@
+package modelo;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Caché en memoria de lectura a través ('read-through'), acotada en tamaño
+ * (se expulsa la entrada usada hace más tiempo) y con caducidad por entrada.
+ * Es segura para varios hilos: la carga desde el origen se hace fuera del
+ * bloqueo, de modo que una consulta lenta no bloquea al resto de lecturas.
+ *
+ * Los valores null que devuelve el cargador no se guardan: un "no existe" se
+ * vuelve a consultar la próxima vez.
+ *
+ * @param <K> Tipo de la clave.
+ * @param <V> Tipo del valor.
+ * @author Alberto Polo
+ */
+public class CacheAcotada<K, V> {
+
+	/**
+	 * Contadores de uso de la caché en un instante dado.
+	 */
+	public record Estadisticas(long aciertos, long fallos, long expulsiones, int tamano) {
+
+		public double ratioAciertos() {
+			long total = aciertos + fallos;
+			return total == 0 ? 0.0 : (double) aciertos / total;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%d aciertos, %d fallos (%.1f%% aciertos), %d expulsiones, %d entradas", aciertos,
+					fallos, ratioAciertos() * 100, expulsiones, tamano);
+		}
+	}
+
+	private record Entrada<V>(V valor, long caducaNanos) {
+	}
+
+	private final int capacidadMaxima;
+	private final long ttlNanos;
+	private final Map<K, Entrada<V>> entradas;
+
+	// Se incrementa en cada invalidación: una carga iniciada antes no se guarda
+	private long generacion;
+
+	private final LongAdder aciertos = new LongAdder();
+	private final LongAdder fallos = new LongAdder();
+	private final LongAdder expulsiones = new LongAdder();
+
+	/**
+	 * @param capacidadMaxima Número máximo de entradas.
+	 * @param ttl             Tiempo de vida de cada entrada (0 o negativo = sin
+	 *                        caducidad).
+	 * @param unidad          Unidad de 'ttl'.
+	 */
+	public CacheAcotada(int capacidadMaxima, long ttl, TimeUnit unidad) {
+		this.capacidadMaxima = Math.max(1, capacidadMaxima);
+		this.ttlNanos = ttl > 0 ? unidad.toNanos(ttl) : Long.MAX_VALUE;
+
+		// accessOrder = true: el orden de iteración es del menos al más recientemente
+		// usado, así que la entrada más antigua es la primera en salir
+		this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, Entrada<V>> masAntigua) {
+				if (size() > CacheAcotada.this.capacidadMaxima) {
+					expulsiones.increment();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Devuelve el valor asociado a la clave. Si no está en caché (o ha caducado) se
+	 * obtiene con el cargador y se guarda.
+	 *
+	 * @param clave    Clave buscada.
+	 * @param cargador Función que obtiene el valor del origen; puede devolver null.
+	 * @return El valor, o null si el cargador no lo encuentra.
+	 */
+	public V obtener(K clave, Function<? super K, ? extends V> cargador) {
+		long generacionInicial;
+		synchronized (this) {
+			Entrada<V> entrada = entradas.get(clave);
+			if (entrada != null) {
+				if (entrada.caducaNanos() - System.nanoTime() > 0) {
+					aciertos.increment();
+					return entrada.valor();
+				}
+				entradas.remove(clave);
+			}
+			generacionInicial = generacion;
+		}
+
+		fallos.increment();
+		V valor = cargador.apply(clave);
+
+		if (valor != null) {
+			synchronized (this) {
+				if (generacion == generacionInicial) {
+					entradas.put(clave, new Entrada<>(valor, caducidad()));
+				}
+			}
+		}
+		return valor;
+	}
+
+	/**
+	 * Guarda (o reemplaza) un valor conocido sin pasar por el cargador.
+	 */
+	public synchronized void guardar(K clave, V valor) {
+		if (valor == null) {
+			invalidar(clave);
+		} else {
+			entradas.put(clave, new Entrada<>(valor, caducidad()));
+		}
+	}
+
+	public synchronized void invalidar(K clave) {
+		entradas.remove(clave);
+		generacion++;
+	}
+
+	public synchronized void invalidarTodo() {
+		entradas.clear();
+		generacion++;
+	}
+
+	public synchronized int tamano() {
+		return entradas.size();
+	}
+
+	public Estadisticas estadisticas() {
+		return new Estadisticas(aciertos.sum(), fallos.sum(), expulsiones.sum(), tamano());
+	}
+
+	private long caducidad() {
+		long ahora = System.nanoTime();
+		return ttlNanos == Long.MAX_VALUE ? ahora + Long.MAX_VALUE / 2 : ahora + ttlNanos;
+	}
+}
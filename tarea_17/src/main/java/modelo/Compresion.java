@@ -0,0 +1,171 @@
+package modelo;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compresión de los ficheros de importación y exportación, elegida por la
+ * extensión: '.gz' es GZIP y '.zz' o '.deflate' es Deflate (formato zlib); el
+ * resto se escribe y se lee sin comprimir. Todas las exportaciones e
+ * importaciones abren sus ficheros con estos métodos, así que cualquier
+ * formato (texto, XML, JSON o instantánea) admite cualquier compresión.
+ *
+ * Se comprime y descomprime en streaming, con buffers de 64 KiB a cada lado
+ * del compresor: los datos pasan por el buffer según se escriben o se leen y
+ * nunca se acumulan en memoria.
+ *
+ * Los nombres de fichero por defecto de la consola (alumnos.txt, grupos.xml,
+ * ...) llevan la extensión de la compresión indicada en la propiedad
+ * 'ficheros.compresion' (ninguna, gzip o deflate).
+ *
+ * @author Alberto Polo
+ */
+public enum Compresion {
+
+	NINGUNA(""), GZIP(".gz"), DEFLATE(".zz");
+
+	static final int TAMANO_BUFFER = 64 * 1024;
+
+	private final String extension;
+
+	Compresion(String extension) {
+		this.extension = extension;
+	}
+
+	/**
+	 * @return La compresión que corresponde a la extensión del fichero.
+	 */
+	public static Compresion de(Path fichero) {
+		String nombre = fichero.getFileName().toString().toLowerCase(Locale.ROOT);
+		if (nombre.endsWith(".gz")) {
+			return GZIP;
+		}
+		if (nombre.endsWith(".zz") || nombre.endsWith(".deflate")) {
+			return DEFLATE;
+		}
+		return NINGUNA;
+	}
+
+	/**
+	 * @return La compresión de la propiedad 'ficheros.compresion' (NINGUNA si no
+	 *         está definida).
+	 */
+	public static Compresion predeterminada() {
+		String valor = System.getProperty("ficheros.compresion", "ninguna");
+		try {
+			return valueOf(valor.trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Compresión desconocida en 'ficheros.compresion': " + valor, e);
+		}
+	}
+
+	/**
+	 * @return El nombre con la extensión de esta compresión (sin repetirla).
+	 */
+	public String nombreFichero(String nombre) {
+		return nombre.toLowerCase(Locale.ROOT).endsWith(extension) ? nombre : nombre + extension;
+	}
+
+	/**
+	 * Crea (o sobrescribe) el fichero y devuelve un flujo con buffer que comprime
+	 * según la extensión. Al cerrarlo se termina el formato comprimido.
+	 */
+	static OutputStream abrirSalida(Path destino) throws IOException {
+		OutputStream fichero = Files.newOutputStream(destino);
+		try {
+			return switch (de(destino)) {
+			case NINGUNA -> new BufferedOutputStream(fichero, TAMANO_BUFFER);
+			case GZIP -> new BufferedOutputStream(new GZIPOutputStream(fichero, TAMANO_BUFFER), TAMANO_BUFFER);
+			case DEFLATE -> new BufferedOutputStream(new DeflaterOutputStream(fichero, new Deflater(), TAMANO_BUFFER) {
+				@Override
+				public void close() throws IOException {
+					try {
+						super.close();
+					} finally {
+						def.end(); // Libera la memoria nativa sin esperar al GC
+					}
+				}
+			}, TAMANO_BUFFER);
+			};
+		} catch (IOException e) {
+			fichero.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Abre el fichero y devuelve un flujo con buffer que descomprime según la
+	 * extensión.
+	 */
+	static InputStream abrirEntrada(Path origen) throws IOException {
+		InputStream fichero = Files.newInputStream(origen);
+		try {
+			return switch (de(origen)) {
+			case NINGUNA -> new BufferedInputStream(fichero, TAMANO_BUFFER);
+			case GZIP -> new BufferedInputStream(new GZIPInputStream(fichero, TAMANO_BUFFER), TAMANO_BUFFER);
+			case DEFLATE -> new BufferedInputStream(new InflaterInputStream(fichero, new Inflater(), TAMANO_BUFFER) {
+				@Override
+				public void close() throws IOException {
+					try {
+						super.close();
+					} finally {
+						inf.end();
+					}
+				}
+			}, TAMANO_BUFFER);
+			};
+		} catch (IOException e) {
+			fichero.close();
+			throw e;
+		}
+	}
+
+	static BufferedWriter abrirEscritor(Path destino) throws IOException {
+		return new BufferedWriter(new OutputStreamWriter(abrirSalida(destino), StandardCharsets.UTF_8));
+	}
+
+	static BufferedReader abrirLector(Path origen) throws IOException {
+		return new BufferedReader(new InputStreamReader(abrirEntrada(origen), StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Canal de escritura: sin compresión es el propio FileChannel (los buffers
+	 * directos se escriben sin copias intermedias).
+	 */
+	static WritableByteChannel abrirCanalSalida(Path destino) throws IOException {
+		if (de(destino) == NINGUNA) {
+			return FileChannel.open(destino, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.TRUNCATE_EXISTING);
+		}
+		return Channels.newChannel(abrirSalida(destino));
+	}
+
+	static ReadableByteChannel abrirCanalEntrada(Path origen) throws IOException {
+		if (de(origen) == NINGUNA) {
+			return FileChannel.open(origen, StandardOpenOption.READ);
+		}
+		return Channels.newChannel(abrirEntrada(origen));
+	}
+}
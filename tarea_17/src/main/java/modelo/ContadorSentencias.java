@@ -0,0 +1,70 @@
+package modelo;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Cuenta las sentencias SQL que prepara Hibernate en cada hilo, para comprobar
+ * que una operación no lanza más consultas de las previstas (por ejemplo, una
+ * por cada grupo al recorrer alumnos).
+ *
+ * Uso: {@code var medida = ContadorSentencias.medir("operación", 1);} antes de
+ * la primera consulta y {@code return medida.comprobar(resultado);} tras la
+ * última. Si se han superado las sentencias previstas se avisa en el log, sin
+ * cambiar el resultado. Las pruebas comprueban el número exacto con
+ * {@link #sentenciasDelHilo()}.
+ *
+ * @author Alberto Polo
+ */
+class ContadorSentencias implements StatementInspector {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final Logger loggerGeneral = LogManager.getRootLogger();
+
+	private static final ThreadLocal<long[]> sentencias = ThreadLocal.withInitial(() -> new long[1]);
+
+	@Override
+	public String inspect(String sql) {
+		sentencias.get()[0]++;
+		return sql;
+	}
+
+	/**
+	 * @return Sentencias preparadas por el hilo actual desde que arrancó.
+	 */
+	static long sentenciasDelHilo() {
+		return sentencias.get()[0];
+	}
+
+	/**
+	 * Empieza a medir las sentencias del hilo actual.
+	 *
+	 * @param operacion Nombre de la operación, para el aviso.
+	 * @param maximo    Sentencias previstas como máximo.
+	 */
+	static Medida medir(String operacion, int maximo) {
+		return new Medida(operacion, maximo, sentenciasDelHilo());
+	}
+
+	record Medida(String operacion, int maximo, long inicio) {
+
+		long sentencias() {
+			return sentenciasDelHilo() - inicio;
+		}
+
+		/**
+		 * Comprueba las sentencias preparadas desde el inicio de la medida.
+		 *
+		 * @param resultado Resultado de la operación, que se devuelve tal cual.
+		 */
+		<T> T comprobar(T resultado) {
+			long ejecutadas = sentencias();
+			if (ejecutadas > maximo) {
+				loggerGeneral.warn("{}: {} sentencias SQL (previstas como máximo {}).", operacion, ejecutadas, maximo);
+			}
+			return resultado;
+		}
+	}
+}
@@ -0,0 +1,510 @@
+package modelo;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Diario de escritura anticipada de los modelos sin base de datos
+ * ({@link AlumnosFichero} y {@link AlumnosFicheroXML}). Cada cambio se anota
+ * al final del diario antes de darlo por hecho, así que escribir es añadir
+ * unos bytes al final de un fichero en lugar de reescribir los datos.
+ *
+ * - Confirmación en grupo: las anotaciones se acumulan en un buffer y
+ * {@link #sincronizar()} las escribe y hace un solo fsync para todos los
+ * hilos que esperan a la vez; los que llegan durante un fsync se confirman con
+ * el siguiente.
+ *
+ * - Segmentos: el diario son los ficheros 'prefijo.1', 'prefijo.2', ... Al
+ * compactar, el modelo llama a {@link #rotar()} cuando su estado incluye todo
+ * lo anotado, hace duradero su fichero base y borra los segmentos anteriores
+ * con {@link #descartarHasta(int)}.
+ *
+ * - Recuperación: {@link #abrir(Path, Reproductor)} entrega al modelo los
+ * cambios de los segmentos que quedaron (los posteriores a la última
+ * compactación) y empieza un segmento nuevo. Los cambios fijan el estado de
+ * un alumno o grupo en lugar de modificarlo, así que volver a aplicar uno que
+ * ya estaba en el fichero base no cambia nada.
+ *
+ * Cada registro es su longitud, el CRC32 del contenido y el contenido (tipo y
+ * campos). Un registro incompleto o dañado al final indica un corte mientras
+ * se escribía: ese cambio no llegó a confirmarse y la lectura termina ahí.
+ *
+ * @author Alberto Polo
+ */
+final class Diario implements Closeable {
+
+	private static final Logger loggerGeneral = LogManager.getRootLogger();
+
+	private static final byte ALTA = 1;
+	private static final byte NOMBRE = 2;
+	private static final byte BAJA = 3;
+	private static final byte MOVIMIENTO = 4;
+	private static final byte GRUPO = 5;
+
+	// Longitud y CRC de cada registro
+	private static final int TAMANO_CABECERA = 8;
+	private static final int TAMANO_BUFFER = 64 * 1024;
+	private static final int SIN_FECHA = Integer.MIN_VALUE;
+
+	/**
+	 * Recibe los cambios del diario al abrirlo, en el orden en que se anotaron.
+	 */
+	interface Reproductor {
+
+		/**
+		 * Alumno nuevo (o que sustituye al que tenga el NIA). El alumno llega sin
+		 * grupo.
+		 */
+		void alta(int nia, int numeroGrupo, Alumno alumno) throws IOException;
+
+		void nombre(int nia, String nombre) throws IOException;
+
+		void baja(int nia) throws IOException;
+
+		void movimiento(int nia, int numeroGrupo) throws IOException;
+
+		void grupo(int numeroGrupo, String nombreGrupo) throws IOException;
+	}
+
+	private final Path directorio;
+	private final String nombre;
+	private final long reproducidos;
+
+	// Un fsync (o una rotación) a la vez; se toma antes que el monitor del diario
+	private final Object cerrojoDisco = new Object();
+
+	// Protegidos por el monitor del diario
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANO_BUFFER);
+	private FileChannel canal;
+	private int segmento;
+	private long anotado;
+	private long inicioSegmento;
+
+	// Bytes anotados que ya están en disco
+	private volatile long duradero;
+
+	private Diario(Path directorio, String nombre, int segmento, long reproducidos) throws IOException {
+		this.directorio = directorio;
+		this.nombre = nombre;
+		this.segmento = segmento;
+		this.reproducidos = reproducidos;
+		this.canal = abrirSegmento(segmento);
+	}
+
+	/**
+	 * Entrega al reproductor los cambios de los segmentos que haya y abre un
+	 * segmento nuevo para las anotaciones. Si no había ningún cambio, los
+	 * segmentos vacíos se borran; si no, se borran al compactar.
+	 *
+	 * @param prefijo Ruta de los segmentos sin el número.
+	 */
+	static Diario abrir(Path prefijo, Reproductor reproductor) throws IOException {
+		Path directorio = prefijo.toAbsolutePath().getParent();
+		String nombre = prefijo.getFileName().toString();
+
+		List<Integer> segmentos = segmentos(directorio, nombre);
+		long reproducidos = 0;
+		for (int numero : segmentos) {
+			reproducidos += reproducir(directorio.resolve(nombre + "." + numero), reproductor);
+		}
+
+		int ultimo = segmentos.isEmpty() ? 0 : segmentos.get(segmentos.size() - 1);
+		Diario diario = new Diario(directorio, nombre, ultimo + 1, reproducidos);
+		if (reproducidos == 0) {
+			diario.descartarHasta(ultimo);
+		} else {
+			loggerGeneral.info("Recuperados {} cambios del diario {} ({} segmentos).", reproducidos, prefijo,
+					segmentos.size());
+		}
+		return diario;
+	}
+
+	/**
+	 * @return Número de cambios entregados al abrir el diario.
+	 */
+	long reproducidos() {
+		return reproducidos;
+	}
+
+	// ANOTACIONES:
+
+	void anotarAlta(int nia, int numeroGrupo, Alumno alumno) {
+		byte[] nombreAlumno = bytes(alumno.getNombre());
+		byte[] apellidos = bytes(alumno.getApellidos());
+		byte[] ciclo = bytes(alumno.getCiclo());
+		byte[] curso = bytes(alumno.getCurso());
+		LocalDate fecha = EscritorJSON.fecha(alumno.getFechaNacimiento());
+
+		ByteBuffer registro = nuevoRegistro(ALTA,
+				14 + longitud(nombreAlumno) + longitud(apellidos) + longitud(ciclo) + longitud(curso));
+		registro.putInt(nia).putInt(numeroGrupo).putChar(alumno.getGenero())
+				.putInt(fecha == null ? SIN_FECHA : (int) fecha.toEpochDay());
+		ponerTexto(registro, nombreAlumno);
+		ponerTexto(registro, apellidos);
+		ponerTexto(registro, ciclo);
+		ponerTexto(registro, curso);
+		anotar(registro);
+	}
+
+	void anotarNombre(int nia, String nuevoNombre) {
+		byte[] texto = bytes(nuevoNombre);
+		ByteBuffer registro = nuevoRegistro(NOMBRE, 4 + longitud(texto));
+		registro.putInt(nia);
+		ponerTexto(registro, texto);
+		anotar(registro);
+	}
+
+	void anotarBaja(int nia) {
+		anotar(nuevoRegistro(BAJA, 4).putInt(nia));
+	}
+
+	void anotarMovimiento(int nia, int numeroGrupo) {
+		anotar(nuevoRegistro(MOVIMIENTO, 8).putInt(nia).putInt(numeroGrupo));
+	}
+
+	void anotarGrupo(int numeroGrupo, String nombreGrupo) {
+		byte[] texto = bytes(nombreGrupo);
+		ByteBuffer registro = nuevoRegistro(GRUPO, 4 + longitud(texto));
+		registro.putInt(numeroGrupo);
+		ponerTexto(registro, texto);
+		anotar(registro);
+	}
+
+	/**
+	 * Añade el registro al buffer (o al fichero, si no cabe). El contenido y el
+	 * CRC se preparan fuera del monitor; dentro solo se copian los bytes.
+	 */
+	private void anotar(ByteBuffer registro) {
+		int longitud = registro.position() - TAMANO_CABECERA;
+		CRC32 crc = new CRC32();
+		crc.update(registro.array(), TAMANO_CABECERA, longitud);
+		registro.putInt(0, longitud).putInt(4, (int) crc.getValue()).flip();
+
+		synchronized (this) {
+			comprobarAbierto();
+			try {
+				if (registro.remaining() > buffer.remaining()) {
+					vaciar();
+				}
+				int bytes = registro.remaining();
+				if (bytes > buffer.remaining()) {
+					escribirTodo(registro);
+				} else {
+					buffer.put(registro);
+				}
+				anotado += bytes;
+			} catch (IOException e) {
+				throw new AccesoDatosException("Error al escribir en el diario " + nombre + ": " + e.getMessage(), e);
+			}
+		}
+	}
+
+	/**
+	 * @return Bytes anotados en el segmento actual, para decidir cuándo compactar.
+	 */
+	synchronized long tamanoSegmento() {
+		return anotado - inicioSegmento;
+	}
+
+	// CONFIRMACIÓN:
+
+	/**
+	 * Hace duradero todo lo anotado hasta ahora. Si otro hilo está haciendo un
+	 * fsync, espera a que termine: puede que ya incluya estas anotaciones y, si
+	 * no, el siguiente fsync incluye las de todos los que esperaban.
+	 */
+	void sincronizar() {
+		long hasta;
+		synchronized (this) {
+			hasta = anotado;
+		}
+		if (duradero >= hasta) {
+			return;
+		}
+
+		synchronized (cerrojoDisco) {
+			if (duradero >= hasta) {
+				return;
+			}
+			long objetivo;
+			FileChannel actual;
+			try {
+				synchronized (this) {
+					comprobarAbierto();
+					vaciar();
+					objetivo = anotado;
+					actual = canal;
+				}
+				// Fuera del monitor: mientras dura el fsync se puede seguir anotando
+				actual.force(false);
+			} catch (IOException e) {
+				throw new AccesoDatosException("Error al confirmar el diario " + nombre + ": " + e.getMessage(), e);
+			}
+			duradero = objetivo;
+		}
+	}
+
+	// COMPACTACIÓN:
+
+	/**
+	 * Confirma y cierra el segmento actual y sigue anotando en uno nuevo. Se llama
+	 * cuando el estado del modelo incluye todo lo anotado hasta ahora.
+	 *
+	 * @return Número del segmento cerrado, para
+	 *         {@link #descartarHasta(int)} cuando el fichero base sea duradero.
+	 */
+	int rotar() {
+		synchronized (cerrojoDisco) {
+			synchronized (this) {
+				comprobarAbierto();
+				try {
+					vaciar();
+					canal.force(false);
+					canal.close();
+					int cerrado = segmento;
+					canal = abrirSegmento(++segmento);
+					duradero = anotado;
+					inicioSegmento = anotado;
+					return cerrado;
+				} catch (IOException e) {
+					throw new AccesoDatosException("Error al rotar el diario " + nombre + ": " + e.getMessage(), e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Borra los segmentos hasta el indicado (incluido): sus cambios ya están en
+	 * el fichero base.
+	 */
+	void descartarHasta(int ultimo) {
+		try {
+			for (int numero : segmentos(directorio, nombre)) {
+				if (numero <= ultimo) {
+					Files.deleteIfExists(directorio.resolve(nombre + "." + numero));
+				}
+			}
+		} catch (IOException e) {
+			// Se volverán a reproducir al abrir, sin efecto
+			loggerGeneral.warn("No se han podido borrar los segmentos antiguos del diario {}: {}", nombre,
+					e.getMessage());
+		}
+	}
+
+	/**
+	 * Borra todos los segmentos. Solo tras {@link #close()} y con el fichero base
+	 * al día.
+	 */
+	void descartar() {
+		descartarHasta(Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Confirma lo pendiente y cierra el segmento actual (sin borrarlo). Se puede
+	 * llamar más de una vez.
+	 */
+	@Override
+	public void close() throws IOException {
+		synchronized (cerrojoDisco) {
+			synchronized (this) {
+				if (canal == null) {
+					return;
+				}
+				try (FileChannel cerrado = canal) {
+					canal = null;
+					vaciar(cerrado);
+					cerrado.force(false);
+				}
+			}
+		}
+	}
+
+	// FICHEROS:
+
+	private FileChannel abrirSegmento(int numero) throws IOException {
+		FileChannel nuevo = FileChannel.open(directorio.resolve(nombre + "." + numero), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		// El fichero nuevo debe seguir existiendo tras un corte
+		sincronizarDirectorio(directorio);
+		return nuevo;
+	}
+
+	/**
+	 * Hace duraderas las entradas del directorio (ficheros creados o
+	 * renombrados), donde el sistema lo permite.
+	 */
+	static void sincronizarDirectorio(Path directorio) {
+		try (FileChannel carpeta = FileChannel.open(directorio, StandardOpenOption.READ)) {
+			carpeta.force(true);
+		} catch (IOException e) {
+			// No todos los sistemas permiten abrir un directorio
+		}
+	}
+
+	private void vaciar() throws IOException {
+		vaciar(canal);
+	}
+
+	private void vaciar(FileChannel destino) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			destino.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	private void escribirTodo(ByteBuffer registro) throws IOException {
+		while (registro.hasRemaining()) {
+			canal.write(registro);
+		}
+	}
+
+	private void comprobarAbierto() {
+		if (canal == null) {
+			throw new AccesoDatosException("El diario " + nombre + " está cerrado.");
+		}
+	}
+
+	/**
+	 * @return Los números de los segmentos del diario, en orden.
+	 */
+	private static List<Integer> segmentos(Path directorio, String nombre) throws IOException {
+		List<Integer> numeros = new ArrayList<>();
+		String prefijo = nombre + ".";
+		try (Stream<Path> ficheros = Files.list(directorio)) {
+			ficheros.map(fichero -> fichero.getFileName().toString())
+					.filter(fichero -> fichero.startsWith(prefijo)
+							&& fichero.substring(prefijo.length()).matches("[0-9]{1,9}"))
+					.forEach(fichero -> numeros.add(Integer.parseInt(fichero.substring(prefijo.length()))));
+		}
+		numeros.sort(null);
+		return numeros;
+	}
+
+	// LECTURA:
+
+	/**
+	 * Entrega los registros del segmento hasta el final o hasta el primero
+	 * incompleto o dañado.
+	 *
+	 * @return Número de registros entregados.
+	 */
+	private static long reproducir(Path fichero, Reproductor reproductor) throws IOException {
+		long registros = 0;
+		try (InputStream entrada = new BufferedInputStream(Files.newInputStream(fichero), TAMANO_BUFFER);
+				DataInputStream datos = new DataInputStream(entrada)) {
+			CRC32 crc = new CRC32();
+			byte[] contenido = new byte[256];
+			while (true) {
+				int longitud;
+				int crcEsperado;
+				try {
+					longitud = datos.readInt();
+					crcEsperado = datos.readInt();
+					if (longitud <= 0 || longitud > Files.size(fichero)) {
+						loggerGeneral.warn("Diario {}: registro {} dañado; se ignora el resto.", fichero, registros + 1);
+						return registros;
+					}
+					if (contenido.length < longitud) {
+						contenido = new byte[Math.max(longitud, 2 * contenido.length)];
+					}
+					datos.readFully(contenido, 0, longitud);
+				} catch (EOFException e) {
+					// Final del segmento (o registro a medias de un corte)
+					return registros;
+				}
+
+				crc.reset();
+				crc.update(contenido, 0, longitud);
+				if ((int) crc.getValue() != crcEsperado) {
+					loggerGeneral.warn("Diario {}: el CRC del registro {} no coincide; se ignora el resto.", fichero,
+							registros + 1);
+					return registros;
+				}
+				entregar(ByteBuffer.wrap(contenido, 0, longitud), reproductor);
+				registros++;
+			}
+		}
+	}
+
+	private static void entregar(ByteBuffer registro, Reproductor reproductor) throws IOException {
+		byte tipo = registro.get();
+		switch (tipo) {
+		case ALTA -> {
+			int nia = registro.getInt();
+			int numeroGrupo = registro.getInt();
+			char genero = registro.getChar();
+			int fecha = registro.getInt();
+			String nombreAlumno = leerTexto(registro);
+			String apellidos = leerTexto(registro);
+			String ciclo = leerTexto(registro);
+			String curso = leerTexto(registro);
+			reproductor.alta(nia, numeroGrupo, new Alumno(nombreAlumno, apellidos, genero,
+					fecha == SIN_FECHA ? null : java.sql.Date.valueOf(LocalDate.ofEpochDay(fecha)), ciclo, curso,
+					null));
+		}
+		case NOMBRE -> {
+			int nia = registro.getInt();
+			reproductor.nombre(nia, leerTexto(registro));
+		}
+		case BAJA -> reproductor.baja(registro.getInt());
+		case MOVIMIENTO -> reproductor.movimiento(registro.getInt(), registro.getInt());
+		case GRUPO -> {
+			int numeroGrupo = registro.getInt();
+			reproductor.grupo(numeroGrupo, leerTexto(registro));
+		}
+		default -> throw new IOException("Registro del diario de tipo desconocido: " + tipo);
+		}
+	}
+
+	// TEXTOS: longitud en bytes (-1 si es null) y los bytes en UTF-8
+
+	private static ByteBuffer nuevoRegistro(byte tipo, int bytesCampos) {
+		return ByteBuffer.allocate(TAMANO_CABECERA + 1 + bytesCampos).position(TAMANO_CABECERA).put(tipo);
+	}
+
+	private static byte[] bytes(String texto) {
+		return texto == null ? null : texto.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static int longitud(byte[] texto) {
+		return 4 + (texto == null ? 0 : texto.length);
+	}
+
+	private static void ponerTexto(ByteBuffer registro, byte[] texto) {
+		if (texto == null) {
+			registro.putInt(-1);
+		} else {
+			registro.putInt(texto.length).put(texto);
+		}
+	}
+
+	private static String leerTexto(ByteBuffer registro) {
+		int longitud = registro.getInt();
+		if (longitud < 0) {
+			return null;
+		}
+		String texto = new String(registro.array(), registro.arrayOffset() + registro.position(), longitud,
+				StandardCharsets.UTF_8);
+		registro.position(registro.position() + longitud);
+		return texto;
+	}
+}
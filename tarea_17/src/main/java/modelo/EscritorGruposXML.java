@@ -0,0 +1,311 @@
+package modelo;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import pool.PoolConexiones;
+
+/**
+ * Exportador en streaming de grupos y alumnos a XML. Lanza una única consulta
+ * 'grupos LEFT JOIN alumnos' ordenada por grupo y escribe cada fila con un
+ * XMLStreamWriter directamente sobre el fichero, abriendo un nuevo
+ * &lt;grupo&gt; cada vez que cambia el numeroGrupo.
+ *
+ * La salida es idéntica byte a byte a la que generaba el Transformer sobre un
+ * DOM: misma cabecera, atributos en orden alfabético, sangría de 4 espacios y
+ * grupos sin alumnos como elemento vacío.
+ *
+ * @author Alberto Polo
+ */
+final class EscritorGruposXML {
+
+	private static final String CABECERA = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>";
+	private static final String SALTO = System.lineSeparator();
+	private static final String SANGRIA = "    ";
+
+	private static final String SQL_TODOS = """
+			SELECT g.numeroGrupo, g.nombreGrupo, a.nia, a.nombre, a.apellidos, a.genero,
+			       a.fechaNacimiento, a.ciclo, a.curso
+			FROM grupos g
+			LEFT JOIN alumnos a ON a.numeroGrupo = g.numeroGrupo
+			ORDER BY g.nombreGrupo, a.nia
+			""";
+
+	private static final String SQL_GRUPO = """
+			SELECT g.numeroGrupo, g.nombreGrupo, a.nia, a.nombre, a.apellidos, a.genero,
+			       a.fechaNacimiento, a.ciclo, a.curso
+			FROM grupos g
+			LEFT JOIN alumnos a ON a.numeroGrupo = g.numeroGrupo
+			WHERE g.numeroGrupo = ?
+			ORDER BY a.nia
+			""";
+
+	private EscritorGruposXML() {
+	}
+
+	/**
+	 * Escribe todos los grupos, con sus alumnos, bajo la raíz &lt;grupos&gt;.
+	 *
+	 * @return Número de grupos escritos.
+	 */
+	static int escribirTodos(Connection conexion, File destino) throws SQLException, IOException, XMLStreamException {
+		try (PreparedStatement sentencia = PoolConexiones.prepararConsultaEnStreaming(conexion, SQL_TODOS)) {
+			return escribir(sentencia, destino, true, true);
+		}
+	}
+
+	/**
+	 * Escribe un único grupo como raíz del documento. Como en el formato original,
+	 * los alumnos no incluyen el ciclo.
+	 *
+	 * @return 1 si el grupo existe, 0 en caso contrario.
+	 */
+	static int escribirGrupo(Connection conexion, int numeroGrupo, File destino)
+			throws SQLException, IOException, XMLStreamException {
+		try (PreparedStatement sentencia = PoolConexiones.prepararConsultaEnStreaming(conexion, SQL_GRUPO)) {
+			sentencia.setInt(1, numeroGrupo);
+			return escribir(sentencia, destino, false, false);
+		}
+	}
+
+	/**
+	 * Versión de {@link #escribirTodos(Connection, File)} para los modelos sin base
+	 * de datos: la misma salida, a partir de los grupos y sus alumnos.
+	 *
+	 * @param grupos  Grupos en el orden en que se escriben.
+	 * @param alumnos Devuelve los alumnos de cada grupo en orden de NIA.
+	 * @return Número de grupos escritos.
+	 */
+	static int escribirTodos(List<Grupo> grupos, Function<Grupo, Stream<Alumno>> alumnos, File destino)
+			throws IOException, XMLStreamException {
+		try {
+			return escribir(new FilasGrupos(grupos, alumnos), destino, true, true);
+		} catch (SQLException e) {
+			throw new IllegalStateException(e); // Las filas en memoria no lanzan SQLException
+		}
+	}
+
+	/**
+	 * Versión de {@link #escribirGrupo(Connection, int, File)} para los modelos sin
+	 * base de datos.
+	 */
+	static void escribirGrupo(Grupo grupo, Stream<Alumno> alumnos, File destino)
+			throws IOException, XMLStreamException {
+		try {
+			escribir(new FilasGrupos(List.of(grupo), g -> alumnos), destino, false, false);
+		} catch (SQLException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Filas 'grupo LEFT JOIN alumno' ordenadas por grupo: un grupo sin alumnos
+	 * aparece como una sola fila sin alumno.
+	 */
+	private interface Filas {
+
+		boolean siguiente() throws SQLException;
+
+		int numeroGrupo() throws SQLException;
+
+		// Devuelve false si la fila es la de un grupo sin alumnos.
+		boolean conAlumno() throws SQLException;
+
+		// Valor de una columna del grupo o del alumno ("" si es null).
+		String texto(String columna) throws SQLException;
+	}
+
+	private static final class FilasResultSet implements Filas {
+
+		private final ResultSet rs;
+
+		FilasResultSet(ResultSet rs) {
+			this.rs = rs;
+		}
+
+		@Override
+		public boolean siguiente() throws SQLException {
+			return rs.next();
+		}
+
+		@Override
+		public int numeroGrupo() throws SQLException {
+			return rs.getInt("numeroGrupo");
+		}
+
+		@Override
+		public boolean conAlumno() throws SQLException {
+			rs.getInt("nia");
+			return !rs.wasNull();
+		}
+
+		@Override
+		public String texto(String columna) throws SQLException {
+			String valor = rs.getString(columna);
+			return valor == null ? "" : valor;
+		}
+	}
+
+	private static final class FilasGrupos implements Filas {
+
+		private final Iterator<Grupo> grupos;
+		private final Function<Grupo, Stream<Alumno>> alumnosDeGrupo;
+
+		private Grupo grupo;
+		private Stream<Alumno> flujo;
+		private Iterator<Alumno> alumnos;
+		private Alumno alumno;
+
+		FilasGrupos(List<Grupo> grupos, Function<Grupo, Stream<Alumno>> alumnosDeGrupo) {
+			this.grupos = grupos.iterator();
+			this.alumnosDeGrupo = alumnosDeGrupo;
+		}
+
+		@Override
+		public boolean siguiente() {
+			if (alumnos != null && alumnos.hasNext()) {
+				alumno = alumnos.next();
+				return true;
+			}
+			if (flujo != null) {
+				flujo.close();
+				flujo = null;
+			}
+			if (!grupos.hasNext()) {
+				return false;
+			}
+			grupo = grupos.next();
+			flujo = alumnosDeGrupo.apply(grupo);
+			alumnos = flujo.iterator();
+			alumno = alumnos.hasNext() ? alumnos.next() : null;
+			return true;
+		}
+
+		@Override
+		public int numeroGrupo() {
+			return grupo.getNumeroGrupo();
+		}
+
+		@Override
+		public boolean conAlumno() {
+			return alumno != null;
+		}
+
+		@Override
+		public String texto(String columna) {
+			Object valor = switch (columna) {
+			case "nombreGrupo" -> grupo.getNombreGrupo();
+			case "nombre" -> alumno.getNombre();
+			case "apellidos" -> alumno.getApellidos();
+			case "ciclo" -> alumno.getCiclo();
+			case "curso" -> alumno.getCurso();
+			case "fechaNacimiento" -> EscritorJSON.fecha(alumno.getFechaNacimiento());
+			case "genero" -> alumno.getGenero() == 0 ? null : alumno.getGenero();
+			case "nia" -> alumno.getNia();
+			default -> throw new IllegalArgumentException(columna);
+			};
+			return valor == null ? "" : valor.toString();
+		}
+	}
+
+	private static int escribir(PreparedStatement sentencia, File destino, boolean conRaiz, boolean incluirCiclo)
+			throws SQLException, IOException, XMLStreamException {
+		try (ResultSet rs = sentencia.executeQuery()) {
+			return escribir(new FilasResultSet(rs), destino, conRaiz, incluirCiclo);
+		}
+	}
+
+	private static int escribir(Filas filas, File destino, boolean conRaiz, boolean incluirCiclo)
+			throws SQLException, IOException, XMLStreamException {
+		XMLOutputFactory fabrica = XMLOutputFactory.newInstance();
+
+		try (OutputStream salida = Compresion.abrirSalida(destino.toPath())) {
+
+			salida.write((CABECERA + SALTO).getBytes(StandardCharsets.UTF_8));
+
+			XMLStreamWriter xml = fabrica.createXMLStreamWriter(salida, "UTF-8");
+			String sangriaGrupo = conRaiz ? SANGRIA : "";
+			String sangriaAlumno = sangriaGrupo + SANGRIA;
+
+			int grupos = 0;
+			int grupoActual = 0;
+			boolean grupoAbierto = false;
+
+			while (filas.siguiente()) {
+				int numeroGrupo = filas.numeroGrupo();
+				boolean sinAlumnos = !filas.conAlumno();
+
+				if (grupos == 0 || numeroGrupo != grupoActual) {
+					if (grupoAbierto) {
+						xml.writeCharacters(SALTO + sangriaGrupo);
+						xml.writeEndElement();
+					}
+					if (grupos == 0 && conRaiz) {
+						xml.writeStartElement("grupos");
+					}
+					if (grupos > 0 || conRaiz) {
+						xml.writeCharacters(SALTO + sangriaGrupo);
+					}
+
+					if (sinAlumnos) {
+						xml.writeEmptyElement("grupo");
+					} else {
+						xml.writeStartElement("grupo");
+					}
+					xml.writeAttribute("nombreGrupo", filas.texto("nombreGrupo"));
+					xml.writeAttribute("numeroGrupo", String.valueOf(numeroGrupo));
+
+					grupoAbierto = !sinAlumnos;
+					grupoActual = numeroGrupo;
+					grupos++;
+				}
+
+				if (!sinAlumnos) {
+					xml.writeCharacters(SALTO + sangriaAlumno);
+					xml.writeEmptyElement("alumno");
+					xml.writeAttribute("apellidos", filas.texto("apellidos"));
+					if (incluirCiclo) {
+						xml.writeAttribute("ciclo", filas.texto("ciclo"));
+					}
+					xml.writeAttribute("curso", filas.texto("curso"));
+					xml.writeAttribute("fechaNacimiento", filas.texto("fechaNacimiento"));
+					xml.writeAttribute("genero", filas.texto("genero"));
+					xml.writeAttribute("nia", filas.texto("nia"));
+					xml.writeAttribute("nombre", filas.texto("nombre"));
+				}
+			}
+
+			if (grupoAbierto) {
+				xml.writeCharacters(SALTO + sangriaGrupo);
+				xml.writeEndElement();
+			}
+			if (conRaiz) {
+				if (grupos == 0) {
+					xml.writeEmptyElement("grupos");
+				} else {
+					xml.writeCharacters(SALTO);
+					xml.writeEndElement();
+				}
+			}
+			xml.writeCharacters(SALTO);
+			xml.flush();
+			xml.close();
+
+			return grupos;
+		}
+	}
+}
@@ -0,0 +1,285 @@
+package modelo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Escritor de instantáneas binarias de alumnos y grupos, el formato compacto de
+ * exportación que lee {@link LectorInstantanea}.
+ *
+ * Formato (enteros de 4 bytes en big-endian):
+ *
+ * - Cabecera de 8 bytes: la marca "ALUM", la versión y 3 bytes a cero.
+ *
+ * - Bloques: tipo (1 byte), longitud del contenido, CRC32 del contenido y el
+ * contenido. Un bloque dañado se detecta al leerlo y no se entrega ninguno de
+ * sus alumnos.
+ *
+ * - DICCIONARIO: varint con el número de cadenas y las cadenas, que se añaden
+ * al diccionario del fichero (la primera es la 1; el 0 es null). nombreGrupo,
+ * ciclo y curso se guardan como índices del diccionario, que siempre se
+ * escribe antes del bloque que lo usa.
+ *
+ * - GRUPOS: varint con el número de grupos y el índice del nombre de cada uno.
+ * Incluye los grupos sin alumnos.
+ *
+ * - ALUMNOS: número de alumnos (4 bytes) y, por alumno: el NIA como varint con
+ * la diferencia respecto al anterior del bloque (en zigzag), nombre, apellidos,
+ * género (varint con el carácter), fecha como varint con los días desde
+ * 1970-01-01 (en zigzag, más 1; el 0 es null) e índices de ciclo, curso y
+ * grupo.
+ *
+ * - FIN: varints con el total de alumnos y de grupos, para detectar ficheros
+ * truncados.
+ *
+ * Las cadenas son un varint con la longitud en bytes más 1 (el 0 es null) y
+ * los bytes en UTF-8. Cada bloque de alumnos empieza de cero con los NIA, así
+ * que solo depende del diccionario.
+ *
+ * @author Alberto Polo
+ */
+final class EscritorInstantanea implements Closeable {
+
+	static final byte[] MARCA = { 'A', 'L', 'U', 'M' };
+	static final int VERSION = 1;
+	static final int TAMANO_CABECERA = 8;
+	static final int TAMANO_CABECERA_BLOQUE = 9;
+
+	static final byte DICCIONARIO = 1;
+	static final byte GRUPOS = 2;
+	static final byte ALUMNOS = 3;
+	static final byte FIN = 4;
+
+	// Contenido de un bloque de alumnos antes de escribirlo
+	private static final int TAMANO_BLOQUE = 64 * 1024;
+
+	// Bytes fijos de una fila además de las cadenas: 7 varints de hasta 5 bytes
+	private static final int MAXIMO_FIJO_FILA = 7 * 5;
+
+	private final WritableByteChannel canal;
+	private final CRC32 crc = new CRC32();
+	private final ByteBuffer cabeceraBloque = ByteBuffer.allocateDirect(TAMANO_CABECERA_BLOQUE);
+	private ByteBuffer alumnos = ByteBuffer.allocateDirect(TAMANO_BLOQUE);
+	private ByteBuffer auxiliar = ByteBuffer.allocateDirect(4 * 1024);
+
+	private final Map<String, Integer> diccionario = new HashMap<>();
+	private final List<String> nuevasEntradas = new ArrayList<>();
+
+	private int alumnosEnBloque;
+	private int niaAnterior;
+	private long totalAlumnos;
+	private int totalGrupos;
+
+	private EscritorInstantanea(WritableByteChannel canal) {
+		this.canal = canal;
+	}
+
+	/**
+	 * Crea (o sobrescribe) el fichero, comprimido según su extensión, y escribe
+	 * la cabecera.
+	 */
+	static EscritorInstantanea abrir(Path destino) throws IOException {
+		WritableByteChannel canal = Compresion.abrirCanalSalida(destino);
+		EscritorInstantanea escritor = new EscritorInstantanea(canal);
+		try {
+			ByteBuffer cabecera = ByteBuffer.allocate(TAMANO_CABECERA).put(MARCA).put((byte) VERSION);
+			cabecera.position(TAMANO_CABECERA).flip();
+			escritor.escribirTodo(cabecera);
+		} catch (IOException e) {
+			canal.close();
+			throw e;
+		}
+		escritor.nuevoBloqueAlumnos();
+		return escritor;
+	}
+
+	/**
+	 * Escribe la lista de grupos. Se llama una vez, antes de los alumnos.
+	 */
+	void grupos(Collection<String> nombresGrupo) throws IOException {
+		vaciarAlumnos();
+
+		int[] indices = new int[nombresGrupo.size()];
+		int i = 0;
+		for (String nombreGrupo : nombresGrupo) {
+			indices[i++] = indice(nombreGrupo);
+		}
+		escribirDiccionario();
+
+		auxiliar = asegurar(auxiliar, 5 + 5 * indices.length);
+		escribirVarint(auxiliar, indices.length);
+		for (int indice : indices) {
+			escribirVarint(auxiliar, indice);
+		}
+		escribirBloque(GRUPOS, auxiliar);
+		totalGrupos += indices.length;
+	}
+
+	void alumno(int nia, String nombre, String apellidos, char genero, LocalDate fechaNacimiento, String ciclo,
+			String curso, String nombreGrupo) throws IOException {
+		int maximo = MAXIMO_FIJO_FILA + maximoBytes(nombre) + maximoBytes(apellidos);
+		if (alumnos.remaining() < maximo) {
+			vaciarAlumnos();
+			if (alumnos.remaining() < maximo) {
+				alumnos = ByteBuffer.allocateDirect(Math.max(TAMANO_BLOQUE, 4 + maximo));
+				nuevoBloqueAlumnos();
+			}
+		}
+
+		escribirVarint(alumnos, zigzag(nia - niaAnterior));
+		niaAnterior = nia;
+		escribirCadena(alumnos, nombre);
+		escribirCadena(alumnos, apellidos);
+		escribirVarint(alumnos, genero);
+		escribirVarint(alumnos, fechaNacimiento == null ? 0 : zigzag((int) fechaNacimiento.toEpochDay()) + 1);
+		escribirVarint(alumnos, indice(ciclo));
+		escribirVarint(alumnos, indice(curso));
+		escribirVarint(alumnos, indice(nombreGrupo));
+		alumnosEnBloque++;
+		totalAlumnos++;
+	}
+
+	long getAlumnos() {
+		return totalAlumnos;
+	}
+
+	/**
+	 * Escribe los alumnos pendientes y el bloque final, y cierra el fichero.
+	 */
+	@Override
+	public void close() throws IOException {
+		try (canal) {
+			vaciarAlumnos();
+			auxiliar.clear();
+			escribirVarint(auxiliar, (int) Math.min(totalAlumnos, Integer.MAX_VALUE));
+			escribirVarint(auxiliar, totalGrupos);
+			escribirBloque(FIN, auxiliar);
+		}
+	}
+
+	/**
+	 * Escribe el bloque de alumnos en curso (precedido de las entradas nuevas del
+	 * diccionario) y empieza otro.
+	 */
+	private void vaciarAlumnos() throws IOException {
+		if (alumnosEnBloque == 0) {
+			return;
+		}
+		escribirDiccionario();
+		alumnos.putInt(0, alumnosEnBloque);
+		escribirBloque(ALUMNOS, alumnos);
+		nuevoBloqueAlumnos();
+	}
+
+	private void nuevoBloqueAlumnos() {
+		alumnos.clear();
+		alumnos.putInt(0);
+		alumnosEnBloque = 0;
+		niaAnterior = 0;
+	}
+
+	private void escribirDiccionario() throws IOException {
+		if (nuevasEntradas.isEmpty()) {
+			return;
+		}
+		int maximo = 5;
+		for (String entrada : nuevasEntradas) {
+			maximo += maximoBytes(entrada);
+		}
+		auxiliar = asegurar(auxiliar, maximo);
+		escribirVarint(auxiliar, nuevasEntradas.size());
+		for (String entrada : nuevasEntradas) {
+			escribirCadena(auxiliar, entrada);
+		}
+		escribirBloque(DICCIONARIO, auxiliar);
+		nuevasEntradas.clear();
+	}
+
+	/**
+	 * Escribe la cabecera del bloque y el contenido (de 0 a la posición actual) y
+	 * deja el buffer vacío.
+	 */
+	private void escribirBloque(byte tipo, ByteBuffer contenido) throws IOException {
+		contenido.flip();
+		crc.reset();
+		crc.update(contenido);
+		contenido.rewind();
+
+		cabeceraBloque.clear();
+		cabeceraBloque.put(tipo).putInt(contenido.remaining()).putInt((int) crc.getValue()).flip();
+		escribirTodo(cabeceraBloque);
+		escribirTodo(contenido);
+		contenido.clear();
+	}
+
+	private void escribirTodo(ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			canal.write(buffer);
+		}
+	}
+
+	/**
+	 * @return Índice de la cadena en el diccionario (0 si es null). Las cadenas
+	 *         nuevas se añaden y quedan pendientes de escribir.
+	 */
+	private int indice(String valor) {
+		if (valor == null) {
+			return 0;
+		}
+		Integer indice = diccionario.get(valor);
+		if (indice == null) {
+			indice = diccionario.size() + 1;
+			diccionario.put(valor, indice);
+			nuevasEntradas.add(valor);
+		}
+		return indice;
+	}
+
+	/**
+	 * @return Un buffer vacío con al menos 'bytes' de capacidad (el mismo si
+	 *         basta).
+	 */
+	private static ByteBuffer asegurar(ByteBuffer buffer, int bytes) {
+		buffer.clear();
+		return buffer.capacity() >= bytes ? buffer : ByteBuffer.allocateDirect(bytes);
+	}
+
+	// Cota del tamaño de una cadena codificada: UTF-8 usa como mucho 3 bytes por
+	// char (4 por cada par de chars suplentes) más el varint de la longitud
+	private static int maximoBytes(String texto) {
+		return 5 + (texto == null ? 0 : 3 * texto.length());
+	}
+
+	private static void escribirCadena(ByteBuffer buffer, String texto) {
+		if (texto == null) {
+			buffer.put((byte) 0);
+			return;
+		}
+		byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+		escribirVarint(buffer, bytes.length + 1);
+		buffer.put(bytes);
+	}
+
+	static void escribirVarint(ByteBuffer buffer, int valor) {
+		while ((valor & ~0x7F) != 0) {
+			buffer.put((byte) ((valor & 0x7F) | 0x80));
+			valor >>>= 7;
+		}
+		buffer.put((byte) valor);
+	}
+
+	static int zigzag(int valor) {
+		return (valor << 1) ^ (valor >> 31);
+	}
+}
@@ -0,0 +1,331 @@
+package modelo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * Escritor JSON en streaming para las exportaciones de alumnos y grupos. Cada
+ * valor se codifica directamente en un buffer de caracteres propio (sin
+ * String.format, sin árbol de objetos y sin crear cadenas intermedias para
+ * números o fechas), así que la memoria usada no depende del número de
+ * elementos escritos.
+ *
+ * Los elementos de primer nivel se escriben como un array JSON o como NDJSON
+ * (un objeto por línea) según el {@link FormatoJSON}. Las comas entre campos y
+ * elementos se gestionan automáticamente.
+ *
+ * @author Alberto Polo
+ */
+final class EscritorJSON implements Closeable {
+
+	private static final int TAMANO_BUFFER = 16 * 1024;
+	private static final int PROFUNDIDAD_MAXIMA = 16;
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	private final Writer salida;
+	private final FormatoJSON formato;
+
+	private final char[] buffer = new char[TAMANO_BUFFER];
+	private int posicion;
+
+	// Para cada nivel abierto, si ya tiene algún campo o elemento (hace falta coma)
+	private final boolean[] conContenido = new boolean[PROFUNDIDAD_MAXIMA];
+	private int profundidad;
+	private boolean primerElemento = true;
+
+	private EscritorJSON(Writer salida, FormatoJSON formato) {
+		this.salida = salida;
+		this.formato = formato;
+	}
+
+	/**
+	 * Crea (o sobrescribe) el fichero, comprimido según su extensión, y escribe la
+	 * apertura del array si el formato es {@link FormatoJSON#ARRAY}.
+	 */
+	static EscritorJSON abrir(Path destino, FormatoJSON formato) throws IOException {
+		EscritorJSON escritor = new EscritorJSON(
+				new OutputStreamWriter(Compresion.abrirSalida(destino), StandardCharsets.UTF_8), formato);
+		if (formato == FormatoJSON.ARRAY) {
+			escritor.escribir('[');
+		}
+		return escritor;
+	}
+
+	// OBJETOS Y ARRAYS:
+
+	/**
+	 * Abre un objeto: un elemento de primer nivel, o un elemento del array abierto.
+	 */
+	void inicioObjeto() throws IOException {
+		if (profundidad == 0) {
+			separarElementoPrincipal();
+		} else {
+			separarValor();
+		}
+		abrir('{');
+	}
+
+	void finObjeto() throws IOException {
+		cerrar('}');
+		if (profundidad == 0 && formato == FormatoJSON.NDJSON) {
+			escribir('\n');
+		}
+	}
+
+	/**
+	 * Abre un campo array dentro del objeto actual.
+	 */
+	void inicioArray(String nombre) throws IOException {
+		nombreCampo(nombre);
+		abrir('[');
+	}
+
+	void finArray() throws IOException {
+		cerrar(']');
+	}
+
+	// CAMPOS:
+
+	void campo(String nombre, String valor) throws IOException {
+		nombreCampo(nombre);
+		if (valor == null) {
+			escribirNull();
+		} else {
+			escribirTexto(valor);
+		}
+	}
+
+	void campo(String nombre, long valor) throws IOException {
+		nombreCampo(nombre);
+		escribirNumero(valor);
+	}
+
+	/**
+	 * Campo de un solo carácter; el carácter 0 se escribe como null.
+	 */
+	void campo(String nombre, char valor) throws IOException {
+		nombreCampo(nombre);
+		if (valor == 0) {
+			escribirNull();
+		} else {
+			escribir('"');
+			escribirCaracterEscapado(valor);
+			escribir('"');
+		}
+	}
+
+	/**
+	 * Fecha en formato ISO 8601 (yyyy-MM-dd).
+	 */
+	void campo(String nombre, LocalDate valor) throws IOException {
+		nombreCampo(nombre);
+		if (valor == null) {
+			escribirNull();
+			return;
+		}
+		escribir('"');
+		escribirDigitos(valor.getYear(), 4);
+		escribir('-');
+		escribirDigitos(valor.getMonthValue(), 2);
+		escribir('-');
+		escribirDigitos(valor.getDayOfMonth(), 2);
+		escribir('"');
+	}
+
+	/**
+	 * Escribe los campos de un alumno (sin las llaves ni el grupo) en el objeto
+	 * abierto. Es el formato común de todas las exportaciones JSON de alumnos.
+	 */
+	void camposAlumno(int nia, String nombre, String apellidos, char genero, LocalDate fechaNacimiento,
+			String ciclo, String curso) throws IOException {
+		campo("nia", nia);
+		campo("nombre", nombre);
+		campo("apellidos", apellidos);
+		campo("genero", genero);
+		campo("fechaNacimiento", fechaNacimiento);
+		campo("ciclo", ciclo);
+		campo("curso", curso);
+	}
+
+	/**
+	 * Convierte la fecha de un Alumno (java.util.Date o java.sql.Date) en
+	 * LocalDate.
+	 */
+	static LocalDate fecha(Date fecha) {
+		if (fecha == null) {
+			return null;
+		}
+		if (fecha instanceof java.sql.Date fechaSql) {
+			return fechaSql.toLocalDate();
+		}
+		return LocalDate.ofInstant(fecha.toInstant(), ZoneId.systemDefault());
+	}
+
+	/**
+	 * Cierra el array (si el formato es ARRAY), vacía el buffer y cierra el
+	 * fichero.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			if (formato == FormatoJSON.ARRAY) {
+				if (!primerElemento) {
+					escribir('\n');
+				}
+				escribir(']');
+				escribir('\n');
+			}
+			vaciarBuffer();
+		} finally {
+			salida.close();
+		}
+	}
+
+	// ESCRITURA DE BAJO NIVEL:
+
+	private void separarElementoPrincipal() throws IOException {
+		if (formato == FormatoJSON.ARRAY) {
+			if (!primerElemento) {
+				escribir(',');
+			}
+			escribir('\n');
+		}
+		primerElemento = false;
+	}
+
+	private void separarValor() throws IOException {
+		if (conContenido[profundidad - 1]) {
+			escribir(',');
+		}
+		conContenido[profundidad - 1] = true;
+	}
+
+	private void abrir(char apertura) throws IOException {
+		if (profundidad == PROFUNDIDAD_MAXIMA) {
+			throw new IllegalStateException("Anidamiento JSON demasiado profundo");
+		}
+		escribir(apertura);
+		conContenido[profundidad++] = false;
+	}
+
+	private void cerrar(char cierre) throws IOException {
+		if (profundidad == 0) {
+			throw new IllegalStateException("No hay ningún objeto o array abierto");
+		}
+		profundidad--;
+		escribir(cierre);
+	}
+
+	private void nombreCampo(String nombre) throws IOException {
+		separarValor();
+		escribirTexto(nombre);
+		escribir(':');
+	}
+
+	private void escribirNull() throws IOException {
+		escribir('n');
+		escribir('u');
+		escribir('l');
+		escribir('l');
+	}
+
+	private void escribirTexto(String texto) throws IOException {
+		escribir('"');
+		for (int i = 0, longitud = texto.length(); i < longitud; i++) {
+			escribirCaracterEscapado(texto.charAt(i));
+		}
+		escribir('"');
+	}
+
+	private void escribirCaracterEscapado(char c) throws IOException {
+		switch (c) {
+		case '"' -> {
+			escribir('\\');
+			escribir('"');
+		}
+		case '\\' -> {
+			escribir('\\');
+			escribir('\\');
+		}
+		case '\n' -> {
+			escribir('\\');
+			escribir('n');
+		}
+		case '\r' -> {
+			escribir('\\');
+			escribir('r');
+		}
+		case '\t' -> {
+			escribir('\\');
+			escribir('t');
+		}
+		default -> {
+			if (c < 0x20) {
+				// Resto de caracteres de control: escape unicode con 4 dígitos hexadecimales
+				escribir('\\');
+				escribir('u');
+				escribir('0');
+				escribir('0');
+				escribir(HEX[c >> 4]);
+				escribir(HEX[c & 0xF]);
+			} else {
+				escribir(c);
+			}
+		}
+		}
+	}
+
+	private void escribirNumero(long valor) throws IOException {
+		if (valor == Long.MIN_VALUE) {
+			// No tiene valor absoluto representable en un long
+			for (char c : Long.toString(valor).toCharArray()) {
+				escribir(c);
+			}
+			return;
+		}
+		if (valor < 0) {
+			escribir('-');
+			valor = -valor;
+		}
+		int cifras = 1;
+		for (long resto = valor / 10; resto > 0; resto /= 10) {
+			cifras++;
+		}
+		escribirDigitos(valor, cifras);
+	}
+
+	/**
+	 * Escribe un número no negativo con exactamente 'cifras' dígitos (con ceros a
+	 * la izquierda si hace falta).
+	 */
+	private void escribirDigitos(long valor, int cifras) throws IOException {
+		if (TAMANO_BUFFER - posicion < cifras) {
+			vaciarBuffer();
+		}
+		for (int i = posicion + cifras - 1; i >= posicion; i--) {
+			buffer[i] = (char) ('0' + valor % 10);
+			valor /= 10;
+		}
+		posicion += cifras;
+	}
+
+	private void escribir(char c) throws IOException {
+		if (posicion == TAMANO_BUFFER) {
+			vaciarBuffer();
+		}
+		buffer[posicion++] = c;
+	}
+
+	private void vaciarBuffer() throws IOException {
+		salida.write(buffer, 0, posicion);
+		posicion = 0;
+	}
+}
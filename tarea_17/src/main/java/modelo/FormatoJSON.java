@@ -0,0 +1,31 @@
+package modelo;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Disposición de los ficheros JSON de alumnos y grupos.
+ *
+ * @author Alberto Polo
+ */
+public enum FormatoJSON {
+
+	/** Un único array JSON con un objeto por elemento. */
+	ARRAY,
+
+	/**
+	 * JSON delimitado por líneas (NDJSON): un objeto completo por línea, sin
+	 * array que lo envuelva. Se puede procesar línea a línea con cualquier
+	 * herramienta.
+	 */
+	NDJSON;
+
+	/**
+	 * @return NDJSON si el fichero termina en '.ndjson' o '.jsonl'; ARRAY en
+	 *         cualquier otro caso.
+	 */
+	public static FormatoJSON segunExtension(Path fichero) {
+		String nombre = fichero.getFileName().toString().toLowerCase(Locale.ROOT);
+		return nombre.endsWith(".ndjson") || nombre.endsWith(".jsonl") ? NDJSON : ARRAY;
+	}
+}
@@ -0,0 +1,361 @@
+package modelo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Importación en paralelo del fichero de texto de alumnos (el formato de
+ * 'alumnos.txt'). El fichero se divide en tramos de bytes que empiezan y
+ * terminan en un salto de línea; cada tramo se analiza en un ForkJoinPool y
+ * sus alumnos se entregan por lotes a una cola acotada, de la que leen a la vez
+ * varias conexiones. La cola acotada frena el análisis si las inserciones van
+ * más lentas, así que la memoria usada no depende del tamaño del fichero.
+ *
+ * Con {@link OpcionesImportacion.Orden#FICHERO} cada tramo tiene su propia
+ * cola y una única conexión las vacía en orden, de modo que los alumnos se
+ * insertan en el orden de las líneas.
+ *
+ * @author Alberto Polo
+ */
+final class ImportadorTextoParalelo {
+
+	// Lotes que puede haber esperando en la cola por cada conexión (o tramo)
+	private static final int LOTES_EN_COLA = 2;
+	private static final int TAMANO_LECTURA = 1024 * 1024;
+	private static final int ESPERA_MILLIS = 100;
+
+	// Marca de fin de una cola (se compara por identidad)
+	private static final List<Fila> FIN = new ArrayList<>(0);
+
+	/**
+	 * Línea ya analizada: el alumno (sin grupo) y el nombre de su grupo.
+	 */
+	record Fila(Alumno alumno, String nombreGrupo) {
+	}
+
+	/**
+	 * Inserta lotes por una conexión (o sesión) propia. Cada hilo de inserción
+	 * abre el suyo y lo cierra al terminar.
+	 */
+	interface Destino extends AutoCloseable {
+
+		/**
+		 * Inserta y confirma el lote.
+		 *
+		 * @return Número de filas del lote rechazadas.
+		 */
+		int insertar(List<Fila> lote) throws Exception;
+
+		/**
+		 * Cierra la conexión o sesión. No se interrumpe: solo puede fallar al
+		 * liberar sus recursos.
+		 */
+		@Override
+		void close() throws SQLException, IOException;
+	}
+
+	@FunctionalInterface
+	interface FabricaDestinos {
+
+		Destino abrir() throws Exception;
+	}
+
+	private ImportadorTextoParalelo() {
+	}
+
+	/**
+	 * Importa el fichero con las opciones indicadas.
+	 *
+	 * @param tamanoLote Filas por lote (y por commit).
+	 * @throws Exception El primer error de lectura o de inserción. Los lotes
+	 *                   confirmados hasta entonces se conservan.
+	 */
+	static ResultadoImportacion importar(Path origen, OpcionesImportacion opciones, int tamanoLote,
+			FabricaDestinos fabrica) throws Exception {
+		ResultadoImportacion resultado = new ResultadoImportacion();
+		AtomicReference<Exception> error = new AtomicReference<>();
+
+		try (FileChannel canal = FileChannel.open(origen, StandardOpenOption.READ)) {
+			long[] limites = dividir(canal, opciones.hilosAnalisis());
+			int tramos = limites.length - 1;
+			int conexiones = opciones.conexionesEfectivas();
+			boolean enOrden = opciones.orden() == OpcionesImportacion.Orden.FICHERO;
+
+			// Una cola compartida, o una por tramo si hay que respetar el orden
+			List<BlockingQueue<List<Fila>>> colas = new ArrayList<>();
+			for (int i = 0; i < (enOrden ? tramos : 1); i++) {
+				colas.add(new ArrayBlockingQueue<>(LOTES_EN_COLA * (enOrden ? 1 : conexiones)));
+			}
+
+			ForkJoinPool analizadores = new ForkJoinPool(opciones.hilosAnalisis());
+			ExecutorService insertores = Executors.newFixedThreadPool(conexiones);
+			try {
+				List<Future<?>> inserciones = new ArrayList<>();
+				for (int i = 0; i < conexiones; i++) {
+					inserciones.add(insertores.submit(() -> insertar(colas, fabrica, resultado, error)));
+				}
+
+				List<ForkJoinTask<?>> analisis = new ArrayList<>();
+				for (int i = 0; i < tramos; i++) {
+					long desde = limites[i];
+					long hasta = limites[i + 1];
+					BlockingQueue<List<Fila>> cola = colas.get(enOrden ? i : 0);
+					analisis.add(analizadores.submit(() -> {
+						analizar(canal, desde, hasta, tamanoLote, cola, resultado, error);
+						if (enOrden) {
+							encolar(cola, FIN, error);
+						}
+					}));
+				}
+
+				for (ForkJoinTask<?> tarea : analisis) {
+					esperar(tarea, error);
+				}
+				if (!enOrden) {
+					for (int i = 0; i < conexiones; i++) {
+						encolar(colas.get(0), FIN, error);
+					}
+				}
+				for (Future<?> insercion : inserciones) {
+					esperar(insercion, error);
+				}
+			} finally {
+				analizadores.shutdownNow();
+				insertores.shutdownNow();
+			}
+		}
+
+		if (error.get() != null) {
+			throw error.get();
+		}
+		resultado.finalizar();
+		return resultado;
+	}
+
+	// DIVISIÓN EN TRAMOS:
+
+	/**
+	 * Divide el fichero (sin la cabecera) en 'partes' tramos de tamaño parecido
+	 * que empiezan justo después de un salto de línea.
+	 *
+	 * @return Los límites de los tramos: el tramo i es [limites[i],
+	 *         limites[i + 1]).
+	 */
+	private static long[] dividir(FileChannel canal, int partes) throws IOException {
+		long tamano = canal.size();
+		long inicio = siguienteLinea(canal, 0);
+
+		List<Long> limites = new ArrayList<>();
+		limites.add(inicio);
+		for (int i = 1; i < partes; i++) {
+			long limite = siguienteLinea(canal, inicio + (tamano - inicio) * i / partes - 1);
+			if (limite > limites.get(limites.size() - 1) && limite < tamano) {
+				limites.add(limite);
+			}
+		}
+		limites.add(tamano);
+
+		return limites.stream().mapToLong(Long::longValue).toArray();
+	}
+
+	/**
+	 * @return La posición siguiente al primer '\n' desde 'desde' (incluido), o el
+	 *         final del fichero si no hay más.
+	 */
+	private static long siguienteLinea(FileChannel canal, long desde) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(8192);
+		long posicion = Math.max(0, desde);
+		while (true) {
+			buffer.clear();
+			int leidos = canal.read(buffer, posicion);
+			if (leidos <= 0) {
+				return canal.size();
+			}
+			for (int i = 0; i < leidos; i++) {
+				if (buffer.get(i) == '\n') {
+					return posicion + i + 1;
+				}
+			}
+			posicion += leidos;
+		}
+	}
+
+	// ANÁLISIS:
+
+	/**
+	 * Lee el tramo con lecturas posicionales (el canal se comparte entre hilos) y
+	 * entrega sus alumnos a la cola por lotes. Un '\n' nunca forma parte de un
+	 * carácter UTF-8 de varios bytes, así que se puede cortar por bytes.
+	 */
+	private static void analizar(FileChannel canal, long desde, long hasta, int tamanoLote,
+			BlockingQueue<List<Fila>> cola, ResultadoImportacion resultado, AtomicReference<Exception> error) {
+		SimpleDateFormat formatoFecha = new SimpleDateFormat("dd-MM-yyyy");
+		ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(TAMANO_LECTURA, Math.max(1, hasta - desde)));
+		byte[] linea = new byte[256];
+		int longitudLinea = 0;
+		List<Fila> lote = new ArrayList<>(tamanoLote);
+
+		try {
+			long posicion = desde;
+			while (posicion < hasta) {
+				buffer.clear();
+				buffer.limit((int) Math.min(buffer.capacity(), hasta - posicion));
+				int leidos = canal.read(buffer, posicion);
+				if (leidos <= 0) {
+					break;
+				}
+				posicion += leidos;
+
+				for (int i = 0; i < leidos; i++) {
+					byte b = buffer.get(i);
+					if (b != '\n') {
+						if (longitudLinea == linea.length) {
+							linea = Arrays.copyOf(linea, linea.length * 2);
+						}
+						linea[longitudLinea++] = b;
+						continue;
+					}
+
+					analizarLinea(linea, longitudLinea, formatoFecha, lote, resultado);
+					longitudLinea = 0;
+					if (lote.size() >= tamanoLote) {
+						encolar(cola, lote, error);
+						lote = new ArrayList<>(tamanoLote);
+					}
+				}
+			}
+
+			// Última línea sin salto final
+			if (longitudLinea > 0) {
+				analizarLinea(linea, longitudLinea, formatoFecha, lote, resultado);
+			}
+			if (!lote.isEmpty()) {
+				encolar(cola, lote, error);
+			}
+		} catch (IOException e) {
+			error.compareAndSet(null, e);
+		}
+	}
+
+	/**
+	 * Mismas reglas que la importación secuencial: 8 campos separados por comas,
+	 * género no vacío y fecha dd-MM-yyyy. Los campos se recortan; las
+	 * mayúsculas, si hacen falta, las pone el destino. Las líneas que no cumplen
+	 * las reglas se cuentan como rechazadas.
+	 */
+	private static void analizarLinea(byte[] bytes, int longitud, SimpleDateFormat formatoFecha, List<Fila> lote,
+			ResultadoImportacion resultado) {
+		if (longitud > 0 && bytes[longitud - 1] == '\r') {
+			longitud--;
+		}
+		String[] datos = new String(bytes, 0, longitud, StandardCharsets.UTF_8).split(",");
+		if (datos.length != 8 || datos[3].isBlank()) {
+			resultado.rechazarLinea();
+			return;
+		}
+
+		Date fecha;
+		try {
+			fecha = formatoFecha.parse(datos[4].trim());
+		} catch (ParseException e) {
+			resultado.rechazarLinea();
+			return;
+		}
+
+		Alumno alumno = new Alumno(datos[1].trim(), datos[2].trim(), datos[3].trim().charAt(0),
+				new java.sql.Date(fecha.getTime()), datos[5].trim(), datos[6].trim(), null);
+		lote.add(new Fila(alumno, datos[7].trim()));
+	}
+
+	// INSERCIÓN:
+
+	/**
+	 * Vacía las colas (en orden) hasta encontrar su marca de fin, insertando cada
+	 * lote por un destino propio.
+	 */
+	private static Void insertar(List<BlockingQueue<List<Fila>>> colas, FabricaDestinos fabrica,
+			ResultadoImportacion resultado, AtomicReference<Exception> error) {
+		try (Destino destino = fabrica.abrir()) {
+			for (BlockingQueue<List<Fila>> cola : colas) {
+				List<Fila> lote;
+				while ((lote = desencolar(cola, error)) != FIN) {
+					int rechazadas = destino.insertar(lote);
+					resultado.sumarInsertadas(lote.size() - rechazadas);
+					resultado.rechazarLineas(rechazadas);
+				}
+			}
+		} catch (CancellationException e) {
+			// Otro hilo ya ha registrado el error
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			error.compareAndSet(null, e);
+		} catch (Exception e) {
+			error.compareAndSet(null, e);
+		}
+		return null;
+	}
+
+	// COLAS (las esperas se cortan en cuanto algún hilo registra un error):
+
+	private static void encolar(BlockingQueue<List<Fila>> cola, List<Fila> lote, AtomicReference<Exception> error) {
+		try {
+			while (!cola.offer(lote, ESPERA_MILLIS, TimeUnit.MILLISECONDS)) {
+				if (error.get() != null) {
+					throw new CancellationException();
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CancellationException();
+		}
+	}
+
+	private static List<Fila> desencolar(BlockingQueue<List<Fila>> cola, AtomicReference<Exception> error) {
+		try {
+			List<Fila> lote;
+			while ((lote = cola.poll(ESPERA_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+				if (error.get() != null) {
+					throw new CancellationException();
+				}
+			}
+			return lote;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CancellationException();
+		}
+	}
+
+	private static void esperar(Future<?> tarea, AtomicReference<Exception> error) {
+		try {
+			tarea.get();
+		} catch (CancellationException e) {
+			// Cancelada tras un error registrado
+		} catch (Exception e) {
+			Throwable causa = e.getCause() != null ? e.getCause() : e;
+			if (!(causa instanceof CancellationException)) {
+				error.compareAndSet(null, causa instanceof Exception ex ? ex : new RuntimeException(causa));
+			}
+		}
+	}
+}
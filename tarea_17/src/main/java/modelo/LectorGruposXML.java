@@ -0,0 +1,156 @@
+package modelo;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Lector en streaming (StAX) de ficheros XML de grupos. Cada elemento
+ * &lt;grupo&gt; y &lt;alumno&gt; se entrega al manejador a medida que se lee,
+ * sin construir el documento en memoria, por lo que el consumo de heap no
+ * depende del tamaño del fichero.
+ *
+ * Admite tanto el formato de 'grupos.xml' (raíz &lt;grupos&gt;) como el de un
+ * grupo concreto (raíz &lt;grupo&gt;).
+ *
+ * @author Alberto Polo
+ */
+final class LectorGruposXML {
+
+	/**
+	 * Recibe los elementos del XML en el orden del documento.
+	 *
+	 * @param <E> Tipo de excepción que puede lanzar el manejador.
+	 */
+	interface Manejador<E extends Exception> {
+
+		/**
+		 * Se invoca al abrir un &lt;grupo&gt; con nombre no vacío. Los alumnos que
+		 * siguen pertenecen a este grupo hasta el siguiente aviso.
+		 */
+		void grupo(String nombreGrupo) throws E;
+
+		/**
+		 * Se invoca por cada &lt;alumno&gt; del grupo actual. El alumno llega sin
+		 * grupo asignado.
+		 */
+		void alumno(Alumno alumno) throws E;
+
+		/**
+		 * Como {@link #grupo(String)}, con el numeroGrupo del fichero (0 si no lo
+		 * trae). Solo lo necesita quien conserva los identificadores del fichero.
+		 */
+		default void grupo(String nombreGrupo, int numeroGrupo) throws E {
+			grupo(nombreGrupo);
+		}
+
+		/**
+		 * Como {@link #alumno(Alumno)}, con el NIA del fichero (0 si no lo trae). El
+		 * alumno llega sin NIA: las importaciones dejan que lo genere el modelo.
+		 */
+		default void alumno(Alumno alumno, int nia) throws E {
+			alumno(alumno);
+		}
+	}
+
+	private LectorGruposXML() {
+	}
+
+	/**
+	 * Recorre el fichero XML entregando cada grupo y alumno al manejador.
+	 *
+	 * @param archivo   Fichero XML a procesar.
+	 * @param manejador Destino de los elementos leídos.
+	 * @return Número de elementos &lt;alumno&gt; ignorados por datos inválidos.
+	 */
+	static <E extends Exception> int leer(File archivo, Manejador<E> manejador)
+			throws E, IOException, XMLStreamException {
+		XMLInputFactory fabrica = XMLInputFactory.newInstance();
+		fabrica.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		fabrica.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		fabrica.setProperty(XMLInputFactory.IS_COALESCING, false);
+
+		SimpleDateFormat formatoIso = new SimpleDateFormat("yyyy-MM-dd");
+		SimpleDateFormat formatoEspanol = new SimpleDateFormat("dd-MM-yyyy");
+		formatoIso.setLenient(false);
+		formatoEspanol.setLenient(false);
+
+		int ignorados = 0;
+		boolean grupoValido = false;
+
+		try (InputStream entrada = Compresion.abrirEntrada(archivo.toPath())) {
+			XMLStreamReader lector = fabrica.createXMLStreamReader(entrada);
+			try {
+				while (lector.hasNext()) {
+					if (lector.next() != XMLStreamConstants.START_ELEMENT) {
+						continue;
+					}
+
+					String elemento = lector.getLocalName();
+
+					if ("grupo".equals(elemento)) {
+						String nombreGrupo = atributo(lector, "nombreGrupo");
+						grupoValido = !nombreGrupo.isEmpty();
+						if (grupoValido) {
+							manejador.grupo(nombreGrupo, numero(atributo(lector, "numeroGrupo")));
+						}
+					} else if ("alumno".equals(elemento) && grupoValido) {
+						Alumno alumno = leerAlumno(lector, formatoIso, formatoEspanol);
+						if (alumno != null) {
+							manejador.alumno(alumno, numero(atributo(lector, "nia")));
+						} else {
+							ignorados++;
+						}
+					}
+				}
+			} finally {
+				lector.close();
+			}
+		}
+
+		return ignorados;
+	}
+
+	private static Alumno leerAlumno(XMLStreamReader lector, SimpleDateFormat formatoIso,
+			SimpleDateFormat formatoEspanol) {
+		String genero = atributo(lector, "genero");
+		String fecha = atributo(lector, "fechaNacimiento");
+
+		Date fechaNacimiento;
+		try {
+			fechaNacimiento = formatoIso.parse(fecha);
+		} catch (ParseException e) {
+			try {
+				fechaNacimiento = formatoEspanol.parse(fecha);
+			} catch (ParseException e2) {
+				return null;
+			}
+		}
+
+		return new Alumno(atributo(lector, "nombre"), atributo(lector, "apellidos"),
+				genero.isEmpty() ? 'S' : genero.charAt(0), fechaNacimiento, atributo(lector, "ciclo"),
+				atributo(lector, "curso"), null);
+	}
+
+	// 0 si el atributo no es un número positivo
+	private static int numero(String texto) {
+		try {
+			return Math.max(0, Integer.parseInt(texto));
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	private static String atributo(XMLStreamReader lector, String nombre) {
+		String valor = lector.getAttributeValue(null, nombre);
+		return valor == null ? "" : valor.trim();
+	}
+}
@@ -0,0 +1,250 @@
+package modelo;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Lector de las instantáneas binarias que escribe {@link EscritorInstantanea}
+ * (el formato se describe allí). Lee cada bloque de una vez con el FileChannel
+ * (o el canal del descompresor, según la extensión) en un buffer directo que se
+ * reutiliza, comprueba su CRC y solo entonces entrega sus grupos o alumnos al
+ * manejador.
+ *
+ * Se entregan como un fichero de grupos, para compartir la inserción por lotes
+ * con las importaciones de XML y JSON: primero todos los grupos (también los
+ * vacíos) y después cada alumno, precedido de su grupo cuando cambia respecto
+ * al del alumno anterior.
+ *
+ * @author Alberto Polo
+ */
+final class LectorInstantanea {
+
+	private final ReadableByteChannel canal;
+	private final CRC32 crc = new CRC32();
+	private final ByteBuffer cabeceraBloque = ByteBuffer.allocateDirect(EscritorInstantanea.TAMANO_CABECERA_BLOQUE);
+	private ByteBuffer contenido = ByteBuffer.allocateDirect(64 * 1024);
+
+	// El índice 0 es null
+	private final List<String> diccionario = new ArrayList<>(List.of(""));
+	private byte[] bytesCadena = new byte[256];
+
+	private int bloque;
+
+	// Último grupo anunciado al manejador, para no repetirlo en cada alumno
+	private String grupoActual;
+	private int ignorados;
+
+	private LectorInstantanea(ReadableByteChannel canal) {
+		this.canal = canal;
+	}
+
+	/**
+	 * Recorre la instantánea entregando los grupos y los alumnos al manejador. Los
+	 * alumnos llegan sin grupo asignado; el NIA del fichero se pasa aparte.
+	 *
+	 * @return Número de alumnos ignorados por no tener grupo o fecha de
+	 *         nacimiento (obligatorios en las importaciones).
+	 * @throws IOException Si no se puede leer el fichero, no es una instantánea
+	 *                     de una versión conocida, algún bloque está dañado o el
+	 *                     fichero está truncado. Lo entregado hasta entonces ya
+	 *                     lo ha recibido el manejador.
+	 */
+	static <E extends Exception> int leer(Path fichero, LectorGruposXML.Manejador<E> manejador)
+			throws E, IOException {
+		try (ReadableByteChannel canal = Compresion.abrirCanalEntrada(fichero)) {
+			LectorInstantanea lector = new LectorInstantanea(canal);
+			lector.leerCabecera();
+			lector.leerBloques(manejador);
+			return lector.ignorados;
+		}
+	}
+
+	private void leerCabecera() throws IOException {
+		ByteBuffer cabecera = ByteBuffer.allocate(EscritorInstantanea.TAMANO_CABECERA);
+		leerTodo(cabecera, "la cabecera");
+		byte[] marca = new byte[EscritorInstantanea.MARCA.length];
+		cabecera.get(marca);
+		if (!Arrays.equals(marca, EscritorInstantanea.MARCA)) {
+			throw new IOException("El fichero no es una instantánea de alumnos.");
+		}
+		int version = cabecera.get();
+		if (version != EscritorInstantanea.VERSION) {
+			throw new IOException("Versión de instantánea no admitida: " + version);
+		}
+	}
+
+	private <E extends Exception> void leerBloques(LectorGruposXML.Manejador<E> manejador) throws E, IOException {
+		long alumnos = 0;
+		int grupos = 0;
+
+		while (true) {
+			bloque++;
+			cabeceraBloque.clear();
+			leerTodo(cabeceraBloque, "la cabecera del bloque " + bloque);
+			byte tipo = cabeceraBloque.get();
+			int longitud = cabeceraBloque.getInt();
+			int crcEsperado = cabeceraBloque.getInt();
+			if (longitud < 0) {
+				throw new IOException("Bloque " + bloque + " dañado: longitud " + longitud);
+			}
+			if (canal instanceof FileChannel fichero) {
+				long resto = fichero.size() - fichero.position();
+				if (longitud > resto) {
+					throw new IOException(
+							"Bloque " + bloque + " dañado: longitud " + longitud + ", quedan " + resto + " bytes.");
+				}
+			}
+
+			leerContenido(longitud);
+			crc.reset();
+			crc.update(contenido);
+			if ((int) crc.getValue() != crcEsperado) {
+				throw new IOException("Bloque " + bloque + " dañado: el CRC no coincide.");
+			}
+			contenido.rewind();
+
+			try {
+				switch (tipo) {
+				case EscritorInstantanea.DICCIONARIO -> {
+					int entradas = leerVarint();
+					for (int i = 0; i < entradas; i++) {
+						diccionario.add(leerCadena());
+					}
+				}
+				case EscritorInstantanea.GRUPOS -> {
+					int total = leerVarint();
+					for (int i = 0; i < total; i++) {
+						grupoActual = entrada(leerVarint());
+						manejador.grupo(grupoActual);
+					}
+					grupos += total;
+				}
+				case EscritorInstantanea.ALUMNOS -> alumnos += leerAlumnos(manejador);
+				case EscritorInstantanea.FIN -> {
+					int alumnosEsperados = leerVarint();
+					int gruposEsperados = leerVarint();
+					if (alumnosEsperados != (int) Math.min(alumnos, Integer.MAX_VALUE) || gruposEsperados != grupos) {
+						throw new IOException("Instantánea incompleta: " + alumnos + " alumnos y " + grupos
+								+ " grupos leídos, se esperaban " + alumnosEsperados + " y " + gruposEsperados + ".");
+					}
+					return;
+				}
+				default -> throw new IOException("Bloque " + bloque + " de tipo desconocido: " + tipo);
+				}
+			} catch (BufferUnderflowException e) {
+				throw new IOException("Bloque " + bloque + " dañado: termina antes de lo esperado.", e);
+			}
+		}
+	}
+
+	/**
+	 * Lee el contenido del bloque en 'contenido'. La longitud viene del fichero y
+	 * aún no se ha comprobado el CRC, así que el buffer crece según llegan los
+	 * bytes (como mucho al doble cada vez) y no de golpe: una longitud dañada en
+	 * un fichero comprimido termina en fichero truncado, no en una reserva de
+	 * memoria enorme.
+	 */
+	private void leerContenido(int longitud) throws IOException {
+		contenido.clear().limit(Math.min(longitud, contenido.capacity()));
+		while (true) {
+			while (contenido.hasRemaining()) {
+				if (canal.read(contenido) < 0) {
+					throw new EOFException("Instantánea truncada: falta el bloque " + bloque + ".");
+				}
+			}
+			if (contenido.position() == longitud) {
+				contenido.flip();
+				return;
+			}
+			ByteBuffer mayor = ByteBuffer.allocateDirect((int) Math.min(longitud, 2L * contenido.capacity()));
+			contenido = mayor.put(contenido.flip());
+		}
+	}
+
+	private <E extends Exception> int leerAlumnos(LectorGruposXML.Manejador<E> manejador) throws E, IOException {
+		int total = contenido.getInt();
+		int nia = 0;
+		for (int i = 0; i < total; i++) {
+			nia += deZigzag(leerVarint());
+			String nombre = leerCadena();
+			String apellidos = leerCadena();
+			int genero = leerVarint();
+			int dias = leerVarint();
+			String ciclo = entrada(leerVarint());
+			String curso = entrada(leerVarint());
+			String nombreGrupo = entrada(leerVarint());
+
+			if (nombreGrupo == null || dias == 0) {
+				ignorados++;
+				continue;
+			}
+			if (!nombreGrupo.equals(grupoActual)) {
+				grupoActual = nombreGrupo;
+				manejador.grupo(nombreGrupo);
+			}
+			Alumno alumno = new Alumno(nombre, apellidos, genero == 0 ? 'S' : (char) genero,
+					dias == 0 ? null : java.sql.Date.valueOf(LocalDate.ofEpochDay(deZigzag(dias - 1))), ciclo, curso,
+					null);
+			manejador.alumno(alumno, nia);
+		}
+		return total;
+	}
+
+	private String entrada(int indice) throws IOException {
+		if (indice < 0 || indice >= diccionario.size()) {
+			throw new IOException("Bloque " + bloque + " dañado: índice de diccionario " + indice + " desconocido.");
+		}
+		return indice == 0 ? null : diccionario.get(indice);
+	}
+
+	private String leerCadena() throws IOException {
+		int longitud = leerVarint() - 1;
+		if (longitud < 0) {
+			return null;
+		}
+		if (longitud > contenido.remaining()) {
+			throw new IOException("Bloque " + bloque + " dañado: cadena de " + longitud + " bytes.");
+		}
+		if (bytesCadena.length < longitud) {
+			bytesCadena = new byte[Math.max(longitud, 2 * bytesCadena.length)];
+		}
+		contenido.get(bytesCadena, 0, longitud);
+		return new String(bytesCadena, 0, longitud, StandardCharsets.UTF_8);
+	}
+
+	private int leerVarint() throws IOException {
+		int valor = 0;
+		for (int desplazamiento = 0; desplazamiento < 35; desplazamiento += 7) {
+			byte b = contenido.get();
+			valor |= (b & 0x7F) << desplazamiento;
+			if (b >= 0) {
+				return valor;
+			}
+		}
+		throw new IOException("Bloque " + bloque + " dañado: varint demasiado largo.");
+	}
+
+	private static int deZigzag(int valor) {
+		return (valor >>> 1) ^ -(valor & 1);
+	}
+
+	private void leerTodo(ByteBuffer buffer, String parte) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (canal.read(buffer) < 0) {
+				throw new EOFException("Instantánea truncada: falta " + parte + ".");
+			}
+		}
+		buffer.flip();
+	}
+}
@@ -0,0 +1,524 @@
+package modelo;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * Lector JSON en streaming para las importaciones de alumnos. Analiza el
+ * fichero token a token sobre un buffer de caracteres propio y entrega cada
+ * alumno al manejador en cuanto termina su objeto, sin construir ningún árbol:
+ * el consumo de memoria no depende del tamaño del fichero.
+ *
+ * Lee los dos tipos de fichero que se exportan: alumnos sueltos (cada uno con
+ * su nombreGrupo) y grupos con sus alumnos anidados. Admite el array JSON y el
+ * NDJSON que escribe {@link EscritorJSON} (el formato se detecta por el primer
+ * carácter, no por la extensión). Los campos desconocidos, como 'nia' o
+ * 'numeroGrupo', se ignoran.
+ *
+ * @author Alberto Polo
+ */
+final class LectorJSON {
+
+	private static final int TAMANO_BUFFER = 64 * 1024;
+	private static final int FIN = -1;
+
+	/**
+	 * Recibe los alumnos en el orden del fichero.
+	 *
+	 * @param <E> Tipo de excepción que puede lanzar el manejador.
+	 */
+	interface Manejador<E extends Exception> {
+
+		/**
+		 * Se invoca por cada objeto válido. El alumno llega sin grupo asignado.
+		 *
+		 * @param nombreGrupo Nombre del grupo (sin espacios alrededor, nunca vacío).
+		 */
+		void alumno(Alumno alumno, String nombreGrupo) throws E;
+	}
+
+	private final Reader entrada;
+	private final char[] buffer = new char[TAMANO_BUFFER];
+	private int posicion;
+	private int limite;
+	private int linea = 1;
+
+	// Se reutiliza para todas las cadenas del fichero
+	private final StringBuilder texto = new StringBuilder(64);
+
+	// Campo nombreGrupo del último alumno leído (null si no lo tenía)
+	private String nombreGrupoLeido;
+
+	private LectorJSON(Reader entrada) {
+		this.entrada = entrada;
+	}
+
+	/**
+	 * Recorre el fichero entregando cada alumno al manejador.
+	 *
+	 * @param fichero   Fichero JSON (array) o NDJSON en UTF-8.
+	 * @param manejador Destino de los alumnos leídos.
+	 * @return Número de objetos ignorados por datos inválidos (sin nombre, sin
+	 *         grupo o con una fecha incorrecta).
+	 * @throws IOException Si no se puede leer el fichero o el JSON está mal
+	 *                     formado.
+	 */
+	static <E extends Exception> int leer(Path fichero, Manejador<E> manejador) throws E, IOException {
+		try (Reader entrada = new InputStreamReader(Compresion.abrirEntrada(fichero), StandardCharsets.UTF_8)) {
+			LectorJSON lector = new LectorJSON(entrada);
+			return lector.leerElementos(() -> lector.leerAlumno(manejador));
+		}
+	}
+
+	/**
+	 * Recorre un fichero de grupos, cada uno con la forma {"nombreGrupo": ...,
+	 * "alumnos": [...]}, entregando cada grupo y sus alumnos al manejador según se
+	 * leen. Para no tener que guardar los alumnos, el nombreGrupo debe aparecer
+	 * antes que el array de alumnos (como lo escribe la exportación).
+	 *
+	 * @param fichero   Fichero JSON (array) o NDJSON en UTF-8.
+	 * @param manejador Destino de los grupos y alumnos leídos.
+	 * @return Número de alumnos ignorados por datos inválidos más el de grupos sin
+	 *         nombre.
+	 * @throws IOException Si no se puede leer el fichero o el JSON está mal
+	 *                     formado.
+	 */
+	static <E extends Exception> int leerGrupos(Path fichero, LectorGruposXML.Manejador<E> manejador)
+			throws E, IOException {
+		try (Reader entrada = new InputStreamReader(Compresion.abrirEntrada(fichero), StandardCharsets.UTF_8)) {
+			LectorJSON lector = new LectorJSON(entrada);
+			return lector.leerElementos(() -> lector.leerGrupo(manejador));
+		}
+	}
+
+	/**
+	 * Lee un elemento de primer nivel (ya consumida su llave de apertura).
+	 */
+	@FunctionalInterface
+	private interface LectorElemento<E extends Exception> {
+
+		/**
+		 * @return Número de elementos ignorados al leerlo.
+		 */
+		int leer() throws E, IOException;
+	}
+
+	/**
+	 * Recorre los objetos de primer nivel, sea un array JSON o NDJSON.
+	 *
+	 * @return La suma de los ignorados de cada elemento.
+	 */
+	private <E extends Exception> int leerElementos(LectorElemento<E> elemento) throws E, IOException {
+		int ignorados = 0;
+		int c = siguienteSignificativo();
+		if (c == '\uFEFF') {
+			// Marca de orden de bytes al principio del fichero
+			c = siguienteSignificativo();
+		}
+
+		if (c == '[') {
+			c = siguienteSignificativo();
+			if (c != ']') {
+				while (true) {
+					if (c != '{') {
+						throw error("se esperaba un objeto");
+					}
+					ignorados += elemento.leer();
+					c = siguienteSignificativo();
+					if (c == ']') {
+						break;
+					}
+					if (c != ',') {
+						throw error("se esperaba ',' o ']'");
+					}
+					c = siguienteSignificativo();
+				}
+			}
+			if (siguienteSignificativo() != FIN) {
+				throw error("contenido después del array");
+			}
+		} else {
+			// NDJSON: objetos seguidos, separados por saltos de línea
+			while (c != FIN) {
+				if (c != '{') {
+					throw error("se esperaba un objeto");
+				}
+				ignorados += elemento.leer();
+				c = siguienteSignificativo();
+			}
+		}
+
+		return ignorados;
+	}
+
+	/**
+	 * Lee un alumno suelto y, si es válido y tiene grupo, lo entrega.
+	 *
+	 * @return 1 si el alumno se ha ignorado, 0 en caso contrario.
+	 */
+	private <E extends Exception> int leerAlumno(Manejador<E> manejador) throws E, IOException {
+		Alumno alumno = leerObjetoAlumno();
+		if (alumno == null || nombreGrupoLeido == null || nombreGrupoLeido.isBlank()) {
+			return 1;
+		}
+		manejador.alumno(alumno, nombreGrupoLeido.trim());
+		return 0;
+	}
+
+	/**
+	 * Lee un grupo entregando su nombre y, después, cada uno de sus alumnos.
+	 *
+	 * @return Número de alumnos ignorados (1 si el grupo no tiene nombre).
+	 */
+	private <E extends Exception> int leerGrupo(LectorGruposXML.Manejador<E> manejador) throws E, IOException {
+		boolean grupoValido = false;
+		int ignorados = 0;
+
+		int c = siguienteSignificativo();
+		if (c != '}') {
+			while (true) {
+				if (c != '"') {
+					throw error("se esperaba el nombre de un campo");
+				}
+				leerCadena();
+				if (siguienteSignificativo() != ':') {
+					throw error("se esperaba ':'");
+				}
+
+				int valor = siguienteSignificativo();
+				if (esCampo("nombreGrupo")) {
+					String nombreGrupo = valorTexto(valor);
+					grupoValido = nombreGrupo != null && !nombreGrupo.isBlank();
+					if (grupoValido) {
+						manejador.grupo(nombreGrupo.trim());
+					}
+				} else if (esCampo("alumnos") && valor == '[') {
+					if (!grupoValido) {
+						throw error("el array 'alumnos' debe ir después de un 'nombreGrupo' válido");
+					}
+					ignorados += leerAlumnosDeGrupo(manejador);
+				} else {
+					saltarValor(valor);
+				}
+
+				c = siguienteSignificativo();
+				if (c == '}') {
+					break;
+				}
+				if (c != ',') {
+					throw error("se esperaba ',' o '}'");
+				}
+				c = siguienteSignificativo();
+			}
+		}
+
+		return grupoValido ? ignorados : ignorados + 1;
+	}
+
+	/**
+	 * Lee el array de alumnos de un grupo (ya consumido el corchete de apertura).
+	 *
+	 * @return Número de alumnos ignorados.
+	 */
+	private <E extends Exception> int leerAlumnosDeGrupo(LectorGruposXML.Manejador<E> manejador)
+			throws E, IOException {
+		int ignorados = 0;
+		int c = siguienteSignificativo();
+		if (c == ']') {
+			return 0;
+		}
+		while (true) {
+			if (c != '{') {
+				throw error("se esperaba un objeto alumno");
+			}
+			Alumno alumno = leerObjetoAlumno();
+			if (alumno != null) {
+				manejador.alumno(alumno);
+			} else {
+				ignorados++;
+			}
+			c = siguienteSignificativo();
+			if (c == ']') {
+				return ignorados;
+			}
+			if (c != ',') {
+				throw error("se esperaba ',' o ']'");
+			}
+			c = siguienteSignificativo();
+		}
+	}
+
+	/**
+	 * Lee los campos de un alumno (ya consumida la llave de apertura). El
+	 * nombreGrupo, si lo tiene, queda en 'nombreGrupoLeido'.
+	 *
+	 * @return El alumno sin grupo, o null si no tiene nombre o la fecha no es
+	 *         válida.
+	 */
+	private Alumno leerObjetoAlumno() throws IOException {
+		String nombre = null;
+		String apellidos = null;
+		String genero = null;
+		String fecha = null;
+		String ciclo = null;
+		String curso = null;
+		nombreGrupoLeido = null;
+
+		int c = siguienteSignificativo();
+		if (c != '}') {
+			while (true) {
+				if (c != '"') {
+					throw error("se esperaba el nombre de un campo");
+				}
+				leerCadena();
+				if (siguienteSignificativo() != ':') {
+					throw error("se esperaba ':'");
+				}
+
+				// Se compara el contenido del buffer: los nombres de campo no crean cadenas
+				int valor = siguienteSignificativo();
+				if (esCampo("nombre")) {
+					nombre = valorTexto(valor);
+				} else if (esCampo("apellidos")) {
+					apellidos = valorTexto(valor);
+				} else if (esCampo("genero")) {
+					genero = valorTexto(valor);
+				} else if (esCampo("fechaNacimiento")) {
+					fecha = valorTexto(valor);
+				} else if (esCampo("ciclo")) {
+					ciclo = valorTexto(valor);
+				} else if (esCampo("curso")) {
+					curso = valorTexto(valor);
+				} else if (esCampo("nombreGrupo")) {
+					nombreGrupoLeido = valorTexto(valor);
+				} else {
+					saltarValor(valor);
+				}
+
+				c = siguienteSignificativo();
+				if (c == '}') {
+					break;
+				}
+				if (c != ',') {
+					throw error("se esperaba ',' o '}'");
+				}
+				c = siguienteSignificativo();
+			}
+		}
+
+		LocalDate fechaNacimiento = convertirFecha(fecha);
+		if (nombre == null || fechaNacimiento == null) {
+			return null;
+		}
+
+		return new Alumno(nombre, apellidos, genero == null || genero.isEmpty() ? 'S' : genero.charAt(0),
+				java.sql.Date.valueOf(fechaNacimiento), ciclo, curso, null);
+	}
+
+	private boolean esCampo(String nombre) {
+		return nombre.contentEquals(texto);
+	}
+
+	/**
+	 * @param c Primer carácter del valor.
+	 * @return La cadena, o null si el valor es null o no es una cadena.
+	 */
+	private String valorTexto(int c) throws IOException {
+		if (c == '"') {
+			leerCadena();
+			return texto.toString();
+		}
+		saltarValor(c);
+		return null;
+	}
+
+	/**
+	 * Acepta yyyy-MM-dd (el formato que se exporta) y dd-MM-yyyy.
+	 *
+	 * @return La fecha, o null si falta o no es válida.
+	 */
+	private static LocalDate convertirFecha(String fecha) {
+		if (fecha == null || fecha.length() != 10) {
+			return null;
+		}
+		try {
+			if (fecha.charAt(4) == '-' && fecha.charAt(7) == '-') {
+				return LocalDate.of(numero(fecha, 0, 4), numero(fecha, 5, 7), numero(fecha, 8, 10));
+			}
+			if (fecha.charAt(2) == '-' && fecha.charAt(5) == '-') {
+				return LocalDate.of(numero(fecha, 6, 10), numero(fecha, 3, 5), numero(fecha, 0, 2));
+			}
+		} catch (NumberFormatException | DateTimeException e) {
+			// Fecha inexistente o con caracteres que no son dígitos
+		}
+		return null;
+	}
+
+	private static int numero(String texto, int desde, int hasta) {
+		return Integer.parseInt(texto, desde, hasta, 10);
+	}
+
+	// TOKENS:
+
+	/**
+	 * Lee el contenido de una cadena (ya consumidas las comillas de apertura) en
+	 * 'texto', resolviendo las secuencias de escape.
+	 */
+	private void leerCadena() throws IOException {
+		texto.setLength(0);
+		while (true) {
+			// Copiar de una vez el tramo sin comillas ni escapes
+			int inicio = posicion;
+			while (posicion < limite) {
+				char c = buffer[posicion];
+				if (c == '"' || c == '\\' || c < 0x20) {
+					break;
+				}
+				posicion++;
+			}
+			texto.append(buffer, inicio, posicion - inicio);
+
+			int c = siguiente();
+			if (c == '"') {
+				return;
+			}
+			if (c == '\\') {
+				texto.append(leerEscape());
+			} else if (c == FIN) {
+				throw error("cadena sin cerrar");
+			} else if (c < 0x20) {
+				throw error("carácter de control sin escapar en una cadena");
+			} else {
+				// Fin del buffer: el carácter ya es parte de la cadena
+				texto.append((char) c);
+			}
+		}
+	}
+
+	private char leerEscape() throws IOException {
+		int c = siguiente();
+		switch (c) {
+		case '"', '\\', '/':
+			return (char) c;
+		case 'b':
+			return '\b';
+		case 'f':
+			return '\f';
+		case 'n':
+			return '\n';
+		case 'r':
+			return '\r';
+		case 't':
+			return '\t';
+		case 'u':
+			int codigo = 0;
+			for (int i = 0; i < 4; i++) {
+				int digito = Character.digit(siguiente(), 16);
+				if (digito < 0) {
+					throw error("escape unicode incorrecto");
+				}
+				codigo = codigo * 16 + digito;
+			}
+			return (char) codigo;
+		default:
+			throw error("secuencia de escape incorrecta");
+		}
+	}
+
+	/**
+	 * Salta un valor completo (cadena, número, literal, objeto o array).
+	 *
+	 * @param c Primer carácter del valor.
+	 */
+	private void saltarValor(int c) throws IOException {
+		switch (c) {
+		case '"' -> leerCadena();
+		case '{', '[' -> saltarAnidado();
+		case 't' -> literal("rue");
+		case 'f' -> literal("alse");
+		case 'n' -> literal("ull");
+		default -> {
+			if (c != '-' && (c < '0' || c > '9')) {
+				throw error("se esperaba un valor");
+			}
+			while (posicion < limite || rellenar()) {
+				char d = buffer[posicion];
+				if ((d < '0' || d > '9') && d != '.' && d != 'e' && d != 'E' && d != '+' && d != '-') {
+					break;
+				}
+				posicion++;
+			}
+		}
+		}
+	}
+
+	/**
+	 * Salta un objeto o array (ya consumida su apertura) hasta su cierre.
+	 */
+	private void saltarAnidado() throws IOException {
+		int nivel = 1;
+		while (nivel > 0) {
+			int c = siguiente();
+			switch (c) {
+			case '{', '[' -> nivel++;
+			case '}', ']' -> nivel--;
+			case '"' -> leerCadena();
+			case FIN -> throw error("objeto o array sin cerrar");
+			default -> {
+			}
+			}
+		}
+	}
+
+	private void literal(String resto) throws IOException {
+		for (int i = 0; i < resto.length(); i++) {
+			if (siguiente() != resto.charAt(i)) {
+				throw error("literal incorrecto");
+			}
+		}
+	}
+
+	// LECTURA DE BAJO NIVEL:
+
+	private int siguienteSignificativo() throws IOException {
+		while (true) {
+			int c = siguiente();
+			if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+				return c;
+			}
+		}
+	}
+
+	private int siguiente() throws IOException {
+		if (posicion == limite && !rellenar()) {
+			return FIN;
+		}
+		char c = buffer[posicion++];
+		if (c == '\n') {
+			linea++;
+		}
+		return c;
+	}
+
+	/**
+	 * @return false si se ha llegado al final del fichero.
+	 */
+	private boolean rellenar() throws IOException {
+		int leidos = entrada.read(buffer, 0, TAMANO_BUFFER);
+		if (leidos <= 0) {
+			return false;
+		}
+		posicion = 0;
+		limite = leidos;
+		return true;
+	}
+
+	private IOException error(String mensaje) {
+		return new IOException("JSON mal formado (línea " + linea + "): " + mensaje);
+	}
+}
@@ -0,0 +1,66 @@
+package modelo;
+
+import java.util.Locale;
+
+/**
+ * Configuración de la importación del fichero de texto de alumnos.
+ *
+ * @param hilosAnalisis Hilos que analizan el fichero en paralelo, cada uno un
+ *                      tramo de líneas completas.
+ * @param conexiones    Conexiones que insertan a la vez. Con
+ *                      {@link Orden#FICHERO} se usa siempre una.
+ * @param orden         Orden en que se insertan los alumnos.
+ *
+ * @author Alberto Polo
+ */
+public record OpcionesImportacion(int hilosAnalisis, int conexiones, Orden orden) {
+
+	public enum Orden {
+
+		/**
+		 * Los alumnos se insertan en el orden de las líneas del fichero (los NIA
+		 * generados crecen con el número de línea), por una sola conexión. El
+		 * análisis sigue siendo paralelo.
+		 */
+		FICHERO,
+
+		/**
+		 * Cada lote se inserta en cuanto está analizado, por la primera conexión
+		 * libre: el orden de los NIA no sigue al del fichero.
+		 */
+		LIBRE
+	}
+
+	/** Un hilo y una conexión: la importación línea a línea de siempre. */
+	public static final OpcionesImportacion SECUENCIAL = new OpcionesImportacion(1, 1, Orden.FICHERO);
+
+	public OpcionesImportacion {
+		if (hilosAnalisis < 1 || conexiones < 1 || orden == null) {
+			throw new IllegalArgumentException("Opciones de importación no válidas: " + hilosAnalisis + " hilos, "
+					+ conexiones + " conexiones, orden " + orden);
+		}
+	}
+
+	/**
+	 * Lee las opciones de las propiedades del sistema 'importacion.hilos',
+	 * 'importacion.conexiones' e 'importacion.orden' (FICHERO o LIBRE). Sin
+	 * ellas, la importación es secuencial.
+	 */
+	public static OpcionesImportacion desdePropiedades() {
+		return new OpcionesImportacion(Integer.getInteger("importacion.hilos", 1),
+				Integer.getInteger("importacion.conexiones", 1),
+				Orden.valueOf(System.getProperty("importacion.orden", "FICHERO").toUpperCase(Locale.ROOT)));
+	}
+
+	public boolean esSecuencial() {
+		return hilosAnalisis == 1 && conexiones == 1;
+	}
+
+	/**
+	 * @return Conexiones que se usan realmente (una si el orden es el del
+	 *         fichero).
+	 */
+	public int conexionesEfectivas() {
+		return orden == Orden.FICHERO ? 1 : conexiones;
+	}
+}
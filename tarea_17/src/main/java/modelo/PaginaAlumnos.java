@@ -0,0 +1,102 @@
+package modelo;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Página de alumnos ordenada por NIA (paginación por clave). Para pedir la
+ * página siguiente se pasa {@link #continuacion()} como 'despuesDeNia'.
+ *
+ * @param alumnos      Alumnos de la página, en orden ascendente de NIA.
+ * @param continuacion NIA a partir del cual empieza la página siguiente, o
+ *                     {@link #FIN} si no hay más alumnos.
+ */
+public record PaginaAlumnos(List<Alumno> alumnos, int continuacion) {
+
+	/** Valor de 'continuacion' cuando no quedan más páginas. */
+	public static final int FIN = -1;
+
+	/** Valor de 'despuesDeNia' para pedir la primera página. */
+	public static final int INICIO = 0;
+
+	public static PaginaAlumnos vacia() {
+		return new PaginaAlumnos(List.of(), FIN);
+	}
+
+	/**
+	 * Construye la página a partir de una consulta que pidió 'tamanoPagina + 1'
+	 * filas: si llegó la fila extra, hay más páginas y se descarta.
+	 *
+	 * @throws IllegalArgumentException si 'tamanoPagina' no es positivo.
+	 */
+	static PaginaAlumnos desdeConsulta(List<Alumno> filas, int tamanoPagina) {
+		comprobarTamano(tamanoPagina);
+		if (filas.size() <= tamanoPagina) {
+			return new PaginaAlumnos(filas, FIN);
+		}
+		List<Alumno> alumnos = filas.subList(0, tamanoPagina);
+		return new PaginaAlumnos(alumnos, alumnos.get(tamanoPagina - 1).getNia());
+	}
+
+	/**
+	 * @throws IllegalArgumentException si el tamaño de página no es positivo.
+	 */
+	public static int comprobarTamano(int tamanoPagina) {
+		if (tamanoPagina < 1) {
+			throw new IllegalArgumentException("El tamaño de página debe ser mayor que 0: " + tamanoPagina);
+		}
+		return tamanoPagina;
+	}
+
+	public boolean hayMas() {
+		return continuacion != FIN;
+	}
+
+	/**
+	 * Recorre todas las páginas como un único flujo de alumnos. Cada página se
+	 * pide cuando se termina de consumir la anterior; si la primera es null (por
+	 * ejemplo, un grupo que no existe) el flujo está vacío.
+	 *
+	 * @param cargarPagina Función que devuelve la página que empieza tras el NIA
+	 *                     indicado.
+	 */
+	static Stream<Alumno> recorrer(IntFunction<PaginaAlumnos> cargarPagina) {
+		Iterator<Alumno> iterador = new Iterator<>() {
+			private Iterator<Alumno> actual;
+			private int siguiente = INICIO;
+
+			@Override
+			public boolean hasNext() {
+				while (actual == null || !actual.hasNext()) {
+					if (siguiente == FIN) {
+						return false;
+					}
+					PaginaAlumnos pagina = cargarPagina.apply(siguiente);
+					if (pagina == null) {
+						siguiente = FIN;
+						return false;
+					}
+					actual = pagina.alumnos().iterator();
+					siguiente = pagina.continuacion();
+				}
+				return true;
+			}
+
+			@Override
+			public Alumno next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return actual.next();
+			}
+		};
+		return StreamSupport.stream(
+				Spliterators.spliteratorUnknownSize(iterador, Spliterator.ORDERED | Spliterator.NONNULL), false);
+	}
+}
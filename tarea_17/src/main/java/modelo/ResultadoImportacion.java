@@ -0,0 +1,64 @@
+package modelo;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resumen de una importación masiva: filas insertadas, líneas rechazadas y
+ * rendimiento (filas por segundo).
+ *
+ * @author Alberto Polo
+ */
+public class ResultadoImportacion {
+
+	private final long inicioNanos = System.nanoTime();
+	private long finNanos = -1;
+
+	private final LongAdder filasInsertadas = new LongAdder();
+	private final LongAdder lineasRechazadas = new LongAdder();
+
+	public void sumarInsertadas(long filas) {
+		filasInsertadas.add(filas);
+	}
+
+	public void rechazarLineas(long lineas) {
+		lineasRechazadas.add(lineas);
+	}
+
+	public void rechazarLinea() {
+		lineasRechazadas.increment();
+	}
+
+	/**
+	 * Marca el final de la importación. Las llamadas posteriores no modifican la
+	 * duración.
+	 */
+	public void finalizar() {
+		if (finNanos < 0) {
+			finNanos = System.nanoTime();
+		}
+	}
+
+	public long getFilasInsertadas() {
+		return filasInsertadas.sum();
+	}
+
+	public long getLineasRechazadas() {
+		return lineasRechazadas.sum();
+	}
+
+	public long getDuracionMillis() {
+		long fin = finNanos < 0 ? System.nanoTime() : finNanos;
+		return (fin - inicioNanos) / 1_000_000;
+	}
+
+	public double getFilasPorSegundo() {
+		long millis = Math.max(1, getDuracionMillis());
+		return getFilasInsertadas() * 1000.0 / millis;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d filas insertadas, %d líneas rechazadas en %d ms (%.0f filas/s)", getFilasInsertadas(),
+				getLineasRechazadas(), getDuracionMillis(), getFilasPorSegundo());
+	}
+}
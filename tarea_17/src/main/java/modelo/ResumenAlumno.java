@@ -0,0 +1,10 @@
+package modelo;
+
+/**
+ * Proyección con solo el NIA y el nombre de un alumno, para los listados que no
+ * necesitan el resto de columnas ni el grupo.
+ *
+ * @author Alberto Polo
+ */
+public record ResumenAlumno(int nia, String nombre) {
+}
@@ -0,0 +1,154 @@
+package modelo;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import pool.PoolConexiones;
+
+/**
+ * Versiones de cambio de AlumnosBD, para las exportaciones incrementales.
+ *
+ * Cada operación que escribe alumnos o grupos abre un {@link Cambio}: una
+ * versión nueva (la clave generada al insertar en la tabla 'cambios') que
+ * guarda en la columna 'version_cambio' de las filas que inserta o modifica, y
+ * en 'alumnos_eliminados' para las que borra. Una exportación incremental
+ * escribe las filas con versión en el intervalo (marca anterior,
+ * {@link #marcaSegura(Connection)}].
+ *
+ * Las versiones se reparten antes de que su transacción confirme, así que una
+ * operación en curso puede tener una versión menor que otra ya confirmada. Por
+ * eso la fila de cada versión queda 'abierta' hasta que la operación termina y
+ * la marca segura se queda por debajo de la menor abierta: sus filas entrarán
+ * en la siguiente exportación. Versiones y registro están en la base de datos,
+ * así que valen para todos los procesos que escriben en ella (el servidor HTTP
+ * y los menús de consola).
+ *
+ * Si un proceso termina sin cerrar sus versiones, sus filas se quedarían
+ * abiertas para siempre y ninguna exportación avanzaría: pasados
+ * 'db.cambios.caducidadMinutos' (60 por defecto) se dan por abandonadas.
+ *
+ * @author Alberto Polo
+ */
+final class SeguimientoCambios {
+
+	private static final Logger loggerExcepciones = LogManager.getLogger("exceptions");
+
+	private static final long CADUCIDAD_MILLIS = TimeUnit.MINUTES
+			.toMillis(PoolConexiones.getPropiedadEntera("db.cambios.caducidadMinutos", 60));
+
+	private SeguimientoCambios() {
+	}
+
+	/**
+	 * Versión de cambio de una operación. Se cierra al terminar la operación
+	 * (haya confirmado o no), después de devolver su conexión.
+	 */
+	static final class Cambio implements AutoCloseable {
+
+		private final long version;
+
+		private Cambio(long version) {
+			this.version = version;
+		}
+
+		long version() {
+			return version;
+		}
+
+		/**
+		 * Marca la versión como terminada. Si falla, la versión sigue abierta hasta
+		 * que caduca: las exportaciones se retrasan, pero no pierden cambios.
+		 */
+		@Override
+		public void close() {
+			try (Connection conexion = PoolConexiones.getConnection();
+					PreparedStatement sentencia = conexion
+							.prepareStatement("UPDATE cambios SET abierta = FALSE WHERE version = ?")) {
+				sentencia.setLong(1, version);
+				sentencia.executeUpdate();
+				if (!conexion.getAutoCommit()) {
+					conexion.commit();
+				}
+			} catch (SQLException e) {
+				loggerExcepciones.error("No se pudo cerrar la versión de cambio {}: {}", version, e.getMessage(), e);
+			}
+		}
+	}
+
+	/**
+	 * Reparte una versión nueva con una conexión propia del pool, que se devuelve
+	 * antes de terminar: se llama antes de pedir la conexión de la operación.
+	 *
+	 * La fila abierta se confirma enseguida para que la vean las exportaciones de
+	 * cualquier proceso. Antes de insertarla se bloquea la última versión, de modo
+	 * que las versiones se confirman en el orden en que se reparten: si una
+	 * exportación ve una versión, ve también todas las anteriores. El bloqueo solo
+	 * dura esta transacción corta, no la operación.
+	 */
+	static Cambio abrir() throws SQLException {
+		try (Connection conexion = PoolConexiones.getConnection()) {
+			conexion.setAutoCommit(false);
+			try (Statement bloqueo = conexion.createStatement();
+					PreparedStatement sentencia = conexion.prepareStatement(
+							"INSERT INTO cambios (fecha, abierta) VALUES (?, TRUE)", Statement.RETURN_GENERATED_KEYS)) {
+				bloqueo.executeQuery("SELECT version FROM cambios ORDER BY version DESC LIMIT 1 FOR UPDATE").close();
+
+				sentencia.setTimestamp(1, new Timestamp(System.currentTimeMillis()));
+				sentencia.executeUpdate();
+				long version;
+				try (ResultSet clavesGeneradas = sentencia.getGeneratedKeys()) {
+					if (!clavesGeneradas.next()) {
+						throw new SQLException("La base de datos no devolvió la versión del cambio.");
+					}
+					version = clavesGeneradas.getLong(1);
+				}
+				conexion.commit();
+				return new Cambio(version);
+			} catch (SQLException e) {
+				conexion.rollback();
+				throw e;
+			} finally {
+				conexion.setAutoCommit(true);
+			}
+		}
+	}
+
+	/**
+	 * @return La mayor versión hasta la que todos los cambios están confirmados:
+	 *         la última repartida o, si hay operaciones en curso (en cualquier
+	 *         proceso), la anterior a la menor de ellas.
+	 */
+	static long marcaSegura(Connection conexion) throws SQLException {
+		// La última se lee antes que la menor abierta: una versión que se abra
+		// entre las dos consultas es mayor que la última y no cuenta, y una que se
+		// cierre entre ellas ya ha confirmado sus filas
+		long ultima;
+		try (Statement sentencia = conexion.createStatement();
+				ResultSet rs = sentencia.executeQuery("SELECT MAX(version) FROM cambios")) {
+			rs.next();
+			ultima = rs.getLong(1);
+		}
+
+		long menorAbierta;
+		try (PreparedStatement sentencia = conexion
+				.prepareStatement("SELECT MIN(version) FROM cambios WHERE abierta AND fecha > ?")) {
+			sentencia.setTimestamp(1, new Timestamp(System.currentTimeMillis() - CADUCIDAD_MILLIS));
+			try (ResultSet rs = sentencia.executeQuery()) {
+				rs.next();
+				menorAbierta = rs.getLong(1);
+				if (rs.wasNull()) {
+					menorAbierta = Long.MAX_VALUE;
+				}
+			}
+		}
+		return Math.min(ultima, menorAbierta - 1);
+	}
+}
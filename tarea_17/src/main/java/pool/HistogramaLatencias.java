@@ -0,0 +1,83 @@
+package pool;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias sin bloqueos, con cubetas log-lineales: cada potencia
+ * de dos se divide en 8 cubetas, de modo que los percentiles tienen un error
+ * relativo máximo del 12,5 % con un tamaño fijo (512 contadores). Lo usan el
+ * pool y el servidor HTTP (latencia por endpoint).
+ *
+ * @author Alberto Polo
+ */
+public final class HistogramaLatencias {
+
+	private static final int BITS_SUBCUBETA = 3;
+	private static final int SUBCUBETAS = 1 << BITS_SUBCUBETA;
+
+	private final AtomicLongArray cubetas = new AtomicLongArray(Long.SIZE * SUBCUBETAS);
+	private final LongAdder cuenta = new LongAdder();
+	private final LongAdder suma = new LongAdder();
+	private final LongAccumulator maximo = new LongAccumulator(Long::max, 0);
+
+	public void registrar(long valor) {
+		long v = Math.max(0, valor);
+		cubetas.incrementAndGet(indice(v));
+		cuenta.increment();
+		suma.add(v);
+		maximo.accumulate(v);
+	}
+
+	public long cuenta() {
+		return cuenta.sum();
+	}
+
+	/**
+	 * Resume el histograma multiplicando cada valor por 'escala' (por ejemplo,
+	 * 0.001 para pasar de microsegundos a milisegundos).
+	 */
+	public MetricasPool.Percentiles percentiles(double escala) {
+		long total = cuenta.sum();
+		if (total == 0) {
+			return MetricasPool.Percentiles.VACIO;
+		}
+		long max = maximo.get();
+		return new MetricasPool.Percentiles(percentil(0.50, total, max) * escala,
+				percentil(0.95, total, max) * escala, percentil(0.99, total, max) * escala, max * escala,
+				(double) suma.sum() / total * escala);
+	}
+
+	private long percentil(double fraccion, long total, long max) {
+		long objetivo = (long) Math.ceil(fraccion * total);
+		long acumulado = 0;
+		for (int i = 0; i < cubetas.length(); i++) {
+			acumulado += cubetas.get(i);
+			if (acumulado >= objetivo) {
+				return Math.min(limiteSuperior(i), max);
+			}
+		}
+		return max;
+	}
+
+	// Los valores menores que SUBCUBETAS tienen cubeta propia; el resto se agrupa
+	// por exponente y por los 3 bits siguientes al más significativo
+	private static int indice(long valor) {
+		if (valor < SUBCUBETAS) {
+			return (int) valor;
+		}
+		int exponente = 63 - Long.numberOfLeadingZeros(valor);
+		int mantisa = (int) (valor >>> (exponente - BITS_SUBCUBETA)) & (SUBCUBETAS - 1);
+		return (exponente - BITS_SUBCUBETA + 1) * SUBCUBETAS + mantisa;
+	}
+
+	private static long limiteSuperior(int indice) {
+		if (indice < SUBCUBETAS) {
+			return indice;
+		}
+		int desplazamiento = indice / SUBCUBETAS - 1;
+		long inferior = (long) (SUBCUBETAS + indice % SUBCUBETAS) << desplazamiento;
+		return inferior + (1L << desplazamiento) - 1;
+	}
+}
@@ -0,0 +1,50 @@
+package pool;
+
+/**
+ * Estado del pool de conexiones en un instante dado, junto con las
+ * estadísticas acumuladas desde el arranque.
+ *
+ * @param activas         Conexiones prestadas en este momento.
+ * @param inactivas       Conexiones libres en el pool.
+ * @param pendientes      Hilos esperando una conexión.
+ * @param totales         Conexiones abiertas (activas + inactivas).
+ * @param maximo          Tamaño máximo del pool.
+ * @param adquisiciones   Conexiones entregadas desde el arranque.
+ * @param timeouts        Peticiones que agotaron 'connectionTimeout'.
+ * @param adquisicionMs   Tiempo de espera para obtener una conexión.
+ * @param usoMs           Tiempo que se retiene cada conexión hasta devolverla.
+ * @param posiblesFugas   Conexiones retenidas más tiempo que
+ *                        'db.leakDetectionThreshold'.
+ */
+public record MetricasPool(int activas, int inactivas, int pendientes, int totales, int maximo, long adquisiciones,
+		long timeouts, Percentiles adquisicionMs, Percentiles usoMs, int posiblesFugas) {
+
+	/**
+	 * Percentiles de una latencia, en milisegundos.
+	 */
+	public record Percentiles(double p50, double p95, double p99, double maximo, double media) {
+
+		static final Percentiles VACIO = new Percentiles(0, 0, 0, 0, 0);
+
+		@Override
+		public String toString() {
+			return String.format("p50 %.2f, p95 %.2f, p99 %.2f, máx %.2f ms", p50, p95, p99, maximo);
+		}
+	}
+
+	/**
+	 * El pool está saturado si todas las conexiones están prestadas y hay hilos
+	 * esperando.
+	 */
+	public boolean saturado() {
+		return activas >= maximo && pendientes > 0;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				"%d activas, %d inactivas, %d pendientes (máx. %d) | %d adquisiciones, %d timeouts | adquisición: %s | uso: media %.1f ms, %s | %d posibles fugas",
+				activas, inactivas, pendientes, maximo, adquisiciones, timeouts, adquisicionMs, usoMs.media(), usoMs,
+				posiblesFugas);
+	}
+}
@@ -1,62 +1,219 @@
-package pool;
-
-import com.zaxxer.hikari.HikariConfig;
-import com.zaxxer.hikari.HikariDataSource;
-
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.sql.Connection;
-import java.util.Properties;
-
-public class PoolConexiones {
-
-	private static HikariDataSource dataSource;
-
-	static {
-		try {
-			// Carga las propiedades desde el archivo
-			Properties properties = new Properties();
-
-			try (FileInputStream fis = new FileInputStream("src\\main\\resources\\db.properties")) {
-				properties.load(fis);
-			}
-
-			// Configura HikariCP con las propiedades
-			HikariConfig config = new HikariConfig();
-			config.setJdbcUrl(properties.getProperty("db.url"));
-			config.setUsername(properties.getProperty("db.user"));
-			config.setPassword(properties.getProperty("db.password"));
-			config.setMaximumPoolSize(Integer.parseInt(properties.getProperty("db.maximumPoolSize")));
-			config.setMinimumIdle(Integer.parseInt(properties.getProperty("db.minimumIdle")));
-			config.setConnectionTimeout(Long.parseLong(properties.getProperty("db.connectionTimeout")));
-			config.setIdleTimeout(Long.parseLong(properties.getProperty("db.idleTimeout")));
-			config.setMaxLifetime(Long.parseLong(properties.getProperty("db.maxLifetime")));
-
-			// Inicializa el pool de conexiones
-			dataSource = new HikariDataSource(config);
-
-		} catch (IOException | NumberFormatException e) {
-			e.printStackTrace();
-			throw new RuntimeException("Error al configurar el pool de conexiones", e);
-		}
-	}
-
-	/**
-	 * Obtiene una conexión desde el pool.
-	 *
-	 * @return Connection
-	 * @throws SQLException si ocurre un error al obtener la conexión.
-	 */
-	public static Connection getConnection() throws java.sql.SQLException {
-		return dataSource.getConnection();
-	}
-
-	/**
-	 * Cierra el pool de conexiones.
-	 */
-	public static void cerrarPool() {
-		if (dataSource != null && !dataSource.isClosed()) {
-			dataSource.close();
-		}
-	}
-}
+package pool;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public class PoolConexiones {
+
+	private static HikariDataSource dataSource;
+
+	private static final Properties properties = new Properties();
+
+	private static final Logger loggerGeneral = LogManager.getRootLogger();
+
+	// Tiempos de adquisición y uso de cada conexión, informados por HikariCP
+	private static final RegistroMetricasPool registroMetricas = new RegistroMetricasPool();
+
+	// Solo existe si 'db.leakDetectionThreshold' es mayor que 0
+	private static VigilanteFugas vigilanteFugas;
+
+	// Hilo del informe periódico de métricas y de la revisión de fugas
+	private static ScheduledExecutorService planificador;
+
+	// Adquisiciones en el último informe: si no hay actividad no se vuelve a informar
+	private static long adquisicionesUltimoInforme = -1;
+
+	static {
+		try {
+			// Carga las propiedades desde el archivo (se puede indicar otro con
+			// -Ddb.config=ruta, por ejemplo en los benchmarks)
+			try (InputStream fis = abrirConfiguracion()) {
+				properties.load(fis);
+			}
+
+			// Configura HikariCP con las propiedades
+			HikariConfig config = new HikariConfig();
+			config.setJdbcUrl(properties.getProperty("db.url"));
+			config.setUsername(properties.getProperty("db.user"));
+			config.setPassword(properties.getProperty("db.password"));
+			config.setMaximumPoolSize(Integer.parseInt(properties.getProperty("db.maximumPoolSize")));
+			config.setMinimumIdle(Integer.parseInt(properties.getProperty("db.minimumIdle")));
+			config.setConnectionTimeout(Long.parseLong(properties.getProperty("db.connectionTimeout")));
+			config.setIdleTimeout(Long.parseLong(properties.getProperty("db.idleTimeout")));
+			config.setMaxLifetime(Long.parseLong(properties.getProperty("db.maxLifetime")));
+			config.setMetricsTrackerFactory((nombrePool, estadisticas) -> registroMetricas);
+			config.setRegisterMbeans(true);
+
+			// Inicializa el pool de conexiones
+			dataSource = new HikariDataSource(config);
+
+			iniciarVigilancia(getPropiedadEntera("db.metricas.intervaloSegundos", 0),
+					getPropiedadEntera("db.leakDetectionThreshold", 0));
+
+		} catch (IOException | NumberFormatException e) {
+			e.printStackTrace();
+			throw new RuntimeException("Error al configurar el pool de conexiones", e);
+		}
+	}
+
+	/**
+	 * Abre el fichero de configuración: primero en disco y, si no existe, como
+	 * recurso del classpath (por ejemplo, al ejecutar desde un jar).
+	 */
+	private static InputStream abrirConfiguracion() throws IOException {
+		String ruta = System.getProperty("db.config", "src\\main\\resources\\db.properties");
+		File fichero = new File(ruta);
+		if (fichero.exists()) {
+			return new FileInputStream(fichero);
+		}
+
+		String recurso = System.getProperty("db.config") != null ? ruta : "db.properties";
+		InputStream entrada = PoolConexiones.class.getClassLoader().getResourceAsStream(recurso);
+		if (entrada == null) {
+			throw new FileNotFoundException("No se encontró la configuración de la base de datos: " + ruta);
+		}
+		return entrada;
+	}
+
+	/**
+	 * Obtiene una conexión desde el pool.
+	 *
+	 * @return Connection
+	 * @throws SQLException si ocurre un error al obtener la conexión.
+	 */
+	public static Connection getConnection() throws SQLException {
+		Connection conexion = dataSource.getConnection();
+		return vigilanteFugas == null ? conexion : vigilanteFugas.vigilar(conexion);
+	}
+
+	/**
+	 * Devuelve el estado actual del pool (conexiones activas, inactivas y
+	 * pendientes) y las estadísticas de adquisición, uso y timeouts acumuladas
+	 * desde el arranque.
+	 *
+	 * @return Las métricas del pool.
+	 */
+	public static MetricasPool getMetricas() {
+		HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+		return new MetricasPool(pool.getActiveConnections(), pool.getIdleConnections(),
+				pool.getThreadsAwaitingConnection(), pool.getTotalConnections(), dataSource.getMaximumPoolSize(),
+				registroMetricas.adquisiciones(), registroMetricas.timeouts(), registroMetricas.adquisicionMs(),
+				registroMetricas.usoMs(), vigilanteFugas == null ? 0 : vigilanteFugas.retenidas());
+	}
+
+	/**
+	 * Arranca, en un hilo demonio, el informe periódico de métricas en el log y la
+	 * revisión de conexiones retenidas. Un valor 0 desactiva cada tarea.
+	 */
+	private static void iniciarVigilancia(int intervaloInformeSegundos, int umbralFugasMillis) {
+		if (intervaloInformeSegundos <= 0 && umbralFugasMillis <= 0) {
+			return;
+		}
+
+		planificador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+			Thread hilo = new Thread(tarea, "metricas-pool");
+			hilo.setDaemon(true);
+			return hilo;
+		});
+
+		if (intervaloInformeSegundos > 0) {
+			planificador.scheduleAtFixedRate(PoolConexiones::informarMetricas, intervaloInformeSegundos,
+					intervaloInformeSegundos, TimeUnit.SECONDS);
+		}
+
+		if (umbralFugasMillis > 0) {
+			vigilanteFugas = new VigilanteFugas(umbralFugasMillis);
+			// Se revisa varias veces por umbral para avisar poco después de superarlo
+			long periodo = Math.max(1000, umbralFugasMillis / 4);
+			planificador.scheduleAtFixedRate(vigilanteFugas::revisar, periodo, periodo, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private static void informarMetricas() {
+		try {
+			MetricasPool metricas = getMetricas();
+			if (metricas.saturado()) {
+				loggerGeneral.warn("Pool de conexiones saturado: {}", metricas);
+			} else if (metricas.adquisiciones() != adquisicionesUltimoInforme || metricas.activas() > 0) {
+				loggerGeneral.info("Pool de conexiones: {}", metricas);
+			}
+			adquisicionesUltimoInforme = metricas.adquisiciones();
+		} catch (RuntimeException e) {
+			// Una excepción cancelaría las siguientes ejecuciones del informe
+			loggerGeneral.warn("No se pudieron obtener las métricas del pool: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * Prepara una consulta de solo lectura cuyo resultado se recorre en streaming,
+	 * sin cargar todas las filas en memoria. Con MySQL se usa el modo fila a fila
+	 * del driver (fetchSize = Integer.MIN_VALUE); con otras bases de datos, un
+	 * fetchSize acotado. Mientras el ResultSet esté abierto no deben lanzarse otras
+	 * sentencias por la misma conexión.
+	 *
+	 * @param conexion Conexión sobre la que se prepara la consulta.
+	 * @param sql      Consulta SQL.
+	 * @return La sentencia preparada.
+	 * @throws SQLException si ocurre un error al preparar la consulta.
+	 */
+	public static PreparedStatement prepararConsultaEnStreaming(Connection conexion, String sql) throws SQLException {
+		PreparedStatement sentencia = conexion.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+				ResultSet.CONCUR_READ_ONLY);
+		if ("MySQL".equalsIgnoreCase(conexion.getMetaData().getDatabaseProductName())) {
+			sentencia.setFetchSize(Integer.MIN_VALUE);
+		} else {
+			sentencia.setFetchSize(getPropiedadEntera("db.fetchSize", 1000));
+		}
+		return sentencia;
+	}
+
+	/**
+	 * Devuelve una propiedad numérica de 'db.properties'.
+	 *
+	 * @param clave           Nombre de la propiedad.
+	 * @param valorPorDefecto Valor que se devuelve si la propiedad no existe o no
+	 *                        es un número válido.
+	 * @return El valor de la propiedad o el valor por defecto.
+	 */
+	public static int getPropiedadEntera(String clave, int valorPorDefecto) {
+		String valor = properties.getProperty(clave);
+		if (valor == null) {
+			return valorPorDefecto;
+		}
+		try {
+			return Integer.parseInt(valor.trim());
+		} catch (NumberFormatException e) {
+			return valorPorDefecto;
+		}
+	}
+
+	/**
+	 * Cierra el pool de conexiones.
+	 */
+	public static void cerrarPool() {
+		if (planificador != null) {
+			planificador.shutdownNow();
+		}
+		if (dataSource != null && !dataSource.isClosed()) {
+			dataSource.close();
+		}
+	}
+}
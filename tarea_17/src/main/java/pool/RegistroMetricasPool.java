@@ -0,0 +1,51 @@
+package pool;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+
+/**
+ * Recibe de HikariCP los tiempos de cada préstamo de conexión y los acumula en
+ * histogramas: espera para obtener la conexión (en microsegundos) y tiempo de
+ * uso hasta devolverla (en milisegundos).
+ *
+ * @author Alberto Polo
+ */
+final class RegistroMetricasPool implements IMetricsTracker {
+
+	private final HistogramaLatencias adquisicionMicros = new HistogramaLatencias();
+	private final HistogramaLatencias usoMillis = new HistogramaLatencias();
+	private final LongAdder timeouts = new LongAdder();
+
+	@Override
+	public void recordConnectionAcquiredNanos(long nanos) {
+		adquisicionMicros.registrar(TimeUnit.NANOSECONDS.toMicros(nanos));
+	}
+
+	@Override
+	public void recordConnectionUsageMillis(long millis) {
+		usoMillis.registrar(millis);
+	}
+
+	@Override
+	public void recordConnectionTimeout() {
+		timeouts.increment();
+	}
+
+	long adquisiciones() {
+		return adquisicionMicros.cuenta();
+	}
+
+	long timeouts() {
+		return timeouts.sum();
+	}
+
+	MetricasPool.Percentiles adquisicionMs() {
+		return adquisicionMicros.percentiles(0.001);
+	}
+
+	MetricasPool.Percentiles usoMs() {
+		return usoMillis.percentiles(1);
+	}
+}
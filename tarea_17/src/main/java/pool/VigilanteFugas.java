@@ -0,0 +1,128 @@
+package pool;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Detección de fugas de conexiones. Cada conexión prestada se envuelve en un
+ * proxy que recuerda el método que la pidió (por ejemplo,
+ * 'AlumnosBD.insertarAlumno:64'); si no se devuelve antes del umbral, se avisa
+ * en el log con ese método.
+ *
+ * A diferencia de 'leakDetectionThreshold' de HikariCP, que registra una traza
+ * por SLF4J, el aviso sale por el log de la aplicación y nombra directamente
+ * al responsable.
+ *
+ * @author Alberto Polo
+ */
+final class VigilanteFugas {
+
+	private static final Logger loggerGeneral = LogManager.getRootLogger();
+
+	private static final StackWalker PILA = StackWalker.getInstance();
+
+	private final long umbralNanos;
+	private final Set<Prestamo> prestadas = ConcurrentHashMap.newKeySet();
+
+	VigilanteFugas(long umbralMillis) {
+		this.umbralNanos = TimeUnit.MILLISECONDS.toNanos(umbralMillis);
+	}
+
+	/**
+	 * Registra el préstamo y devuelve la conexión que debe usar el llamante.
+	 */
+	Connection vigilar(Connection conexion) {
+		Prestamo prestamo = new Prestamo(conexion, llamante(), Thread.currentThread().getName(), System.nanoTime());
+		prestadas.add(prestamo);
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+				prestamo);
+	}
+
+	/**
+	 * Avisa de las conexiones que superan el umbral. Cada fuga se notifica una
+	 * sola vez.
+	 */
+	void revisar() {
+		long ahora = System.nanoTime();
+		for (Prestamo prestamo : prestadas) {
+			if (!prestamo.notificado && ahora - prestamo.inicioNanos > umbralNanos) {
+				prestamo.notificado = true;
+				loggerGeneral.warn("Posible fuga de conexión: {} (hilo '{}') la retiene desde hace {} ms",
+						prestamo.propietario, prestamo.hilo, TimeUnit.NANOSECONDS.toMillis(ahora - prestamo.inicioNanos));
+			}
+		}
+	}
+
+	/**
+	 * Número de conexiones prestadas que superan el umbral en este momento.
+	 */
+	int retenidas() {
+		long ahora = System.nanoTime();
+		int retenidas = 0;
+		for (Prestamo prestamo : prestadas) {
+			if (ahora - prestamo.inicioNanos > umbralNanos) {
+				retenidas++;
+			}
+		}
+		return retenidas;
+	}
+
+	private void devuelta(Prestamo prestamo) {
+		if (prestadas.remove(prestamo) && prestamo.notificado) {
+			loggerGeneral.info("La conexión retenida por {} se devolvió tras {} ms", prestamo.propietario,
+					TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - prestamo.inicioNanos));
+		}
+	}
+
+	// Primer marco de la pila fuera del paquete 'pool': quien pidió la conexión
+	private static String llamante() {
+		return PILA.walk(marcos -> marcos.filter(m -> !m.getClassName().startsWith("pool.")).findFirst()
+				.map(m -> m.getClassName().substring(m.getClassName().lastIndexOf('.') + 1) + "." + m.getMethodName()
+						+ ":" + m.getLineNumber())
+				.orElse("desconocido"));
+	}
+
+	private final class Prestamo implements InvocationHandler {
+
+		private final Connection conexion;
+		private final String propietario;
+		private final String hilo;
+		private final long inicioNanos;
+		private volatile boolean notificado;
+
+		Prestamo(Connection conexion, String propietario, String hilo, long inicioNanos) {
+			this.conexion = conexion;
+			this.propietario = propietario;
+			this.hilo = hilo;
+			this.inicioNanos = inicioNanos;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method metodo, Object[] argumentos) throws Throwable {
+			if ("equals".equals(metodo.getName())) {
+				return proxy == argumentos[0];
+			}
+			if ("hashCode".equals(metodo.getName())) {
+				return System.identityHashCode(proxy);
+			}
+			try {
+				return metodo.invoke(conexion, argumentos);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			} finally {
+				if ("close".equals(metodo.getName())) {
+					devuelta(this);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,234 @@
+package servidor;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import modelo.Alumno;
+import modelo.Grupo;
+import pool.MetricasPool;
+
+/**
+ * Codificación JSON de las peticiones y respuestas del servidor. Los cuerpos
+ * de las peticiones son siempre objetos planos (sin objetos ni arrays
+ * anidados), así que basta con un analizador mínimo que devuelve los campos
+ * como texto.
+ *
+ * @author Alberto Polo
+ */
+final class Json {
+
+	private Json() {
+	}
+
+	// ESCRITURA:
+
+	static void alumno(StringBuilder sb, Alumno alumno) {
+		sb.append("{\"nia\":").append(alumno.getNia());
+		campo(sb, "nombre", alumno.getNombre());
+		campo(sb, "apellidos", alumno.getApellidos());
+		campo(sb, "genero", alumno.getGenero() == 0 ? null : String.valueOf(alumno.getGenero()));
+		campo(sb, "fechaNacimiento", fecha(alumno.getFechaNacimiento()));
+		campo(sb, "ciclo", alumno.getCiclo());
+		campo(sb, "curso", alumno.getCurso());
+		campo(sb, "nombreGrupo", alumno.getGrupo() == null ? null : alumno.getGrupo().getNombreGrupo());
+		sb.append('}');
+	}
+
+	static void grupo(StringBuilder sb, Grupo grupo) {
+		sb.append("{\"numeroGrupo\":").append(grupo.getNumeroGrupo());
+		campo(sb, "nombreGrupo", grupo.getNombreGrupo());
+		sb.append('}');
+	}
+
+	static void percentiles(StringBuilder sb, MetricasPool.Percentiles percentiles) {
+		sb.append(String.format(Locale.ROOT, "{\"p50\":%.3f,\"p95\":%.3f,\"p99\":%.3f,\"maximo\":%.3f,\"media\":%.3f}",
+				percentiles.p50(), percentiles.p95(), percentiles.p99(), percentiles.maximo(), percentiles.media()));
+	}
+
+	/**
+	 * Añade ',"nombre":valor' al objeto abierto.
+	 */
+	static void campo(StringBuilder sb, String nombre, String valor) {
+		sb.append(',');
+		texto(sb, nombre);
+		sb.append(':');
+		if (valor == null) {
+			sb.append("null");
+		} else {
+			texto(sb, valor);
+		}
+	}
+
+	static String error(String mensaje) {
+		StringBuilder sb = new StringBuilder("{\"error\":");
+		texto(sb, mensaje == null ? "" : mensaje);
+		return sb.append('}').toString();
+	}
+
+	static void texto(StringBuilder sb, String valor) {
+		sb.append('"');
+		for (int i = 0; i < valor.length(); i++) {
+			char c = valor.charAt(i);
+			switch (c) {
+			case '"' -> sb.append("\\\"");
+			case '\\' -> sb.append("\\\\");
+			case '\n' -> sb.append("\\n");
+			case '\r' -> sb.append("\\r");
+			case '\t' -> sb.append("\\t");
+			default -> {
+				if (c < 0x20) {
+					sb.append(String.format("\\u%04x", (int) c));
+				} else {
+					sb.append(c);
+				}
+			}
+			}
+		}
+		sb.append('"');
+	}
+
+	private static String fecha(Date fecha) {
+		if (fecha == null) {
+			return null;
+		}
+		LocalDate dia = fecha instanceof java.sql.Date fechaSql ? fechaSql.toLocalDate()
+				: LocalDate.ofInstant(fecha.toInstant(), ZoneId.systemDefault());
+		return dia.toString();
+	}
+
+	// LECTURA:
+
+	/**
+	 * Lee un objeto plano. Los números, true y false se devuelven como su texto y
+	 * null como null.
+	 *
+	 * @throws IllegalArgumentException Si el texto no es un objeto JSON plano.
+	 */
+	static Map<String, String> leerObjeto(String json) {
+		Analizador analizador = new Analizador(json);
+		Map<String, String> campos = analizador.objeto();
+		analizador.saltarBlancos();
+		if (analizador.posicion < json.length()) {
+			throw analizador.error("contenido tras el objeto");
+		}
+		return campos;
+	}
+
+	private static final class Analizador {
+
+		private final String json;
+		private int posicion;
+
+		Analizador(String json) {
+			this.json = json;
+		}
+
+		Map<String, String> objeto() {
+			Map<String, String> campos = new LinkedHashMap<>();
+			esperar('{');
+			saltarBlancos();
+			if (consumir('}')) {
+				return campos;
+			}
+			do {
+				saltarBlancos();
+				String nombre = cadena();
+				saltarBlancos();
+				esperar(':');
+				saltarBlancos();
+				campos.put(nombre, valor());
+				saltarBlancos();
+			} while (consumir(','));
+			esperar('}');
+			return campos;
+		}
+
+		private String valor() {
+			if (posicion < json.length() && json.charAt(posicion) == '"') {
+				return cadena();
+			}
+			int inicio = posicion;
+			while (posicion < json.length() && ",} \t\r\n".indexOf(json.charAt(posicion)) < 0) {
+				posicion++;
+			}
+			String literal = json.substring(inicio, posicion);
+			if (literal.equals("null")) {
+				return null;
+			}
+			if (literal.equals("true") || literal.equals("false") || literal.matches("-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?")) {
+				return literal;
+			}
+			throw error("valor no válido '" + literal + "'");
+		}
+
+		private String cadena() {
+			esperar('"');
+			StringBuilder sb = new StringBuilder();
+			while (true) {
+				if (posicion >= json.length()) {
+					throw error("cadena sin terminar");
+				}
+				char c = json.charAt(posicion++);
+				if (c == '"') {
+					return sb.toString();
+				}
+				if (c != '\\') {
+					sb.append(c);
+					continue;
+				}
+				if (posicion >= json.length()) {
+					throw error("cadena sin terminar");
+				}
+				char escape = json.charAt(posicion++);
+				switch (escape) {
+				case '"', '\\', '/' -> sb.append(escape);
+				case 'b' -> sb.append('\b');
+				case 'f' -> sb.append('\f');
+				case 'n' -> sb.append('\n');
+				case 'r' -> sb.append('\r');
+				case 't' -> sb.append('\t');
+				case 'u' -> {
+					if (posicion + 4 > json.length()) {
+						throw error("escape \\u incompleto");
+					}
+					try {
+						sb.append((char) Integer.parseInt(json, posicion, posicion + 4, 16));
+					} catch (NumberFormatException e) {
+						throw error("escape \\u no válido");
+					}
+					posicion += 4;
+				}
+				default -> throw error("escape no válido '\\" + escape + "'");
+				}
+			}
+		}
+
+		void saltarBlancos() {
+			while (posicion < json.length() && Character.isWhitespace(json.charAt(posicion))) {
+				posicion++;
+			}
+		}
+
+		private boolean consumir(char c) {
+			if (posicion < json.length() && json.charAt(posicion) == c) {
+				posicion++;
+				return true;
+			}
+			return false;
+		}
+
+		private void esperar(char c) {
+			if (!consumir(c)) {
+				throw error("se esperaba '" + c + "'");
+			}
+		}
+
+		IllegalArgumentException error(String mensaje) {
+			return new IllegalArgumentException("JSON no válido en la posición " + posicion + ": " + mensaje);
+		}
+	}
+}
@@ -0,0 +1,523 @@
+package servidor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import modelo.AccesoDatosException;
+import modelo.Alumno;
+import modelo.AlumnosDatos;
+import modelo.Grupo;
+import modelo.PaginaAlumnos;
+import pool.HistogramaLatencias;
+import pool.MetricasPool;
+
+/**
+ * Servidor HTTP/JSON sobre la API de datos ({@link AlumnosDatos}), para
+ * atender a muchos clientes a la vez. Cada petición se atiende en su propio
+ * hilo virtual; como las operaciones bloquean en la base de datos, un semáforo
+ * limita las que están dentro del modelo al número de conexiones del pool (el
+ * resto espera sin ocupar hilos de plataforma, y si la espera supera el límite
+ * se responde 503).
+ *
+ * Rutas:
+ *
+ * <pre>
+ * GET    /alumnos?despues=0&amp;tamano=100   Página de alumnos por NIA
+ * POST   /alumnos                         Crea un alumno (201, {"nia": ...})
+ * DELETE /alumnos?apellidos=...[&amp;simulacion=true]   Elimina (o cuenta) por apellidos
+ * GET    /alumnos/cuenta                  Número de alumnos
+ * GET    /alumnos/{nia}
+ * DELETE /alumnos/{nia}
+ * PUT    /alumnos/{nia}/nombre            {"nombre": ...}
+ * PUT    /alumnos/{nia}/grupo             {"nombreGrupo": ...}
+ * GET    /grupos
+ * POST   /grupos                          {"nombreGrupo": ...} (201)
+ * GET    /grupos/{nombre}
+ * GET    /grupos/{nombre}/alumnos?despues=0&amp;tamano=100
+ * DELETE /grupos/{nombre}/alumnos         Elimina los alumnos del grupo
+ * GET    /metricas                        Latencia por ruta y uso del límite
+ * </pre>
+ *
+ * @author Alberto Polo
+ */
+public class ServidorAlumnos implements AutoCloseable {
+
+	private static final Logger loggerGeneral = LogManager.getRootLogger();
+	private static final Logger loggerExcepciones = LogManager.getLogger("exceptions");
+
+	private static final int TAMANO_PAGINA = 100;
+	private static final int TAMANO_PAGINA_MAXIMO = 1000;
+	private static final int TAMANO_CUERPO_MAXIMO = 64 * 1024;
+
+	private final AlumnosDatos datos;
+	private final HttpServer servidor;
+	private final ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor();
+
+	// Límite de peticiones dentro del modelo a la vez
+	private final Semaphore accesosDatos;
+	private final int concurrenciaMaxima;
+	private final long esperaMaximaMillis;
+
+	private final List<Ruta> rutas = new ArrayList<>();
+
+	// Latencia (en microsegundos) por ruta, en el orden en que se registran. No
+	// cambia tras el constructor, así que se puede leer desde cualquier hilo.
+	private final Map<String, HistogramaLatencias> latencias = new LinkedHashMap<>();
+
+	/**
+	 * Petición ya enrutada.
+	 *
+	 * @param variables  Valores de los segmentos {…} de la ruta, en orden.
+	 * @param parametros Parámetros de la query string.
+	 * @param cuerpo     Cuerpo de la petición (vacío si no tiene).
+	 */
+	private record Peticion(List<String> variables, Map<String, String> parametros, String cuerpo) {
+
+		int nia() {
+			try {
+				return Integer.parseInt(variables.get(0));
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("NIA no válido: " + variables.get(0));
+			}
+		}
+
+		int parametro(String nombre, int valorPorDefecto) {
+			String valor = parametros.get(nombre);
+			try {
+				return valor == null ? valorPorDefecto : Integer.parseInt(valor);
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Parámetro '" + nombre + "' no válido: " + valor);
+			}
+		}
+
+		Map<String, String> json() {
+			if (cuerpo.isBlank()) {
+				throw new IllegalArgumentException("La petición no tiene cuerpo JSON.");
+			}
+			return Json.leerObjeto(cuerpo);
+		}
+	}
+
+	private record Respuesta(int estado, String json) {
+
+		static Respuesta ok(String json) {
+			return new Respuesta(200, json);
+		}
+
+		static Respuesta noEncontrado(String mensaje) {
+			return new Respuesta(404, Json.error(mensaje));
+		}
+	}
+
+	@FunctionalInterface
+	private interface Accion {
+
+		Respuesta ejecutar(Peticion peticion);
+	}
+
+	/**
+	 * @param usaDatos Si la acción llama al modelo (y por tanto cuenta para el
+	 *                 límite de concurrencia).
+	 */
+	private record Ruta(String metodo, String[] segmentos, String clave, boolean usaDatos, Accion accion) {
+
+		/**
+		 * @return Los valores de las variables si la ruta encaja, o null.
+		 */
+		List<String> encajar(String[] partes) {
+			if (partes.length != segmentos.length) {
+				return null;
+			}
+			List<String> variables = new ArrayList<>(1);
+			for (int i = 0; i < partes.length; i++) {
+				if (segmentos[i].startsWith("{")) {
+					variables.add(partes[i]);
+				} else if (!segmentos[i].equals(partes[i])) {
+					return null;
+				}
+			}
+			return variables;
+		}
+	}
+
+	/**
+	 * Crea el servidor (sin arrancarlo).
+	 *
+	 * @param datos              Modelo al que se delegan las peticiones. Debe
+	 *                           admitir llamadas desde varios hilos.
+	 * @param direccion          Dirección y puerto de escucha (puerto 0: uno
+	 *                           libre).
+	 * @param concurrenciaMaxima Peticiones que pueden estar a la vez dentro del
+	 *                           modelo: el tamaño del pool de conexiones.
+	 * @param esperaMaximaMillis Espera máxima por un hueco antes de responder 503.
+	 */
+	public ServidorAlumnos(AlumnosDatos datos, InetSocketAddress direccion, int concurrenciaMaxima,
+			long esperaMaximaMillis) throws IOException {
+		if (concurrenciaMaxima < 1) {
+			throw new IllegalArgumentException("La concurrencia máxima debe ser al menos 1: " + concurrenciaMaxima);
+		}
+		this.datos = datos;
+		this.concurrenciaMaxima = concurrenciaMaxima;
+		this.accesosDatos = new Semaphore(concurrenciaMaxima, true);
+		this.esperaMaximaMillis = esperaMaximaMillis;
+
+		registrarRutas();
+
+		servidor = HttpServer.create(direccion, 0);
+		servidor.createContext("/", this::atender);
+		servidor.setExecutor(hilos);
+	}
+
+	public void iniciar() {
+		servidor.start();
+		loggerGeneral.info("Servidor de alumnos escuchando en {} (máximo {} peticiones a la vez en el modelo).",
+				servidor.getAddress(), concurrenciaMaxima);
+	}
+
+	public int getPuerto() {
+		return servidor.getAddress().getPort();
+	}
+
+	/**
+	 * @return Percentiles de latencia (en milisegundos) de cada ruta con alguna
+	 *         petición atendida.
+	 */
+	public Map<String, MetricasPool.Percentiles> getLatencias() {
+		Map<String, MetricasPool.Percentiles> resumen = new LinkedHashMap<>();
+		latencias.forEach((clave, histograma) -> {
+			if (histograma.cuenta() > 0) {
+				resumen.put(clave, histograma.percentiles(0.001));
+			}
+		});
+		return resumen;
+	}
+
+	/**
+	 * Deja de aceptar conexiones, espera a que terminen las peticiones en curso
+	 * (hasta 5 segundos) y escribe en el log la latencia de cada ruta.
+	 */
+	@Override
+	public void close() {
+		servidor.stop(1);
+		hilos.shutdown();
+		try {
+			if (!hilos.awaitTermination(5, TimeUnit.SECONDS)) {
+				hilos.shutdownNow();
+			}
+		} catch (InterruptedException e) {
+			hilos.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+		latencias.forEach((clave, histograma) -> {
+			if (histograma.cuenta() > 0) {
+				loggerGeneral.info("{}: {} peticiones, latencia {}", clave, histograma.cuenta(),
+						histograma.percentiles(0.001));
+			}
+		});
+		loggerGeneral.info("Servidor de alumnos detenido.");
+	}
+
+	// RUTAS:
+
+	private void registrarRutas() {
+		ruta("GET", "/alumnos", p -> pagina(datos.obtenerPaginaAlumnos(p.parametro("despues", PaginaAlumnos.INICIO),
+				tamanoPagina(p))));
+		ruta("POST", "/alumnos", this::crearAlumno);
+		ruta("DELETE", "/alumnos", p -> {
+			String apellidos = obligatorio(p.parametros(), "apellidos");
+			boolean simulacion = Boolean.parseBoolean(p.parametros().get("simulacion"));
+			return Respuesta.ok("{\"" + (simulacion ? "afectados" : "eliminados") + "\":"
+					+ datos.eliminarAlumnosPorApellidos(apellidos, simulacion) + "}");
+		});
+		ruta("GET", "/alumnos/cuenta", p -> Respuesta.ok("{\"alumnos\":" + datos.contarAlumnos() + "}"));
+		ruta("GET", "/alumnos/{nia}", p -> datos.buscarAlumno(p.nia()).map(alumno -> {
+			StringBuilder sb = new StringBuilder();
+			Json.alumno(sb, alumno);
+			return Respuesta.ok(sb.toString());
+		}).orElseGet(() -> Respuesta.noEncontrado("No existe el alumno con NIA " + p.nia())));
+		ruta("DELETE", "/alumnos/{nia}", p -> datos.eliminarAlumnoPorNIA(p.nia()) ? new Respuesta(204, null)
+				: Respuesta.noEncontrado("No existe el alumno con NIA " + p.nia()));
+		ruta("PUT", "/alumnos/{nia}/nombre", p -> {
+			String nombre = obligatorio(p.json(), "nombre");
+			return datos.modificarNombreAlumnoPorNIA(p.nia(), nombre) ? new Respuesta(204, null)
+					: Respuesta.noEncontrado("No existe el alumno con NIA " + p.nia());
+		});
+		ruta("PUT", "/alumnos/{nia}/grupo", p -> {
+			String nombreGrupo = obligatorio(p.json(), "nombreGrupo");
+			return datos.moverAlumnoAGrupo(p.nia(), nombreGrupo) ? new Respuesta(204, null)
+					: Respuesta.noEncontrado("No existe el alumno " + p.nia() + " o el grupo '" + nombreGrupo + "'");
+		});
+
+		ruta("GET", "/grupos", p -> {
+			StringBuilder sb = new StringBuilder("[");
+			for (Grupo grupo : datos.listarGrupos()) {
+				if (sb.length() > 1) {
+					sb.append(',');
+				}
+				Json.grupo(sb, grupo);
+			}
+			return Respuesta.ok(sb.append(']').toString());
+		});
+		ruta("POST", "/grupos", p -> {
+			StringBuilder sb = new StringBuilder();
+			Json.grupo(sb, datos.crearGrupo(obligatorio(p.json(), "nombreGrupo")));
+			return new Respuesta(201, sb.toString());
+		});
+		ruta("GET", "/grupos/{nombre}", p -> {
+			Optional<Grupo> grupo = datos.buscarGrupo(p.variables().get(0));
+			if (grupo.isEmpty()) {
+				return Respuesta.noEncontrado("No existe el grupo '" + p.variables().get(0) + "'");
+			}
+			StringBuilder sb = new StringBuilder();
+			Json.grupo(sb, grupo.get());
+			return Respuesta.ok(sb.toString());
+		});
+		ruta("GET", "/grupos/{nombre}/alumnos", p -> {
+			PaginaAlumnos pagina = datos.obtenerPaginaAlumnosPorGrupo(p.variables().get(0),
+					p.parametro("despues", PaginaAlumnos.INICIO), tamanoPagina(p));
+			return pagina == null ? Respuesta.noEncontrado("No existe el grupo '" + p.variables().get(0) + "'")
+					: pagina(pagina);
+		});
+		ruta("DELETE", "/grupos/{nombre}/alumnos",
+				p -> Respuesta.ok("{\"eliminados\":" + datos.eliminarAlumnosDeGrupo(p.variables().get(0)) + "}"));
+
+		ruta("GET", "/metricas", false, p -> metricas());
+	}
+
+	private void ruta(String metodo, String patron, Accion accion) {
+		ruta(metodo, patron, true, accion);
+	}
+
+	private void ruta(String metodo, String patron, boolean usaDatos, Accion accion) {
+		String clave = metodo + " " + patron;
+		rutas.add(new Ruta(metodo, segmentos(patron), clave, usaDatos, accion));
+		latencias.put(clave, new HistogramaLatencias());
+	}
+
+	private static String[] segmentos(String ruta) {
+		return ruta.substring(1).split("/");
+	}
+
+	// ATENCIÓN DE PETICIONES:
+
+	private void atender(HttpExchange intercambio) throws IOException {
+		long inicio = System.nanoTime();
+		try (intercambio) {
+			String[] partes = segmentos(quitarBarraFinal(intercambio.getRequestURI().getPath()));
+			String metodo = intercambio.getRequestMethod();
+
+			Ruta ruta = null;
+			List<String> variables = null;
+			boolean otroMetodo = false;
+			for (Ruta candidata : rutas) {
+				List<String> encaje = candidata.encajar(partes);
+				if (encaje == null) {
+					continue;
+				}
+				if (candidata.metodo().equals(metodo)) {
+					ruta = candidata;
+					variables = encaje;
+					break;
+				}
+				otroMetodo = true;
+			}
+
+			if (ruta == null) {
+				responder(intercambio, otroMetodo ? new Respuesta(405, Json.error("Método no permitido: " + metodo))
+						: Respuesta.noEncontrado("Ruta desconocida: " + intercambio.getRequestURI().getPath()));
+				return;
+			}
+
+			Respuesta respuesta;
+			try {
+				Peticion peticion = new Peticion(variables, parametros(intercambio.getRequestURI().getRawQuery()),
+						leerCuerpo(intercambio.getRequestBody()));
+				respuesta = ruta.usaDatos() ? ejecutarLimitado(ruta.accion(), peticion)
+						: ruta.accion().ejecutar(peticion);
+			} catch (CuerpoDemasiadoGrande e) {
+				respuesta = new Respuesta(413, Json.error(e.getMessage()));
+			} catch (IllegalArgumentException e) {
+				respuesta = new Respuesta(400, Json.error(e.getMessage()));
+			} catch (AccesoDatosException e) {
+				loggerExcepciones.error("{}: error de acceso a datos: {}", ruta.clave(), e.getMessage(), e);
+				respuesta = new Respuesta(500, Json.error(e.getMessage()));
+			} catch (RuntimeException e) {
+				loggerExcepciones.error("{}: error inesperado: {}", ruta.clave(), e.getMessage(), e);
+				respuesta = new Respuesta(500, Json.error("Error interno del servidor."));
+			}
+
+			responder(intercambio, respuesta);
+			latencias.get(ruta.clave()).registrar((System.nanoTime() - inicio) / 1000);
+		}
+	}
+
+	/**
+	 * Ejecuta la acción cuando hay un hueco en el límite de concurrencia.
+	 */
+	private Respuesta ejecutarLimitado(Accion accion, Peticion peticion) {
+		try {
+			if (!accesosDatos.tryAcquire(esperaMaximaMillis, TimeUnit.MILLISECONDS)) {
+				return new Respuesta(503, Json.error("Servidor ocupado: inténtelo de nuevo más tarde."));
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return new Respuesta(503, Json.error("Petición interrumpida."));
+		}
+		try {
+			return accion.ejecutar(peticion);
+		} finally {
+			accesosDatos.release();
+		}
+	}
+
+	private static void responder(HttpExchange intercambio, Respuesta respuesta) throws IOException {
+		if (respuesta.estado() == 503) {
+			intercambio.getResponseHeaders().set("Retry-After", "1");
+		}
+		if (respuesta.json() == null) {
+			intercambio.sendResponseHeaders(respuesta.estado(), -1);
+			return;
+		}
+		byte[] cuerpo = respuesta.json().getBytes(StandardCharsets.UTF_8);
+		intercambio.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+		intercambio.sendResponseHeaders(respuesta.estado(), cuerpo.length);
+		try (OutputStream salida = intercambio.getResponseBody()) {
+			salida.write(cuerpo);
+		}
+	}
+
+	// ACCIONES:
+
+	private Respuesta crearAlumno(Peticion peticion) {
+		Map<String, String> campos = peticion.json();
+		String genero = obligatorio(campos, "genero");
+		if (genero.length() != 1) {
+			throw new IllegalArgumentException("El género debe ser un solo carácter: " + genero);
+		}
+		String fecha = obligatorio(campos, "fechaNacimiento");
+		LocalDate fechaNacimiento;
+		try {
+			fechaNacimiento = LocalDate.parse(fecha);
+		} catch (DateTimeParseException e) {
+			throw new IllegalArgumentException("Fecha de nacimiento no válida (yyyy-MM-dd): " + fecha);
+		}
+		Alumno alumno = new Alumno(obligatorio(campos, "nombre"), obligatorio(campos, "apellidos"), genero.charAt(0),
+				java.sql.Date.valueOf(fechaNacimiento), campos.get("ciclo"), campos.get("curso"),
+				new Grupo(obligatorio(campos, "nombreGrupo")));
+		return new Respuesta(201, "{\"nia\":" + datos.crearAlumno(alumno) + "}");
+	}
+
+	private Respuesta metricas() {
+		StringBuilder sb = new StringBuilder("{\"concurrenciaMaxima\":").append(concurrenciaMaxima);
+		sb.append(",\"enUso\":").append(concurrenciaMaxima - accesosDatos.availablePermits());
+		sb.append(",\"esperando\":").append(accesosDatos.getQueueLength());
+		sb.append(",\"latenciasMs\":[");
+		boolean primera = true;
+		for (Map.Entry<String, HistogramaLatencias> entrada : latencias.entrySet()) {
+			HistogramaLatencias histograma = entrada.getValue();
+			if (histograma.cuenta() == 0) {
+				continue;
+			}
+			if (!primera) {
+				sb.append(',');
+			}
+			primera = false;
+			sb.append("{\"ruta\":");
+			Json.texto(sb, entrada.getKey());
+			sb.append(",\"peticiones\":").append(histograma.cuenta()).append(",\"percentiles\":");
+			Json.percentiles(sb, histograma.percentiles(0.001));
+			sb.append('}');
+		}
+		return Respuesta.ok(sb.append("]}").toString());
+	}
+
+	private static Respuesta pagina(PaginaAlumnos pagina) {
+		StringBuilder sb = new StringBuilder("{\"alumnos\":[");
+		for (int i = 0; i < pagina.alumnos().size(); i++) {
+			if (i > 0) {
+				sb.append(',');
+			}
+			Json.alumno(sb, pagina.alumnos().get(i));
+		}
+		sb.append("],\"continuacion\":").append(pagina.continuacion()).append('}');
+		return Respuesta.ok(sb.toString());
+	}
+
+	// UTILIDADES:
+
+	private static int tamanoPagina(Peticion peticion) {
+		int tamano = peticion.parametro("tamano", TAMANO_PAGINA);
+		if (tamano < 1 || tamano > TAMANO_PAGINA_MAXIMO) {
+			throw new IllegalArgumentException(
+					"El tamaño de página debe estar entre 1 y " + TAMANO_PAGINA_MAXIMO + ": " + tamano);
+		}
+		return tamano;
+	}
+
+	private static String obligatorio(Map<String, String> campos, String nombre) {
+		String valor = campos.get(nombre);
+		if (valor == null || valor.isBlank()) {
+			throw new IllegalArgumentException("Falta el campo '" + nombre + "'.");
+		}
+		return valor;
+	}
+
+	private static String quitarBarraFinal(String ruta) {
+		return ruta.length() > 1 && ruta.endsWith("/") ? ruta.substring(0, ruta.length() - 1) : ruta;
+	}
+
+	private static Map<String, String> parametros(String query) {
+		if (query == null || query.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		Map<String, String> parametros = new HashMap<>();
+		for (String par : query.split("&")) {
+			int igual = par.indexOf('=');
+			String nombre = igual < 0 ? par : par.substring(0, igual);
+			String valor = igual < 0 ? "" : par.substring(igual + 1);
+			parametros.put(URLDecoder.decode(nombre, StandardCharsets.UTF_8),
+					URLDecoder.decode(valor, StandardCharsets.UTF_8));
+		}
+		return parametros;
+	}
+
+	private static String leerCuerpo(InputStream entrada) throws IOException {
+		byte[] bytes = entrada.readNBytes(TAMANO_CUERPO_MAXIMO + 1);
+		if (bytes.length > TAMANO_CUERPO_MAXIMO) {
+			throw new CuerpoDemasiadoGrande();
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static final class CuerpoDemasiadoGrande extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		CuerpoDemasiadoGrande() {
+			super("El cuerpo de la petición supera los " + TAMANO_CUERPO_MAXIMO + " bytes.");
+		}
+	}
+}
@@ -1,371 +1,856 @@
-package vista;
-
-import java.io.File;
-import java.util.InputMismatchException;
-import java.util.Scanner;
-
-import modelo.Alumno;
-import modelo.AlumnosDAO;
-import modelo.Grupo;
-
-public class VistaConsola implements IVista {
-
-	private final Scanner sc = new Scanner(System.in); // Scanner para la entrada de datos
-
-	public void mostrarMenu(AlumnosDAO modelo) {
-		int opcion;
-		do {
-			imprimirMenu();
-			System.out.print("Selecciona una opción: ");
-			try {
-				opcion = sc.nextInt();
-				sc.nextLine(); // Limpiar buffer
-				gestionarOpcion(opcion, modelo);
-			} catch (InputMismatchException e) {
-				System.out.println("Entrada no válida. Por favor, introduce un número.");
-				sc.nextLine(); // Limpiar buffer en caso de error
-				opcion = -1; // Reiniciar opción para evitar salir del bucle
-			}
-		} while (opcion != 0);
-	}
-
-	private void imprimirMenu() {
-
-		String textoMenu = """
-				---- Menú Principal -------------------------------------------
-				1. Insertar nuevo alumno.
-				2. Insertar nuevo grupo.
-				3. Mostrar todos los alumnos.
-				4. Guardar todos los alumnos en un fichero de texto.
-				5. Leer alumnos de un fichero de texto y guardarlos en la BD.
-				6. Modificar el nombre de un alumno por su NIA.
-				7. Eliminar un alumno a partir de su NIA.
-				8. Eliminar los alumnos del grupo indicado.
-				9. Guardar grupos y alumnos en un archivo XML.
-				10. Leer un archivo XML de grupos y guardar los datos en la BD.
-				11. Mostrar todos los alumnos del grupo elegido.
-				12. Mostrar todos los datos de un alumno por su NIA.
-				13. Cambiar de grupo al alumno que elija el usuario.
-				14. Guardar el grupo que elija el usuario en un fichero XML.
-				0. Salir.
-				---------------------------------------------------------------
-				""";
-
-		System.out.println(textoMenu);
-	}
-
-	/**
-	 * Gestiona la opción seleccionada por el usuario y llama al método
-	 * correspondiente.
-	 * 
-	 * @param opcion Opción seleccionada por el usuario.
-	 * @param modelo Modelo de datos de alumnos y grupos.
-	 */
-	private void gestionarOpcion(int opcion, AlumnosDAO modelo) {
-		switch (opcion) {
-
-		case 1 -> insertarNuevoAlumno(modelo);
-		case 2 -> insertarNuevoGrupo(modelo);
-		case 3 -> mostrarTodosLosAlumnos(modelo, true); // Mostrará toda la información de todos los alumnos
-		case 4 -> guardarAlumnosEnFicheroTexto(modelo);
-		case 5 -> leerAlumnosDesdeFichero(modelo);
-		case 6 -> modificarNombreAlumnoPorNia(modelo);
-		case 7 -> eliminarAlumnoPorNIA(modelo);
-		case 8 -> eliminarAlumnosPorGrupo(modelo);
-		case 9 -> guardarGruposEnXML(modelo);
-		case 10 -> leerYGuardarGruposXML(modelo);
-		case 11 -> mostrarAlumnosPorGrupo(modelo);
-		case 12 -> mostrarTodosLosAlumnos(modelo, false); // Muestra, 1º, el nia y el nombre de todos los alumnos
-		case 13 -> cambiarGrupoAlumno(modelo);
-		case 14 -> guardarGrupoEspecificoEnXML(modelo);
-		case 0 -> System.out.println("Finalizando del programa...");
-		default -> System.out.println("Opción no válida. Intenténtelo de nuevo.");
-		}
-	}
-
-	/**
-	 * Inserta un nuevo alumno solicitando los datos al usuario y almacenándolos en
-	 * la base de datos.
-	 * 
-	 * @param modelo el objeto DAO para gestionar las operaciones de alumnos.
-	 */
-
-	public void insertarNuevoAlumno(AlumnosDAO modelo) {
-		try {
-			Alumno alumno = modelo.solicitarDatosAlumno();
-			if (alumno == null) {
-				System.out.println("❌ Error: El objeto Alumno es null.");
-				return;
-			}
-			if (modelo.insertarAlumno(alumno)) {
-				System.out.println("✅ Alumno insertado correctamente.");
-			} else {
-				System.out.println("❌ Error al insertar el alumno.");
-			}
-		} catch (Exception e) {
-			System.out.println("❌ Ocurrió un error al insertar el alumno: " + e.getMessage());
-			e.printStackTrace();
-		}
-	}
-
-	/**
-	 * Inserta un nuevo grupo solicitando los datos al usuario y almacenándolos en
-	 * la base de datos.
-	 *
-	 * @param modelo el DAO que permite interactuar con la base de datos.
-	 */
-
-	public void insertarNuevoGrupo(AlumnosDAO modelo) {
-		String nombreGrupo;
-
-		// Solicitar al usuario el nombre del nuevo grupo con validación
-		while (true) {
-			System.out.println("Introduce el nombre del nuevo grupo (una letra):");
-			nombreGrupo = sc.nextLine().toUpperCase().trim();
-
-			// Validamos que el nombre sea solo una letra
-			if (nombreGrupo.length() == 1 && nombreGrupo.matches("[A-Za-z]")) {
-				break; // Salimos del bucle si la validación es exitosa
-			} else {
-				System.out.println("El nombre del grupo debe ser una sola letra.");
-			}
-		}
-
-		// Crear objeto Grupo
-		Grupo grupo = new Grupo(nombreGrupo);
-
-		// Llamamos al método del DAO para insertar el grupo
-		if (modelo.insertarGrupo(grupo)) {
-			System.out.println("Grupo insertado correctamente.");
-		} else {
-			System.out.println("Error al insertar el grupo.");
-		}
-	}
-
-	/**
-	 * Muestra todos los alumnos en la BD
-	 * 
-	 * @param modelo                    el DAO que permite interactuar con la base
-	 *                                  de datos.
-	 * @param mostrarTodaLaInformación.
-	 */
-
-	public void mostrarTodosLosAlumnos(AlumnosDAO modelo, boolean mostrarTodaLaInformación) {
-		try {
-			if (modelo.mostrarTodosLosAlumnos(mostrarTodaLaInformación)) {
-				System.out.println("✅ Los alumnos se han mostrado correctamente.");
-			} else {
-				System.out.println("❌ No se pudieron mostrar los alumnos.");
-			}
-		} catch (Exception e) {
-			System.out.println("❌ Ocurrió un error al mostrar los alumnos: " + e.getMessage());
-		}
-	}
-
-	/**
-	 * Permite guardar todos los alumnos en un archivo de texto. Recupera la
-	 * información de los alumnos de la base de datos y la guarda en un archivo
-	 * llamado "alumnos.txt". La información incluye: nombre, apellidos, género,
-	 * fecha de nacimiento, ciclo, curso y nombre del grupo.
-	 */
-
-	public void guardarAlumnosEnFicheroTexto(AlumnosDAO modelo) {
-		try {
-			modelo.guardarAlumnosEnFicheroTexto();
-			System.out.println("✅ Alumnos guardados correctamente en el archivo de texto.");
-		} catch (Exception e) {
-			System.out.println("❌ Ocurrió un error al guardar los alumnos en el archivo de texto: " + e.getMessage());
-		}
-	}
-
-	/**
-	 * Permite leer alumnos desde el fichero fijo "alumnos.txt" y guardarlos en la
-	 * base de datos.
-	 */
-	public void leerAlumnosDesdeFichero(AlumnosDAO modelo) {
-		try {
-			if (modelo.leerAlumnosDeFicheroTexto()) {
-				System.out.println("✅ Alumnos leídos e insertados correctamente desde el fichero 'alumnos.txt'.");
-			} else {
-				System.out.println("❌ Ocurrió un error al procesar el fichero.");
-			}
-		} catch (Exception e) {
-			System.out.println("❌ Error al leer los alumnos desde el fichero: " + e.getMessage());
-		}
-	}
-
-	/**
-	 * Permite eliminar un alumno de la base de datos a partir de su NIA (PK).
-	 */
-	public void eliminarAlumnoPorNIA(AlumnosDAO modelo) {
-		try {
-			// Solicitar NIA al usuario
-			System.out.println("Introduce el NIA del alumno a eliminar:");
-			int nia = sc.nextInt();
-			sc.nextLine(); // Limpiar buffer
-
-			// Llamar directamente al DAO sin abrir la conexión
-			if (modelo.eliminarAlumnoPorNIA(nia)) {
-				System.out.println("✅ Alumno eliminado correctamente.");
-			} else {
-				System.out.println("❌ No se encontró un alumno con el NIA proporcionado.");
-			}
-		} catch (Exception e) {
-			System.out.println("❌ Ocurrió un error al intentar eliminar el alumno: " + e.getMessage());
-		}
-	}
-
-	/**
-	 * Permite modificar el nombre de un alumno solicitando su NIA y el nuevo
-	 * nombre.
-	 */
-	public void modificarNombreAlumnoPorNia(AlumnosDAO modelo) {
-		try {
-			// Solicitar al usuario el NIA del alumno
-			System.out.print("Introduce el NIA del alumno cuyo nombre quieres modificar: ");
-			int nia = sc.nextInt();
-			sc.nextLine(); // Limpiar buffer
-
-			// Solicitar el nuevo nombre del alumno
-			System.out.print("Introduce el nuevo nombre para el alumno: ");
-			String nuevoNombre = sc.nextLine().trim().toUpperCase();
-
-			// Validar que el nombre no esté vacío
-			if (nuevoNombre.isEmpty()) {
-				System.out.println("❌ El nombre no puede estar vacío.");
-				return;
-			}
-
-			// Llamar directamente al modelo sin gestionar la conexión aquí
-			if (modelo.modificarNombreAlumnoPorNIA(nia, nuevoNombre)) {
-				System.out.println("✅ Nombre del alumno modificado correctamente.");
-			} else {
-				System.out.println("⚠ No se pudo modificar el nombre del alumno. Verifica el NIA.");
-			}
-		} catch (Exception e) {
-			System.out.println("❌ Ocurrió un error al modificar el nombre del alumno: " + e.getMessage());
-		}
-	}
-
-	/**
-	 * Elimina los alumnos del grupo indicado por el usuario. Muestra previamente
-	 * los grupos existentes y permite al usuario seleccionar uno. Luego elimina a
-	 * todos los alumnos que pertenezcan al grupo seleccionado.
-	 */
-	public void eliminarAlumnosPorGrupo(AlumnosDAO modelo) {
-		try {
-			// Mostramos los grupos disponibles
-			System.out.println("Grupos disponibles:");
-			if (!modelo.mostrarTodosLosGrupos()) { // ✅ Usa el modelo en lugar de `AlumnosBD`
-				System.out.println("No hay grupos registrados.");
-				return;
-			}
-
-			// Pedimos al usuario el nombre del grupo a eliminar
-			System.out.println("Introduce el nombre del grupo cuyos alumnos deseas eliminar:");
-			String nombreGrupo = sc.nextLine().toUpperCase().trim();
-
-			// Confirmamos la operación con el usuario
-			System.out.println(
-					"¿Estás seguro de que deseas eliminar todos los alumnos del grupo " + nombreGrupo + "? (S/N)");
-			String confirmacion = sc.nextLine().toUpperCase().trim();
-
-			if (!confirmacion.equals("S")) {
-				System.out.println("Operación cancelada por el usuario.");
-				return;
-			}
-
-			// Llamamos al método del modelo para eliminar los alumnos
-			if (modelo.eliminarAlumnosPorGrupo(nombreGrupo)) {
-				System.out.println("✅ Alumnos del grupo " + nombreGrupo + " eliminados correctamente.");
-			} else {
-				System.out.println("❌ No se pudieron eliminar los alumnos. Verifica el nombre del grupo.");
-			}
-		} catch (Exception e) {
-			System.out.println("❌ Ocurrió un error al eliminar alumnos por grupo: " + e.getMessage());
-		}
-	}
-
-	/**
-	 * Método que se encarga de guardar los grupos y sus alumnos en un archivo XML.
-	 */
-	public void guardarGruposEnXML(AlumnosDAO modelo) {
-		try {
-			if (modelo.guardarGruposEnXML()) {
-				System.out.println("✅ Archivo XML guardado correctamente.");
-			} else {
-				System.out.println("❌ Error al guardar el archivo XML.");
-			}
-		} catch (Exception e) {
-			System.out.println("❌ Ocurrió un error al guardar los grupos en XML: " + e.getMessage());
-		}
-	}
-
-	/**
-	 * Lee el archivo XML de grupos (grupos.xml) y guarda los datos en la base de
-	 * datos MySQL. Si ocurre un error durante el proceso, se captura la excepción y
-	 * se muestra un mensaje de error.
-	 */
-	public void leerYGuardarGruposXML(AlumnosDAO modelo) {
-		// Ruta fija del archivo XML de grupos
-		String rutaArchivo = "grupos.xml";
-
-		// Verificamos si el archivo existe
-		File archivoXML = new File(rutaArchivo);
-		if (!archivoXML.exists()) {
-			System.out.println("❌ El archivo XML no existe en la ruta especificada: " + rutaArchivo);
-			return; // Salimos del método si el archivo no existe
-		}
-
-		// Llamamos directamente al método del modelo sin manejar conexiones
-		if (modelo.leerYGuardarGruposXML(rutaArchivo)) {
-			System.out.println("✅ Archivo XML leído correctamente y datos guardados en la base de datos.");
-		} else {
-			System.out.println("❌ Error al procesar el archivo XML.");
-		}
-	}
-
-	/**
-	 * Muestra los alumnos del grupo seleccionado por el usuario.
-	 *
-	 * @param modelo Objeto que implementa la interfaz AlumnosDAO para realizar
-	 *               operaciones con la base de datos.
-	 */
-	public void mostrarAlumnosPorGrupo(AlumnosDAO modelo) {
-		modelo.mostrarAlumnosPorGrupo();
-	}
-
-	/**
-	 * Cambia de grupo al alumno seleccionado por el usuario.
-	 * 
-	 * @param modelo Objeto DAO para la gestión de alumnos y grupos.
-	 */
-	public void cambiarGrupoAlumno(AlumnosDAO modelo) {
-		try {
-			modelo.cambiarGrupoAlumno(); // ✅ Solo ejecuta la acción sin mostrar mensajes adicionales.
-		} catch (Exception e) {
-			System.out.println("❌ Se produjo un error al intentar cambiar al alumno de grupo. Revisa los logs.");
-		}
-	}
-
-	/**
-	 * Guarda un grupo específico con toda su información (incluyendo los alumnos)
-	 * en un archivo XML.
-	 * 
-	 * @param modelo Objeto DAO para la gestión de alumnos y grupos.
-	 */
-
-	public void guardarGrupoEspecificoEnXML(AlumnosDAO modelo) {
-		try {
-			if (modelo.guardarGrupoEspecificoEnXML()) {
-				System.out.println("✅ El grupo se ha guardado correctamente en un archivo XML.");
-			} else {
-				System.out.println("❌ No se pudo guardar el grupo en XML.");
-			}
-		} catch (Exception e) {
-			System.out.println("❌ Se produjo un error al guardar el grupo en XML. Revisa los logs.");
-			e.printStackTrace();
-		}
-	}
-
+package vista;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.InputMismatchException;
+import java.util.List;
+import java.util.Optional;
+import java.util.Scanner;
+import java.util.function.IntFunction;
+
+import modelo.AccesoDatosException;
+import modelo.Alumno;
+import modelo.AlumnosDAO;
+import modelo.Compresion;
+import modelo.FormatoJSON;
+import modelo.Grupo;
+import modelo.OpcionesImportacion;
+import modelo.PaginaAlumnos;
+import modelo.ResultadoImportacion;
+
+/**
+ * Vista de consola: pide los datos al usuario, llama a la API de datos del
+ * modelo ({@link modelo.AlumnosDatos}) y muestra los resultados.
+ */
+
+public class VistaConsola implements IVista {
+
+	private final Scanner sc = new Scanner(System.in); // Scanner para la entrada de datos
+
+	// Alumnos por página en los listados (opciones 3, 11 y 12)
+	private final int tamanoPagina;
+
+	private final SimpleDateFormat formatoFecha = new SimpleDateFormat("dd-MM-yyyy");
+
+	/**
+	 * @throws IllegalArgumentException si la propiedad 'alumnos.tamanoPagina' no
+	 *                                  es un número positivo.
+	 */
+	public VistaConsola() {
+		tamanoPagina = PaginaAlumnos.comprobarTamano(Integer.getInteger("alumnos.tamanoPagina", 20));
+	}
+
+	public void mostrarMenu(AlumnosDAO modelo) {
+		int opcion;
+		do {
+			imprimirMenu();
+			System.out.print("Selecciona una opción: ");
+			try {
+				opcion = sc.nextInt();
+				sc.nextLine(); // Limpiar buffer
+				gestionarOpcion(opcion, modelo);
+			} catch (InputMismatchException e) {
+				System.out.println("Entrada no válida. Por favor, introduce un número.");
+				sc.nextLine(); // Limpiar buffer en caso de error
+				opcion = -1; // Reiniciar opción para evitar salir del bucle
+			}
+		} while (opcion != 0);
+	}
+
+	private void imprimirMenu() {
+
+		String textoMenu = """
+				---- Menú Principal -------------------------------------------
+				1. Insertar nuevo alumno.
+				2. Insertar nuevo grupo.
+				3. Mostrar todos los alumnos.
+				4. Guardar todos los alumnos en un fichero de texto.
+				5. Leer alumnos de un fichero de texto y guardarlos en la BD.
+				6. Modificar el nombre de un alumno por su NIA.
+				7. Eliminar un alumno a partir de su NIA.
+				8. Eliminar los alumnos del grupo indicado.
+				9. Guardar grupos y alumnos en un archivo XML.
+				10. Leer un archivo XML de grupos y guardar los datos en la BD.
+				11. Mostrar todos los alumnos del grupo elegido.
+				12. Mostrar todos los datos de un alumno por su NIA.
+				13. Cambiar de grupo al alumno que elija el usuario.
+				14. Guardar el grupo que elija el usuario en un fichero XML.
+				15. Guardar todos los alumnos en un fichero JSON.
+				16. Leer alumnos de un fichero JSON y guardarlos en la BD.
+				17. Guardar grupos y alumnos en un fichero JSON.
+				18. Leer un fichero JSON de grupos y guardar los datos en la BD.
+				19. Eliminar los alumnos con los apellidos indicados.
+				20. Guardar grupos y alumnos en una instantánea binaria.
+				21. Leer una instantánea binaria y guardar los datos en la BD.
+				0. Salir.
+				---------------------------------------------------------------
+				""";
+
+		System.out.println(textoMenu);
+	}
+
+	/**
+	 * Gestiona la opción seleccionada por el usuario y llama al método
+	 * correspondiente.
+	 * 
+	 * @param opcion Opción seleccionada por el usuario.
+	 * @param modelo Modelo de datos de alumnos y grupos.
+	 */
+	private void gestionarOpcion(int opcion, AlumnosDAO modelo) {
+		switch (opcion) {
+
+		case 1 -> insertarNuevoAlumno(modelo);
+		case 2 -> insertarNuevoGrupo(modelo);
+		case 3 -> mostrarTodosLosAlumnos(modelo, true); // Mostrará toda la información de todos los alumnos
+		case 4 -> guardarAlumnosEnFicheroTexto(modelo);
+		case 5 -> leerAlumnosDesdeFichero(modelo);
+		case 6 -> modificarNombreAlumnoPorNia(modelo);
+		case 7 -> eliminarAlumnoPorNIA(modelo);
+		case 8 -> eliminarAlumnosPorGrupo(modelo);
+		case 9 -> guardarGruposEnXML(modelo);
+		case 10 -> leerYGuardarGruposXML(modelo);
+		case 11 -> mostrarAlumnosPorGrupo(modelo);
+		case 12 -> mostrarTodosLosAlumnos(modelo, false); // Muestra, 1º, el nia y el nombre de todos los alumnos
+		case 13 -> cambiarGrupoAlumno(modelo);
+		case 14 -> guardarGrupoEspecificoEnXML(modelo);
+		case 15 -> guardarAlumnosEnFicheroJSON(modelo);
+		case 16 -> leerAlumnosDeFicheroJSON(modelo);
+		case 17 -> guardarGruposEnFicheroJSON(modelo);
+		case 18 -> leerGruposDeFicheroJSON(modelo);
+		case 19 -> eliminarAlumnosPorApellidos(modelo);
+		case 20 -> guardarInstantanea(modelo);
+		case 21 -> leerInstantanea(modelo);
+		case 0 -> System.out.println("Finalizando del programa...");
+		default -> System.out.println("Opción no válida. Intenténtelo de nuevo.");
+		}
+	}
+
+	/**
+	 * Inserta un nuevo alumno solicitando los datos al usuario y almacenándolos en
+	 * la base de datos.
+	 * 
+	 * @param modelo el objeto DAO para gestionar las operaciones de alumnos.
+	 */
+
+	public void insertarNuevoAlumno(AlumnosDAO modelo) {
+		try {
+			Alumno alumno = solicitarDatosAlumno();
+			if (alumno == null) {
+				System.out.println("❌ Error: El objeto Alumno es null.");
+				return;
+			}
+			int nia = modelo.crearAlumno(alumno);
+			System.out.println("✅ Alumno insertado correctamente con NIA " + nia + ".");
+		} catch (IllegalArgumentException e) {
+			System.out.println("❌ " + e.getMessage() + " Debes crearlo antes de asignarlo a un alumno.");
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ Ocurrió un error al insertar el alumno: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Pide al usuario los datos de un alumno. El grupo se indica por su nombre.
+	 *
+	 * @return El alumno, o null si la fecha no tiene un formato válido.
+	 */
+	private Alumno solicitarDatosAlumno() {
+		System.out.println("Introduce el nombre del alumno:");
+		String nombre = sc.nextLine().toUpperCase().trim();
+
+		System.out.println("Introduce los apellidos:");
+		String apellidos = sc.nextLine().toUpperCase().trim();
+
+		System.out.println("Introduce el género (M/F):");
+		String genero = sc.nextLine().toUpperCase().trim();
+		if (genero.isEmpty()) {
+			System.out.println("❌ El género no puede estar vacío.");
+			return null;
+		}
+
+		System.out.println("Introduce la fecha de nacimiento (dd-MM-yyyy):");
+		Date fechaNacimiento;
+		try {
+			fechaNacimiento = formatoFecha.parse(sc.nextLine().trim());
+		} catch (ParseException e) {
+			System.out.println("❌ Formato de fecha incorrecto.");
+			return null;
+		}
+
+		System.out.println("Introduce el ciclo:");
+		String ciclo = sc.nextLine().toUpperCase().trim();
+
+		System.out.println("Introduce el curso:");
+		String curso = sc.nextLine().toUpperCase().trim();
+
+		System.out.println("Introduce el nombre del grupo:");
+		String nombreGrupo = sc.nextLine().toUpperCase().trim();
+
+		return new Alumno(nombre, apellidos, genero.charAt(0), fechaNacimiento, ciclo, curso, new Grupo(nombreGrupo));
+	}
+
+	/**
+	 * Inserta un nuevo grupo solicitando los datos al usuario y almacenándolos en
+	 * la base de datos.
+	 *
+	 * @param modelo el DAO que permite interactuar con la base de datos.
+	 */
+
+	public void insertarNuevoGrupo(AlumnosDAO modelo) {
+		String nombreGrupo;
+
+		// Solicitar al usuario el nombre del nuevo grupo con validación
+		while (true) {
+			System.out.println("Introduce el nombre del nuevo grupo (una letra):");
+			nombreGrupo = sc.nextLine().toUpperCase().trim();
+
+			// Validamos que el nombre sea solo una letra
+			if (nombreGrupo.length() == 1 && nombreGrupo.matches("[A-Za-z]")) {
+				break; // Salimos del bucle si la validación es exitosa
+			} else {
+				System.out.println("El nombre del grupo debe ser una sola letra.");
+			}
+		}
+
+		try {
+			Grupo grupo = modelo.crearGrupo(nombreGrupo);
+			System.out.println("Grupo insertado correctamente con número " + grupo.getNumeroGrupo() + ".");
+		} catch (AccesoDatosException e) {
+			System.out.println("Error al insertar el grupo: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Muestra todos los alumnos en la BD, página a página: la siguiente página solo
+	 * se pide al modelo cuando el usuario quiere seguir viendo alumnos.
+	 * 
+	 * @param modelo                    el DAO que permite interactuar con la base
+	 *                                  de datos.
+	 * @param mostrarTodaLaInformación.
+	 */
+
+	public void mostrarTodosLosAlumnos(AlumnosDAO modelo, boolean mostrarTodaLaInformación) {
+		try {
+			PaginaAlumnos primera = modelo.obtenerPaginaAlumnos(PaginaAlumnos.INICIO, tamanoPagina);
+			if (primera.alumnos().isEmpty()) {
+				System.out.println("No hay alumnos registrados.");
+				System.out.println("❌ No se pudieron mostrar los alumnos.");
+				return;
+			}
+
+			if (mostrarTodaLaInformación) {
+				System.out.println("Lista completa de alumnos registrados:");
+			} else {
+				System.out.println("Lista de alumnos (NIA y Nombre):");
+			}
+
+			mostrarPaginas(despuesDeNia -> despuesDeNia == PaginaAlumnos.INICIO ? primera
+					: modelo.obtenerPaginaAlumnos(despuesDeNia, tamanoPagina), mostrarTodaLaInformación);
+
+			// En modo "NIA y nombre", permitir al usuario seleccionar un NIA
+			if (!mostrarTodaLaInformación) {
+				seleccionarAlumnoPorNIA(modelo);
+			}
+
+			System.out.println("✅ Los alumnos se han mostrado correctamente.");
+		} catch (Exception e) {
+			System.out.println("❌ Ocurrió un error al mostrar los alumnos: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Muestra los alumnos página a página. Antes de pedir la siguiente página al
+	 * modelo pregunta al usuario si quiere continuar.
+	 * 
+	 * @param cargarPagina    Función que devuelve la página que empieza tras el NIA
+	 *                        indicado.
+	 * @param mostrarCompleto true para mostrar todos los datos, false para NIA y
+	 *                        nombre.
+	 */
+	private void mostrarPaginas(IntFunction<PaginaAlumnos> cargarPagina, boolean mostrarCompleto) {
+		int despuesDeNia = PaginaAlumnos.INICIO;
+
+		while (true) {
+			PaginaAlumnos pagina = cargarPagina.apply(despuesDeNia);
+
+			for (Alumno alumno : pagina.alumnos()) {
+				if (mostrarCompleto) {
+					imprimirAlumno(alumno);
+				} else {
+					System.out.printf("NIA: %d, Nombre: %s%n", alumno.getNia(), alumno.getNombre());
+				}
+			}
+
+			if (!pagina.hayMas()) {
+				return;
+			}
+
+			System.out.println("-- Pulsa Enter para ver más alumnos o 'Q' para terminar el listado --");
+			if (sc.nextLine().trim().equalsIgnoreCase("Q")) {
+				return;
+			}
+			despuesDeNia = pagina.continuacion();
+		}
+	}
+
+	/**
+	 * Pide un NIA hasta que el usuario elige un alumno existente o 0 para salir.
+	 */
+	private void seleccionarAlumnoPorNIA(AlumnosDAO modelo) {
+		System.out.println("\nIntroduce el NIA del alumno que deseas visualizar (o 0 para salir):");
+		while (true) {
+			try {
+				int niaSeleccionado = Integer.parseInt(sc.nextLine().trim());
+
+				if (niaSeleccionado == 0) {
+					System.out.println("Saliendo sin seleccionar un alumno.");
+					return;
+				}
+
+				Optional<Alumno> alumno = modelo.buscarAlumno(niaSeleccionado);
+				if (alumno.isPresent()) {
+					imprimirAlumno(alumno.get());
+					return;
+				}
+				System.out.println("El NIA seleccionado no está en la lista. Inténtalo de nuevo.");
+			} catch (NumberFormatException e) {
+				System.out.println("El NIA debe ser un número válido. Inténtalo de nuevo:");
+			}
+		}
+	}
+
+	private void imprimirAlumno(Alumno alumno) {
+		System.out.printf("""
+				NIA: %d
+				Nombre: %s
+				Apellidos: %s
+				Género: %s
+				Fecha de nacimiento: %s
+				Ciclo: %s
+				Curso: %s
+				Grupo: %s
+				-------------------------
+				""", alumno.getNia(), alumno.getNombre(), alumno.getApellidos(), alumno.getGenero(),
+				alumno.getFechaNacimiento() == null ? "" : formatoFecha.format(alumno.getFechaNacimiento()),
+				alumno.getCiclo(), alumno.getCurso(),
+				alumno.getGrupo() == null ? "Sin grupo" : alumno.getGrupo().getNombreGrupo());
+	}
+
+	/**
+	 * Permite guardar todos los alumnos en un archivo de texto. Recupera la
+	 * información de los alumnos de la base de datos y la guarda en un archivo
+	 * llamado "alumnos.txt". La información incluye: nombre, apellidos, género,
+	 * fecha de nacimiento, ciclo, curso y nombre del grupo.
+	 */
+
+	public void guardarAlumnosEnFicheroTexto(AlumnosDAO modelo) {
+		File archivo = new File(fichero("alumnos.txt"));
+		if (!confirmarSobrescritura(archivo)) {
+			return;
+		}
+
+		try {
+			long escritos = modelo.exportarAlumnosTexto(archivo.toPath());
+			System.out.println("✅ " + escritos + " alumnos guardados correctamente en el archivo de texto.");
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ Ocurrió un error al guardar los alumnos en el archivo de texto: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Si el fichero existe, pregunta al usuario si quiere sobrescribirlo.
+	 *
+	 * @return true si se puede escribir el fichero.
+	 */
+	private boolean confirmarSobrescritura(File archivo) {
+		if (!archivo.exists()) {
+			return true;
+		}
+		System.out.print("⚠️ El archivo '" + archivo.getName() + "' ya existe. ¿Deseas sobrescribirlo? (S/N): ");
+		if (sc.nextLine().trim().equalsIgnoreCase("S")) {
+			return true;
+		}
+		System.out.println("❌ Operación cancelada. El archivo no se ha sobrescrito.");
+		return false;
+	}
+
+	/**
+	 * Permite leer alumnos desde el fichero fijo "alumnos.txt" y guardarlos en la
+	 * base de datos. El paralelismo se configura con las propiedades
+	 * 'importacion.*' (ver {@link OpcionesImportacion#desdePropiedades()}).
+	 */
+	public void leerAlumnosDesdeFichero(AlumnosDAO modelo) {
+		try {
+			ResultadoImportacion resultado = modelo.importarAlumnosTexto(Path.of(fichero("alumnos.txt")),
+					OpcionesImportacion.desdePropiedades());
+			if (resultado.getFilasInsertadas() > 0) {
+				System.out.println("✅ Alumnos leídos e insertados correctamente desde el fichero 'alumnos.txt': "
+						+ resultado);
+			} else {
+				System.out.println("❌ No se insertaron alumnos: " + resultado);
+			}
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ Error al leer los alumnos desde el fichero: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Permite eliminar un alumno de la base de datos a partir de su NIA (PK).
+	 */
+	public void eliminarAlumnoPorNIA(AlumnosDAO modelo) {
+		try {
+			// Solicitar NIA al usuario
+			System.out.println("Introduce el NIA del alumno a eliminar:");
+			int nia = sc.nextInt();
+			sc.nextLine(); // Limpiar buffer
+
+			// Llamar directamente al DAO sin abrir la conexión
+			if (modelo.eliminarAlumnoPorNIA(nia)) {
+				System.out.println("✅ Alumno eliminado correctamente.");
+			} else {
+				System.out.println("❌ No se encontró un alumno con el NIA proporcionado.");
+			}
+		} catch (Exception e) {
+			System.out.println("❌ Ocurrió un error al intentar eliminar el alumno: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Permite modificar el nombre de un alumno solicitando su NIA y el nuevo
+	 * nombre.
+	 */
+	public void modificarNombreAlumnoPorNia(AlumnosDAO modelo) {
+		try {
+			// Solicitar al usuario el NIA del alumno
+			System.out.print("Introduce el NIA del alumno cuyo nombre quieres modificar: ");
+			int nia = sc.nextInt();
+			sc.nextLine(); // Limpiar buffer
+
+			// Solicitar el nuevo nombre del alumno
+			System.out.print("Introduce el nuevo nombre para el alumno: ");
+			String nuevoNombre = sc.nextLine().trim().toUpperCase();
+
+			// Validar que el nombre no esté vacío
+			if (nuevoNombre.isEmpty()) {
+				System.out.println("❌ El nombre no puede estar vacío.");
+				return;
+			}
+
+			// Llamar directamente al modelo sin gestionar la conexión aquí
+			if (modelo.modificarNombreAlumnoPorNIA(nia, nuevoNombre)) {
+				System.out.println("✅ Nombre del alumno modificado correctamente.");
+			} else {
+				System.out.println("⚠ No se pudo modificar el nombre del alumno. Verifica el NIA.");
+			}
+		} catch (Exception e) {
+			System.out.println("❌ Ocurrió un error al modificar el nombre del alumno: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Elimina los alumnos del grupo indicado por el usuario. Muestra previamente
+	 * los grupos existentes y permite al usuario seleccionar uno. Luego elimina a
+	 * todos los alumnos que pertenezcan al grupo seleccionado.
+	 */
+	public void eliminarAlumnosPorGrupo(AlumnosDAO modelo) {
+		try {
+			// Mostramos los grupos disponibles
+			System.out.println("Grupos disponibles:");
+			if (!mostrarGrupos(modelo)) {
+				System.out.println("No hay grupos registrados.");
+				return;
+			}
+
+			// Pedimos al usuario el nombre del grupo a eliminar
+			System.out.println("Introduce el nombre del grupo cuyos alumnos deseas eliminar:");
+			String nombreGrupo = sc.nextLine().toUpperCase().trim();
+
+			// Confirmamos la operación con el usuario
+			System.out.println(
+					"¿Estás seguro de que deseas eliminar todos los alumnos del grupo " + nombreGrupo + "? (S/N)");
+			String confirmacion = sc.nextLine().toUpperCase().trim();
+
+			if (!confirmacion.equals("S")) {
+				System.out.println("Operación cancelada por el usuario.");
+				return;
+			}
+
+			// Llamamos al método del modelo para eliminar los alumnos
+			int eliminados = modelo.eliminarAlumnosDeGrupo(nombreGrupo);
+			if (eliminados > 0) {
+				System.out.println("✅ " + eliminados + " alumnos del grupo " + nombreGrupo + " eliminados correctamente.");
+			} else {
+				System.out.println("❌ No se pudieron eliminar los alumnos. Verifica el nombre del grupo.");
+			}
+		} catch (Exception e) {
+			System.out.println("❌ Ocurrió un error al eliminar alumnos por grupo: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Elimina los alumnos con los apellidos que indique el usuario, tras mostrarle
+	 * cuántos se van a eliminar y pedirle confirmación.
+	 */
+	public void eliminarAlumnosPorApellidos(AlumnosDAO modelo) {
+		try {
+			System.out.println("Introduce los apellidos de los alumnos a eliminar:");
+			String apellidos = sc.nextLine().trim();
+			if (apellidos.isEmpty()) {
+				System.out.println("❌ Los apellidos no pueden estar vacíos.");
+				return;
+			}
+
+			// Simulación: solo cuenta los alumnos afectados
+			int afectados = modelo.eliminarAlumnosPorApellidos(apellidos, true);
+			if (afectados == 0) {
+				System.out.println("❌ No hay alumnos con los apellidos '" + apellidos + "'.");
+				return;
+			}
+
+			System.out.println("Se eliminarán " + afectados + " alumnos con los apellidos '" + apellidos
+					+ "'. ¿Deseas continuar? (S/N)");
+			String confirmacion = sc.nextLine().toUpperCase().trim();
+			if (!confirmacion.equals("S")) {
+				System.out.println("Operación cancelada por el usuario.");
+				return;
+			}
+
+			int eliminados = modelo.eliminarAlumnosPorApellidos(apellidos, false);
+			System.out.println("✅ " + eliminados + " alumnos eliminados correctamente.");
+		} catch (Exception e) {
+			System.out.println("❌ Ocurrió un error al eliminar alumnos por apellidos: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Método que se encarga de guardar los grupos y sus alumnos en un archivo XML.
+	 */
+	public void guardarGruposEnXML(AlumnosDAO modelo) {
+		File archivo = new File(fichero("grupos.xml"));
+		if (!confirmarSobrescritura(archivo)) {
+			return;
+		}
+
+		try {
+			int grupos = modelo.exportarGruposXML(archivo.toPath());
+			System.out.println("✅ Archivo XML guardado correctamente (" + grupos + " grupos).");
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ Ocurrió un error al guardar los grupos en XML: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Lee el archivo XML de grupos (grupos.xml) y guarda los datos en la base de
+	 * datos MySQL. Si ocurre un error durante el proceso, se captura la excepción y
+	 * se muestra un mensaje de error.
+	 */
+	public void leerYGuardarGruposXML(AlumnosDAO modelo) {
+		// Ruta fija del archivo XML de grupos
+		String rutaArchivo = fichero("grupos.xml");
+
+		// Verificamos si el archivo existe
+		File archivoXML = new File(rutaArchivo);
+		if (!archivoXML.exists()) {
+			System.out.println("❌ El archivo XML no existe en la ruta especificada: " + rutaArchivo);
+			return; // Salimos del método si el archivo no existe
+		}
+
+		try {
+			ResultadoImportacion resultado = modelo.importarGruposXML(archivoXML.toPath());
+			System.out.println("✅ Archivo XML leído correctamente y datos guardados en la base de datos: " + resultado);
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ Error al procesar el archivo XML: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Muestra los alumnos del grupo seleccionado por el usuario, página a página.
+	 *
+	 * @param modelo Objeto que implementa la interfaz AlumnosDAO para realizar
+	 *               operaciones con la base de datos.
+	 */
+	public void mostrarAlumnosPorGrupo(AlumnosDAO modelo) {
+		// Mostrar todos los grupos
+		if (!mostrarGrupos(modelo)) {
+			System.out.println("No hay grupos disponibles para mostrar.");
+			return;
+		}
+
+		System.out.println("Introduce el nombre del grupo del que quieres ver los alumnos:");
+		String nombreGrupo = sc.nextLine().trim().toUpperCase();
+
+		PaginaAlumnos primera = modelo.obtenerPaginaAlumnosPorGrupo(nombreGrupo, PaginaAlumnos.INICIO, tamanoPagina);
+		if (primera == null) {
+			System.out.println("El grupo especificado no existe. Inténtalo de nuevo.");
+			return;
+		}
+		if (primera.alumnos().isEmpty()) {
+			System.out.println("No hay alumnos registrados en este grupo.");
+			return;
+		}
+
+		System.out.println("Alumnos del grupo '" + nombreGrupo + "':");
+		mostrarPaginas(despuesDeNia -> despuesDeNia == PaginaAlumnos.INICIO ? primera
+				: modelo.obtenerPaginaAlumnosPorGrupo(nombreGrupo, despuesDeNia, tamanoPagina), true);
+	}
+
+	/**
+	 * Cambia de grupo al alumno seleccionado por el usuario.
+	 * 
+	 * @param modelo Objeto DAO para la gestión de alumnos y grupos.
+	 */
+	public void cambiarGrupoAlumno(AlumnosDAO modelo) {
+		try {
+			PaginaAlumnos primera = modelo.obtenerPaginaAlumnos(PaginaAlumnos.INICIO, tamanoPagina);
+			if (primera.alumnos().isEmpty()) {
+				System.out.println("❌ No hay alumnos disponibles.");
+				return;
+			}
+
+			System.out.println("Lista de alumnos disponibles para cambiar de grupo:");
+			mostrarPaginas(despuesDeNia -> despuesDeNia == PaginaAlumnos.INICIO ? primera
+					: modelo.obtenerPaginaAlumnos(despuesDeNia, tamanoPagina), false);
+
+			System.out.println("\nIntroduce el NIA del alumno al que deseas cambiar de grupo:");
+			int nia;
+			try {
+				nia = Integer.parseInt(sc.nextLine().trim());
+			} catch (NumberFormatException e) {
+				System.out.println("❌ El NIA debe ser un número válido.");
+				return;
+			}
+
+			Optional<Alumno> alumno = modelo.buscarAlumno(nia);
+			if (alumno.isEmpty()) {
+				System.out.println("❌ No se encontró ningún alumno con el NIA proporcionado.");
+				return;
+			}
+
+			System.out.println("\nGrupos disponibles:");
+			if (!mostrarGrupos(modelo)) {
+				System.out.println("❌ No hay grupos disponibles.");
+				return;
+			}
+
+			System.out.println("\nIntroduce el nombre del grupo al que deseas cambiar al alumno:");
+			String nuevoGrupo = sc.nextLine().trim().toUpperCase();
+
+			Grupo grupoActual = alumno.get().getGrupo();
+			if (grupoActual != null && grupoActual.getNombreGrupo().equals(nuevoGrupo)) {
+				System.out.println("⚠️ El alumno ya pertenece al grupo '" + nuevoGrupo + "'.");
+				return;
+			}
+
+			if (modelo.moverAlumnoAGrupo(nia, nuevoGrupo)) {
+				System.out.println("✅ El grupo del alumno ha sido cambiado exitosamente.");
+			} else {
+				System.out.println("❌ El grupo especificado no existe.");
+			}
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ Se produjo un error al intentar cambiar al alumno de grupo: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Guarda un grupo específico con toda su información (incluyendo los alumnos)
+	 * en un archivo XML.
+	 *
+	 * @param modelo Objeto DAO para la gestión de alumnos y grupos.
+	 */
+
+	public void guardarGrupoEspecificoEnXML(AlumnosDAO modelo) {
+		try {
+			if (!mostrarGrupos(modelo)) {
+				System.out.println("❌ No hay grupos disponibles para seleccionar.");
+				return;
+			}
+
+			System.out.print("\nIntroduce el nombre del grupo que deseas guardar en fichero XML: ");
+			String nombreGrupo = sc.nextLine().trim().toUpperCase();
+
+			if (modelo.buscarGrupo(nombreGrupo).isEmpty()) {
+				System.out.println("❌ El grupo '" + nombreGrupo + "' no existe.");
+				return;
+			}
+
+			File archivo = new File("grupo_" + nombreGrupo + ".xml");
+			if (!confirmarSobrescritura(archivo)) {
+				return;
+			}
+
+			if (modelo.exportarGrupoXML(nombreGrupo, archivo.toPath())) {
+				System.out.println("✅ El grupo se ha guardado correctamente en '" + archivo.getName() + "'.");
+			} else {
+				System.out.println("❌ No se pudo guardar el grupo en XML.");
+			}
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ Se produjo un error al guardar el grupo en XML: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Guarda todos los alumnos en 'alumnos.json' (un array JSON) o, si el usuario
+	 * lo prefiere, en 'alumnos.ndjson' (un alumno por línea).
+	 *
+	 * @param modelo Objeto DAO para la gestión de alumnos y grupos.
+	 */
+	public void guardarAlumnosEnFicheroJSON(AlumnosDAO modelo) {
+		System.out.print("¿Guardar un alumno por línea (NDJSON)? (S/N): ");
+		FormatoJSON formato = sc.nextLine().trim().equalsIgnoreCase("S") ? FormatoJSON.NDJSON : FormatoJSON.ARRAY;
+
+		File archivo = new File(formato == FormatoJSON.NDJSON ? fichero("alumnos.ndjson") : fichero("alumnos.json"));
+		if (!confirmarSobrescritura(archivo)) {
+			return;
+		}
+
+		try {
+			long escritos = modelo.exportarAlumnosJSON(archivo.toPath(), formato);
+			System.out.println("✅ " + escritos + " alumnos guardados correctamente en '" + archivo.getName() + "'.");
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ Ocurrió un error al guardar los alumnos en JSON: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Importa los alumnos de 'alumnos.json' o, si no existe, de 'alumnos.ndjson'
+	 * (los ficheros que genera la opción 15).
+	 *
+	 * @param modelo Objeto DAO para la gestión de alumnos y grupos.
+	 */
+	public void leerAlumnosDeFicheroJSON(AlumnosDAO modelo) {
+		File archivo = new File(fichero("alumnos.json"));
+		if (!archivo.exists()) {
+			archivo = new File(fichero("alumnos.ndjson"));
+		}
+		if (!archivo.exists()) {
+			System.out.println("❌ No existe '" + fichero("alumnos.json") + "' ni '" + fichero("alumnos.ndjson") + "'.");
+			return;
+		}
+
+		try {
+			ResultadoImportacion resultado = modelo.importarAlumnosJSON(archivo.toPath());
+			if (resultado.getFilasInsertadas() > 0) {
+				System.out.println("✅ Alumnos leídos e insertados correctamente desde el fichero '" + archivo.getName()
+						+ "': " + resultado);
+			} else {
+				System.out.println("❌ No se insertaron alumnos: " + resultado);
+			}
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ Error al leer los alumnos desde el fichero JSON: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Guarda todos los grupos, con sus alumnos anidados, en 'grupos.json' (un
+	 * array JSON) o, si el usuario lo prefiere, en 'grupos.ndjson' (un grupo por
+	 * línea).
+	 *
+	 * @param modelo Objeto DAO para la gestión de alumnos y grupos.
+	 */
+	public void guardarGruposEnFicheroJSON(AlumnosDAO modelo) {
+		System.out.print("¿Guardar un grupo por línea (NDJSON)? (S/N): ");
+		FormatoJSON formato = sc.nextLine().trim().equalsIgnoreCase("S") ? FormatoJSON.NDJSON : FormatoJSON.ARRAY;
+
+		File archivo = new File(formato == FormatoJSON.NDJSON ? fichero("grupos.ndjson") : fichero("grupos.json"));
+		if (!confirmarSobrescritura(archivo)) {
+			return;
+		}
+
+		try {
+			int grupos = modelo.exportarGruposJSON(archivo.toPath(), formato);
+			System.out.println("✅ " + grupos + " grupos guardados correctamente en '" + archivo.getName() + "'.");
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ Ocurrió un error al guardar los grupos en JSON: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Importa los grupos y sus alumnos de 'grupos.json' o, si no existe, de
+	 * 'grupos.ndjson' (los ficheros que genera la opción 17). Los grupos que no
+	 * existen se crean.
+	 *
+	 * @param modelo Objeto DAO para la gestión de alumnos y grupos.
+	 */
+	public void leerGruposDeFicheroJSON(AlumnosDAO modelo) {
+		File archivo = new File(fichero("grupos.json"));
+		if (!archivo.exists()) {
+			archivo = new File(fichero("grupos.ndjson"));
+		}
+		if (!archivo.exists()) {
+			System.out.println("❌ No existe '" + fichero("grupos.json") + "' ni '" + fichero("grupos.ndjson") + "'.");
+			return;
+		}
+
+		try {
+			ResultadoImportacion resultado = modelo.importarGruposJSON(archivo.toPath());
+			System.out.println("✅ Datos cargados correctamente desde '" + archivo.getName() + "': " + resultado);
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ Error al procesar el fichero JSON: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Guarda todos los grupos y alumnos en 'alumnos.bin', el formato binario
+	 * compacto (más pequeño y rápido de leer que el texto, el XML o el JSON).
+	 *
+	 * @param modelo Objeto DAO para la gestión de alumnos y grupos.
+	 */
+	public void guardarInstantanea(AlumnosDAO modelo) {
+		File archivo = new File(fichero("alumnos.bin"));
+		if (!confirmarSobrescritura(archivo)) {
+			return;
+		}
+
+		try {
+			long escritos = modelo.exportarInstantanea(archivo.toPath());
+			System.out.println("✅ " + escritos + " alumnos guardados correctamente en '" + archivo.getName() + "'.");
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ Ocurrió un error al guardar la instantánea: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Importa los grupos y alumnos de 'alumnos.bin' (el fichero que genera la
+	 * opción 20). Los grupos que no existen se crean.
+	 *
+	 * @param modelo Objeto DAO para la gestión de alumnos y grupos.
+	 */
+	public void leerInstantanea(AlumnosDAO modelo) {
+		File archivo = new File(fichero("alumnos.bin"));
+		if (!archivo.exists()) {
+			System.out.println("❌ No existe '" + archivo.getName() + "'.");
+			return;
+		}
+
+		try {
+			ResultadoImportacion resultado = modelo.importarInstantanea(archivo.toPath());
+			System.out.println("✅ Datos cargados correctamente desde '" + archivo.getName() + "': " + resultado);
+		} catch (AccesoDatosException e) {
+			System.out.println("❌ Error al leer la instantánea: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Muestra los nombres de los grupos existentes.
+	 *
+	 * @return true si hay al menos un grupo.
+	 */
+	private boolean mostrarGrupos(AlumnosDAO modelo) {
+		List<Grupo> grupos = modelo.listarGrupos();
+		for (Grupo grupo : grupos) {
+			System.out.println("- " + grupo.getNombreGrupo());
+		}
+		return !grupos.isEmpty();
+	}
+
+	/**
+	 * @return El nombre de fichero por defecto con la extensión de la compresión
+	 *         de la propiedad 'ficheros.compresion' (alumnos.txt.gz, ...).
+	 */
+	private static String fichero(String nombre) {
+		return Compresion.predeterminada().nombreFichero(nombre);
+	}
+
 }
\ No newline at end of file
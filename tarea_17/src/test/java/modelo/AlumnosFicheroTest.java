@@ -0,0 +1,247 @@
+package modelo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Date;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Ficheros de registros y diario de AlumnosFichero: lo que se escribe se lee
+ * igual al volver a abrir el directorio, también tras un corte.
+ *
+ * @author Alberto Polo
+ */
+class AlumnosFicheroTest {
+
+	@TempDir
+	Path directorio;
+
+	private static Alumno alumno(String nombre, Grupo grupo) {
+		return new Alumno(nombre, "PEREZ", 'F', Date.valueOf("2000-01-02"), "DAM", "1", grupo);
+	}
+
+	/**
+	 * Copia los ficheros cuyo nombre empieza por el prefijo, como los dejaría un
+	 * corte en ese momento.
+	 */
+	private static void copiar(Path origen, Path destino, String prefijo) throws IOException {
+		Files.createDirectories(destino);
+		try (Stream<Path> ficheros = Files.list(origen)) {
+			for (Path fichero : ficheros.filter(f -> f.getFileName().toString().startsWith(prefijo)).toList()) {
+				Files.copy(fichero, destino.resolve(fichero.getFileName()));
+			}
+		}
+	}
+
+	private static List<Path> segmentosDiario(Path directorio) throws IOException {
+		try (Stream<Path> ficheros = Files.list(directorio)) {
+			return ficheros.filter(f -> f.getFileName().toString().startsWith("diario."))
+					.sorted(Comparator.comparingInt(f -> Integer.parseInt(f.getFileName().toString().substring(7))))
+					.toList();
+		}
+	}
+
+	/**
+	 * Registro del hueco indicado en 'alumnos.dat': el hueco i empieza en (i + 1)
+	 * * 512, tras la cabecera.
+	 */
+	private static ByteBuffer registroAlumno(Path datos, int hueco) throws IOException {
+		return ByteBuffer.wrap(Files.readAllBytes(datos.resolve("alumnos.dat")), (hueco + 1) * 512, 512).slice();
+	}
+
+	@Test
+	void altasYBajasSeConservanAlReabrir() {
+		Path datos = directorio.resolve("datos");
+		int ana;
+		int luis;
+		int sinCiclo;
+		try (AlumnosFichero fichero = new AlumnosFichero(datos)) {
+			Grupo dam = fichero.crearGrupo("DAM1");
+			Grupo daw = fichero.crearGrupo("DAW1");
+			ana = fichero.crearAlumno(new Alumno("ANA", "PÉREZ GÓMEZ", 'F', Date.valueOf("2000-01-02"), "DAM", "1", dam));
+			luis = fichero.crearAlumno(alumno("LUIS", daw));
+			sinCiclo = fichero.crearAlumno(new Alumno("EVA", "RUIZ", 'F', Date.valueOf("1999-12-31"), null, "2", daw));
+		}
+
+		try (AlumnosFichero fichero = new AlumnosFichero(datos)) {
+			assertEquals(3, fichero.contarAlumnos());
+			assertEquals(List.of("DAM1", "DAW1"), fichero.listarGrupos().stream().map(Grupo::getNombreGrupo).toList());
+
+			Alumno leido = fichero.buscarAlumno(ana).orElseThrow();
+			assertEquals("ANA", leido.getNombre());
+			assertEquals("PÉREZ GÓMEZ", leido.getApellidos());
+			assertEquals('F', leido.getGenero());
+			assertEquals(Date.valueOf("2000-01-02"), leido.getFechaNacimiento());
+			assertEquals("DAM", leido.getCiclo());
+			assertEquals("1", leido.getCurso());
+			assertEquals("DAM1", leido.getGrupo().getNombreGrupo());
+
+			// Los campos vacíos vuelven vacíos
+			Alumno incompleto = fichero.buscarAlumno(sinCiclo).orElseThrow();
+			assertNull(incompleto.getCiclo());
+			assertEquals(Date.valueOf("1999-12-31"), incompleto.getFechaNacimiento());
+
+			assertTrue(fichero.eliminarAlumnoPorNIA(luis));
+			assertTrue(fichero.moverAlumnoAGrupo(ana, "DAW1"));
+		}
+
+		try (AlumnosFichero fichero = new AlumnosFichero(datos)) {
+			assertEquals(2, fichero.contarAlumnos());
+			assertTrue(fichero.buscarAlumno(luis).isEmpty());
+			assertEquals("DAW1", fichero.buscarAlumno(ana).orElseThrow().getGrupo().getNombreGrupo());
+			assertEquals(2, fichero.eliminarAlumnosDeGrupo("DAW1"));
+		}
+
+		try (AlumnosFichero fichero = new AlumnosFichero(datos)) {
+			assertEquals(0, fichero.contarAlumnos());
+			assertEquals(2, fichero.listarGrupos().size());
+		}
+	}
+
+	@Test
+	void unCampoQueNoCabeEsUnErrorDeAccesoADatos() throws IOException {
+		Path datos = directorio.resolve("datos");
+		String nombreLargo = "N".repeat(51);
+		try (AlumnosFichero fichero = new AlumnosFichero(datos)) {
+			Grupo grupo = fichero.crearGrupo("DAM1");
+			assertThrows(AccesoDatosException.class, () -> fichero.crearAlumno(alumno(nombreLargo, grupo)));
+			assertEquals(0, fichero.contarAlumnos());
+
+			// En una importación solo se rechaza esa línea
+			Path origen = directorio.resolve("alumnos.txt");
+			Files.writeString(origen, "NIA,Nombre,Apellidos,Género,Fecha Nacimiento,Ciclo,Curso,Nombre del Grupo\n"
+					+ "0," + nombreLargo + ",PEREZ,F,02-01-2000,DAM,1,DAM1\n"
+					+ "0,ANA,PEREZ,F,02-01-2000,DAM,1,DAM1\n");
+			ResultadoImportacion resultado = fichero.importarAlumnosTexto(origen);
+			assertEquals(1, resultado.getFilasInsertadas());
+			assertEquals(1, resultado.getLineasRechazadas());
+			assertEquals(1, fichero.contarAlumnos());
+		}
+	}
+
+	@Test
+	void elHuecoLibreSeReutilizaSinReutilizarElNia() throws IOException {
+		Path datos = directorio.resolve("datos");
+		int segundo;
+		int tercero;
+		try (AlumnosFichero fichero = new AlumnosFichero(datos)) {
+			Grupo grupo = fichero.crearGrupo("DAM1");
+			fichero.crearAlumno(alumno("PRIMERO", grupo));
+			segundo = fichero.crearAlumno(alumno("SEGUNDO", grupo));
+			tercero = fichero.crearAlumno(alumno("TERCERO", grupo));
+			fichero.eliminarAlumnoPorNIA(segundo);
+			fichero.eliminarAlumnoPorNIA(tercero);
+		}
+		long tamano = Files.size(datos.resolve("alumnos.dat"));
+		// Libre: byte de ocupado a 0
+		assertEquals(0, registroAlumno(datos, 1).get(0));
+
+		int nuevo;
+		try (AlumnosFichero fichero = new AlumnosFichero(datos)) {
+			nuevo = fichero.crearAlumno(alumno("NUEVO", fichero.buscarGrupo("DAM1").orElseThrow()));
+		}
+
+		// El NIA sigue al mayor repartido aunque ese alumno se haya borrado
+		assertTrue(nuevo > tercero);
+
+		// Mismo fichero y el alumno nuevo en el primer hueco libre (el 1)
+		assertEquals(tamano, Files.size(datos.resolve("alumnos.dat")));
+		ByteBuffer registro = registroAlumno(datos, 1);
+		assertEquals(1, registro.get(0));
+		assertEquals('F', registro.getChar(2));
+		assertEquals(nuevo, registro.getInt(4));
+		assertEquals("NUEVO", AlmacenRegistros.leerTexto(registro, 16));
+		assertEquals(Date.valueOf("2000-01-02").toLocalDate().toEpochDay(), registro.getInt(12));
+	}
+
+	@Test
+	void cerrarCompactaYBorraElDiario() throws IOException {
+		Path datos = directorio.resolve("datos");
+		try (AlumnosFichero fichero = new AlumnosFichero(datos)) {
+			Grupo grupo = fichero.crearGrupo("DAM1");
+			for (int i = 0; i < 100; i++) {
+				fichero.crearAlumno(new Alumno("ALUMNO" + i, i % 2 == 0 ? "PAR" : "IMPAR", 'M',
+						Date.valueOf("2001-03-04"), "DAM", "1", grupo));
+			}
+			assertEquals(50, fichero.eliminarAlumnosPorApellidos("par", false));
+			assertTrue(segmentosDiario(datos).size() > 0);
+		}
+		assertTrue(segmentosDiario(datos).isEmpty());
+
+		try (AlumnosFichero fichero = new AlumnosFichero(datos)) {
+			assertEquals(50, fichero.contarAlumnos());
+			assertEquals(0, fichero.eliminarAlumnosPorApellidos("PAR", true));
+			assertEquals(50, fichero.eliminarAlumnosPorApellidos("IMPAR", true));
+
+			PaginaAlumnos pagina = fichero.obtenerPaginaAlumnos(PaginaAlumnos.INICIO, 100);
+			assertEquals(50, pagina.alumnos().size());
+			assertTrue(pagina.alumnos().stream().allMatch(alumno -> alumno.getApellidos().equals("IMPAR")));
+		}
+	}
+
+	@Test
+	void recuperaElDiarioHastaElUltimoRegistroCompleto() throws IOException {
+		Path datos = directorio.resolve("datos");
+		Path trasElCorte = directorio.resolve("corte");
+
+		try (AlumnosFichero fichero = new AlumnosFichero(datos)) {
+			fichero.crearGrupo("DAM1");
+		}
+		// Ficheros de datos de la última compactación: lo siguiente solo está en el
+		// diario
+		copiar(datos, trasElCorte, "");
+
+		int ana;
+		int luis;
+		int eva;
+		try (AlumnosFichero fichero = new AlumnosFichero(datos)) {
+			Grupo grupo = fichero.buscarGrupo("DAM1").orElseThrow();
+			ana = fichero.crearAlumno(alumno("ANA", grupo));
+			luis = fichero.crearAlumno(alumno("LUIS", grupo));
+			fichero.modificarNombreAlumnoPorNIA(ana, "ANA MARIA");
+			fichero.eliminarAlumnoPorNIA(luis);
+			eva = fichero.crearAlumno(alumno("EVA", grupo));
+
+			copiar(datos, trasElCorte, "diario.");
+		}
+
+		// El alta de EVA queda a medias
+		List<Path> segmentos = segmentosDiario(trasElCorte);
+		try (FileChannel canal = FileChannel.open(segmentos.get(segmentos.size() - 1), StandardOpenOption.WRITE)) {
+			canal.truncate(canal.size() - 3);
+		}
+
+		try (AlumnosFichero recuperado = new AlumnosFichero(trasElCorte)) {
+			assertEquals("ANA MARIA", recuperado.buscarAlumno(ana).orElseThrow().getNombre());
+			assertEquals("DAM1", recuperado.buscarAlumno(ana).orElseThrow().getGrupo().getNombreGrupo());
+			assertTrue(recuperado.buscarAlumno(luis).isEmpty());
+			assertTrue(recuperado.buscarAlumno(eva).isEmpty());
+			assertEquals(1, recuperado.contarAlumnos());
+
+			// Tras recuperar se sigue escribiendo con NIA nuevos
+			int nuevo = recuperado.crearAlumno(alumno("NUEVO", recuperado.buscarGrupo("DAM1").orElseThrow()));
+			assertTrue(nuevo > luis);
+		}
+
+		// La recuperación quedó en los ficheros de datos y el diario se borró
+		assertTrue(segmentosDiario(trasElCorte).isEmpty());
+		try (AlumnosFichero reabierto = new AlumnosFichero(trasElCorte)) {
+			assertEquals(2, reabierto.contarAlumnos());
+			assertEquals("ANA MARIA", reabierto.buscarAlumno(ana).orElseThrow().getNombre());
+		}
+	}
+}
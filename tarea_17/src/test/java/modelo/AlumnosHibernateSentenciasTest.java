@@ -0,0 +1,120 @@
+package modelo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Sentencias SQL de los listados y exportaciones de AlumnosHibernate: cada uno
+ * debe resolverse con las consultas previstas, sin una más por cada alumno o
+ * grupo (N+1).
+ *
+ * @author Alberto Polo
+ */
+class AlumnosHibernateSentenciasTest {
+
+	private static final int ALUMNOS_POR_GRUPO = 12;
+
+	private static AlumnosHibernate dao;
+
+	private static int primerNia;
+
+	@BeforeAll
+	static void crearDatos() {
+		dao = new AlumnosHibernate();
+		for (String nombreGrupo : List.of("SENT_A", "SENT_B", "SENT_C")) {
+			Grupo grupo = dao.crearGrupo(nombreGrupo);
+			for (int i = 0; i < ALUMNOS_POR_GRUPO; i++) {
+				dao.crearAlumno(new Alumno("Nombre" + i, "Apellido" + i, 'F', new Date(), "DAM", "1", grupo));
+			}
+		}
+		primerNia = dao.obtenerPaginaAlumnos(PaginaAlumnos.INICIO, 1).alumnos().get(0).getNia();
+
+		// Los grupos llegan a la página desde la base de datos, no desde la caché
+		dao.invalidarCacheGrupos();
+	}
+
+	/**
+	 * Ejecuta la operación y devuelve las sentencias SQL que ha preparado.
+	 */
+	private static long sentencias(Supplier<?> operacion) {
+		long antes = ContadorSentencias.sentenciasDelHilo();
+		operacion.get();
+		return ContadorSentencias.sentenciasDelHilo() - antes;
+	}
+
+	@Test
+	void paginaDeAlumnosEnUnaConsulta() {
+		long ejecutadas = sentencias(() -> {
+			PaginaAlumnos pagina = dao.obtenerPaginaAlumnos(PaginaAlumnos.INICIO, 3 * ALUMNOS_POR_GRUPO);
+			// Recorrer los grupos no debe lanzar más consultas
+			pagina.alumnos().forEach(alumno -> alumno.getGrupo().getNombreGrupo());
+			return pagina;
+		});
+		assertEquals(1, ejecutadas);
+	}
+
+	@Test
+	void paginaDeAlumnosDelGrupoConElGrupoYSusAlumnos() {
+		long ejecutadas = sentencias(() -> {
+			PaginaAlumnos pagina = dao.obtenerPaginaAlumnosPorGrupo("SENT_B", PaginaAlumnos.INICIO, ALUMNOS_POR_GRUPO);
+			assertEquals(ALUMNOS_POR_GRUPO, pagina.alumnos().size());
+			pagina.alumnos().forEach(alumno -> alumno.getGrupo().getNombreGrupo());
+			return pagina;
+		});
+		// El grupo puede salir de la caché de segundo nivel
+		assertTrue(ejecutadas >= 1 && ejecutadas <= 2, ejecutadas + " sentencias");
+	}
+
+	@Test
+	void alumnoPorNiaConSuGrupo() {
+		long ejecutadas = sentencias(() -> dao.buscarAlumno(primerNia).orElseThrow().getGrupo().getNombreGrupo());
+		assertEquals(1, ejecutadas);
+	}
+
+	@Test
+	void listadoDeNiaYNombre() {
+		assertEquals(1, sentencias(dao::listarNiasYNombresAlumnos));
+	}
+
+	@Test
+	void recorridoPorPaginasConUnaConsultaPorPagina() {
+		long ejecutadas = sentencias(() -> {
+			int paginas = 0;
+			PaginaAlumnos pagina = dao.obtenerPaginaAlumnos(PaginaAlumnos.INICIO, 10);
+			while (true) {
+				paginas++;
+				pagina.alumnos().forEach(alumno -> alumno.getGrupo().getNombreGrupo());
+				if (!pagina.hayMas()) {
+					return paginas;
+				}
+				pagina = dao.obtenerPaginaAlumnos(pagina.continuacion(), 10);
+			}
+		});
+		// 36 alumnos en páginas de 10 son 4 páginas
+		assertEquals((3 * ALUMNOS_POR_GRUPO + 9) / 10, ejecutadas);
+	}
+
+	@Test
+	void listadoCompletoPorConsola() {
+		assertEquals(1, sentencias(() -> dao.mostrarTodosLosAlumnos(true)));
+	}
+
+	@Test
+	void exportacionATextoEnUnaConsulta(@TempDir Path directorio) throws Exception {
+		Path destino = directorio.resolve("alumnos.txt");
+		long ejecutadas = sentencias(() -> dao.exportarAlumnosTexto(destino));
+		assertEquals(1, ejecutadas);
+		// Cabecera y una línea por alumno
+		assertEquals(3 * ALUMNOS_POR_GRUPO + 1, Files.readAllLines(destino).size());
+	}
+}
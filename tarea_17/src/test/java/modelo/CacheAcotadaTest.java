@@ -0,0 +1,167 @@
+package modelo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * CacheAcotada: aciertos y fallos, expulsión, caducidad y cargas que se
+ * cruzan con una invalidación.
+ *
+ * @author Alberto Polo
+ */
+class CacheAcotadaTest {
+
+	/**
+	 * Cargador que devuelve "valor-clave" y cuenta las veces que se le llama.
+	 */
+	private static final class Cargador implements Function<Integer, String> {
+
+		private final AtomicInteger llamadas = new AtomicInteger();
+
+		@Override
+		public String apply(Integer clave) {
+			llamadas.incrementAndGet();
+			return "valor-" + clave;
+		}
+	}
+
+	@Test
+	void cargaUnaVezYDespuesAcierta() {
+		CacheAcotada<Integer, String> cache = new CacheAcotada<>(10, 0, TimeUnit.SECONDS);
+		Cargador cargador = new Cargador();
+
+		assertEquals("valor-1", cache.obtener(1, cargador));
+		assertEquals("valor-1", cache.obtener(1, cargador));
+		assertEquals("valor-1", cache.obtener(1, cargador));
+		assertEquals("valor-2", cache.obtener(2, cargador));
+
+		assertEquals(2, cargador.llamadas.get());
+		CacheAcotada.Estadisticas estadisticas = cache.estadisticas();
+		assertEquals(2, estadisticas.aciertos());
+		assertEquals(2, estadisticas.fallos());
+		assertEquals(2, estadisticas.tamano());
+		assertEquals(0.5, estadisticas.ratioAciertos());
+	}
+
+	@Test
+	void losNullNoSeGuardan() {
+		CacheAcotada<Integer, String> cache = new CacheAcotada<>(10, 0, TimeUnit.SECONDS);
+		AtomicInteger llamadas = new AtomicInteger();
+
+		assertNull(cache.obtener(1, clave -> {
+			llamadas.incrementAndGet();
+			return null;
+		}));
+		assertEquals("valor-1", cache.obtener(1, new Cargador()));
+		assertEquals(1, llamadas.get());
+		assertEquals(2, cache.estadisticas().fallos());
+	}
+
+	@Test
+	void expulsaLaMenosUsadaRecientemente() {
+		CacheAcotada<Integer, String> cache = new CacheAcotada<>(2, 0, TimeUnit.SECONDS);
+		Cargador cargador = new Cargador();
+
+		cache.obtener(1, cargador);
+		cache.obtener(2, cargador);
+		cache.obtener(1, cargador); // 2 pasa a ser la menos usada
+		cache.obtener(3, cargador);
+
+		assertEquals(2, cache.tamano());
+		assertEquals(1, cache.estadisticas().expulsiones());
+		assertEquals(3, cargador.llamadas.get());
+
+		cache.obtener(1, cargador);
+		assertEquals(3, cargador.llamadas.get());
+		cache.obtener(2, cargador);
+		assertEquals(4, cargador.llamadas.get());
+	}
+
+	@Test
+	void lasEntradasCaducadasSeVuelvenACargar() throws InterruptedException {
+		CacheAcotada<Integer, String> cache = new CacheAcotada<>(10, 50, TimeUnit.MILLISECONDS);
+		Cargador cargador = new Cargador();
+
+		cache.obtener(1, cargador);
+		cache.obtener(1, cargador);
+		assertEquals(1, cargador.llamadas.get());
+
+		Thread.sleep(100);
+
+		assertEquals("valor-1", cache.obtener(1, cargador));
+		assertEquals(2, cargador.llamadas.get());
+		assertEquals(1, cache.estadisticas().aciertos());
+		assertEquals(2, cache.estadisticas().fallos());
+	}
+
+	@Test
+	void invalidarBorraLaEntrada() {
+		CacheAcotada<Integer, String> cache = new CacheAcotada<>(10, 0, TimeUnit.SECONDS);
+		Cargador cargador = new Cargador();
+
+		cache.obtener(1, cargador);
+		cache.obtener(2, cargador);
+		cache.invalidar(1);
+		assertEquals(1, cache.tamano());
+
+		cache.obtener(1, cargador);
+		assertEquals(3, cargador.llamadas.get());
+
+		cache.invalidarTodo();
+		assertEquals(0, cache.tamano());
+	}
+
+	/**
+	 * Una carga que empezó antes de una invalidación devuelve lo que leyó, pero no
+	 * lo guarda: el valor puede ser anterior al cambio que motivó la invalidación.
+	 */
+	@Test
+	void unaCargaCruzadaConUnaInvalidacionNoSeGuarda() throws Exception {
+		CacheAcotada<Integer, String> cache = new CacheAcotada<>(10, 0, TimeUnit.SECONDS);
+		CountDownLatch cargando = new CountDownLatch(1);
+		CountDownLatch invalidada = new CountDownLatch(1);
+
+		CompletableFuture<String> carga = CompletableFuture.supplyAsync(() -> cache.obtener(1, clave -> {
+			cargando.countDown();
+			try {
+				assertTrue(invalidada.await(10, TimeUnit.SECONDS));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return "antiguo";
+		}));
+
+		assertTrue(cargando.await(10, TimeUnit.SECONDS));
+		cache.invalidar(1);
+		invalidada.countDown();
+
+		assertEquals("antiguo", carga.get(10, TimeUnit.SECONDS));
+		assertEquals(0, cache.tamano());
+		assertEquals("valor-1", cache.obtener(1, new Cargador()));
+	}
+
+	@Test
+	void unaCargaCruzadaConInvalidarTodoNoSeGuarda() {
+		CacheAcotada<Integer, String> cache = new CacheAcotada<>(10, 0, TimeUnit.SECONDS);
+
+		// La invalidación llega mientras el cargador consulta el origen
+		assertEquals("antiguo", cache.obtener(1, clave -> {
+			cache.invalidarTodo();
+			return "antiguo";
+		}));
+		assertEquals(0, cache.tamano());
+
+		// Sin invalidación de por medio, la carga sí se guarda
+		cache.obtener(1, new Cargador());
+		assertEquals(1, cache.tamano());
+	}
+}
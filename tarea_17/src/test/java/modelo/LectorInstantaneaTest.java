@@ -0,0 +1,105 @@
+package modelo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Instantáneas binarias: lo que escribe EscritorInstantanea se lee igual, y una
+ * cabecera de bloque dañada se rechaza con IOException.
+ *
+ * @author Alberto Polo
+ */
+class LectorInstantaneaTest {
+
+	@TempDir
+	Path directorio;
+
+	/**
+	 * Manejador que apunta lo que recibe: "G:nombre" por grupo y "A:nia:nombre"
+	 * por alumno.
+	 */
+	private static final class Recibido implements LectorGruposXML.Manejador<RuntimeException> {
+
+		private final List<String> recibido = new ArrayList<>();
+
+		@Override
+		public void grupo(String nombreGrupo) {
+			recibido.add("G:" + nombreGrupo);
+		}
+
+		@Override
+		public void alumno(Alumno alumno) {
+			recibido.add("A:" + alumno.getNombre());
+		}
+
+		@Override
+		public void alumno(Alumno alumno, int nia) {
+			recibido.add("A:" + nia + ":" + alumno.getNombre());
+		}
+	}
+
+	private static void escribir(Path destino) throws IOException {
+		try (EscritorInstantanea instantanea = EscritorInstantanea.abrir(destino)) {
+			instantanea.grupos(List.of("DAM1", "DAW1"));
+			instantanea.alumno(7, "ANA", "PÉREZ", 'F', LocalDate.of(2000, 1, 2), "DAM", "1", "DAM1");
+			instantanea.alumno(9, "LUIS", "GÓMEZ", 'M', LocalDate.of(2001, 3, 4), "DAW", "1", "DAW1");
+		}
+	}
+
+	/**
+	 * Cambia la longitud del primer bloque (tras la cabecera del fichero y el byte
+	 * de tipo) por una enorme.
+	 */
+	private static byte[] conLongitudDanada(Path fichero) throws IOException {
+		byte[] bytes = Files.readAllBytes(fichero);
+		ByteBuffer.wrap(bytes).putInt(EscritorInstantanea.TAMANO_CABECERA + 1, Integer.MAX_VALUE - 8);
+		return bytes;
+	}
+
+	@Test
+	void leeLoQueSeEscribe() throws IOException {
+		Path fichero = directorio.resolve("alumnos.bin");
+		escribir(fichero);
+
+		Recibido manejador = new Recibido();
+		assertEquals(0, LectorInstantanea.leer(fichero, manejador));
+		assertEquals(List.of("G:DAM1", "G:DAW1", "G:DAM1", "A:7:ANA", "G:DAW1", "A:9:LUIS"), manejador.recibido);
+	}
+
+	@Test
+	void unaLongitudDanadaEsUnBloqueDanado() throws IOException {
+		Path fichero = directorio.resolve("alumnos.bin");
+		escribir(fichero);
+		Files.write(fichero, conLongitudDanada(fichero));
+
+		IOException error = assertThrows(IOException.class, () -> LectorInstantanea.leer(fichero, new Recibido()));
+		assertTrue(error.getMessage().contains("dañado"), error.getMessage());
+	}
+
+	@Test
+	void unaLongitudDanadaEnUnFicheroComprimidoNoReservaElBloqueEntero() throws IOException {
+		Path original = directorio.resolve("alumnos.bin");
+		escribir(original);
+		Path comprimido = directorio.resolve("alumnos.bin.gz");
+		try (OutputStream salida = new GZIPOutputStream(Files.newOutputStream(comprimido))) {
+			salida.write(conLongitudDanada(original));
+		}
+
+		// Se queda sin datos mucho antes de llegar a la longitud anunciada
+		assertThrows(IOException.class, () -> LectorInstantanea.leer(comprimido, new Recibido()));
+	}
+}
@@ -0,0 +1,139 @@
+package modelo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import pool.PoolConexiones;
+
+/**
+ * Versiones de cambio y marca segura de las exportaciones incrementales de
+ * AlumnosBD: una versión abierta, sea de este proceso o de otro, retiene la
+ * marca hasta que se cierra o caduca.
+ *
+ * @author Alberto Polo
+ */
+class SeguimientoCambiosTest {
+
+	private static AlumnosBD dao;
+
+	private static Grupo grupo;
+
+	@TempDir
+	Path directorio;
+
+	@BeforeAll
+	static void crearDatos() {
+		dao = new AlumnosBD();
+		grupo = dao.crearGrupo("CAMBIOS");
+	}
+
+	private static Alumno alumno(String nombre) {
+		return new Alumno(nombre, "CAMBIOS", 'M', Date.valueOf("2001-05-06"), "DAM", "1", grupo);
+	}
+
+	private static long marcaSegura() throws SQLException {
+		try (Connection conexion = PoolConexiones.getConnection()) {
+			return SeguimientoCambios.marcaSegura(conexion);
+		}
+	}
+
+	/**
+	 * Versión abierta como la dejaría otro proceso: solo la fila de 'cambios', sin
+	 * nada en memoria.
+	 */
+	private static long abrirEnOtroProceso(Timestamp fecha) throws SQLException {
+		try (Connection conexion = PoolConexiones.getConnection();
+				PreparedStatement sentencia = conexion.prepareStatement(
+						"INSERT INTO cambios (fecha, abierta) VALUES (?, TRUE)", Statement.RETURN_GENERATED_KEYS)) {
+			sentencia.setTimestamp(1, fecha);
+			sentencia.executeUpdate();
+			try (ResultSet clavesGeneradas = sentencia.getGeneratedKeys()) {
+				clavesGeneradas.next();
+				return clavesGeneradas.getLong(1);
+			}
+		}
+	}
+
+	private static void cerrarEnOtroProceso(long version) throws SQLException {
+		try (Connection conexion = PoolConexiones.getConnection();
+				PreparedStatement sentencia = conexion
+						.prepareStatement("UPDATE cambios SET abierta = FALSE WHERE version = ?")) {
+			sentencia.setLong(1, version);
+			sentencia.executeUpdate();
+		}
+	}
+
+	@Test
+	void lasVersionesSeRepartenEnOrdenYRetienenLaMarca() throws SQLException {
+		long primera;
+		try (SeguimientoCambios.Cambio cambio = SeguimientoCambios.abrir()) {
+			primera = cambio.version();
+			try (SeguimientoCambios.Cambio siguiente = SeguimientoCambios.abrir()) {
+				assertTrue(siguiente.version() > primera);
+				assertEquals(primera - 1, marcaSegura());
+			}
+			// La siguiente ha terminado, pero la primera sigue en curso
+			assertEquals(primera - 1, marcaSegura());
+		}
+		assertTrue(marcaSegura() > primera);
+	}
+
+	@Test
+	void unaVersionAbiertaEnOtroProcesoRetieneLaMarca() throws SQLException {
+		long version = abrirEnOtroProceso(new Timestamp(System.currentTimeMillis()));
+		try {
+			dao.crearAlumno(alumno("RETENIDO"));
+			assertEquals(version - 1, marcaSegura());
+		} finally {
+			cerrarEnOtroProceso(version);
+		}
+		assertTrue(marcaSegura() > version);
+	}
+
+	@Test
+	void unaVersionAbandonadaCaduca() throws SQLException {
+		long caducada = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(61);
+		long version = abrirEnOtroProceso(new Timestamp(caducada));
+		try {
+			dao.crearAlumno(alumno("TRAS_ABANDONO"));
+			assertTrue(marcaSegura() > version);
+		} finally {
+			cerrarEnOtroProceso(version);
+		}
+	}
+
+	@Test
+	void laExportacionIncrementalEsperaALasOperacionesEnCurso() throws Exception {
+		String marca = "PRUEBA_EN_CURSO";
+		dao.exportarCambiosTexto(directorio.resolve("inicial.txt"), marca);
+
+		long enCurso = abrirEnOtroProceso(new Timestamp(System.currentTimeMillis()));
+		int nia;
+		try {
+			// Confirma con una versión mayor que la que sigue en curso
+			nia = dao.crearAlumno(alumno("POSTERIOR"));
+			assertEquals(0, dao.exportarCambiosTexto(directorio.resolve("durante.txt"), marca));
+		} finally {
+			cerrarEnOtroProceso(enCurso);
+		}
+
+		Path despues = directorio.resolve("despues.txt");
+		assertEquals(1, dao.exportarCambiosTexto(despues, marca));
+		assertTrue(Files.readAllLines(despues).get(1).startsWith("A," + nia + ",POSTERIOR,"));
+	}
+}